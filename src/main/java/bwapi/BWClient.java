@@ -7,11 +7,21 @@ import java.util.Objects;
  */
 public class BWClient {
     private final BWEventListener eventListener;
+    private final Client.Connector connector;
     private EventHandler handler;
+    private FrameRecorder recorder;
 
     public BWClient(final BWEventListener eventListener) {
+        this(eventListener, new Client.WindowsConnector());
+    }
+
+    /**
+     * For tests, to connect to a server of the same process
+     */
+    BWClient(final BWEventListener eventListener, final Client.Connector connector) {
         Objects.requireNonNull(eventListener);
         this.eventListener = eventListener;
+        this.connector = connector;
     }
 
     /**
@@ -21,6 +31,16 @@ public class BWClient {
         return handler == null ? null : handler.getGame();
     }
 
+    /**
+     * Records the frames of the next games, to analyze them later with {@link ReplayRunner}.
+     * The recorder is not closed by the client.
+     *
+     * @param recorder The recorder, or null to stop recording.
+     */
+    public void setFrameRecorder(final FrameRecorder recorder) {
+        this.recorder = recorder;
+    }
+
     public void startGame() {
         startGame(false);
     }
@@ -31,8 +51,9 @@ public class BWClient {
      * @param autoContinue automatically continue playing the next game(s). false by default
      */
     public void startGame(boolean autoContinue) {
-        Client client = new Client();
+        Client client = new Client(connector);
         client.reconnect();
+        client.setRecorder(recorder);
         handler = new EventHandler(eventListener, client);
 
         do {
@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * This enum represents a type of bullet.
  * <p>
@@ -56,7 +54,9 @@ public enum BulletType {
     static final BulletType[] idToEnum = new BulletType[210 + 1];
 
     static {
-        Arrays.stream(BulletType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final BulletType v : BulletType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
@@ -32,6 +32,8 @@ import com.sun.jna.Native;
 import com.sun.jna.platform.win32.Kernel32;
 import com.sun.jna.win32.W32APIOptions;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -47,6 +49,64 @@ class Client {
         void operation(ClientData.Event event);
     }
 
+    /**
+     * Opens the game table, the game data and the pipe of a server. The default connector uses the named file
+     * mappings and pipes of Windows, tests use their own to run a server in the same process.
+     */
+    interface Connector {
+        ByteBuffer mapGameTable() throws IOException;
+
+        ByteBuffer mapGameData(int serverProcID) throws IOException;
+
+        Pipe openPipe(int serverProcID) throws IOException;
+    }
+
+    /**
+     * Signals the end of a frame to the server with 1, and receives 2 once the next frame is ready.
+     */
+    interface Pipe extends Closeable {
+        byte readByte() throws IOException;
+
+        void writeByte(int value) throws IOException;
+    }
+
+    static final class WindowsConnector implements Connector {
+        @Override
+        public ByteBuffer mapGameTable() {
+            return Kernel32.INSTANCE.MapViewOfFile(
+                    MappingKernel.INSTANCE.OpenFileMapping(READ_WRITE, false, "Local\\bwapi_shared_memory_game_list"), READ_WRITE, 0, 0, GameTable.SIZE)
+                    .getByteBuffer(0, GameTable.SIZE);
+        }
+
+        @Override
+        public ByteBuffer mapGameData(final int serverProcID) {
+            return Kernel32.INSTANCE.MapViewOfFile(MappingKernel.INSTANCE
+                            .OpenFileMapping(READ_WRITE, false, "Local\\bwapi_shared_memory_" + serverProcID), READ_WRITE,
+                    0, 0, GameData.SIZE).getByteBuffer(0, GameData.SIZE);
+        }
+
+        @Override
+        public Pipe openPipe(final int serverProcID) throws IOException {
+            final RandomAccessFile file = new RandomAccessFile("\\\\.\\pipe\\bwapi_pipe_" + serverProcID, "rw");
+            return new Pipe() {
+                @Override
+                public byte readByte() throws IOException {
+                    return file.readByte();
+                }
+
+                @Override
+                public void writeByte(final int value) throws IOException {
+                    file.writeByte(value);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    file.close();
+                }
+            };
+        }
+    }
+
     private static final int READ_WRITE = 0x1 | 0x2 | 0x4;
 
     private static final int SUPPORTED_BWAPI_VERSION = 10003;
@@ -55,16 +115,25 @@ class Client {
     private ClientData clientData;
     private ClientData.GameData gameData;
     private boolean connected = false;
-    private RandomAccessFile pipeObjectHandle = null;
+    private final Connector connector;
+    private Pipe pipeObjectHandle = null;
     private ByteBuffer mapFileHandle = null;
     private ByteBuffer gameTableFileHandle = null;
+    private FrameRecorder recorder = null;
 
-    Client() {}
+    Client() {
+        this(new WindowsConnector());
+    }
+
+    Client(final Connector connector) {
+        this.connector = connector;
+    }
 
     /**
-     * For test purposes only
+     * For tests and recorded games, which are not connected to a server
      */
     Client(ByteBuffer buffer) {
+        connector = null;
         clientData = new ClientData(buffer);
         gameData = clientData.new GameData(0);
     }
@@ -118,9 +187,7 @@ class Client {
         int gameTableIndex = -1;
 
         try {
-            gameTableFileHandle = Kernel32.INSTANCE.MapViewOfFile(
-                    MappingKernel.INSTANCE.OpenFileMapping(READ_WRITE, false, "Local\\bwapi_shared_memory_game_list"), READ_WRITE, 0, 0, GameTable.SIZE)
-                    .getByteBuffer(0, GameTable.SIZE);
+            gameTableFileHandle = connector.mapGameTable();
             gameTableFileHandle.order(ByteOrder.LITTLE_ENDIAN);
         }
         catch (Exception e) {
@@ -158,25 +225,21 @@ class Client {
             return false;
         }
 
-        final String sharedMemoryName = "Local\\bwapi_shared_memory_" + serverProcID;
-        final String communicationPipe = "\\\\.\\pipe\\bwapi_pipe_" + serverProcID;
         try {
-            pipeObjectHandle  = new RandomAccessFile(communicationPipe, "rw");
+            pipeObjectHandle = connector.openPipe(serverProcID);
         }
         catch (Exception e) {
-            System.err.println("Unable to open communications pipe: " + communicationPipe);
+            System.err.println("Unable to open communications pipe of server " + serverProcID);
             gameTableFileHandle = null;
             return false;
         }
         System.out.println("Connected");
 
         try {
-            mapFileHandle = Kernel32.INSTANCE.MapViewOfFile(MappingKernel.INSTANCE
-                            .OpenFileMapping(READ_WRITE, false, sharedMemoryName), READ_WRITE,
-                    0, 0, GameData.SIZE).getByteBuffer(0, GameData.SIZE);
+            mapFileHandle = connector.mapGameData(serverProcID);
         }
         catch (Exception e) {
-            System.err.println("Unable to open shared memory mapping: " + sharedMemoryName);
+            System.err.println("Unable to open shared memory mapping of server " + serverProcID);
             pipeObjectHandle = null;
             gameTableFileHandle = null;
             return false;
@@ -235,11 +298,31 @@ class Client {
                 return;
             }
         }
+        if (recorder != null) {
+            try {
+                recorder.record(clientData.buffer);
+            }
+            catch (IOException e) {
+                System.err.println("Unable to record frame, recording stopped.");
+                recorder = null;
+            }
+        }
+        processEvents(handler);
+    }
+
+    void processEvents(final EventHandler handler) {
         for (int i = 0; i < gameData.getEventCount(); i++) {
             handler.operation(gameData.getEvents(i));
         }
     }
 
+    /**
+     * Records the game data of each frame received from the server, before the events are handled.
+     */
+    void setRecorder(final FrameRecorder recorder) {
+        this.recorder = recorder;
+    }
+
     String eventString(final int s) {
         return gameData.getEventStrings(s);
     }
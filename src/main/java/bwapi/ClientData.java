@@ -1,16 +1,57 @@
 package bwapi;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 final class ClientData {
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
     final WrappedBuffer buffer;
     ClientData(final ByteBuffer buffer) {
-        this.buffer = new WrappedBuffer(buffer);
+        this.buffer = WrappedBuffer.wrap(buffer);
+    }
+    static boolean getRecordBoolean(int[] record, int recordOffset, int byteOffset) {
+        return (record[recordOffset + (byteOffset >> 2)] & recordByteMask(byteOffset)) != 0;
+    }
+    static int recordByteMask(int byteOffset) {
+        return 0xff << (LITTLE_ENDIAN ? (byteOffset & 3) * 8 : (3 - (byteOffset & 3)) * 8);
+    }
+    static double getRecordDouble(int[] record, int recordOffset, int index) {
+        long low = record[recordOffset + index] & 0xffffffffL;
+        long high = record[recordOffset + index + 1] & 0xffffffffL;
+        return Double.longBitsToDouble(LITTLE_ENDIAN ? high << 32 | low : low << 32 | high);
+    }
+    static int encodeRecordDelta(int[] previous, int[] current, int recordOffset, int ints, int[] delta) {
+        int length = 0;
+        for (int i = 0; i < ints; i++) {
+            if (previous[recordOffset + i] != current[recordOffset + i]) {
+                delta[length++] = i;
+                delta[length++] = current[recordOffset + i];
+            }
+        }
+        return length;
+    }
+    static void applyRecordDelta(int[] record, int recordOffset, int[] delta, int deltaOffset, int length) {
+        for (int i = deltaOffset; i < deltaOffset + length; i += 2) {
+            record[recordOffset + delta[i]] = delta[i + 1];
+        }
     }
     class UnitCommand {
         static final int SIZE = 24;
+        static final int INTS = 6;
+        static final int TID_INDEX = 0;
+        static final int UNIT_INDEX_INDEX = 1;
+        static final int TARGET_INDEX_INDEX = 2;
+        static final int X_INDEX = 3;
+        static final int Y_INDEX = 4;
+        static final int EXTRA_INDEX = 5;
         private int myOffset;
         public UnitCommand(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         int getTid() {
             int offset = myOffset + 0;
             return buffer.getInt(offset);
@@ -327,28 +368,28 @@ final class ClientData {
         }
         String getMapFileName() {
             int offset = myOffset + 3446408;
-            return buffer.getString(offset, 261);
+            return buffer.getInternedString(offset, 261);
         }
         void setMapFileName(String value) {
             buffer.putString(myOffset + 3446408, 261, value);
         }
         String getMapPathName() {
             int offset = myOffset + 3446669;
-            return buffer.getString(offset, 261);
+            return buffer.getInternedString(offset, 261);
         }
         void setMapPathName(String value) {
             buffer.putString(myOffset + 3446669, 261, value);
         }
         String getMapName() {
             int offset = myOffset + 3446930;
-            return buffer.getString(offset, 33);
+            return buffer.getInternedString(offset, 33);
         }
         void setMapName(String value) {
             buffer.putString(myOffset + 3446930, 33, value);
         }
         String getMapHash() {
             int offset = myOffset + 3446963;
-            return buffer.getString(offset, 41);
+            return buffer.getInternedString(offset, 41);
         }
         void setMapHash(String value) {
             buffer.putString(myOffset + 3446963, 41, value);
@@ -378,6 +419,10 @@ final class ClientData {
             int offset = myOffset + 4823260 + 1 * 1 * j + 1 * 256 * i;
             return buffer.getByte(offset) != 0;
         }
+        long getIsVisibleBytes(int i, int j) {
+            int offset = myOffset + 4823260 + 1 * 1 * j + 1 * 256 * i;
+            return buffer.getLong(offset);
+        }
         void setIsVisible(int i, int j, boolean value) {
             buffer.putByte(myOffset + 4823260 + 1 * 1 * j + 1 * 256 * i, (byte) (value ? 1 : 0));
         }
@@ -385,6 +430,10 @@ final class ClientData {
             int offset = myOffset + 4888796 + 1 * 1 * j + 1 * 256 * i;
             return buffer.getByte(offset) != 0;
         }
+        long getIsExploredBytes(int i, int j) {
+            int offset = myOffset + 4888796 + 1 * 1 * j + 1 * 256 * i;
+            return buffer.getLong(offset);
+        }
         void setIsExplored(int i, int j, boolean value) {
             buffer.putByte(myOffset + 4888796 + 1 * 1 * j + 1 * 256 * i, (byte) (value ? 1 : 0));
         }
@@ -392,6 +441,10 @@ final class ClientData {
             int offset = myOffset + 4954332 + 1 * 1 * j + 1 * 256 * i;
             return buffer.getByte(offset) != 0;
         }
+        long getHasCreepBytes(int i, int j) {
+            int offset = myOffset + 4954332 + 1 * 1 * j + 1 * 256 * i;
+            return buffer.getLong(offset);
+        }
         void setHasCreep(int i, int j, boolean value) {
             buffer.putByte(myOffset + 4954332 + 1 * 1 * j + 1 * 256 * i, (byte) (value ? 1 : 0));
         }
@@ -399,6 +452,10 @@ final class ClientData {
             int offset = myOffset + 5019868 + 1 * 1 * j + 1 * 256 * i;
             return buffer.getByte(offset) != 0;
         }
+        long getIsOccupiedBytes(int i, int j) {
+            int offset = myOffset + 5019868 + 1 * 1 * j + 1 * 256 * i;
+            return buffer.getLong(offset);
+        }
         void setIsOccupied(int i, int j, boolean value) {
             buffer.putByte(myOffset + 5019868 + 1 * 1 * j + 1 * 256 * i, (byte) (value ? 1 : 0));
         }
@@ -542,7 +599,7 @@ final class ClientData {
         }
         String getEventStrings(int i) {
             int offset = myOffset + 10706628 + 1 * 256 * i;
-            return buffer.getString(offset, 256);
+            return buffer.getInternedString(offset, 256);
         }
         void setEventStrings(int i, String value) {
             buffer.putString(myOffset + 10706628 + 1 * 256 * i, 256, value);
@@ -561,6 +618,9 @@ final class ClientData {
         void setStrings(int i, String value) {
             buffer.putString(myOffset + 10962632 + 1 * 1024 * i, 1024, value);
         }
+        void setStringsBytes(int i, byte[] value, int valueOffset, int length) {
+            buffer.putBytes(myOffset + 10962632 + 1 * 1024 * i, value, valueOffset, length);
+        }
         int getShapeCount() {
             int offset = myOffset + 31442632;
             return buffer.getInt(offset);
@@ -572,6 +632,9 @@ final class ClientData {
             int offset = myOffset + 31442636 + 40 * 1 * i;
             return new Shape(offset);
         }
+        void setShapesBytes(int i, byte[] value, int valueOffset, int length) {
+            buffer.putBytes(myOffset + 31442636 + 40 * 1 * i, value, valueOffset, length);
+        }
         int getCommandCount() {
             int offset = myOffset + 32242636;
             return buffer.getInt(offset);
@@ -612,10 +675,27 @@ final class ClientData {
     }
     class Shape {
         static final int SIZE = 40;
+        static final int INTS = 10;
+        static final int TYPE_INDEX = 0;
+        static final int CTYPE_INDEX = 1;
+        static final int X1_INDEX = 2;
+        static final int Y1_INDEX = 3;
+        static final int X2_INDEX = 4;
+        static final int Y2_INDEX = 5;
+        static final int EXTRA1_INDEX = 6;
+        static final int EXTRA2_INDEX = 7;
+        static final int COLOR_INDEX = 8;
+        static final int IS_SOLID_BYTE = 36;
         private int myOffset;
         public Shape(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         ShapeType getType() {
             int offset = myOffset + 0;
             return ShapeType.idToEnum[buffer.getInt(offset)];
@@ -689,10 +769,20 @@ final class ClientData {
     }
     class Command {
         static final int SIZE = 12;
+        static final int INTS = 3;
+        static final int TYPE_INDEX = 0;
+        static final int VALUE1_INDEX = 1;
+        static final int VALUE2_INDEX = 2;
         private int myOffset;
         public Command(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         CommandType getType() {
             int offset = myOffset + 0;
             return CommandType.idToEnum[buffer.getInt(offset)];
@@ -717,10 +807,19 @@ final class ClientData {
     }
     class Position {
         static final int SIZE = 8;
+        static final int INTS = 2;
+        static final int X_INDEX = 0;
+        static final int Y_INDEX = 1;
         private int myOffset;
         public Position(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         int getX() {
             int offset = myOffset + 0;
             return buffer.getInt(offset);
@@ -738,10 +837,20 @@ final class ClientData {
     }
     class Event {
         static final int SIZE = 12;
+        static final int INTS = 3;
+        static final int TYPE_INDEX = 0;
+        static final int V1_INDEX = 1;
+        static final int V2_INDEX = 2;
         private int myOffset;
         public Event(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         EventType getType() {
             int offset = myOffset + 0;
             return EventType.idToEnum[buffer.getInt(offset)];
@@ -766,10 +875,30 @@ final class ClientData {
     }
     class RegionData {
         static final int SIZE = 1068;
+        static final int INTS = 267;
+        static final int ID_INDEX = 0;
+        static final int ISLAND_ID_INDEX = 1;
+        static final int CENTER_X_INDEX = 2;
+        static final int CENTER_Y_INDEX = 3;
+        static final int PRIORITY_INDEX = 4;
+        static final int LEFT_MOST_INDEX = 5;
+        static final int RIGHT_MOST_INDEX = 6;
+        static final int TOP_MOST_INDEX = 7;
+        static final int BOTTOM_MOST_INDEX = 8;
+        static final int NEIGHBOR_COUNT_INDEX = 9;
+        static final int NEIGHBORS_INDEX = 10;
+        static final int IS_ACCESSIBLE_BYTE = 1064;
+        static final int IS_HIGHER_GROUND_BYTE = 1065;
         private int myOffset;
         public RegionData(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         int getId() {
             int offset = myOffset + 0;
             return buffer.getInt(offset);
@@ -864,13 +993,20 @@ final class ClientData {
     }
     class ForceData {
         static final int SIZE = 32;
+        static final int INTS = 8;
         private int myOffset;
         public ForceData(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         String getName() {
             int offset = myOffset + 0;
-            return buffer.getString(offset, 32);
+            return buffer.getInternedString(offset, 32);
         }
         void setName(String value) {
             buffer.putString(myOffset + 0, 32, value);
@@ -878,13 +1014,53 @@ final class ClientData {
     }
     class PlayerData {
         static final int SIZE = 5788;
+        static final int INTS = 1447;
+        static final int RACE_INDEX = 7;
+        static final int TYPE_INDEX = 8;
+        static final int FORCE_INDEX = 9;
+        static final int IS_NEUTRAL_BYTE = 64;
+        static final int START_LOCATION_X_INDEX = 17;
+        static final int START_LOCATION_Y_INDEX = 18;
+        static final int IS_VICTORIOUS_BYTE = 76;
+        static final int IS_DEFEATED_BYTE = 77;
+        static final int LEFT_GAME_BYTE = 78;
+        static final int IS_PARTICIPATING_BYTE = 79;
+        static final int MINERALS_INDEX = 20;
+        static final int GAS_INDEX = 21;
+        static final int GATHERED_MINERALS_INDEX = 22;
+        static final int GATHERED_GAS_INDEX = 23;
+        static final int REPAIRED_MINERALS_INDEX = 24;
+        static final int REPAIRED_GAS_INDEX = 25;
+        static final int REFUNDED_MINERALS_INDEX = 26;
+        static final int REFUNDED_GAS_INDEX = 27;
+        static final int SUPPLY_TOTAL_INDEX = 28;
+        static final int SUPPLY_USED_INDEX = 31;
+        static final int ALL_UNIT_COUNT_INDEX = 34;
+        static final int VISIBLE_UNIT_COUNT_INDEX = 268;
+        static final int COMPLETED_UNIT_COUNT_INDEX = 502;
+        static final int DEAD_UNIT_COUNT_INDEX = 736;
+        static final int KILLED_UNIT_COUNT_INDEX = 970;
+        static final int UPGRADE_LEVEL_INDEX = 1204;
+        static final int COLOR_INDEX = 1307;
+        static final int TOTAL_UNIT_SCORE_INDEX = 1308;
+        static final int TOTAL_KILL_SCORE_INDEX = 1309;
+        static final int TOTAL_BUILDING_SCORE_INDEX = 1310;
+        static final int TOTAL_RAZING_SCORE_INDEX = 1311;
+        static final int CUSTOM_SCORE_INDEX = 1312;
+        static final int MAX_UPGRADE_LEVEL_INDEX = 1313;
         private int myOffset;
         public PlayerData(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         String getName() {
             int offset = myOffset + 0;
-            return buffer.getString(offset, 25);
+            return buffer.getInternedString(offset, 25);
         }
         void setName(String value) {
             buffer.putString(myOffset + 0, 25, value);
@@ -1172,10 +1348,31 @@ final class ClientData {
     }
     class BulletData {
         static final int SIZE = 80;
+        static final int INTS = 20;
+        static final int ID_INDEX = 0;
+        static final int PLAYER_INDEX = 1;
+        static final int TYPE_INDEX = 2;
+        static final int SOURCE_INDEX = 3;
+        static final int POSITION_X_INDEX = 4;
+        static final int POSITION_Y_INDEX = 5;
+        static final int ANGLE_INDEX = 6;
+        static final int VELOCITY_X_INDEX = 8;
+        static final int VELOCITY_Y_INDEX = 10;
+        static final int TARGET_INDEX = 12;
+        static final int TARGET_POSITION_X_INDEX = 13;
+        static final int TARGET_POSITION_Y_INDEX = 14;
+        static final int REMOVE_TIMER_INDEX = 15;
+        static final int EXISTS_BYTE = 64;
         private int myOffset;
         public BulletData(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         int getId() {
             int offset = myOffset + 0;
             return buffer.getInt(offset);
@@ -1284,10 +1481,19 @@ final class ClientData {
     }
     class unitFinder {
         static final int SIZE = 8;
+        static final int INTS = 2;
+        static final int UNIT_INDEX_INDEX = 0;
+        static final int SEARCH_VALUE_INDEX = 1;
         private int myOffset;
         public unitFinder(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         int getUnitIndex() {
             int offset = myOffset + 0;
             return buffer.getInt(offset);
@@ -1305,10 +1511,113 @@ final class ClientData {
     }
     class UnitData {
         static final int SIZE = 336;
+        static final int INTS = 84;
+        static final int CLEARANCE_LEVEL_INDEX = 0;
+        static final int ID_INDEX = 1;
+        static final int PLAYER_INDEX = 2;
+        static final int TYPE_INDEX = 3;
+        static final int POSITION_X_INDEX = 4;
+        static final int POSITION_Y_INDEX = 5;
+        static final int ANGLE_INDEX = 6;
+        static final int VELOCITY_X_INDEX = 8;
+        static final int VELOCITY_Y_INDEX = 10;
+        static final int HIT_POINTS_INDEX = 12;
+        static final int LAST_HIT_POINTS_INDEX = 13;
+        static final int SHIELDS_INDEX = 14;
+        static final int ENERGY_INDEX = 15;
+        static final int RESOURCES_INDEX = 16;
+        static final int RESOURCE_GROUP_INDEX = 17;
+        static final int KILL_COUNT_INDEX = 18;
+        static final int ACID_SPORE_COUNT_INDEX = 19;
+        static final int SCARAB_COUNT_INDEX = 20;
+        static final int INTERCEPTOR_COUNT_INDEX = 21;
+        static final int SPIDER_MINE_COUNT_INDEX = 22;
+        static final int GROUND_WEAPON_COOLDOWN_INDEX = 23;
+        static final int AIR_WEAPON_COOLDOWN_INDEX = 24;
+        static final int SPELL_COOLDOWN_INDEX = 25;
+        static final int DEFENSE_MATRIX_POINTS_INDEX = 26;
+        static final int DEFENSE_MATRIX_TIMER_INDEX = 27;
+        static final int ENSNARE_TIMER_INDEX = 28;
+        static final int IRRADIATE_TIMER_INDEX = 29;
+        static final int LOCKDOWN_TIMER_INDEX = 30;
+        static final int MAELSTROM_TIMER_INDEX = 31;
+        static final int ORDER_TIMER_INDEX = 32;
+        static final int PLAGUE_TIMER_INDEX = 33;
+        static final int REMOVE_TIMER_INDEX = 34;
+        static final int STASIS_TIMER_INDEX = 35;
+        static final int STIM_TIMER_INDEX = 36;
+        static final int BUILD_TYPE_INDEX = 37;
+        static final int TRAINING_QUEUE_COUNT_INDEX = 38;
+        static final int TRAINING_QUEUE_INDEX = 39;
+        static final int TECH_INDEX = 44;
+        static final int UPGRADE_INDEX = 45;
+        static final int REMAINING_BUILD_TIME_INDEX = 46;
+        static final int REMAINING_TRAIN_TIME_INDEX = 47;
+        static final int REMAINING_RESEARCH_TIME_INDEX = 48;
+        static final int REMAINING_UPGRADE_TIME_INDEX = 49;
+        static final int BUILD_UNIT_INDEX = 50;
+        static final int TARGET_INDEX = 51;
+        static final int TARGET_POSITION_X_INDEX = 52;
+        static final int TARGET_POSITION_Y_INDEX = 53;
+        static final int ORDER_INDEX = 54;
+        static final int ORDER_TARGET_INDEX = 55;
+        static final int ORDER_TARGET_POSITION_X_INDEX = 56;
+        static final int ORDER_TARGET_POSITION_Y_INDEX = 57;
+        static final int SECONDARY_ORDER_INDEX = 58;
+        static final int RALLY_POSITION_X_INDEX = 59;
+        static final int RALLY_POSITION_Y_INDEX = 60;
+        static final int RALLY_UNIT_INDEX = 61;
+        static final int ADDON_INDEX = 62;
+        static final int NYDUS_EXIT_INDEX = 63;
+        static final int POWER_UP_INDEX = 64;
+        static final int TRANSPORT_INDEX = 65;
+        static final int CARRIER_INDEX = 66;
+        static final int HATCHERY_INDEX = 67;
+        static final int EXISTS_BYTE = 272;
+        static final int HAS_NUKE_BYTE = 273;
+        static final int IS_ACCELERATING_BYTE = 274;
+        static final int IS_ATTACKING_BYTE = 275;
+        static final int IS_ATTACK_FRAME_BYTE = 276;
+        static final int IS_BEING_GATHERED_BYTE = 277;
+        static final int IS_BLIND_BYTE = 278;
+        static final int IS_BRAKING_BYTE = 279;
+        static final int IS_BURROWED_BYTE = 280;
+        static final int CARRY_RESOURCE_TYPE_INDEX = 71;
+        static final int IS_CLOAKED_BYTE = 288;
+        static final int IS_COMPLETED_BYTE = 289;
+        static final int IS_CONSTRUCTING_BYTE = 290;
+        static final int IS_DETECTED_BYTE = 291;
+        static final int IS_GATHERING_BYTE = 292;
+        static final int IS_HALLUCINATION_BYTE = 293;
+        static final int IS_IDLE_BYTE = 294;
+        static final int IS_INTERRUPTIBLE_BYTE = 295;
+        static final int IS_INVINCIBLE_BYTE = 296;
+        static final int IS_LIFTED_BYTE = 297;
+        static final int IS_MORPHING_BYTE = 298;
+        static final int IS_MOVING_BYTE = 299;
+        static final int IS_PARASITED_BYTE = 300;
+        static final int IS_SELECTED_BYTE = 301;
+        static final int IS_STARTING_ATTACK_BYTE = 302;
+        static final int IS_STUCK_BYTE = 303;
+        static final int IS_TRAINING_BYTE = 304;
+        static final int IS_UNDER_STORM_BYTE = 305;
+        static final int IS_UNDER_DARK_SWARM_BYTE = 306;
+        static final int IS_UNDER_DWEB_BYTE = 307;
+        static final int IS_POWERED_BYTE = 308;
+        static final int BUTTONSET_INDEX = 80;
+        static final int LAST_ATTACKER_PLAYER_INDEX = 81;
+        static final int RECENTLY_ATTACKED_BYTE = 328;
+        static final int REPLAY_ID_INDEX = 83;
         private int myOffset;
         public UnitData(int myOffset) {
           this.myOffset = myOffset;
         }
+        void readInts(int[] record, int recordOffset) {
+            buffer.getInts(myOffset, record, recordOffset, INTS);
+        }
+        void writeInts(int[] record, int recordOffset) {
+            buffer.putInts(myOffset, record, recordOffset, INTS);
+        }
         int getClearanceLevel() {
             int offset = myOffset + 0;
             return buffer.getInt(offset);
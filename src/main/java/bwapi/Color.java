@@ -1,6 +1,7 @@
 package bwapi;
 
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -96,16 +97,16 @@ public class Color {
             RGBRESERVE, RGBRESERVE, RGBRESERVE, RGBRESERVE, RGBRESERVE, RGBRESERVE, RGBRESERVE, new RGBQUAD(255, 255, 255)
     };
 
-    private static final byte[][][] closestColor = new byte[64][64][64];
+    /**
+     * Closest palette index for each 6-bit RGB cell, index == r << 12 | g << 6 | b.
+     * Cells are computed on first use, {@link #UNKNOWN} marks the ones not computed yet.
+     */
+    private static final byte[] closestColor = new byte[64 * 64 * 64];
+    // No palette index maps to it, getBestIdFor never returns 255.
+    private static final byte UNKNOWN = (byte) 255;
 
     static {
-        for (int r = 0; r < 64; ++r) {
-            for (int g = 0; g < 64; ++g) {
-                for (int b = 0; b < 64; ++b) {
-                    closestColor[r][g][b] = (byte) getBestIdFor(r << 2, g << 2, b << 2);
-                }
-            }
-        }
+        Arrays.fill(closestColor, UNKNOWN);
     }
 
     public final int id;
@@ -159,7 +160,20 @@ public class Color {
     }
 
     private static int getRGBIndex(final int red, final int green, final int blue) {
-        return closestColor[(byte) (red >> 2)][(byte) (green >> 2)][(byte) (blue >> 2)];
+        final int r = (byte) (red >> 2);
+        final int g = (byte) (green >> 2);
+        final int b = (byte) (blue >> 2);
+        if (r < 0 || g < 0 || b < 0 || r >= 64 || g >= 64 || b >= 64) {
+            throw new ArrayIndexOutOfBoundsException("RGB values out of range: " + red + ", " + green + ", " + blue);
+        }
+        final int cell = r << 12 | g << 6 | b;
+        byte id = closestColor[cell];
+        if (id == UNKNOWN) {
+            // Racing threads compute the same value
+            id = (byte) getBestIdFor(r << 2, g << 2, b << 2);
+            closestColor[cell] = id;
+        }
+        return id & 0xFF;
     }
 
     int red() {
@@ -0,0 +1,518 @@
+package bwapi;
+
+import java.util.Arrays;
+
+/**
+ * Fast approximate simulation of a fight between two armies, using the same damage model as
+ * {@link Game#getDamageFrom} and {@link Game#getWeaponMaxRange}.
+ * <p>
+ * Every frame, each unit attacks the closest enemy it can hit if it is in range and its weapon is ready,
+ * or else moves straight towards it. Like in the game, a unit keeps its target while it stays in range. Both armies act on the same state, units killed during a frame
+ * still attack in that frame and are removed at its end.
+ * Shields, armor, size and damage types, weapon upgrades, ranges and cooldowns are simulated;
+ * spells, healing, splash damage, pathing and collisions are not.
+ * Carriers attack with their Interceptors, Reavers with Scarabs and Bunkers as if they held four Marines.
+ * <p>
+ * The units are stored as parallel arrays, no allocation happens while simulating.
+ * Instances are meant to be cleared and reused.
+ */
+public final class CombatSimulator {
+    private final Army army1 = new Army();
+    private final Army army2 = new Army();
+
+    /**
+     * The first army, to which units should be added before simulating, and holding the survivors afterwards.
+     */
+    public Army getArmy1() {
+        return army1;
+    }
+
+    /**
+     * The second army, to which units should be added before simulating, and holding the survivors afterwards.
+     */
+    public Army getArmy2() {
+        return army2;
+    }
+
+    /**
+     * Removes all units from both armies.
+     */
+    public void clear() {
+        army1.clear();
+        army2.clear();
+    }
+
+    /**
+     * Simulates the fight until one of the armies is destroyed or the given number of frames has elapsed.
+     *
+     * @param frames The maximum number of frames to simulate.
+     * @return The number of frames simulated.
+     */
+    public int simulate(final int frames) {
+        int frame = 0;
+        while (frame < frames && army1.size > 0 && army2.size > 0) {
+            army1.step(army2);
+            army2.step(army1);
+            final boolean removed1 = army1.removeDead();
+            final boolean removed2 = army2.removeDead();
+            if (removed1) {
+                army2.remapTargets(army1.newIndex);
+            }
+            if (removed2) {
+                army1.remapTargets(army2.newIndex);
+            }
+            ++frame;
+        }
+        return frame;
+    }
+
+    /**
+     * The units of one side of a {@link CombatSimulator}.
+     * <p>
+     * Hit points and shields are exposed as whole points, they are simulated in 1/256 points like the game does.
+     */
+    public static final class Army {
+        private static final int INITIAL_CAPACITY = 16;
+        private static final int CARRIER_INTERCEPTORS = 8;
+        private static final int CARRIER_COOLDOWN = 37;
+        private static final int REAVER_COOLDOWN = 60;
+
+        private int size;
+        private int initialValue;
+
+        private UnitType[] types;
+        private Unit[] units;
+        private double[] x;
+        private double[] y;
+        private double[] speed;
+        private int[] radius;
+        private int[] value;
+        private int[] hitPoints;
+        private int[] shields;
+        private int[] armor;
+        private int[] shieldArmor;
+        private int[] sizeType;
+        private boolean[] flyer;
+        private int[] cooldown;
+        private int[] target;
+        private int[] newIndex;
+        private int[] groundDamage;
+        private int[] groundHits;
+        private int[] groundDamageType;
+        private int[] groundMinRange;
+        private int[] groundMaxRange;
+        private int[] groundCooldown;
+        private int[] airDamage;
+        private int[] airHits;
+        private int[] airDamageType;
+        private int[] airMaxRange;
+        private int[] airCooldown;
+
+        Army() {
+            allocate(INITIAL_CAPACITY);
+        }
+
+        /**
+         * Adds a unit with its current type, owner, position, hit points, shields and weapon cooldown.
+         */
+        public void add(final Unit unit) {
+            final UnitType type = unit.getType();
+            final Position position = unit.getPosition();
+            final int index = add(type, unit.getPlayer(), unit.getHitPoints(), unit.getShields(), position.x, position.y);
+            units[index] = unit;
+            cooldown[index] = Math.max(unit.getGroundWeaponCooldown(), unit.getAirWeaponCooldown());
+            if (type == UnitType.Protoss_Carrier || type == UnitType.Hero_Gantrithor) {
+                final int interceptors = unit.getInterceptorCount();
+                groundHits[index] = groundHits[index] / CARRIER_INTERCEPTORS * interceptors;
+                airHits[index] = airHits[index] / CARRIER_INTERCEPTORS * interceptors;
+            }
+        }
+
+        /**
+         * Adds a unit with full hit points and shields.
+         *
+         * @param player The owner of the unit, whose upgrades apply, or null to ignore upgrades.
+         */
+        public void add(final UnitType type, final Player player, final int x, final int y) {
+            add(type, player, type.maxHitPoints(), type.maxShields(), x, y);
+        }
+
+        /**
+         * Adds a unit which is not necessarily visible in the game.
+         *
+         * @param player The owner of the unit, whose upgrades apply, or null to ignore upgrades.
+         * @return The index of the new unit.
+         */
+        public int add(final UnitType type, final Player player, final int hitPoints, final int shields, final int x, final int y) {
+            if (size == types.length) {
+                allocate(size * 2);
+            }
+            final int i = size++;
+            types[i] = type;
+            units[i] = null;
+            this.x[i] = x;
+            this.y[i] = y;
+            speed[i] = player != null ? player.topSpeed(type) : type.topSpeed();
+            radius[i] = Math.max(type.width(), type.height()) / 2;
+            value[i] = (type.mineralPrice() + type.gasPrice()) / (type.isTwoUnitsInOneEgg() ? 2 : 1);
+            this.hitPoints[i] = hitPoints << 8;
+            this.shields[i] = shields << 8;
+            armor[i] = (player != null ? player.armor(type) : type.armor()) << 8;
+            shieldArmor[i] = (player != null ? player.getUpgradeLevel(UpgradeType.Protoss_Plasma_Shields) : 0) << 8;
+            sizeType[i] = type.size().id;
+            flyer[i] = type.isFlyer();
+            cooldown[i] = 0;
+            target[i] = -1;
+            initialValue += value[i];
+
+            // Units attacking through other units
+            UnitType attacker = type;
+            int hitsFactor = 1;
+            int rangeBonus = 0;
+            int fixedRange = 0;
+            int fixedCooldown = 0;
+            if (type == UnitType.Protoss_Carrier || type == UnitType.Hero_Gantrithor) {
+                attacker = UnitType.Protoss_Interceptor;
+                hitsFactor = CARRIER_INTERCEPTORS;
+                fixedRange = 8 * 32;
+                fixedCooldown = CARRIER_COOLDOWN;
+            } else if (type == UnitType.Protoss_Reaver || type == UnitType.Hero_Warbringer) {
+                attacker = UnitType.Protoss_Scarab;
+                fixedRange = 8 * 32;
+                fixedCooldown = REAVER_COOLDOWN;
+            } else if (type == UnitType.Terran_Bunker) {
+                attacker = UnitType.Terran_Marine;
+                hitsFactor = 4;
+                rangeBonus = 32;
+            }
+
+            final WeaponType ground = attacker.groundWeapon();
+            if (ground == WeaponType.None || ground == WeaponType.Unknown) {
+                groundHits[i] = 0;
+            } else {
+                groundDamage[i] = (player != null ? player.damage(ground) / ground.damageFactor() : ground.damageAmount()) << 8;
+                groundHits[i] = ground.damageFactor() * hitsFactor;
+                groundDamageType[i] = ground.damageType().id;
+                groundMinRange[i] = ground.minRange();
+                groundMaxRange[i] = fixedRange > 0 ? fixedRange :
+                        (player != null ? player.weaponMaxRange(ground) : ground.maxRange()) + rangeBonus;
+                groundCooldown[i] = fixedCooldown > 0 ? fixedCooldown :
+                        player != null ? player.weaponDamageCooldown(attacker) : ground.damageCooldown();
+            }
+            final WeaponType air = attacker.airWeapon();
+            if (air == WeaponType.None || air == WeaponType.Unknown) {
+                airHits[i] = 0;
+            } else {
+                airDamage[i] = (player != null ? player.damage(air) / air.damageFactor() : air.damageAmount()) << 8;
+                airHits[i] = air.damageFactor() * hitsFactor;
+                airDamageType[i] = air.damageType().id;
+                airMaxRange[i] = fixedRange > 0 ? fixedRange :
+                        (player != null ? player.weaponMaxRange(air) : air.maxRange()) + rangeBonus;
+                airCooldown[i] = fixedCooldown > 0 ? fixedCooldown : air.damageCooldown();
+            }
+            return i;
+        }
+
+        /**
+         * Removes all units.
+         */
+        public void clear() {
+            Arrays.fill(units, 0, size, null);
+            size = 0;
+            initialValue = 0;
+        }
+
+        /**
+         * The number of units, which are the survivors after a simulation.
+         */
+        public int size() {
+            return size;
+        }
+
+        public UnitType getType(final int i) {
+            return types[i];
+        }
+
+        /**
+         * The unit which was added, or null if it was added as a unit type.
+         */
+        public Unit getUnit(final int i) {
+            return units[i];
+        }
+
+        public int getX(final int i) {
+            return (int) x[i];
+        }
+
+        public int getY(final int i) {
+            return (int) y[i];
+        }
+
+        public int getHitPoints(final int i) {
+            return (hitPoints[i] + 255) >> 8;
+        }
+
+        public int getShields(final int i) {
+            return (shields[i] + 255) >> 8;
+        }
+
+        /**
+         * The mineral and gas price of all the units which were added.
+         */
+        public int getInitialValue() {
+            return initialValue;
+        }
+
+        /**
+         * The mineral and gas price of the remaining units.
+         */
+        public int getValue() {
+            int result = 0;
+            for (int i = 0; i < size; ++i) {
+                result += value[i];
+            }
+            return result;
+        }
+
+        /**
+         * The mineral and gas price of the units which were killed.
+         */
+        public int getValueLost() {
+            return initialValue - getValue();
+        }
+
+        private void step(final Army enemy) {
+            for (int i = 0; i < size; ++i) {
+                if (cooldown[i] > 0) {
+                    --cooldown[i];
+                }
+                if (groundHits[i] == 0 && airHits[i] == 0) {
+                    continue;
+                }
+
+                int target = this.target[i];
+                boolean inRange = target >= 0 && enemy.hitPoints[target] > 0 && inRange(i, enemy, target);
+                if (!inRange) {
+                    target = closestTarget(i, enemy);
+                    this.target[i] = target;
+                    if (target < 0) {
+                        continue;
+                    }
+                    inRange = inRange(i, enemy, target);
+                }
+
+                if (inRange) {
+                    if (cooldown[i] == 0) {
+                        if (enemy.flyer[target]) {
+                            enemy.damage(target, airDamage[i], airHits[i], airDamageType[i]);
+                            cooldown[i] = airCooldown[i];
+                        } else {
+                            enemy.damage(target, groundDamage[i], groundHits[i], groundDamageType[i]);
+                            cooldown[i] = groundCooldown[i];
+                        }
+                    }
+                } else if (speed[i] > 0) {
+                    final double dx = enemy.x[target] - x[i];
+                    final double dy = enemy.y[target] - y[i];
+                    final double distance = Math.sqrt(dx * dx + dy * dy);
+                    final double move = Math.min(speed[i], distance - range(i, enemy, target));
+                    x[i] += dx * move / distance;
+                    y[i] += dy * move / distance;
+                }
+            }
+        }
+
+        // Closest living enemy that can be attacked, or -1
+        private int closestTarget(final int i, final Army enemy) {
+            int target = -1;
+            double targetDistance = Double.MAX_VALUE;
+            for (int j = 0; j < enemy.size; ++j) {
+                if (enemy.hitPoints[j] <= 0) {
+                    continue;
+                }
+                final double dx = enemy.x[j] - x[i];
+                final double dy = enemy.y[j] - y[i];
+                final double distance = dx * dx + dy * dy;
+                if (distance >= targetDistance) {
+                    continue;
+                }
+                if (enemy.flyer[j]) {
+                    if (airHits[i] == 0) {
+                        continue;
+                    }
+                } else {
+                    if (groundHits[i] == 0 || insideMinRange(i, enemy, j, distance)) {
+                        continue;
+                    }
+                }
+                target = j;
+                targetDistance = distance;
+            }
+            return target;
+        }
+
+        // Maximum distance between the centers of the units for i to attack j
+        private double range(final int i, final Army enemy, final int j) {
+            return (enemy.flyer[j] ? airMaxRange[i] : groundMaxRange[i]) + radius[i] + enemy.radius[j];
+        }
+
+        private boolean inRange(final int i, final Army enemy, final int j) {
+            final double dx = enemy.x[j] - x[i];
+            final double dy = enemy.y[j] - y[i];
+            final double distance = dx * dx + dy * dy;
+            final double range = range(i, enemy, j);
+            return distance <= range * range && !insideMinRange(i, enemy, j, distance);
+        }
+
+        private boolean insideMinRange(final int i, final Army enemy, final int j, final double distance) {
+            final int minRange = groundMinRange[i];
+            if (minRange == 0 || enemy.flyer[j]) {
+                return false;
+            }
+            final double min = minRange + radius[i] + enemy.radius[j];
+            return distance < min * min;
+        }
+
+        // Shields take the full damage of each hit minus the shield armor, the rest is reduced by armor and size
+        private void damage(final int i, final int damage, final int hits, final int damageType) {
+            final int ratio = DamageMatrix.damageRatio[damageType][sizeType[i]];
+            if (ratio == 0) {
+                return;
+            }
+            for (int hit = 0; hit < hits; ++hit) {
+                int remaining = damage;
+                if (shields[i] > 0) {
+                    final int shieldDamage = Math.max(remaining - shieldArmor[i], 128);
+                    if (shieldDamage <= shields[i]) {
+                        shields[i] -= shieldDamage;
+                        continue;
+                    }
+                    remaining = shieldDamage - shields[i];
+                    shields[i] = 0;
+                }
+                if (damageType != DamageType.Ignore_Armor.id) {
+                    remaining -= armor[i];
+                }
+                hitPoints[i] -= Math.max(Math.max(remaining, 0) * ratio >> 8, 128);
+            }
+        }
+
+        // Returns true if some units were removed, newIndex then maps their old indices to the new ones or -1
+        private boolean removeDead() {
+            int alive = 0;
+            for (int i = 0; i < size; ++i) {
+                if (hitPoints[i] > 0) {
+                    if (alive != i) {
+                        move(i, alive);
+                    }
+                    newIndex[i] = alive++;
+                } else {
+                    newIndex[i] = -1;
+                }
+            }
+            if (alive == size) {
+                return false;
+            }
+            Arrays.fill(units, alive, size, null);
+            size = alive;
+            return true;
+        }
+
+        private void remapTargets(final int[] enemyIndex) {
+            for (int i = 0; i < size; ++i) {
+                if (target[i] >= 0) {
+                    target[i] = enemyIndex[target[i]];
+                }
+            }
+        }
+
+        private void move(final int from, final int to) {
+            types[to] = types[from];
+            units[to] = units[from];
+            x[to] = x[from];
+            y[to] = y[from];
+            speed[to] = speed[from];
+            radius[to] = radius[from];
+            value[to] = value[from];
+            hitPoints[to] = hitPoints[from];
+            shields[to] = shields[from];
+            armor[to] = armor[from];
+            shieldArmor[to] = shieldArmor[from];
+            sizeType[to] = sizeType[from];
+            flyer[to] = flyer[from];
+            cooldown[to] = cooldown[from];
+            target[to] = target[from];
+            groundDamage[to] = groundDamage[from];
+            groundHits[to] = groundHits[from];
+            groundDamageType[to] = groundDamageType[from];
+            groundMinRange[to] = groundMinRange[from];
+            groundMaxRange[to] = groundMaxRange[from];
+            groundCooldown[to] = groundCooldown[from];
+            airDamage[to] = airDamage[from];
+            airHits[to] = airHits[from];
+            airDamageType[to] = airDamageType[from];
+            airMaxRange[to] = airMaxRange[from];
+            airCooldown[to] = airCooldown[from];
+        }
+
+        private void allocate(final int capacity) {
+            if (types == null) {
+                types = new UnitType[capacity];
+                units = new Unit[capacity];
+                x = new double[capacity];
+                y = new double[capacity];
+                speed = new double[capacity];
+                radius = new int[capacity];
+                value = new int[capacity];
+                hitPoints = new int[capacity];
+                shields = new int[capacity];
+                armor = new int[capacity];
+                shieldArmor = new int[capacity];
+                sizeType = new int[capacity];
+                flyer = new boolean[capacity];
+                cooldown = new int[capacity];
+                target = new int[capacity];
+                newIndex = new int[capacity];
+                groundDamage = new int[capacity];
+                groundHits = new int[capacity];
+                groundDamageType = new int[capacity];
+                groundMinRange = new int[capacity];
+                groundMaxRange = new int[capacity];
+                groundCooldown = new int[capacity];
+                airDamage = new int[capacity];
+                airHits = new int[capacity];
+                airDamageType = new int[capacity];
+                airMaxRange = new int[capacity];
+                airCooldown = new int[capacity];
+                return;
+            }
+            types = Arrays.copyOf(types, capacity);
+            units = Arrays.copyOf(units, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            speed = Arrays.copyOf(speed, capacity);
+            radius = Arrays.copyOf(radius, capacity);
+            value = Arrays.copyOf(value, capacity);
+            hitPoints = Arrays.copyOf(hitPoints, capacity);
+            shields = Arrays.copyOf(shields, capacity);
+            armor = Arrays.copyOf(armor, capacity);
+            shieldArmor = Arrays.copyOf(shieldArmor, capacity);
+            sizeType = Arrays.copyOf(sizeType, capacity);
+            flyer = Arrays.copyOf(flyer, capacity);
+            cooldown = Arrays.copyOf(cooldown, capacity);
+            target = Arrays.copyOf(target, capacity);
+            newIndex = new int[capacity];
+            groundDamage = Arrays.copyOf(groundDamage, capacity);
+            groundHits = Arrays.copyOf(groundHits, capacity);
+            groundDamageType = Arrays.copyOf(groundDamageType, capacity);
+            groundMinRange = Arrays.copyOf(groundMinRange, capacity);
+            groundMaxRange = Arrays.copyOf(groundMaxRange, capacity);
+            groundCooldown = Arrays.copyOf(groundCooldown, capacity);
+            airDamage = Arrays.copyOf(airDamage, capacity);
+            airHits = Arrays.copyOf(airHits, capacity);
+            airDamageType = Arrays.copyOf(airDamageType, capacity);
+            airMaxRange = Arrays.copyOf(airMaxRange, capacity);
+            airCooldown = Arrays.copyOf(airCooldown, capacity);
+        }
+    }
+}
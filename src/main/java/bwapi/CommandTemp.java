@@ -204,7 +204,7 @@ class CommandTemp {
                 if (unit.getType().getRace() == Race.Zerg) {
                     switch (eventType) {
                         case Resource:
-                            unit.self().type.set(unit.getType().whatBuilds().getFirst(), frame);
+                            unit.self().type.set(unit.getType().whatBuildsType(), frame);
                             unit.self().buildType.set(UnitType.None, frame);
                             unit.self().isMorphing.set(false, frame);
                             unit.self().order.set(Order.ResetCollision, frame);
@@ -233,7 +233,7 @@ class CommandTemp {
                 switch (eventType) {
                     case Resource: {
                         UnitType builtType = unit.getBuildType();
-                        UnitType newType = builtType.whatBuilds().getFirst();
+                        UnitType newType = builtType.whatBuildsType();
 
                         if (newType.isBuilding()) {
                             player.self().minerals.setOrAdd((int) (builtType.mineralPrice() * 0.75), frame);
@@ -278,7 +278,7 @@ class CommandTemp {
 
                             player.self().supplyUsed[unit.getType().getRace().id].setOrAdd( // Could these races be different? Probably not.
                                     // Should we handle it?            Definetely.
-                                    unit.getType().whatBuilds().getFirst().supplyRequired() * unit.getType().whatBuilds().getSecond(),
+                                    unit.getType().whatBuildsType().supplyRequired() * unit.getType().whatBuildsCount(),
                                     frame);
                             // Note: unit.getType().whatBuilds().second is always 1 but we
                             // might as well handle the general case, in case Blizzard
@@ -657,7 +657,7 @@ class CommandTemp {
                         unit.self().isGathering.set(true, frame);
                         unit.self().order.set(Order.MoveToGas, frame);
                     } else if (unit.getType().isWorker() && target.getType().getRace() == Race.Terran &&
-                            target.getType().whatBuilds().getFirst() == unit.getType() && !target.isCompleted()) {
+                            target.getType().whatBuildsType() == unit.getType() && !target.isCompleted()) {
                         unit.self().order.set(Order.ConstructingBuilding, frame);
                         unit.self().buildUnit.set(getUnitID(target), frame);
                         target.self().buildUnit.set(getUnitID(unit), frame);
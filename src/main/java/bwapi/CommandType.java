@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * Used in {@link UnitCommand}.
  */
@@ -29,7 +27,9 @@ public enum CommandType {
     static final CommandType[] idToEnum = new CommandType[19];
 
     static {
-        Arrays.stream(CommandType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final CommandType v : CommandType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * The coordinate type enumeration for relative drawing positions.
  */
@@ -26,7 +24,9 @@ public enum CoordinateType {
     static final CoordinateType[] idToEnum = new CoordinateType[4];
 
     static {
-        Arrays.stream(CoordinateType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final CoordinateType v : CoordinateType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
@@ -0,0 +1,83 @@
+package bwapi;
+
+import java.util.Arrays;
+
+/**
+ * Damage dealt by every unit type to every unit type, for an attacking and a defending player,
+ * either of which can be null to ignore its upgrades.
+ * <p>
+ * Entries are computed on first use, so evaluating the same pair of types again is a single array lookup.
+ * The upgrades are only checked by {@link Game#getDamageMatrix}, the matrix should be retrieved again on each frame.
+ */
+public final class DamageMatrix {
+    static final int[][] damageRatio = {
+            // Ind, Sml, Med, Lrg, Non, Unk
+            {0, 0, 0, 0, 0, 0}, // Independent
+            {0, 128, 192, 256, 0, 0}, // Explosive
+            {0, 256, 128, 64, 0, 0}, // Concussive
+            {0, 256, 256, 256, 0, 0}, // Normal
+            {0, 256, 256, 256, 0, 0}, // Ignore_Armor
+            {0, 0, 0, 0, 0, 0}, // None
+            {0, 0, 0, 0, 0, 0}  // Unknown
+    };
+    private static final int UNIT_TYPE_COUNT = UnitType.idToEnum.length;
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    private final Player fromPlayer;
+    private final Player toPlayer;
+    private final int[] damage = new int[UNIT_TYPE_COUNT * UNIT_TYPE_COUNT];
+    private int fromVersion = -1;
+    private int toVersion = -1;
+
+    DamageMatrix(final Player fromPlayer, final Player toPlayer) {
+        this.fromPlayer = fromPlayer;
+        this.toPlayer = toPlayer;
+    }
+
+    /**
+     * Calculates the damage dealt by fromType to toType, including the upgrades of the players of this matrix.
+     * Does not include shields in calculation.
+     *
+     * @param fromType The unit type that will be dealing the damage.
+     * @param toType   The unit type that will be receiving the damage.
+     * @return The amount of damage that fromType would deal to toType.
+     */
+    public int getDamage(final UnitType fromType, final UnitType toType) {
+        final int index = fromType.id * UNIT_TYPE_COUNT + toType.id;
+        int result = damage[index];
+        if (result == MISSING) {
+            result = computeDamage(fromType, toType, fromPlayer, toPlayer);
+            damage[index] = result;
+        }
+        return result;
+    }
+
+    // Clears the matrix if the upgrades of one of the players changed
+    void update() {
+        final int fromVersion = fromPlayer == null ? 0 : fromPlayer.upgradeTables().getVersion();
+        final int toVersion = toPlayer == null ? 0 : toPlayer.upgradeTables().getVersion();
+        if (fromVersion != this.fromVersion || toVersion != this.toVersion) {
+            Arrays.fill(damage, MISSING);
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+        }
+    }
+
+    static int computeDamage(final UnitType fromType, final UnitType toType, final Player fromPlayer, final Player toPlayer) {
+        // Retrieve appropriate weapon
+        final WeaponType wpn = toType.isFlyer() ? fromType.airWeapon() : fromType.groundWeapon();
+        if (wpn == WeaponType.None || wpn == WeaponType.Unknown) {
+            return 0;
+        }
+
+        // Get initial weapon damage
+        int dmg = fromPlayer != null ? fromPlayer.damage(wpn) : wpn.damageAmount() * wpn.damageFactor();
+
+        // If we need to calculate using armor
+        if (wpn.damageType() != DamageType.Ignore_Armor && toPlayer != null) {
+            dmg -= Math.min(dmg, toPlayer.armor(toType));
+        }
+
+        return dmg * damageRatio[wpn.damageType().id][toType.size().id] / 256;
+    }
+}
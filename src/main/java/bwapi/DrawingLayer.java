@@ -0,0 +1,263 @@
+package bwapi;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A group of shapes which is recorded once and drawn every frame with {@link Game#draw(DrawingLayer)}.
+ * <p>
+ * The shapes are encoded when they are added, in the layout of the shared memory, so drawing the layer copies
+ * the encoded bytes instead of writing each field of each shape. This suits the overlays which do not change
+ * during the game, such as choke points, base locations or grids.
+ * <p>
+ * The shapes with {@link CoordinateType#Map} coordinates which are outside of the screen are not drawn.
+ */
+public final class DrawingLayer {
+    static final int SCREEN_WIDTH = 640;
+    static final int SCREEN_HEIGHT = 480;
+    // Generous text extents, used to cull text drawn far from the screen
+    private static final int CHAR_WIDTH = 16;
+    private static final int LINE_HEIGHT = 32;
+    private static final int MAX_STRING_LENGTH = 1024;
+
+    private byte[] shapes = new byte[16 * ClientData.Shape.SIZE];
+    private ByteBuffer encoder = ByteBuffer.wrap(shapes).order(ByteOrder.nativeOrder());
+    // left, top, right and bottom of each shape, in map pixels
+    private int[] bounds = new int[16 * 4];
+    private int size;
+    // Shape index and zero terminated bytes of each text
+    private int[] textShapes = new int[4];
+    private byte[][] texts = new byte[4][];
+    private int textCount;
+    private Text.Size textSize = Text.Size.Default;
+    private boolean culling = true;
+
+    /**
+     * @return The number of shapes in this layer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the shapes of this layer.
+     */
+    public void clear() {
+        size = 0;
+        Arrays.fill(texts, 0, textCount, null);
+        textCount = 0;
+    }
+
+    /**
+     * Enables or disables skipping the shapes with map coordinates which are outside of the screen. Enabled by default.
+     */
+    public void setCulling(final boolean culling) {
+        this.culling = culling;
+    }
+
+    public boolean isCulling() {
+        return culling;
+    }
+
+    /**
+     * Sets the size of the text added after this call.
+     *
+     * @see Game#setTextSize(Text.Size)
+     */
+    public void setTextSize(final Text.Size size) {
+        textSize = size;
+    }
+
+    private void add(final ShapeType type, final CoordinateType ctype, final int x1, final int y1, final int x2, final int y2,
+                     final int extra1, final int extra2, final int color, final boolean isSolid,
+                     final int left, final int top, final int right, final int bottom) {
+        if (size * ClientData.Shape.SIZE == shapes.length) {
+            shapes = Arrays.copyOf(shapes, shapes.length * 2);
+            encoder = ByteBuffer.wrap(shapes).order(ByteOrder.nativeOrder());
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        final int offset = size * ClientData.Shape.SIZE;
+        encoder.putInt(offset, type.id);
+        encoder.putInt(offset + 4, ctype.id);
+        encoder.putInt(offset + 8, x1);
+        encoder.putInt(offset + 12, y1);
+        encoder.putInt(offset + 16, x2);
+        encoder.putInt(offset + 20, y2);
+        encoder.putInt(offset + 24, extra1);
+        encoder.putInt(offset + 28, extra2);
+        encoder.putInt(offset + 32, color);
+        encoder.putInt(offset + 36, isSolid ? 1 : 0);
+        final int b = size * 4;
+        if (ctype == CoordinateType.Map) {
+            bounds[b] = left;
+            bounds[b + 1] = top;
+            bounds[b + 2] = right;
+            bounds[b + 3] = bottom;
+        } else {
+            // Always drawn
+            bounds[b] = Integer.MIN_VALUE;
+            bounds[b + 1] = Integer.MIN_VALUE;
+            bounds[b + 2] = Integer.MAX_VALUE;
+            bounds[b + 3] = Integer.MAX_VALUE;
+        }
+        ++size;
+    }
+
+    public void drawText(final CoordinateType ctype, final int x, final int y, final String string) {
+        if (string.length() + 1 >= MAX_STRING_LENGTH) {
+            throw new StringIndexOutOfBoundsException();
+        }
+        final byte[] bytes = new byte[string.length() + 1];
+        int lines = 1;
+        int lineLength = 0;
+        int maxLineLength = 0;
+        for (int i = 0; i < string.length(); ++i) {
+            final char c = string.charAt(i);
+            bytes[i] = (byte) c;
+            if (c == '\n') {
+                ++lines;
+                lineLength = 0;
+            } else {
+                maxLineLength = Math.max(maxLineLength, ++lineLength);
+            }
+        }
+        if (textCount == texts.length) {
+            texts = Arrays.copyOf(texts, textCount * 2);
+            textShapes = Arrays.copyOf(textShapes, textCount * 2);
+        }
+        textShapes[textCount] = size;
+        texts[textCount++] = bytes;
+        // The string index is set when drawing
+        add(ShapeType.Text, ctype, x, y, 0, 0, 0, textSize.id, 0, false,
+                x, y, x + maxLineLength * CHAR_WIDTH, y + lines * LINE_HEIGHT);
+    }
+
+    public void drawTextMap(final int x, final int y, final String string) {
+        drawText(CoordinateType.Map, x, y, string);
+    }
+
+    public void drawTextMap(final Position p, final String string) {
+        drawTextMap(p.x, p.y, string);
+    }
+
+    public void drawTextScreen(final int x, final int y, final String string) {
+        drawText(CoordinateType.Screen, x, y, string);
+    }
+
+    public void drawBox(final CoordinateType ctype, final int left, final int top, final int right, final int bottom, final Color color, final boolean isSolid) {
+        add(ShapeType.Box, ctype, left, top, right, bottom, 0, 0, color.id, isSolid,
+                Math.min(left, right), Math.min(top, bottom), Math.max(left, right), Math.max(top, bottom));
+    }
+
+    public void drawBoxMap(final Position leftTop, final Position rightBottom, final Color color) {
+        drawBox(CoordinateType.Map, leftTop.x, leftTop.y, rightBottom.x, rightBottom.y, color, false);
+    }
+
+    public void drawBoxMap(final Position leftTop, final Position rightBottom, final Color color, final boolean isSolid) {
+        drawBox(CoordinateType.Map, leftTop.x, leftTop.y, rightBottom.x, rightBottom.y, color, isSolid);
+    }
+
+    public void drawTriangle(final CoordinateType ctype, final int ax, final int ay, final int bx, final int by, final int cx, final int cy, final Color color, final boolean isSolid) {
+        add(ShapeType.Triangle, ctype, ax, ay, bx, by, cx, cy, color.id, isSolid,
+                Math.min(ax, Math.min(bx, cx)), Math.min(ay, Math.min(by, cy)),
+                Math.max(ax, Math.max(bx, cx)), Math.max(ay, Math.max(by, cy)));
+    }
+
+    public void drawTriangleMap(final Position a, final Position b, final Position c, final Color color) {
+        drawTriangle(CoordinateType.Map, a.x, a.y, b.x, b.y, c.x, c.y, color, false);
+    }
+
+    public void drawCircle(final CoordinateType ctype, final int x, final int y, final int radius, final Color color, final boolean isSolid) {
+        add(ShapeType.Circle, ctype, x, y, 0, 0, radius, 0, color.id, isSolid,
+                x - radius, y - radius, x + radius, y + radius);
+    }
+
+    public void drawCircleMap(final Position p, final int radius, final Color color) {
+        drawCircle(CoordinateType.Map, p.x, p.y, radius, color, false);
+    }
+
+    public void drawCircleMap(final Position p, final int radius, final Color color, final boolean isSolid) {
+        drawCircle(CoordinateType.Map, p.x, p.y, radius, color, isSolid);
+    }
+
+    public void drawEllipse(final CoordinateType ctype, final int x, final int y, final int xrad, final int yrad, final Color color, final boolean isSolid) {
+        add(ShapeType.Ellipse, ctype, x, y, 0, 0, xrad, yrad, color.id, isSolid,
+                x - xrad, y - yrad, x + xrad, y + yrad);
+    }
+
+    public void drawEllipseMap(final Position p, final int xrad, final int yrad, final Color color) {
+        drawEllipse(CoordinateType.Map, p.x, p.y, xrad, yrad, color, false);
+    }
+
+    public void drawDot(final CoordinateType ctype, final int x, final int y, final Color color) {
+        add(ShapeType.Dot, ctype, x, y, 0, 0, 0, 0, color.id, false, x, y, x, y);
+    }
+
+    public void drawDotMap(final Position p, final Color color) {
+        drawDot(CoordinateType.Map, p.x, p.y, color);
+    }
+
+    public void drawLine(final CoordinateType ctype, final int x1, final int y1, final int x2, final int y2, final Color color) {
+        add(ShapeType.Line, ctype, x1, y1, x2, y2, 0, 0, color.id, false,
+                Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+    }
+
+    public void drawLineMap(final Position a, final Position b, final Color color) {
+        drawLine(CoordinateType.Map, a.x, a.y, b.x, b.y, color);
+    }
+
+    private boolean isVisible(final int shape, final int screenX, final int screenY) {
+        final int b = shape * 4;
+        return bounds[b + 2] >= screenX && bounds[b] < screenX + SCREEN_WIDTH
+                && bounds[b + 3] >= screenY && bounds[b + 1] < screenY + SCREEN_HEIGHT;
+    }
+
+    /**
+     * Copies the shapes into the shape and string arrays of the shared memory, each run of consecutive visible
+     * shapes with a single copy. Stops when the arrays are full.
+     *
+     * @return The number of shapes drawn.
+     */
+    int draw(final ClientData.GameData gameData, final int screenX, final int screenY) {
+        final boolean cull = culling && !(screenX == Position.Unknown.x && screenY == Position.Unknown.y);
+        final int firstShape = gameData.getShapeCount();
+        int shapeCount = firstShape;
+        int stringCount = gameData.getStringCount();
+        int runStart = -1;
+        int runDestination = 0;
+        int text = 0;
+        for (int i = 0; i < size && shapeCount < Client.MAX_COUNT; ++i) {
+            final boolean isText = text < textCount && textShapes[text] == i;
+            final boolean visible = (!cull || isVisible(i, screenX, screenY)) && (!isText || stringCount < Client.MAX_COUNT);
+            if (visible) {
+                if (isText) {
+                    gameData.setStringsBytes(stringCount, texts[text], 0, texts[text].length);
+                    encoder.putInt(i * ClientData.Shape.SIZE + 24, stringCount);
+                    ++stringCount;
+                }
+                if (runStart < 0) {
+                    runStart = i;
+                    runDestination = shapeCount;
+                }
+                ++shapeCount;
+            } else if (runStart >= 0) {
+                copy(gameData, runStart, i, runDestination);
+                runStart = -1;
+            }
+            if (isText) {
+                ++text;
+            }
+        }
+        if (runStart >= 0) {
+            copy(gameData, runStart, runStart + shapeCount - runDestination, runDestination);
+        }
+        gameData.setStringCount(stringCount);
+        gameData.setShapeCount(shapeCount);
+        return shapeCount - firstShape;
+    }
+
+    private void copy(final ClientData.GameData gameData, final int from, final int to, final int destination) {
+        gameData.setShapesBytes(destination, shapes, from * ClientData.Shape.SIZE, (to - from) * ClientData.Shape.SIZE);
+    }
+}
@@ -0,0 +1,382 @@
+package bwapi;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * A {@link BWEventListener} which forwards the events to several subscribers, for bots made of modules.
+ * <p>
+ * Modules can subscribe to all the events, as a {@link BWEventListener}, or to the unit events of one
+ * {@link EventType}, optionally filtered by the player and the type of the unit. Batch subscribers receive all the
+ * matching unit events of a frame at once, before the {@link #onFrame()} of the modules.
+ * <p>
+ * The subscribers are kept in arrays per event type, which are replaced when subscribing or unsubscribing,
+ * so dispatching an event does not allocate, and subscribing from a callback only takes effect with the next event.
+ * For each event, the modules are called first, then the unit listeners, in the order they subscribed.
+ * <pre>{@code
+ * EventBus bus = new EventBus();
+ * bus.subscribe(EventType.UnitComplete, self, UnitTypeFilter.of(UnitType.Terran_Barracks), (type, unit) -> rally(unit));
+ * bus.subscribeBatch(EventType.UnitDestroy, null, (type, units, count) -> forget(units, count));
+ * new BWClient(bus).startGame();
+ * }</pre>
+ */
+public final class EventBus implements BWEventListener {
+    private static final int EVENT_TYPES = EventType.values().length;
+    private static final BWEventListener[] NO_MODULES = new BWEventListener[0];
+    private static final UnitSubscription[] NO_UNIT_SUBSCRIPTIONS = new UnitSubscription[0];
+    private static final BatchSubscription[] NO_BATCH_SUBSCRIPTIONS = new BatchSubscription[0];
+
+    /**
+     * Receives the unit events of the types it subscribed to.
+     */
+    @FunctionalInterface
+    public interface UnitListener {
+        void onUnitEvent(EventType type, Unit unit);
+    }
+
+    /**
+     * Receives the unit events of a frame at once.
+     */
+    @FunctionalInterface
+    public interface BatchListener {
+        /**
+         * @param type  The type of the events.
+         * @param units The units of the events, in the order of the events. The array is reused in the next frames.
+         * @param count The number of events, the units after it in the array are not part of this frame.
+         */
+        void onUnitEvents(EventType type, Unit[] units, int count);
+    }
+
+    private BWEventListener[] modules = NO_MODULES;
+    private final UnitSubscription[][] unitSubscriptions = new UnitSubscription[EVENT_TYPES][];
+    private final BatchSubscription[][] batchSubscriptions = new BatchSubscription[EVENT_TYPES][];
+    // All batch subscriptions, to deliver them in the order they subscribed
+    private BatchSubscription[] batches = NO_BATCH_SUBSCRIPTIONS;
+
+    public EventBus() {
+        Arrays.fill(unitSubscriptions, NO_UNIT_SUBSCRIPTIONS);
+        Arrays.fill(batchSubscriptions, NO_BATCH_SUBSCRIPTIONS);
+    }
+
+    /**
+     * Forwards all the events to a module.
+     */
+    public void subscribe(final BWEventListener module) {
+        modules = append(modules, module);
+    }
+
+    /**
+     * Forwards the unit events of a type to a listener.
+     *
+     * @param type One of the unit event types, such as {@link EventType#UnitCreate}.
+     */
+    public void subscribe(final EventType type, final UnitListener listener) {
+        subscribe(type, (UnitFilter) null, listener);
+    }
+
+    /**
+     * Forwards the unit events of a type to a listener, for the units which match a filter.
+     *
+     * @param type   One of the unit event types, such as {@link EventType#UnitCreate}.
+     * @param filter Selects the units, or null for all of them.
+     */
+    public void subscribe(final EventType type, final UnitFilter filter, final UnitListener listener) {
+        final int id = unitEventId(type);
+        unitSubscriptions[id] = append(unitSubscriptions[id], new UnitSubscription(listener, filter));
+    }
+
+    /**
+     * Forwards the unit events of a type to a listener, for the units of a player and of some types.
+     *
+     * @param type   One of the unit event types, such as {@link EventType#UnitCreate}.
+     * @param player The owner of the units, or null for all players. Compared by ID, so it also applies to the next games.
+     * @param types  The types of the units, or null for all types.
+     */
+    public void subscribe(final EventType type, final Player player, final UnitTypeFilter types, final UnitListener listener) {
+        subscribe(type, playerTypeFilter(player, types), listener);
+    }
+
+    /**
+     * Collects the unit events of a type which match a filter during a frame, and forwards them to a listener at
+     * once when the frame ends, before {@link BWEventListener#onFrame()} is called on the modules.
+     *
+     * @param type   One of the unit event types, such as {@link EventType#UnitCreate}.
+     * @param filter Selects the units, or null for all of them.
+     */
+    public void subscribeBatch(final EventType type, final UnitFilter filter, final BatchListener listener) {
+        final int id = unitEventId(type);
+        final BatchSubscription subscription = new BatchSubscription(type, listener, filter);
+        batchSubscriptions[id] = append(batchSubscriptions[id], subscription);
+        batches = append(batches, subscription);
+    }
+
+    public void subscribeBatch(final EventType type, final Player player, final UnitTypeFilter types, final BatchListener listener) {
+        subscribeBatch(type, playerTypeFilter(player, types), listener);
+    }
+
+    /**
+     * Removes all the subscriptions of a module or listener.
+     */
+    public void unsubscribe(final Object listener) {
+        modules = remove(modules, m -> m == listener);
+        for (int id = 0; id < EVENT_TYPES; ++id) {
+            unitSubscriptions[id] = remove(unitSubscriptions[id], s -> s.listener == listener);
+            batchSubscriptions[id] = remove(batchSubscriptions[id], s -> s.listener == listener);
+        }
+        batches = remove(batches, s -> s.listener == listener);
+    }
+
+    private static int unitEventId(final EventType type) {
+        switch (type) {
+            case UnitDiscover:
+            case UnitEvade:
+            case UnitShow:
+            case UnitHide:
+            case UnitCreate:
+            case UnitDestroy:
+            case UnitMorph:
+            case UnitRenegade:
+            case UnitComplete:
+                return type.id;
+            default:
+                throw new IllegalArgumentException(type + " is not a unit event, subscribe a BWEventListener instead");
+        }
+    }
+
+    private static UnitFilter playerTypeFilter(final Player player, final UnitTypeFilter types) {
+        if (player == null) {
+            return types;
+        }
+        final int playerId = player.getID();
+        if (types == null) {
+            return u -> isOwnedBy(u, playerId);
+        }
+        return u -> types.test(u) && isOwnedBy(u, playerId);
+    }
+
+    private static boolean isOwnedBy(final Unit unit, final int playerId) {
+        final Player player = unit.getPlayer();
+        return player != null && player.getID() == playerId;
+    }
+
+    private static <T> T[] append(final T[] array, final T element) {
+        final T[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = element;
+        return result;
+    }
+
+    private static <T> T[] remove(final T[] array, final Predicate<T> removed) {
+        int kept = 0;
+        final T[] result = Arrays.copyOf(array, array.length);
+        for (final T element : array) {
+            if (!removed.test(element)) {
+                result[kept++] = element;
+            }
+        }
+        return kept == array.length ? array : Arrays.copyOf(result, kept);
+    }
+
+    private void dispatch(final EventType type, final Unit unit) {
+        for (final UnitSubscription subscription : unitSubscriptions[type.id]) {
+            if (subscription.filter == null || subscription.filter.test(unit)) {
+                subscription.listener.onUnitEvent(type, unit);
+            }
+        }
+        for (final BatchSubscription subscription : batchSubscriptions[type.id]) {
+            if (subscription.filter == null || subscription.filter.test(unit)) {
+                subscription.add(unit);
+            }
+        }
+    }
+
+    private void deliverBatches() {
+        for (final BatchSubscription subscription : batches) {
+            subscription.deliver();
+        }
+    }
+
+    @Override
+    public void onStart() {
+        for (final BatchSubscription subscription : batches) {
+            subscription.clear();
+        }
+        for (final BWEventListener module : modules) {
+            module.onStart();
+        }
+    }
+
+    @Override
+    public void onEnd(final boolean isWinner) {
+        deliverBatches();
+        for (final BWEventListener module : modules) {
+            module.onEnd(isWinner);
+        }
+    }
+
+    @Override
+    public void onFrame() {
+        deliverBatches();
+        for (final BWEventListener module : modules) {
+            module.onFrame();
+        }
+    }
+
+    @Override
+    public void onSendText(final String text) {
+        for (final BWEventListener module : modules) {
+            module.onSendText(text);
+        }
+    }
+
+    @Override
+    public void onReceiveText(final Player player, final String text) {
+        for (final BWEventListener module : modules) {
+            module.onReceiveText(player, text);
+        }
+    }
+
+    @Override
+    public void onPlayerLeft(final Player player) {
+        for (final BWEventListener module : modules) {
+            module.onPlayerLeft(player);
+        }
+    }
+
+    @Override
+    public void onNukeDetect(final Position target) {
+        for (final BWEventListener module : modules) {
+            module.onNukeDetect(target);
+        }
+    }
+
+    @Override
+    public void onUnitDiscover(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitDiscover(unit);
+        }
+        dispatch(EventType.UnitDiscover, unit);
+    }
+
+    @Override
+    public void onUnitEvade(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitEvade(unit);
+        }
+        dispatch(EventType.UnitEvade, unit);
+    }
+
+    @Override
+    public void onUnitShow(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitShow(unit);
+        }
+        dispatch(EventType.UnitShow, unit);
+    }
+
+    @Override
+    public void onUnitHide(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitHide(unit);
+        }
+        dispatch(EventType.UnitHide, unit);
+    }
+
+    @Override
+    public void onUnitCreate(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitCreate(unit);
+        }
+        dispatch(EventType.UnitCreate, unit);
+    }
+
+    @Override
+    public void onUnitDestroy(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitDestroy(unit);
+        }
+        dispatch(EventType.UnitDestroy, unit);
+    }
+
+    @Override
+    public void onUnitMorph(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitMorph(unit);
+        }
+        dispatch(EventType.UnitMorph, unit);
+    }
+
+    @Override
+    public void onUnitRenegade(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitRenegade(unit);
+        }
+        dispatch(EventType.UnitRenegade, unit);
+    }
+
+    @Override
+    public void onSaveGame(final String gameName) {
+        for (final BWEventListener module : modules) {
+            module.onSaveGame(gameName);
+        }
+    }
+
+    @Override
+    public void onUnitComplete(final Unit unit) {
+        for (final BWEventListener module : modules) {
+            module.onUnitComplete(unit);
+        }
+        dispatch(EventType.UnitComplete, unit);
+    }
+
+    @Override
+    public void onPlayerDropped(final Player player) {
+        for (final BWEventListener module : modules) {
+            module.onPlayerDropped(player);
+        }
+    }
+
+    private static final class UnitSubscription {
+        final UnitListener listener;
+        final UnitFilter filter;
+
+        UnitSubscription(final UnitListener listener, final UnitFilter filter) {
+            this.listener = listener;
+            this.filter = filter;
+        }
+    }
+
+    private static final class BatchSubscription {
+        final EventType type;
+        final BatchListener listener;
+        final UnitFilter filter;
+        Unit[] units = new Unit[16];
+        int count;
+
+        BatchSubscription(final EventType type, final BatchListener listener, final UnitFilter filter) {
+            this.type = type;
+            this.listener = listener;
+            this.filter = filter;
+        }
+
+        void add(final Unit unit) {
+            if (count == units.length) {
+                units = Arrays.copyOf(units, count * 2);
+            }
+            units[count++] = unit;
+        }
+
+        void deliver() {
+            if (count == 0) {
+                return;
+            }
+            final int delivered = count;
+            count = 0;
+            listener.onUnitEvents(type, units, delivered);
+        }
+
+        void clear() {
+            Arrays.fill(units, 0, count, null);
+            count = 0;
+        }
+    }
+}
@@ -28,6 +28,7 @@ class EventHandler implements Client.EventHandler {
             case MatchFrame:
                 game.onFrame(frames);
                 eventListener.onFrame();
+                game.flushUnitCommands();
                 break;
             //case 3: //MenuFrame
             case SendText:
@@ -49,6 +50,7 @@ class EventHandler implements Client.EventHandler {
                 game.unitCreate(event.getV1());
                 u = game.getUnit(event.getV1());
                 u.updatePosition(frames);
+                game.unitChanged(u);
                 eventListener.onUnitDiscover(u);
                 break;
             case UnitEvade:
@@ -60,36 +62,43 @@ class EventHandler implements Client.EventHandler {
                 game.unitShow(event.getV1());
                 u = game.getUnit(event.getV1());
                 u.updatePosition(frames);
+                game.unitChanged(u);
                 eventListener.onUnitShow(u);
                 break;
             case UnitHide:
                 game.unitHide(event.getV1());
                 u = game.getUnit(event.getV1());
+                game.unitChanged(u);
                 eventListener.onUnitHide(u);
                 break;
             case UnitCreate:
                 game.unitCreate(event.getV1());
                 u = game.getUnit(event.getV1());
                 u.updatePosition(frames);
+                game.unitChanged(u);
                 eventListener.onUnitCreate(u);
                 break;
             case UnitDestroy:
-                game.unitHide(event.getV1());
+                game.unitDestroy(event.getV1());
                 u = game.getUnit(event.getV1());
+                game.unitChanged(u);
                 eventListener.onUnitDestroy(u);
                 break;
             case UnitMorph:
                 u = game.getUnit(event.getV1());
                 u.updatePosition(frames);
+                game.unitChanged(u);
                 eventListener.onUnitMorph(u);
                 break;
             case UnitRenegade:
                 u = game.getUnit(event.getV1());
+                game.unitChanged(u);
                 eventListener.onUnitRenegade(u);
                 break;
             case UnitComplete:
                 game.unitCreate(event.getV1());
                 u = game.getUnit(event.getV1());
+                game.unitChanged(u);
                 eventListener.onUnitComplete(u);
                 break;
         }
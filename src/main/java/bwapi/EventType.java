@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * Enumeration of callback event types.
  */
@@ -30,7 +28,9 @@ public enum EventType {
     static final EventType[] idToEnum = new EventType[19];
 
     static {
-        Arrays.stream(EventType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final EventType v : EventType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
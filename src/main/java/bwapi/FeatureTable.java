@@ -0,0 +1,125 @@
+package bwapi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A table of int columns, filled row by row and stored by column.
+ * <p>
+ * Values are appended in the order of the columns, a row is complete once a value was appended to each column.
+ * The file written by {@link #write(Path)} contains, as big-endian values:
+ * the magic number {@value #MAGIC}, the number of columns, the number of rows, the name of each column as
+ * modified UTF-8 (see {@link DataOutputStream#writeUTF(String)}), then the values of each column.
+ * Each column is a contiguous array of ints, which can be loaded as is, for instance with
+ * {@code numpy.frombuffer(data, '>i4', rows, offset)}.
+ */
+public final class FeatureTable {
+    static final int MAGIC = 0x42574654; // "BWFT"
+
+    private final String[] columns;
+    private int[][] values;
+    private int rows;
+    private int column;
+
+    public FeatureTable(final String... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("A table needs at least one column");
+        }
+        this.columns = columns.clone();
+        values = new int[columns.length][64];
+    }
+
+    /**
+     * Appends a value to the next column of the current row.
+     *
+     * @return this table, to append the rest of the row.
+     */
+    public FeatureTable add(final int value) {
+        int[] columnValues = values[column];
+        if (rows == columnValues.length) {
+            columnValues = values[column] = Arrays.copyOf(columnValues, rows * 2);
+        }
+        columnValues[rows] = value;
+        if (++column == columns.length) {
+            column = 0;
+            ++rows;
+        }
+        return this;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String getColumnName(final int column) {
+        return columns[column];
+    }
+
+    /**
+     * @return The number of complete rows.
+     */
+    public int getRowCount() {
+        return rows;
+    }
+
+    public int get(final int row, final int column) {
+        if (row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+        return values[column][row];
+    }
+
+    /**
+     * Writes the complete rows to a file.
+     */
+    public void write(final Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(columns.length);
+            out.writeInt(rows);
+            for (final String name : columns) {
+                out.writeUTF(name);
+            }
+            for (final int[] columnValues : values) {
+                for (int row = 0; row < rows; ++row) {
+                    out.writeInt(columnValues[row]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a table written by {@link #write(Path)}.
+     */
+    public static FeatureTable read(final Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a feature table: " + path);
+            }
+            final int columnCount = in.readInt();
+            final int rows = in.readInt();
+            if (columnCount <= 0 || rows < 0) {
+                throw new IOException("Corrupted feature table: " + path);
+            }
+            final String[] columns = new String[columnCount];
+            for (int i = 0; i < columns.length; ++i) {
+                columns[i] = in.readUTF();
+            }
+            final FeatureTable table = new FeatureTable(columns);
+            table.values = new int[columns.length][Math.max(rows, 1)];
+            for (final int[] columnValues : table.values) {
+                for (int row = 0; row < rows; ++row) {
+                    columnValues[row] = in.readInt();
+                }
+            }
+            table.rows = rows;
+            return table;
+        }
+    }
+}
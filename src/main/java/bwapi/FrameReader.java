@@ -0,0 +1,95 @@
+package bwapi;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads the frames of a recording made by {@link FrameRecorder} into game data, which must be all zeros before
+ * the first frame. Closing the reader does not close the stream.
+ */
+final class FrameReader implements Closeable {
+    private static final byte[] ZEROS = new byte[1 << 16];
+
+    private final Inflater inflater = new Inflater();
+    private final DataInputStream data;
+    private final int[] delta = new int[2 * FrameRecorder.CHUNK_INTS];
+    private final byte[] deltaBytes = new byte[8 * FrameRecorder.CHUNK_INTS];
+    private final IntBuffer deltaInts = ByteBuffer.wrap(deltaBytes).asIntBuffer();
+
+    FrameReader(final InputStream in) throws IOException {
+        data = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in, inflater, 1 << 16), 1 << 16));
+        try {
+            if (data.readInt() != FrameRecorder.MAGIC) {
+                throw new IOException("Not a frame recording");
+            }
+            final int version = data.readInt();
+            if (version != FrameRecorder.VERSION) {
+                throw new IOException("Unsupported frame recording version: " + version);
+            }
+            if (data.readInt() != ClientData.GameData.SIZE) {
+                throw new IOException("The frame recording was made with another version of BWAPI");
+            }
+        } catch (final IOException e) {
+            inflater.end();
+            throw e;
+        }
+    }
+
+    /**
+     * Sets all the game data to zero, as expected before the first frame.
+     */
+    static void clear(final WrappedBuffer buffer) {
+        for (int offset = 0; offset < ClientData.GameData.SIZE; offset += ZEROS.length) {
+            buffer.putBytes(offset, ZEROS, 0, Math.min(ZEROS.length, ClientData.GameData.SIZE - offset));
+        }
+    }
+
+    /**
+     * Applies the changes of the next frame to the game data.
+     *
+     * @return false at the end of the recording.
+     */
+    boolean readFrame(final WrappedBuffer buffer) throws IOException {
+        int chunk;
+        try {
+            chunk = data.readInt();
+        } catch (final EOFException e) {
+            return false;
+        }
+        while (chunk != FrameRecorder.END_OF_FRAME) {
+            final int length = data.readInt();
+            if (chunk < 0 || chunk >= FrameRecorder.CHUNKS || length < 0 || length > delta.length || (length & 1) != 0) {
+                throw new IOException("Corrupted frame recording");
+            }
+            data.readFully(deltaBytes, 0, length * 4);
+            ((Buffer) deltaInts).clear();
+            deltaInts.get(delta, 0, length);
+            final int start = chunk * FrameRecorder.CHUNK_INTS;
+            final int ints = Math.min(FrameRecorder.CHUNK_INTS, FrameRecorder.INTS - start);
+            for (int i = 0; i < length; i += 2) {
+                final int index = delta[i];
+                // The buffer may not check bounds
+                if (index < 0 || index >= ints) {
+                    throw new IOException("Corrupted frame recording");
+                }
+                buffer.putInt((start + index) * 4, delta[i + 1]);
+            }
+            chunk = data.readInt();
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+}
@@ -0,0 +1,89 @@
+package bwapi;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Records the game data of every frame of a game, so it can be analyzed later without StarCraft with
+ * {@link ReplayRunner}. Set it with {@link BWClient#setFrameRecorder(FrameRecorder)}, for instance while a replay
+ * is played with {@link Flag#CompleteMapInformation}.
+ * <p>
+ * Each frame is stored as the ints of the game data which changed since the previous frame, grouped by chunks of
+ * {@value #CHUNK_INTS} ints, and the whole recording is compressed. The first frame is compared with zeros.
+ * The recorder keeps two copies of the game data, about 66 MB.
+ */
+public final class FrameRecorder implements Closeable {
+    static final int MAGIC = 0x42574652; // "BWFR"
+    static final int VERSION = 1;
+    static final int INTS = ClientData.GameData.SIZE / 4;
+    static final int CHUNK_INTS = 1 << 14;
+    static final int CHUNKS = (INTS + CHUNK_INTS - 1) / CHUNK_INTS;
+    static final int END_OF_FRAME = -1;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final DataOutputStream out;
+    private int[] previous = new int[INTS];
+    private int[] current = new int[INTS];
+    private final int[] delta = new int[2 * CHUNK_INTS];
+    private final byte[] deltaBytes = new byte[8 * CHUNK_INTS];
+    private final IntBuffer deltaInts = ByteBuffer.wrap(deltaBytes).asIntBuffer();
+    private int frames;
+
+    public FrameRecorder(final OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(out, deflater, 1 << 16), 1 << 16));
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+        this.out.writeInt(ClientData.GameData.SIZE);
+    }
+
+    public FrameRecorder(final Path path) throws IOException {
+        this(Files.newOutputStream(path));
+    }
+
+    /**
+     * @return The number of frames recorded.
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    void record(final WrappedBuffer buffer) throws IOException {
+        buffer.getInts(0, current, 0, INTS);
+        for (int chunk = 0; chunk < CHUNKS; ++chunk) {
+            final int start = chunk * CHUNK_INTS;
+            final int length = ClientData.encodeRecordDelta(previous, current, start, Math.min(CHUNK_INTS, INTS - start), delta);
+            if (length > 0) {
+                out.writeInt(chunk);
+                out.writeInt(length);
+                ((Buffer) deltaInts).clear();
+                deltaInts.put(delta, 0, length);
+                out.write(deltaBytes, 0, length * 4);
+            }
+        }
+        out.writeInt(END_OF_FRAME);
+        final int[] swap = previous;
+        previous = current;
+        current = swap;
+        ++frames;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -19,29 +19,6 @@ import static bwapi.UnitType.*;
  * resources, players, forces, bullets, terrain, fog of war, regions, etc.
  */
 public class Game {
-    private static final int[][] damageRatio = {
-            // Ind, Sml, Med, Lrg, Non, Unk
-            {0, 0, 0, 0, 0, 0}, // Independent
-            {0, 128, 192, 256, 0, 0}, // Explosive
-            {0, 256, 128, 64, 0, 0}, // Concussive
-            {0, 256, 256, 256, 0, 0}, // Normal
-            {0, 256, 256, 256, 0, 0}, // Ignore_Armor
-            {0, 0, 0, 0, 0, 0}, // None
-            {0, 0, 0, 0, 0, 0}  // Unknown
-    };
-    private static final boolean[][] bPsiFieldMask = {
-            {false, false, false, false, false, true, true, true, true, true, true, false, false, false, false, false},
-            {false, false, true, true, true, true, true, true, true, true, true, true, true, true, false, false},
-            {false, true, true, true, true, true, true, true, true, true, true, true, true, true, true, false},
-            {true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true},
-            {true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true},
-            {true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true},
-            {true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true},
-            {false, true, true, true, true, true, true, true, true, true, true, true, true, true, true, false},
-            {false, false, true, true, true, true, true, true, true, true, true, true, true, true, false, false},
-            {false, false, false, false, false, true, true, true, true, true, true, false, false, false, false, false}
-    };
-
     private static final int REGION_DATA_SIZE = 5000;
 
     private final Set<Integer> visibleUnits = new HashSet<>();
@@ -88,13 +65,31 @@ public class Game {
     private String mapPathName;
     private String mapName;
     private String mapHash;
-    private boolean[][] buildable;
-    private boolean[][] walkable;
-    private int[][] groundHeight;
-    private short[][] mapTileRegionID;
+
+    // LAZY, copied from the static map data on first use
+    private boolean[] buildable;
+    private int[] groundHeight;
+    private boolean[] walkable;
+    private short[] mapTileRegionID;
     private short[] mapSplitTilesMiniTileMask;
     private short[] mapSplitTilesRegion1;
     private short[] mapSplitTilesRegion2;
+    private DamageMatrix[] damageMatrices;
+    // LAZY, refreshed on first use in each frame
+    private TileBitmap visibleTiles;
+    private TileBitmap exploredTiles;
+    private TileBitmap creepTiles;
+    private TileBitmap occupiedTiles;
+    private PowerGrid powerGrid;
+    private PlacementGrid placementGrid;
+    private UnitMemory unitMemory;
+    private UnitChanges unitChanges;
+    private UnitCommandBuffer unitCommandBuffer;
+    // Indexes in getAllUnits() sorted by type id, the units of type id t being in [unitsByTypeStart[t], unitsByTypeStart[t + 1])
+    private int[] unitsByTypeIndex = new int[0];
+    private int[] unitsByTypeMatches = new int[0];
+    private final int[] unitsByTypeStart = new int[UnitType.idToEnum.length + 1];
+    private boolean unitsByTypeValid;
     // USER DEFINED
 
     private Text.Size textSize = Text.Size.Default;
@@ -110,31 +105,6 @@ public class Game {
         return client;
     }
 
-    private static boolean hasPower(final int x, final int y, final UnitType unitType, final List<Unit> pylons) {
-        if (unitType.id >= 0 && unitType.id < UnitType.None.id && (!unitType.requiresPsi() || !unitType.isBuilding())) {
-            return true;
-        }
-
-        // Loop through all pylons for the current player
-        for (final Unit i : pylons) {
-            if (!i.exists() || !i.isCompleted()) {
-                continue;
-            }
-            final Position p = i.getPosition();
-            if (Math.abs(p.x - x) >= 256) {
-                continue;
-            }
-            if (Math.abs(p.y - y) >= 160) {
-                continue;
-            }
-
-            if (bPsiFieldMask[(y - p.y + 160) / 32][(x - p.x + 256) / 32]) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /*
     Call this method in EventHander::OnMatchStart
     */
@@ -157,23 +127,9 @@ public class Game {
 
         playerSet = Collections.unmodifiableList(Arrays.asList(players));
 
-        final int bulletCount = 100;
-        bullets = new Bullet[bulletCount];
-        for (int id = 0; id < bulletCount; id++) {
-            bullets[id] = new Bullet(gameData.getBullets(id), id, this);
-        }
-
-        final int regionCount = gameData.getRegionCount();
-        regions = new Region[regionCount];
-        for (int id = 0; id < regionCount; id++) {
-            regions[id] = new Region(gameData.getRegions(id), this);
-        }
-
-        for (final Region region : regions) {
-            region.updateNeighbours();
-        }
-
-        regionSet = Collections.unmodifiableList(Arrays.asList(regions));
+        bullets = null;
+        regions = null;
+        regionSet = null;
 
         units = new Unit[10000];
 
@@ -226,31 +182,23 @@ public class Game {
         this.staticNeutralUnits = Collections.unmodifiableList(staticNeutralUnits);
         this.allUnits = Collections.unmodifiableList(allUnits);
 
-        buildable = new boolean[mapWidth][mapHeight];
-        groundHeight = new int[mapWidth][mapHeight];
-        mapTileRegionID = new short[mapWidth][mapHeight];
-        for (int x = 0; x < mapWidth; x++) {
-            for (int y = 0; y < mapHeight; y++) {
-                buildable[x][y] = gameData.isBuildable(x, y);
-                groundHeight[x][y] = gameData.getGroundHeight(x, y);
-                mapTileRegionID[x][y] = gameData.getMapTileRegionId(x, y);
-            }
-        }
-        walkable = new boolean[mapWidth * TILE_WALK_FACTOR][mapHeight * TILE_WALK_FACTOR];
-        for (int i = 0; i < mapWidth * TILE_WALK_FACTOR; i++) {
-            for (int j = 0; j < mapHeight * TILE_WALK_FACTOR; j++) {
-                walkable[i][j] = gameData.isWalkable(i, j);
-            }
-        }
-
-        mapSplitTilesMiniTileMask = new short[REGION_DATA_SIZE];
-        mapSplitTilesRegion1 = new short[REGION_DATA_SIZE];
-        mapSplitTilesRegion2 = new short[REGION_DATA_SIZE];
-        for (int i = 0; i < REGION_DATA_SIZE; i++) {
-            mapSplitTilesMiniTileMask[i] = gameData.getMapSplitTilesMiniTileMask(i);
-            mapSplitTilesRegion1[i] = gameData.getMapSplitTilesRegion1(i);
-            mapSplitTilesRegion2[i] = gameData.getMapSplitTilesRegion2(i);
-        }
+        buildable = null;
+        groundHeight = null;
+        walkable = null;
+        mapTileRegionID = null;
+        mapSplitTilesMiniTileMask = null;
+        mapSplitTilesRegion1 = null;
+        mapSplitTilesRegion2 = null;
+        damageMatrices = null;
+        visibleTiles = null;
+        exploredTiles = null;
+        creepTiles = null;
+        occupiedTiles = null;
+        powerGrid = null;
+        placementGrid = null;
+        unitMemory = null;
+        unitChanges = null;
+        unitCommandBuffer = null;
 
         mapPixelWidth = mapWidth * TilePosition.SIZE_IN_PIXELS;
         mapPixelHeight = mapHeight * TilePosition.SIZE_IN_PIXELS;
@@ -267,6 +215,99 @@ public class Game {
         latcom = gameData.getHasLatCom();
     }
 
+    private Bullet[] bullets() {
+        if (bullets == null) {
+            final int bulletCount = 100;
+            final Bullet[] bullets = new Bullet[bulletCount];
+            for (int id = 0; id < bulletCount; id++) {
+                bullets[id] = new Bullet(gameData.getBullets(id), id, this);
+            }
+            this.bullets = bullets;
+        }
+        return bullets;
+    }
+
+    private Region[] regions() {
+        if (regions == null) {
+            final int regionCount = gameData.getRegionCount();
+            regions = new Region[regionCount];
+            for (int id = 0; id < regionCount; id++) {
+                regions[id] = new Region(gameData.getRegions(id), this);
+            }
+
+            // The neighbours are looked up with getRegion, so the array is assigned first
+            for (final Region region : regions) {
+                region.updateNeighbours();
+            }
+
+            regionSet = Collections.unmodifiableList(Arrays.asList(regions));
+        }
+        return regions;
+    }
+
+    private boolean[] buildable() {
+        if (buildable == null) {
+            final boolean[] buildable = new boolean[mapWidth * mapHeight];
+            for (int y = 0; y < mapHeight; y++) {
+                for (int x = 0; x < mapWidth; x++) {
+                    buildable[y * mapWidth + x] = gameData.isBuildable(x, y);
+                }
+            }
+            this.buildable = buildable;
+        }
+        return buildable;
+    }
+
+    private int[] groundHeight() {
+        if (groundHeight == null) {
+            final int[] groundHeight = new int[mapWidth * mapHeight];
+            for (int y = 0; y < mapHeight; y++) {
+                for (int x = 0; x < mapWidth; x++) {
+                    groundHeight[y * mapWidth + x] = gameData.getGroundHeight(x, y);
+                }
+            }
+            this.groundHeight = groundHeight;
+        }
+        return groundHeight;
+    }
+
+    private boolean[] walkable() {
+        if (walkable == null) {
+            final int walkWidth = mapWidth * TILE_WALK_FACTOR;
+            final int walkHeight = mapHeight * TILE_WALK_FACTOR;
+            final boolean[] walkable = new boolean[walkWidth * walkHeight];
+            for (int y = 0; y < walkHeight; y++) {
+                for (int x = 0; x < walkWidth; x++) {
+                    walkable[y * walkWidth + x] = gameData.isWalkable(x, y);
+                }
+            }
+            this.walkable = walkable;
+        }
+        return walkable;
+    }
+
+    // Also copies the split tiles, which are only looked up through the region ids of the tiles
+    private short[] mapTileRegionID() {
+        if (mapTileRegionID == null) {
+            mapSplitTilesMiniTileMask = new short[REGION_DATA_SIZE];
+            mapSplitTilesRegion1 = new short[REGION_DATA_SIZE];
+            mapSplitTilesRegion2 = new short[REGION_DATA_SIZE];
+            for (int i = 0; i < REGION_DATA_SIZE; i++) {
+                mapSplitTilesMiniTileMask[i] = gameData.getMapSplitTilesMiniTileMask(i);
+                mapSplitTilesRegion1[i] = gameData.getMapSplitTilesRegion1(i);
+                mapSplitTilesRegion2[i] = gameData.getMapSplitTilesRegion2(i);
+            }
+            final short[] mapTileRegionID = new short[mapWidth * mapHeight];
+            for (int y = 0; y < mapHeight; y++) {
+                for (int x = 0; x < mapWidth; x++) {
+                    mapTileRegionID[y * mapWidth + x] = gameData.getMapTileRegionId(x, y);
+                }
+            }
+            this.mapTileRegionID = mapTileRegionID;
+        }
+        return mapTileRegionID;
+    }
+
     void unitCreate(final int id) {
         if (id > units.length) {
             //rescale unit array if needed
@@ -279,6 +320,7 @@ public class Game {
             final Unit u = new Unit(gameData.getUnits(id), id, this);
             units[id] = u;
         }
+        unitsByTypeValid = false;
     }
 
     void unitShow(final int id) {
@@ -288,18 +330,64 @@ public class Game {
 
     void unitHide(final int id) {
         visibleUnits.remove(id);
+        unitsByTypeValid = false;
+        if (unitMemory != null) {
+            unitMemory.unitHide(id);
+        }
+    }
+
+    void unitDestroy(final int id) {
+        unitHide(id);
+        if (unitMemory != null) {
+            unitMemory.unitDestroy(id);
+        }
+    }
+
+    /**
+     * Called after an event changed the state of a unit.
+     */
+    void unitChanged(final Unit unit) {
+        unitsByTypeValid = false;
+        if (placementGrid != null) {
+            placementGrid.update(unit);
+        }
+    }
+
+    /**
+     * Called when latency compensation changed the type of a unit.
+     */
+    void unitTypeChanged() {
+        unitsByTypeValid = false;
     }
 
     void onFrame(final int frame) {
+        unitsByTypeValid = false;
         if (frame > 0) {
             allUnits = visibleUnits.stream()
                     .map(i -> units[i])
                     .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
         }
         getAllUnits().forEach(u -> u.updatePosition(frame));
+        if (placementGrid != null) {
+            placementGrid.onFrame();
+        }
+        if (unitMemory != null) {
+            unitMemory.onFrame(frame);
+        }
+        if (unitChanges != null) {
+            unitChanges.update(frame);
+        }
     }
 
     void addUnitCommand(final int type, final int unit, final int target, final int x, final int y, final int extra) {
+        if (unitCommandBuffer != null) {
+            unitCommandBuffer.add(type, unit, target, x, y, extra);
+        } else {
+            writeUnitCommand(type, unit, target, x, y, extra);
+        }
+    }
+
+    void writeUnitCommand(final int type, final int unit, final int target, final int x, final int y, final int extra) {
         ClientData.UnitCommand unitCommand = client.addUnitCommand();
         unitCommand.setTid(type);
         unitCommand.setUnitIndex(unit);
@@ -439,7 +527,7 @@ public class Game {
      * @return List<Bullet> containing all accessible {@link Bullet} objects.
      */
     public List<Bullet> getBullets() {
-        return Arrays.stream(bullets)
+        return Arrays.stream(bullets())
                 .filter(Bullet::exists)
                 .collect(Collectors.toList());
     }
@@ -503,6 +591,7 @@ public class Game {
      * @return {@link Region} object mapped to the given regionID. Returns null if the given ID is invalid.
      */
     public Region getRegion(final int regionID) {
+        final Region[] regions = regions();
         if (regionID < 0 || regionID >= regions.length) {
             return null;
         }
@@ -691,7 +780,7 @@ public class Game {
      * given build tile.
      */
     public List<Unit> getUnitsOnTile(final int tileX, final int tileY, final UnitFilter pred) {
-        return getAllUnits().stream().filter(u -> {
+        return candidates(pred).stream().filter(u -> {
             final TilePosition tp = u.getTilePosition();
             return tp.x == tileX && tp.y == tileY && pred.test(u);
         }).collect(Collectors.toList());
@@ -713,7 +802,7 @@ public class Game {
      * given rectangle bounds.
      */
     public List<Unit> getUnitsInRectangle(final int left, final int top, final int right, final int bottom, final UnitFilter pred) {
-        return getAllUnits().stream()
+        return candidates(pred).stream()
                 .filter(u -> left <= u.getRight() && top <= u.getBottom() && right >= u.getLeft() && bottom >= u.getTop() && pred.test(u))
                 .collect(Collectors.toList());
     }
@@ -750,11 +839,64 @@ public class Game {
     }
 
     public List<Unit> getUnitsInRadius(final Position center, final int radius, final UnitFilter pred) {
-        return getAllUnits().stream()
+        return candidates(pred).stream()
                 .filter(u -> center.getApproxDistance(u.getPosition()) <= radius && pred.test(u))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the units which can match the filter: all the accessible units, or only the ones
+     * of the matching types for a {@link UnitTypeFilter}, in the same order.
+     */
+    private List<Unit> candidates(final UnitFilter pred) {
+        final UnitTypeFilter types = UnitTypeFilter.typesOf(pred);
+        if (types == null) {
+            return getAllUnits();
+        }
+        if (!unitsByTypeValid) {
+            sortUnitsByType();
+        }
+        int count = 0;
+        for (int id = types.nextTypeId(0); id >= 0; id = types.nextTypeId(id + 1)) {
+            for (int i = unitsByTypeStart[id]; i < unitsByTypeStart[id + 1]; ++i) {
+                unitsByTypeMatches[count++] = unitsByTypeIndex[i];
+            }
+        }
+        // Keep the order of getAllUnits, which decides between units at the same distance
+        Arrays.sort(unitsByTypeMatches, 0, count);
+        final List<Unit> allUnits = getAllUnits();
+        final List<Unit> result = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            result.add(allUnits.get(unitsByTypeMatches[i]));
+        }
+        return result;
+    }
+
+    private void sortUnitsByType() {
+        final List<Unit> allUnits = getAllUnits();
+        final int[] start = unitsByTypeStart;
+        Arrays.fill(start, 0);
+        for (final Unit unit : allUnits) {
+            ++start[unit.getType().id + 1];
+        }
+        for (int i = 1; i < start.length; ++i) {
+            start[i] += start[i - 1];
+        }
+        if (unitsByTypeIndex.length < allUnits.size()) {
+            unitsByTypeIndex = new int[allUnits.size() * 2];
+            unitsByTypeMatches = new int[allUnits.size() * 2];
+        }
+        // Place each unit at the next free slot of its type, then shift the starts back
+        for (int i = 0; i < allUnits.size(); ++i) {
+            unitsByTypeIndex[start[allUnits.get(i).getType().id]++] = i;
+        }
+        for (int i = start.length - 1; i > 0; --i) {
+            start[i] = start[i - 1];
+        }
+        start[0] = 0;
+        unitsByTypeValid = true;
+    }
+
     public Unit getClosestUnitInRectangle(final Position center, final int left, final int top, final int right, final int bottom) {
         return getClosestUnitInRectangle(center, left, top, right, bottom, u -> true);
     }
@@ -895,7 +1037,7 @@ public class Game {
         if (!position.isValid(this)) {
             return false;
         }
-        return walkable[position.x][position.y];
+        return walkable()[position.y * mapWidth * TILE_WALK_FACTOR + position.x];
     }
 
     /**
@@ -920,7 +1062,7 @@ public class Game {
         if (!position.isValid(this)) {
             return 0;
         }
-        return groundHeight[position.x][position.y];
+        return groundHeight()[position.y * mapWidth + position.x];
     }
 
     public boolean isBuildable(final int tileX, final int tileY) {
@@ -940,7 +1082,10 @@ public class Game {
      * occupying the tile.
      */
     public boolean isBuildable(final int tileX, final int tileY, final boolean includeBuildings) {
-        return isBuildable(new TilePosition(tileX, tileY), includeBuildings);
+        if (!isValidTile(tileX, tileY)) {
+            return false;
+        }
+        return buildable()[tileY * mapWidth + tileX] && (!includeBuildings || !gameData.isOccupied(tileX, tileY));
     }
 
     public boolean isBuildable(final TilePosition position) {
@@ -948,10 +1093,7 @@ public class Game {
     }
 
     public boolean isBuildable(final TilePosition position, final boolean includeBuildings) {
-        if (!position.isValid(this)) {
-            return false;
-        }
-        return buildable[position.x][position.y] && (!includeBuildings || !gameData.isOccupied(position.x, position.y));
+        return isBuildable(position.x, position.y, includeBuildings);
     }
 
     /**
@@ -964,14 +1106,11 @@ public class Game {
      * be false.
      */
     public boolean isVisible(final int tileX, final int tileY) {
-        return isVisible(new TilePosition(tileX, tileY));
+        return isValidTile(tileX, tileY) && gameData.isVisible(tileX, tileY);
     }
 
     public boolean isVisible(final TilePosition position) {
-        if (!position.isValid(this)) {
-            return false;
-        }
-        return gameData.isVisible(position.x, position.y);
+        return isVisible(position.x, position.y);
     }
 
     /**
@@ -985,14 +1124,11 @@ public class Game {
      * @see #isVisible
      */
     public boolean isExplored(final int tileX, final int tileY) {
-        return isExplored(new TilePosition(tileX, tileY));
+        return isValidTile(tileX, tileY) && gameData.isExplored(tileX, tileY);
     }
 
     public boolean isExplored(final TilePosition position) {
-        if (!position.isValid(this)) {
-            return false;
-        }
-        return gameData.isExplored(position.x, position.y);
+        return isExplored(position.x, position.y);
     }
 
     /**
@@ -1003,18 +1139,74 @@ public class Game {
      * @return true if the given tile has creep on it, false if the given tile does not have creep, or if it is concealed by the fog of war.
      */
     public boolean hasCreep(final int tileX, final int tileY) {
-        return hasCreep(new TilePosition(tileX, tileY));
+        return isValidTile(tileX, tileY) && gameData.getHasCreep(tileX, tileY);
     }
 
     public boolean hasCreep(final TilePosition position) {
-        if (!position.isValid(this)) {
-            return false;
+        return hasCreep(position.x, position.y);
+    }
+
+    private boolean isValidTile(final int tileX, final int tileY) {
+        return tileX >= 0 && tileY >= 0 && tileX < mapWidth && tileY < mapHeight;
+    }
+
+    /**
+     * Retrieves the tiles which are visible to the current player, as a read-only bitmap.
+     * It is built from the game data on its first use in a frame, which is faster than
+     * calling {@link #isVisible} for more than a few hundred tiles.
+     *
+     * @return The {@link TileBitmap} of the visible tiles in the current frame.
+     * @see #isVisible
+     */
+    public TileBitmap getVisibleTiles() {
+        if (visibleTiles == null) {
+            visibleTiles = TileBitmap.readOnly(mapWidth, mapHeight);
+        }
+        return visibleTiles.update(getFrameCount(), gameData, ClientData.GameData::getIsVisibleBytes);
+    }
+
+    /**
+     * Retrieves the tiles which have been explored by the current player, as a read-only bitmap.
+     *
+     * @return The {@link TileBitmap} of the explored tiles in the current frame.
+     * @see #isExplored
+     */
+    public TileBitmap getExploredTiles() {
+        if (exploredTiles == null) {
+            exploredTiles = TileBitmap.readOnly(mapWidth, mapHeight);
+        }
+        return exploredTiles.update(getFrameCount(), gameData, ClientData.GameData::getIsExploredBytes);
+    }
+
+    /**
+     * Retrieves the tiles which have @Zerg creep on them, as a read-only bitmap.
+     * Tiles concealed by the fog of war are never set.
+     *
+     * @return The {@link TileBitmap} of the tiles with creep in the current frame.
+     * @see #hasCreep
+     */
+    public TileBitmap getCreepTiles() {
+        if (creepTiles == null) {
+            creepTiles = TileBitmap.readOnly(mapWidth, mapHeight);
+        }
+        return creepTiles.update(getFrameCount(), gameData, ClientData.GameData::getHasCreepBytes);
+    }
+
+    /**
+     * Retrieves the tiles which are occupied by visible structures, as a read-only bitmap.
+     *
+     * @return The {@link TileBitmap} of the occupied tiles in the current frame.
+     * @see #isBuildable(TilePosition, boolean)
+     */
+    public TileBitmap getOccupiedTiles() {
+        if (occupiedTiles == null) {
+            occupiedTiles = TileBitmap.readOnly(mapWidth, mapHeight);
         }
-        return gameData.getHasCreep(position.x, position.y);
+        return occupiedTiles.update(getFrameCount(), gameData, ClientData.GameData::getIsOccupiedBytes);
     }
 
     public boolean hasPowerPrecise(final int x, final int y) {
-        return hasPowerPrecise(new Position(x, y));
+        return hasPowerPrecise(x, y, UnitType.None);
     }
 
     /**
@@ -1027,7 +1219,17 @@ public class Game {
      * @return true if the type at the given position will have power, false if the type at the given position will be unpowered.
      */
     public boolean hasPowerPrecise(final int x, final int y, final UnitType unitType) {
-        return hasPowerPrecise(new Position(x, y), unitType);
+        if (x < 0 || y < 0 || x >= mapPixelWidth || y >= mapPixelHeight) {
+            return false;
+        }
+        if (unitType.id >= 0 && unitType.id < UnitType.None.id && (!unitType.requiresPsi() || !unitType.isBuilding())) {
+            return true;
+        }
+        if (powerGrid == null) {
+            powerGrid = new PowerGrid(this);
+        }
+        powerGrid.update(getFrameCount());
+        return powerGrid.hasPower(x, y);
     }
 
     public boolean hasPowerPrecise(final Position position) {
@@ -1035,18 +1237,18 @@ public class Game {
     }
 
     public boolean hasPowerPrecise(final Position position, final UnitType unitType) {
-        if (!position.isValid(this)) {
-            return false;
-        }
-        return hasPower(position.x, position.y, unitType, self().getUnits().stream().filter(u -> u.getType() == Protoss_Pylon).collect(Collectors.toList()));
+        return hasPowerPrecise(position.x, position.y, unitType);
     }
 
     public boolean hasPower(final int tileX, final int tileY) {
-        return hasPower(new TilePosition(tileX, tileY));
+        return hasPower(tileX, tileY, UnitType.None);
     }
 
     public boolean hasPower(final int tileX, final int tileY, final UnitType unitType) {
-        return hasPower(new TilePosition(tileX, tileY), unitType);
+        if (unitType.id >= 0 && unitType.id < UnitType.None.id) {
+            return hasPowerPrecise(tileX * 32 + unitType.tileWidth() * 16, tileY * 32 + unitType.tileHeight() * 16, unitType);
+        }
+        return hasPowerPrecise(tileX * 32, tileY * 32, UnitType.None);
     }
 
     public boolean hasPower(final TilePosition position) {
@@ -1256,7 +1458,7 @@ public class Game {
         }
 
         // Get the required UnitType
-        final UnitType requiredType = type.whatBuilds().getKey();
+        final UnitType requiredType = type.whatBuildsType();
 
         // do checks if a builder is provided
         if (builder != null) {
@@ -1332,13 +1534,13 @@ public class Game {
         }
 
         UnitType addon = UnitType.None;
-        final Map<UnitType, Integer> reqUnits = type.requiredUnits();
-        for (final UnitType ut : type.requiredUnits().keySet()) {
+        for (int i = 0; i < type.requiredUnitTypeCount(); i++) {
+            final UnitType ut = type.requiredUnitType(i);
             if (ut.isAddon()) {
                 addon = ut;
             }
 
-            if (!pSelf.hasUnitTypeRequirement(ut, reqUnits.get(ut))) {
+            if (!pSelf.hasUnitTypeRequirement(ut, type.requiredUnitAmount(i))) {
                 return false;
             }
         }
@@ -1349,7 +1551,7 @@ public class Game {
 
         return builder == null ||
                 addon == UnitType.None ||
-                addon.whatBuilds().getKey() != type.whatBuilds().getKey() ||
+                addon.whatBuildsType() != type.whatBuildsType() ||
                 (builder.getAddon() != null && builder.getAddon().getType() == addon);
     }
 
@@ -1639,6 +1841,60 @@ public class Game {
         addCommand(SetLocalSpeed, speed, 0);
     }
 
+    /**
+     * Enables or disables the buffering of unit commands, which is disabled by default.
+     * <p>
+     * When enabled, the unit commands of a frame are written to the game once, after {@link BWEventListener#onFrame()}.
+     * A command identical to the last command issued to a unit which is still executing it is not sent again,
+     * and an order which is not queued replaces the orders given to the same unit earlier in the frame.
+     * Identical commands to several units are sent together in groups of 12, which the command optimizer
+     * can merge (see {@link #setCommandOptimizationLevel}).
+     * <p>
+     * {@link Unit#issueCommand} still returns true for a command which is not sent because the unit is already
+     * executing it, and {@link Unit#getLastCommandFrame()} keeps the frame in which it was sent.
+     *
+     * @param enabled true to buffer the commands, false to write them immediately.
+     */
+    public void setCommandBuffering(final boolean enabled) {
+        if (enabled && unitCommandBuffer == null) {
+            unitCommandBuffer = new UnitCommandBuffer(this);
+        } else if (!enabled && unitCommandBuffer != null) {
+            unitCommandBuffer.flush();
+            unitCommandBuffer = null;
+        }
+    }
+
+    public boolean isCommandBuffering() {
+        return unitCommandBuffer != null;
+    }
+
+    /**
+     * Writes the buffered unit commands, called at the end of each frame.
+     */
+    void flushUnitCommands() {
+        if (unitCommandBuffer != null) {
+            unitCommandBuffer.flush();
+        }
+    }
+
+    /**
+     * Checks several commands at once, each one with {@link Unit#canIssueCommand(UnitCommand)}.
+     * The commandability of each unit and the validity of each command type for a unit are only checked
+     * once per frame, so validating several commands for the same units costs little more than the target checks.
+     *
+     * @param commands The commands to check, each one for its own unit.
+     * @return An array with true at the index of each command which can be issued.
+     */
+    public boolean[] canIssueCommands(final List<UnitCommand> commands) {
+        final boolean[] result = new boolean[commands.size()];
+        int i = 0;
+        for (final UnitCommand command : commands) {
+            final Unit unit = command.getUnit();
+            result[i++] = unit != null && unit.canIssueCommand(command);
+        }
+        return result;
+    }
+
     /**
      * Issues a given command to a set of units. This function automatically
      * splits the set into groups of 12 and issues the same command to each of them. If a unit
@@ -2110,6 +2366,20 @@ public class Game {
         drawLine(CoordinateType.Screen, a.x, a.y, b.x, b.y, color);
     }
 
+    /**
+     * Draws the shapes of a layer for this frame, skipping the ones with map coordinates which are
+     * outside of the screen if culling is enabled on the layer.
+     * <p>
+     * Unlike the other drawing functions, this does not fail when the maximum number of shapes or strings
+     * of a frame is reached, the remaining shapes are not drawn instead.
+     *
+     * @param layer The shapes to draw.
+     * @return The number of shapes drawn.
+     */
+    public int draw(final DrawingLayer layer) {
+        return layer.draw(gameData, gameData.getScreenX(), gameData.getScreenY());
+    }
+
     /**
      * Retrieves the maximum delay, in number of frames, between a command being issued
      * and the command being executed by Broodwar.
@@ -2538,6 +2808,7 @@ public class Game {
      * @return List<Region> containing all map regions.
      */
     public List<Region> getAllRegions() {
+        regions();
         return regionSet;
     }
 
@@ -2558,7 +2829,7 @@ public class Game {
         if (!position.isValid(this)) {
             return null;
         }
-        final short idx = mapTileRegionID[position.x / 32][position.y / 32];
+        final short idx = mapTileRegionID()[(position.y / 32) * mapWidth + position.x / 32];
         if ((idx & 0x2000) != 0) {
             final int index = idx & 0x1FFF;
 
@@ -2598,22 +2869,98 @@ public class Game {
         return BuildingPlacer.getBuildLocation(type, desiredPosition, maxRange, creep, this);
     }
 
+    /**
+     * Retrieves the last known state of the enemy units, including the ones which are no longer visible.
+     * Units are only remembered from the first call, which should be done in {@link BWEventListener#onStart()}.
+     *
+     * @return The {@link UnitMemory} of this game, created on the first call.
+     */
+    public UnitMemory getUnitMemory() {
+        if (unitMemory == null) {
+            unitMemory = new UnitMemory(this);
+        }
+        return unitMemory;
+    }
+
+    /**
+     * Retrieves the units whose state changed since the previous frame.
+     * Changes are only compared from the first call, in which all the accessible units are reported as appeared.
+     *
+     * @return The {@link UnitChanges} of this game, created on the first call.
+     */
+    public UnitChanges getUnitChanges() {
+        if (unitChanges == null) {
+            unitChanges = new UnitChanges(this);
+        }
+        return unitChanges;
+    }
+
+    /**
+     * Retrieves the building placer which keeps the space reserved around structures up to date
+     * from the unit events, to find build locations without scanning all the units on each query.
+     *
+     * @return The {@link PlacementGrid} of this game, created on the first call.
+     */
+    public PlacementGrid getPlacementGrid() {
+        if (placementGrid == null) {
+            placementGrid = new PlacementGrid(this);
+        }
+        return placementGrid;
+    }
+
     private int getDamageFromImpl(UnitType fromType, UnitType toType, Player fromPlayer, Player toPlayer) {
-        // Retrieve appropriate weapon
+        return DamageMatrix.computeDamage(fromType, toType, fromPlayer, toPlayer);
+    }
+
+    /**
+     * Retrieves the damage dealt by every unit type to every unit type, for a pair of players.
+     * Looking up a pair of types in the matrix is faster than {@link #getDamageFrom}, which makes it suited
+     * to evaluating every attacker and defender in a battle.
+     * <p>
+     * The matrix only takes into account the upgrades of the current frame, it should be retrieved
+     * again on the next frames.
+     *
+     * @param fromPlayer The player owner of the types that will be dealing the damage. If null, then no player will be used to calculate their upgrades.
+     * @param toPlayer   The player owner of the types that will be receiving the damage. If null, then no player will be used to calculate their upgrades.
+     * @return The {@link DamageMatrix} of this pair of players.
+     * @see #getDamageFrom
+     */
+    public DamageMatrix getDamageMatrix(final Player fromPlayer, final Player toPlayer) {
+        // One matrix per pair of players, index 0 standing for no player
+        final int size = players.length + 1;
+        if (damageMatrices == null) {
+            damageMatrices = new DamageMatrix[size * size];
+        }
+        final int index = (fromPlayer == null ? 0 : fromPlayer.getID() + 1) * size + (toPlayer == null ? 0 : toPlayer.getID() + 1);
+        DamageMatrix matrix = damageMatrices[index];
+        if (matrix == null) {
+            matrix = new DamageMatrix(fromPlayer, toPlayer);
+            damageMatrices[index] = matrix;
+        }
+        matrix.update();
+        return matrix;
+    }
+
+    /**
+     * Retrieves the maximum range of the weapon that fromType uses against toType. Includes upgrades if
+     * a player is provided.
+     *
+     * @param fromType   The unit type that will be attacking.
+     * @param toType     The unit type that will be attacked.
+     * @param fromPlayer The player owner of fromType. If null, then no player will be used to calculate the upgrades for fromType.
+     * @return The maximum range in pixels, or 0 if fromType cannot attack toType.
+     * @see Player#weaponMaxRange
+     */
+    public int getWeaponMaxRange(final UnitType fromType, final UnitType toType, final Player fromPlayer) {
         final WeaponType wpn = toType.isFlyer() ? fromType.airWeapon() : fromType.groundWeapon();
         if (wpn == WeaponType.None || wpn == WeaponType.Unknown) {
             return 0;
         }
+        return fromPlayer != null ? fromPlayer.weaponMaxRange(wpn) : wpn.maxRange();
+    }
 
-        // Get initial weapon damage
-        int dmg = fromPlayer != null ? fromPlayer.damage(wpn) : wpn.damageAmount() * wpn.damageFactor();
-
-        // If we need to calculate using armor
-        if (wpn.damageType() != DamageType.Ignore_Armor && toPlayer != null) {
-            dmg -= Math.min(dmg, toPlayer.armor(toType));
-        }
-
-        return dmg * damageRatio[wpn.damageType().id][toType.size().id] / 256;
+    public int getWeaponMaxRange(final UnitType fromType, final UnitType toType) {
+        return getWeaponMaxRange(fromType, toType, null);
     }
 
 
@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * An enum that represents game types in Broodwar.
  * <p>
@@ -32,7 +30,9 @@ public enum GameType {
     static final GameType[] idToEnum = new GameType[33 + 1];
 
     static {
-        Arrays.stream(GameType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final GameType v : GameType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
 
@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * Contains enumeration of known latency values.
  *
@@ -20,7 +18,9 @@ public enum Latency {
     static final Latency[] idToEnum = new Latency[24 + 1];
 
     static {
-        Arrays.stream(Latency.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final Latency v : Latency.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
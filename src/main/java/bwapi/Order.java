@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * An Order (Order type) represents a Unit's current action and can be retrieved with
  * {@link Unit#getOrder}.
@@ -206,7 +204,9 @@ public enum Order {
     static final Order[] idToEnum = new Order[190 + 1];
 
     static {
-        Arrays.stream(Order.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final Order v : Order.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
 
@@ -0,0 +1,617 @@
+package bwapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Map-wide building placement, following the same steps as {@link Game#getBuildLocation}.
+ * <p>
+ * The space reserved around structures is kept in per-tile grids which are updated when a unit is created,
+ * destroyed, morphed, shown, hidden or changes owner, instead of being recomputed from all the units on each query.
+ * The own buildings which can lift off are also checked on each frame, as they move without any event.
+ * A query only scans its search window, and tiles whose footprint is not buildable are skipped before calling
+ * {@link Game#canBuildHere}.
+ * <p>
+ * Unlike {@link Game#getBuildLocation}, only structures reserve space, not the player's mobile units.
+ */
+public final class PlacementGrid {
+    private static final int MAX_RANGE = 64;
+    // Own resource depots and refineries
+    private static final int OWN_RESOURCE = 0;
+    // Neutral minerals and geysers
+    private static final int NEUTRAL_RESOURCE = 1;
+    // Addon slots of own buildings which can have one
+    private static final int ADDON = 2;
+    // All own structures
+    private static final int OWN_STRUCTURE = 3;
+    // Footprints of the buildings planned by getBuildLocations
+    private static final int PLANNED = 4;
+    private static final int LAYER_COUNT = 5;
+    private static final int[] TEMPLATE_COLUMNS = {0, -1, 1, -2, -3, -4, -5};
+    private static final int[] TEMPLATE_ROWS = {0, -1, 1, -2, -3, -4};
+
+    private final Game game;
+    private final int width;
+    private final int height;
+    private final short[][] counts = new short[LAYER_COUNT][];
+    private final short[] buildablePrefix;
+    private Reservation[] reservations = new Reservation[0];
+    private final List<Reservation> planned = new ArrayList<>();
+    // Own buildings which can lift off, and the tile of their center and lifted state when last updated
+    private int movableCount;
+    private int[] movableIds = new int[8];
+    private int[] movableKeys = new int[8];
+
+    // Search window, reused between queries
+    private int windowSize;
+    private int windowLeft;
+    private int windowTop;
+    private byte[] state = new byte[0];
+    private byte[] backup = new byte[0];
+    private int[] prefix = new int[0];
+    private int prefixStride;
+    // Ground units which could be in the way of a structure in the window, in pixels
+    private int blockerCount;
+    private int[] blockerLeft = new int[16];
+    private int[] blockerTop = new int[16];
+    private int[] blockerRight = new int[16];
+    private int[] blockerBottom = new int[16];
+    private boolean[] blockerCanMove = new boolean[16];
+
+    private static final class Reservation {
+        final int layer;
+        final int left;
+        final int top;
+        final int right;
+        final int bottom;
+        final Reservation next;
+
+        Reservation(final int layer, final int left, final int top, final int right, final int bottom, final Reservation next) {
+            this.layer = layer;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+            this.next = next;
+        }
+    }
+
+    PlacementGrid(final Game game) {
+        this.game = game;
+        this.width = game.mapWidth();
+        this.height = game.mapHeight();
+        for (int i = 0; i < LAYER_COUNT; ++i) {
+            counts[i] = new short[width * height];
+        }
+
+        // Number of unbuildable tiles above and left of each tile, to reject footprints without calling canBuildHere
+        final int stride = width + 1;
+        buildablePrefix = new short[stride * (height + 1)];
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                buildablePrefix[(y + 1) * stride + x + 1] = (short) ((game.isBuildable(x, y) ? 0 : 1)
+                        + buildablePrefix[y * stride + x + 1] + buildablePrefix[(y + 1) * stride + x] - buildablePrefix[y * stride + x]);
+            }
+        }
+
+        for (final Unit unit : game.getAllUnits()) {
+            update(unit);
+        }
+    }
+
+    /**
+     * Replaces the reservations of a unit with the ones matching its current state.
+     */
+    void update(final Unit unit) {
+        final int id = unit.getID();
+        if (id >= reservations.length) {
+            reservations = Arrays.copyOf(reservations, Math.max(id + 1, reservations.length * 2));
+        }
+        apply(reservations[id], -1);
+        reservations[id] = reservationsOf(unit);
+        apply(reservations[id], 1);
+        track(unit);
+    }
+
+    /**
+     * Updates the reservations of the own buildings which lifted off, landed or moved since the previous frame.
+     */
+    void onFrame() {
+        for (int i = 0; i < movableCount; ++i) {
+            final Unit unit = game.getUnit(movableIds[i]);
+            if (movableKeys[i] != movableKey(unit)) {
+                // May untrack the unit, which moves the last one to this index
+                final int count = movableCount;
+                update(unit);
+                if (movableCount < count) {
+                    --i;
+                }
+            }
+        }
+    }
+
+    private void track(final Unit unit) {
+        final int id = unit.getID();
+        int index = 0;
+        while (index < movableCount && movableIds[index] != id) {
+            ++index;
+        }
+        if (unit.exists() && unit.getType().isFlyingBuilding() && game.self().equals(unit.getPlayer())) {
+            if (index == movableCount) {
+                if (movableCount == movableIds.length) {
+                    movableIds = Arrays.copyOf(movableIds, movableCount * 2);
+                    movableKeys = Arrays.copyOf(movableKeys, movableCount * 2);
+                }
+                movableIds[movableCount++] = id;
+            }
+            movableKeys[index] = movableKey(unit);
+        } else if (index < movableCount) {
+            --movableCount;
+            movableIds[index] = movableIds[movableCount];
+            movableKeys[index] = movableKeys[movableCount];
+        }
+    }
+
+    private static int movableKey(final Unit unit) {
+        final Position position = unit.getPosition();
+        return position.x / 32 | position.y / 32 << 12 | (unit.isLifted() ? 1 << 24 : 0);
+    }
+
+    private Reservation reservationsOf(final Unit unit) {
+        if (!unit.exists()) {
+            return null;
+        }
+        final UnitType type = unit.getType();
+        final TilePosition center = unit.getPosition().toTilePosition();
+        final Player player = unit.getPlayer();
+        if (player.equals(game.self())) {
+            if (!type.isBuilding() || unit.isLifted()) {
+                return null;
+            }
+            final boolean ready = unit.isCompleted() || type.producesLarva() && unit.isMorphing();
+            return ownReservations(type, center, unit.getTilePosition(), ready, null);
+        }
+        if (player.equals(game.neutral()) && type.isResourceContainer()) {
+            return padded(NEUTRAL_RESOURCE, type, center, 2, null);
+        }
+        return null;
+    }
+
+    private static Reservation ownReservations(final UnitType type, final TilePosition center, final TilePosition topLeft,
+                                               final boolean ready, Reservation next) {
+        if (ready && (type.isResourceDepot() || type.isRefinery())) {
+            next = padded(OWN_RESOURCE, type, center, 2, next);
+        }
+        next = padded(OWN_STRUCTURE, type, center, hasSmallPadding(type) ? 1 : 2, next);
+        if (type.canBuildAddon()) {
+            next = new Reservation(ADDON, topLeft.x + 4, topLeft.y + 1, topLeft.x + 6, topLeft.y + 3, next);
+        }
+        return next;
+    }
+
+    private static boolean hasSmallPadding(final UnitType type) {
+        switch (type) {
+            case Terran_Factory:
+            case Terran_Missile_Turret:
+            case Protoss_Robotics_Facility:
+            case Protoss_Gateway:
+            case Protoss_Photon_Cannon:
+            case Terran_Barracks:
+            case Terran_Bunker:
+            case Zerg_Creep_Colony:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // The footprint of a unit centered on a tile, grown by padding on each side
+    private static Reservation padded(final int layer, final UnitType type, final TilePosition center, final int padding, final Reservation next) {
+        final int paddedWidth = type.tileWidth() + 2 * padding;
+        final int paddedHeight = type.tileHeight() + 2 * padding;
+        final int left = center.x - paddedWidth / 2;
+        final int top = center.y - paddedHeight / 2;
+        return new Reservation(layer, left, top, left + paddedWidth, top + paddedHeight, next);
+    }
+
+    private void apply(Reservation reservation, final int delta) {
+        for (; reservation != null; reservation = reservation.next) {
+            final short[] grid = counts[reservation.layer];
+            final int right = Math.min(reservation.right, width);
+            final int bottom = Math.min(reservation.bottom, height);
+            for (int y = Math.max(reservation.top, 0); y < bottom; ++y) {
+                for (int x = Math.max(reservation.left, 0); x < right; ++x) {
+                    grid[y * width + x] += delta;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves a basic build position for the given unit type near the desired position,
+     * like {@link Game#getBuildLocation(UnitType, TilePosition, int)}.
+     *
+     * @param type            The UnitType of the structure to place.
+     * @param desiredPosition The position to search around.
+     * @param maxRange        The maximum distance from the desired position, the search window is at most 64x64 tiles.
+     * @return The best position, or {@link TilePosition#None} if none was found.
+     */
+    public TilePosition getBuildLocation(final UnitType type, final TilePosition desiredPosition, final int maxRange) {
+        return find(type, desiredPosition, maxRange);
+    }
+
+    public TilePosition getBuildLocation(final UnitType type, final TilePosition desiredPosition) {
+        return getBuildLocation(type, desiredPosition, MAX_RANGE);
+    }
+
+    /**
+     * Plans the placement of several structures around the same desired position in one pass.
+     * Each structure is placed as if the ones before it in the list were already built, so the same
+     * type can be repeated to get its best locations which do not overlap.
+     *
+     * @param types           The structures to place, in order of priority.
+     * @param desiredPosition The position to search around.
+     * @param maxRange        The maximum distance from the desired position, the search window is at most 64x64 tiles.
+     * @return One position per type, {@link TilePosition#None} for the ones which could not be placed.
+     */
+    public List<TilePosition> getBuildLocations(final List<UnitType> types, final TilePosition desiredPosition, final int maxRange) {
+        final List<TilePosition> result = new ArrayList<>(types.size());
+        try {
+            for (final UnitType type : types) {
+                final TilePosition position = find(type, desiredPosition, maxRange);
+                result.add(position);
+                if (position != TilePosition.None && position != TilePosition.Invalid) {
+                    plan(type, position);
+                }
+            }
+        } finally {
+            for (final Reservation reservation : planned) {
+                apply(reservation, -1);
+            }
+            planned.clear();
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private void plan(final UnitType type, final TilePosition position) {
+        final TilePosition center = new TilePosition(
+                (position.x * 32 + type.tileWidth() * 16) / 32,
+                (position.y * 32 + type.tileHeight() * 16) / 32);
+        Reservation reservation = ownReservations(type, center, position, true,
+                new Reservation(PLANNED, position.x, position.y, position.x + type.tileWidth(), position.y + type.tileHeight(), null));
+        if (type.canBuildAddon()) {
+            reservation = new Reservation(PLANNED, position.x + 4, position.y + 1, position.x + 6, position.y + 3, reservation);
+        }
+        apply(reservation, 1);
+        planned.add(reservation);
+    }
+
+    private TilePosition find(final UnitType type, TilePosition desiredPosition, final int maxRange) {
+        if (!type.isBuilding()) {
+            return TilePosition.Invalid;
+        }
+
+        boolean trimPlacement = true;
+        switch (type) {
+            case Protoss_Pylon:
+                final Player self = game.self();
+                final Unit unpowered = game.getClosestUnit(desiredPosition.toPosition(), u -> self.equals(u.getPlayer()) && !u.isPowered());
+                if (unpowered != null) {
+                    desiredPosition = unpowered.getPosition().toTilePosition();
+                    trimPlacement = false;
+                }
+                break;
+            case Terran_Command_Center:
+            case Protoss_Nexus:
+            case Zerg_Hatchery:
+            case Special_Start_Location:
+                trimPlacement = false;
+                break;
+        }
+
+        setWindow(desiredPosition, maxRange);
+        collectBlockers();
+        if (!assignBuildableLocations(type, desiredPosition)) {
+            return TilePosition.None;
+        }
+        reserveGroundHeight(desiredPosition);
+        if (!type.isResourceDepot()) {
+            if (!type.isAddon()) {
+                reserve(type, type == UnitType.Terran_Bunker ? 1 << OWN_RESOURCE : 1 << OWN_RESOURCE | 1 << NEUTRAL_RESOURCE);
+            }
+            reserve(type, 1 << ADDON);
+            switch (type) {
+                case Protoss_Pylon:
+                case Terran_Bunker:
+                case Terran_Missile_Turret:
+                case Protoss_Photon_Cannon:
+                case Zerg_Creep_Colony:
+                    break;
+                default:
+                    reserve(type, 1 << OWN_STRUCTURE);
+                    break;
+            }
+        }
+        if (trimPlacement) {
+            reserveTemplateSpacing(desiredPosition);
+        }
+
+        // Closest location, the first one in row order on ties
+        int bestDistance = Integer.MAX_VALUE;
+        int fallbackDistance = Integer.MAX_VALUE;
+        TilePosition bestPosition = TilePosition.None;
+        TilePosition fallbackPosition = TilePosition.None;
+        for (int y = 0; y < windowSize; ++y) {
+            for (int x = 0; x < windowSize; ++x) {
+                if (state[y * windowSize + x] == 0) {
+                    continue;
+                }
+                final int distance = approxDistance(windowLeft + x - desiredPosition.x, windowTop + y - desiredPosition.y);
+                if (distance < bestDistance) {
+                    if (distance <= maxRange) {
+                        bestDistance = distance;
+                        bestPosition = new TilePosition(windowLeft + x, windowTop + y);
+                    } else if (distance < fallbackDistance) {
+                        fallbackDistance = distance;
+                        fallbackPosition = new TilePosition(windowLeft + x, windowTop + y);
+                    }
+                }
+            }
+        }
+        return bestPosition != TilePosition.None ? bestPosition : fallbackPosition;
+    }
+
+    // Same as Point.getApproxDistance
+    private static int approxDistance(int dx, int dy) {
+        dx = Math.abs(dx);
+        dy = Math.abs(dy);
+        final int max = Math.max(dx, dy);
+        final int min = Math.min(dx, dy);
+        if (min <= (max >> 2)) {
+            return max;
+        }
+        final int minCalc = (3 * min) >> 3;
+        return (minCalc >> 5) + minCalc + max - (max >> 4) - (max >> 6);
+    }
+
+    private void setWindow(final TilePosition desiredPosition, final int maxRange) {
+        windowSize = Math.min(Math.max(0, maxRange), MAX_RANGE);
+        windowLeft = desiredPosition.x - windowSize / 2;
+        windowTop = desiredPosition.y - windowSize / 2;
+        final int size = windowSize * windowSize;
+        if (state.length < size) {
+            state = new byte[size];
+            backup = new byte[size];
+        }
+        Arrays.fill(state, 0, size, (byte) 0);
+    }
+
+    // Returns false if no location is valid
+    private boolean assignBuildableLocations(final UnitType type, final TilePosition desiredPosition) {
+        final boolean hasAddon = type.canBuildAddon();
+        final boolean checkFootprint = !type.isRefinery();
+        final int tileWidth = type.tileWidth();
+        final int tileHeight = type.tileHeight();
+        if (checkFootprint || hasAddon) {
+            buildPrefix(1 << PLANNED, tileWidth + (hasAddon ? 6 : 0), tileHeight + (hasAddon ? 3 : 0));
+        }
+        final Position desired = desiredPosition.toPosition();
+        boolean found = false;
+        for (int y = 0; y < windowSize; ++y) {
+            for (int x = 0; x < windowSize; ++x) {
+                final int tileX = windowLeft + x;
+                final int tileY = windowTop + y;
+                if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+                    continue;
+                }
+                if (checkFootprint && (!isBuildable(tileX, tileY, tileWidth, tileHeight) || prefixSum(x, y, tileWidth, tileHeight) > 0)) {
+                    continue;
+                }
+                if (hasAddon && (!isBuildable(tileX + 4, tileY + 1, 2, 2) || prefixSum(x + 4, y + 1, 2, 2) > 0)) {
+                    continue;
+                }
+                if ((!hasAddon || canBuildHere(tileX + 4, tileY + 1, UnitType.Terran_Missile_Turret))
+                        && canBuildHere(tileX, tileY, type)
+                        && game.hasPath(desired, new Position(tileX * 32, tileY * 32))) {
+                    state[y * windowSize + x] = 1;
+                    found = true;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Same as {@link Game#canBuildHere(TilePosition, UnitType)}, using the buildable tiles and ground units
+     * collected for the query instead of scanning all the units for each location.
+     */
+    private boolean canBuildHere(final int tileX, final int tileY, final UnitType type) {
+        if (type.isRefinery() || type.isResourceDepot() || type == UnitType.Special_Start_Location) {
+            return game.canBuildHere(new TilePosition(tileX, tileY), type);
+        }
+        final int tileWidth = type.tileWidth();
+        final int tileHeight = type.tileHeight();
+        if (!isBuildable(tileX, tileY, tileWidth, tileHeight)) {
+            return false;
+        }
+
+        final int centerX = tileX * 32 + tileWidth * 16;
+        final int centerY = tileY * 32 + tileHeight * 16;
+        final int left = centerX - type.dimensionLeft();
+        final int top = centerY - type.dimensionUp();
+        final int right = centerX + type.dimensionRight();
+        final int bottom = centerY + type.dimensionDown();
+        final boolean isAddon = type.isAddon();
+        for (int i = 0; i < blockerCount; ++i) {
+            if (left <= blockerRight[i] && top <= blockerBottom[i] && right >= blockerLeft[i] && bottom >= blockerTop[i]
+                    && !(isAddon && blockerCanMove[i])) {
+                return false;
+            }
+        }
+
+        final boolean needsCreep = type.requiresCreep();
+        if (type.getRace() != Race.Zerg || needsCreep) {
+            for (int x = tileX; x < tileX + tileWidth; ++x) {
+                for (int y = tileY; y < tileY + tileHeight; ++y) {
+                    if (needsCreep != game.hasCreep(x, y)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return !type.requiresPsi() || game.hasPowerPrecise(centerX, centerY, type);
+    }
+
+    private void collectBlockers() {
+        // Largest distance from the window to the pixels a structure placed in it can cover
+        final int margin = 12 * 32;
+        final int windowPixelLeft = windowLeft * 32 - margin;
+        final int windowPixelTop = windowTop * 32 - margin;
+        final int windowPixelRight = (windowLeft + windowSize) * 32 + margin;
+        final int windowPixelBottom = (windowTop + windowSize) * 32 + margin;
+        blockerCount = 0;
+        for (final Unit unit : game.getAllUnits()) {
+            final int left = unit.getLeft();
+            final int top = unit.getTop();
+            final int right = unit.getRight();
+            final int bottom = unit.getBottom();
+            if (right < windowPixelLeft || bottom < windowPixelTop || left > windowPixelRight || top > windowPixelBottom
+                    || unit.isFlying() || unit.isLoaded()) {
+                continue;
+            }
+            if (blockerCount == blockerLeft.length) {
+                final int length = blockerCount * 2;
+                blockerLeft = Arrays.copyOf(blockerLeft, length);
+                blockerTop = Arrays.copyOf(blockerTop, length);
+                blockerRight = Arrays.copyOf(blockerRight, length);
+                blockerBottom = Arrays.copyOf(blockerBottom, length);
+                blockerCanMove = Arrays.copyOf(blockerCanMove, length);
+            }
+            blockerLeft[blockerCount] = left;
+            blockerTop[blockerCount] = top;
+            blockerRight[blockerCount] = right;
+            blockerBottom[blockerCount] = bottom;
+            blockerCanMove[blockerCount] = unit.getType().canMove();
+            ++blockerCount;
+        }
+    }
+
+    // True if all the tiles of the rectangle are on the map and buildable
+    private boolean isBuildable(final int left, final int top, final int tileWidth, final int tileHeight) {
+        final int right = left + tileWidth;
+        final int bottom = top + tileHeight;
+        if (right > width || bottom > height) {
+            return false;
+        }
+        final int stride = width + 1;
+        return buildablePrefix[bottom * stride + right] - buildablePrefix[top * stride + right]
+                - buildablePrefix[bottom * stride + left] + buildablePrefix[top * stride + left] == 0;
+    }
+
+    private void reserveGroundHeight(final TilePosition desiredPosition) {
+        backup();
+        final int targetHeight = game.getGroundHeight(desiredPosition);
+        for (int y = 0; y < windowSize; ++y) {
+            for (int x = 0; x < windowSize; ++x) {
+                if (game.getGroundHeight(windowLeft + x, windowTop + y) != targetHeight) {
+                    state[y * windowSize + x] = 0;
+                }
+            }
+        }
+        restoreIfInvalid();
+    }
+
+    // Excludes the locations where the structure and one more tile to the right and bottom would touch a reservation
+    private void reserve(final UnitType type, final int layers) {
+        backup();
+        final int extentX = type.tileWidth() + 2;
+        final int extentY = type.tileHeight() + 2;
+        buildPrefix(layers, extentX, extentY);
+        for (int y = 0; y < windowSize; ++y) {
+            for (int x = 0; x < windowSize; ++x) {
+                if (state[y * windowSize + x] != 0 && prefixSum(x, y, extentX, extentY) > 0) {
+                    state[y * windowSize + x] = 0;
+                }
+            }
+        }
+        restoreIfInvalid();
+    }
+
+    // Keeps lanes free through the desired position
+    private void reserveTemplateSpacing(final TilePosition desiredPosition) {
+        backup();
+        for (final int column : TEMPLATE_COLUMNS) {
+            final int x = desiredPosition.x + column - windowLeft;
+            if (x >= 0 && x < windowSize) {
+                for (int y = 0; y < windowSize; ++y) {
+                    state[y * windowSize + x] = 0;
+                }
+            }
+        }
+        for (final int row : TEMPLATE_ROWS) {
+            final int y = desiredPosition.y + row - windowTop;
+            if (y >= 0 && y < windowSize) {
+                Arrays.fill(state, y * windowSize, (y + 1) * windowSize, (byte) 0);
+            }
+        }
+        restoreIfInvalid();
+    }
+
+    /**
+     * Fills prefix with the number of reserved tiles in the given layers, over the window grown by the given extent,
+     * so prefixSum can count the reserved tiles of a rectangle starting in the window.
+     */
+    private void buildPrefix(final int layers, final int extentX, final int extentY) {
+        final int prefixWidth = windowSize + extentX;
+        final int prefixHeight = windowSize + extentY;
+        final int stride = prefixWidth + 1;
+        prefixStride = stride;
+        final int size = stride * (prefixHeight + 1);
+        if (prefix.length < size) {
+            prefix = new int[size];
+        }
+        Arrays.fill(prefix, 0, stride, 0);
+        for (int y = 0; y < prefixHeight; ++y) {
+            final int tileY = windowTop + y;
+            final int row = (y + 1) * stride;
+            prefix[row] = 0;
+            int rowSum = 0;
+            for (int x = 0; x < prefixWidth; ++x) {
+                final int tileX = windowLeft + x;
+                if (tileX >= 0 && tileY >= 0 && tileX < width && tileY < height) {
+                    final int tile = tileY * width + tileX;
+                    for (int layer = 0; layer < LAYER_COUNT; ++layer) {
+                        if ((layers & 1 << layer) != 0 && counts[layer][tile] > 0) {
+                            ++rowSum;
+                            break;
+                        }
+                    }
+                }
+                prefix[row + x + 1] = prefix[row - stride + x + 1] + rowSum;
+            }
+        }
+    }
+
+    // Number of reserved tiles in the rectangle at window coordinates (x, y), as filled by buildPrefix
+    private int prefixSum(final int x, final int y, final int rectWidth, final int rectHeight) {
+        final int stride = prefixStride;
+        return prefix[(y + rectHeight) * stride + x + rectWidth] - prefix[y * stride + x + rectWidth]
+                - prefix[(y + rectHeight) * stride + x] + prefix[y * stride + x];
+    }
+
+    private void backup() {
+        System.arraycopy(state, 0, backup, 0, windowSize * windowSize);
+    }
+
+    private void restoreIfInvalid() {
+        final int size = windowSize * windowSize;
+        for (int i = 0; i < size; ++i) {
+            if (state[i] != 0) {
+                return;
+            }
+        }
+        System.arraycopy(backup, 0, state, 0, size);
+    }
+}
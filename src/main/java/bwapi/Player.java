@@ -36,6 +36,15 @@ public class Player implements Comparable<Player> {
         return self;
     }
 
+    private UpgradeTables upgradeTables = null;
+    UpgradeTables upgradeTables() {
+        if (upgradeTables == null) {
+            upgradeTables = new UpgradeTables(this);
+        }
+        upgradeTables.update(game.getFrameCount());
+        return upgradeTables;
+    }
+
     Player(final PlayerData playerData, final int id, final Game game) {
         this.playerData = playerData;
         this.game = game;
@@ -642,6 +651,10 @@ public class Player implements Comparable<Player> {
      * @return Maximum range of the given weapon type for units owned by this player.
      */
     public int weaponMaxRange(final WeaponType weapon) {
+        return upgradeTables().weaponMaxRange[weapon.id];
+    }
+
+    int computeWeaponMaxRange(final WeaponType weapon) {
         int range = weapon.maxRange();
         if (weapon == Gauss_Rifle && getUpgradeLevel(U_238_Shells) > 0 ||
                 weapon == Needle_Spines && getUpgradeLevel(Grooved_Spines) > 0) {
@@ -697,6 +710,10 @@ public class Player implements Comparable<Player> {
      * @return The amount of armor that the unit will have with the player's upgrades.
      */
     public int armor(final UnitType unit) {
+        return upgradeTables().armor[unit.id];
+    }
+
+    int computeArmor(final UnitType unit) {
         int armor = unit.armor();
         armor += getUpgradeLevel(unit.armorUpgrade());
         if ((unit == Zerg_Ultralisk && getUpgradeLevel(Chitinous_Plating) > 0) || unit == Hero_Torrasque) {
@@ -712,6 +729,10 @@ public class Player implements Comparable<Player> {
      * @return The amount of damage that the weapon deals with this player's upgrades.
      */
     public int damage(final WeaponType wpn) {
+        return upgradeTables().weaponDamage[wpn.id];
+    }
+
+    int computeDamage(final WeaponType wpn) {
         int dmg = wpn.damageAmount();
         dmg += getUpgradeLevel(wpn.upgradeType()) * wpn.damageBonus();
         dmg *= wpn.damageFactor();
@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.stream.IntStream;
-
 class PlayerSelf {
     IntegerCache minerals = new IntegerCache();
     IntegerCache gas = new IntegerCache();
@@ -11,8 +9,14 @@ class PlayerSelf {
     BooleanCache[] isUpgrading = new BooleanCache[UpgradeType.idToEnum.length];
 
     PlayerSelf() {
-        IntStream.range(0, supplyUsed.length).forEach(i -> supplyUsed[i] = new IntegerCache());
-        IntStream.range(0, isResearching.length).forEach(i -> isResearching[i] = new BooleanCache());
-        IntStream.range(0, isUpgrading.length).forEach(i -> isUpgrading[i] = new BooleanCache());
+        for (int i = 0; i < supplyUsed.length; i++) {
+            supplyUsed[i] = new IntegerCache();
+        }
+        for (int i = 0; i < isResearching.length; i++) {
+            isResearching[i] = new BooleanCache();
+        }
+        for (int i = 0; i < isUpgrading.length; i++) {
+            isUpgrading[i] = new BooleanCache();
+        }
     }
 }
@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * Represents the type of controller for the player slot (i.e. human, computer).
  */
@@ -23,7 +21,9 @@ public enum PlayerType {
     static final PlayerType[] idToEnum = new PlayerType[12 + 1];
 
     static {
-        Arrays.stream(PlayerType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final PlayerType v : PlayerType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
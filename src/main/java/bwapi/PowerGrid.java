@@ -0,0 +1,169 @@
+package bwapi;
+
+import java.util.Arrays;
+
+/**
+ * Number of completed @Protoss_Pylon of the current player powering each tile of the map.
+ * <p>
+ * The pylons are collected at most once per frame, and the counts are only rebuilt when they changed.
+ * Pylons are always centered on a tile corner, so the power field of {@link #bPsiFieldMask} is constant within a tile,
+ * except for the first pixel column and row of the field which are excluded. One grid is kept for each combination of
+ * a pixel being or not on the left and top edges of its tile, which makes a query a single array read.
+ */
+class PowerGrid {
+    private static final boolean[][] bPsiFieldMask = {
+            {false, false, false, false, false, true, true, true, true, true, true, false, false, false, false, false},
+            {false, false, true, true, true, true, true, true, true, true, true, true, true, true, false, false},
+            {false, true, true, true, true, true, true, true, true, true, true, true, true, true, true, false},
+            {true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true},
+            {true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true},
+            {true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true},
+            {true, true, true, true, true, true, true, true, true, true, true, true, true, true, true, true},
+            {false, true, true, true, true, true, true, true, true, true, true, true, true, true, true, false},
+            {false, false, true, true, true, true, true, true, true, true, true, true, true, true, false, false},
+            {false, false, false, false, false, true, true, true, true, true, true, false, false, false, false, false}
+    };
+    // Offsets of the field in tiles, relative to the pylon's position
+    private static final int FIELD_LEFT = -8;
+    private static final int FIELD_TOP = -5;
+    private static final int LEFT_EDGE = 1;
+    private static final int TOP_EDGE = 2;
+
+    private final Game game;
+    private final int width;
+    private final int height;
+    // Indexed by LEFT_EDGE | TOP_EDGE flags of the pixel, then by tile
+    private final short[][] counts = new short[4][];
+    private int frame = -1;
+    private int[] pylonX = new int[16];
+    private int[] pylonY = new int[16];
+    private int pylonCount = -1;
+    private int[] nextPylonX = new int[16];
+    private int[] nextPylonY = new int[16];
+    private boolean aligned;
+
+    PowerGrid(final Game game) {
+        this.game = game;
+        this.width = game.mapWidth();
+        this.height = game.mapHeight();
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i] = new short[width * height];
+        }
+    }
+
+    /**
+     * Collects the pylons if this was not already done in this frame, and rebuilds the grids if they changed.
+     */
+    void update(final int frame) {
+        if (frame == this.frame) {
+            return;
+        }
+        this.frame = frame;
+
+        final Player self = game.self();
+        int count = 0;
+        for (final Unit unit : game.getAllUnits()) {
+            if (unit.getType() != UnitType.Protoss_Pylon || !unit.exists() || !unit.isCompleted() || !self.equals(unit.getPlayer())) {
+                continue;
+            }
+            if (count == nextPylonX.length) {
+                nextPylonX = Arrays.copyOf(nextPylonX, count * 2);
+                nextPylonY = Arrays.copyOf(nextPylonY, count * 2);
+            }
+            final Position p = unit.getPosition();
+            nextPylonX[count] = p.x;
+            nextPylonY[count] = p.y;
+            ++count;
+        }
+        if (count == pylonCount && samePylons()) {
+            return;
+        }
+
+        final int[] tmpX = pylonX;
+        final int[] tmpY = pylonY;
+        pylonX = nextPylonX;
+        pylonY = nextPylonY;
+        nextPylonX = tmpX;
+        nextPylonY = tmpY;
+        pylonCount = count;
+        rebuild();
+    }
+
+    private boolean samePylons() {
+        for (int i = 0; i < pylonCount; ++i) {
+            if (nextPylonX[i] != pylonX[i] || nextPylonY[i] != pylonY[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rebuild() {
+        for (final short[] grid : counts) {
+            Arrays.fill(grid, (short) 0);
+        }
+        aligned = true;
+        for (int i = 0; i < pylonCount; ++i) {
+            if ((pylonX[i] & 31) != 0 || (pylonY[i] & 31) != 0) {
+                aligned = false;
+                return;
+            }
+        }
+        for (int i = 0; i < pylonCount; ++i) {
+            final int left = (pylonX[i] >> 5) + FIELD_LEFT;
+            final int top = (pylonY[i] >> 5) + FIELD_TOP;
+            for (int row = 0; row < bPsiFieldMask.length; ++row) {
+                final int y = top + row;
+                if (y < 0 || y >= height) {
+                    continue;
+                }
+                for (int column = 0; column < bPsiFieldMask[row].length; ++column) {
+                    final int x = left + column;
+                    if (x < 0 || x >= width || !bPsiFieldMask[row][column]) {
+                        continue;
+                    }
+                    final int tile = y * width + x;
+                    ++counts[0][tile];
+                    if (column > 0) {
+                        ++counts[LEFT_EDGE][tile];
+                    }
+                    if (row > 0) {
+                        ++counts[TOP_EDGE][tile];
+                    }
+                    if (column > 0 && row > 0) {
+                        ++counts[LEFT_EDGE | TOP_EDGE][tile];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the pixel, which must be on the map, is powered.
+     */
+    boolean hasPower(final int x, final int y) {
+        if (!aligned) {
+            return hasPower(x, y, pylonX, pylonY, pylonCount);
+        }
+        final int edges = ((x & 31) == 0 ? LEFT_EDGE : 0) | ((y & 31) == 0 ? TOP_EDGE : 0);
+        return counts[edges][(y >> 5) * width + (x >> 5)] > 0;
+    }
+
+    /**
+     * Checks the power field of every pylon, which works for any pylon position.
+     */
+    static boolean hasPower(final int x, final int y, final int[] pylonX, final int[] pylonY, final int pylonCount) {
+        for (int i = 0; i < pylonCount; ++i) {
+            if (Math.abs(pylonX[i] - x) >= 256) {
+                continue;
+            }
+            if (Math.abs(pylonY[i] - y) >= 160) {
+                continue;
+            }
+            if (bPsiFieldMask[(y - pylonY[i] + 160) / 32][(x - pylonX[i] + 256) / 32]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,8 +1,5 @@
 package bwapi;
 
-
-import java.util.Arrays;
-
 import static bwapi.UnitType.*;
 
 /**
@@ -55,7 +52,9 @@ public enum Race {
     static final Race[] idToEnum = new Race[8 + 1];
 
     static {
-        Arrays.stream(Race.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final Race v : Race.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
@@ -0,0 +1,162 @@
+package bwapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Extracts the features of a game into {@link FeatureTable}s, to train models from many recordings with
+ * {@link ReplayRunner#runAll(java.util.List, ReplayRunner.ListenerFactory)}.
+ * <ul>
+ * <li>{@code players}: frame, player, minerals, gas, supply_used, supply_total, workers, army_value</li>
+ * <li>{@code unit_counts}: frame, player, type, count, for the types a player has</li>
+ * <li>{@code units}: frame, unit, player, type, x, y</li>
+ * <li>{@code build_order}: frame, player, type, when the production of a unit or building starts</li>
+ * </ul>
+ * All but the build order are sampled once every {@code interval} frames. The units of the neutral player are
+ * skipped, types are {@link UnitType} IDs, positions are in pixels and the army value is the mineral and gas price
+ * of the units which are neither workers nor buildings.
+ * <p>
+ * When closed, each table is written to {@code <name>.bin} in the output directory.
+ */
+public final class ReplayFeatures extends DefaultBWListener implements Closeable {
+    private static final int TYPES = UnitType.idToEnum.length;
+    private static final UnitTypeFilter ARMY = UnitTypeFilter.of(t -> !t.isWorker() && !t.isBuilding() && t.supplyRequired() > 0);
+
+    private final Supplier<Game> games;
+    private final Path directory;
+    private final int interval;
+    private final FeatureTable players = new FeatureTable("frame", "player", "minerals", "gas", "supply_used", "supply_total", "workers", "army_value");
+    private final FeatureTable unitCounts = new FeatureTable("frame", "player", "type", "count");
+    private final FeatureTable units = new FeatureTable("frame", "unit", "player", "type", "x", "y");
+    private final FeatureTable buildOrder = new FeatureTable("frame", "player", "type");
+    private Game game;
+    // By player, and by player and type
+    private int[] workers;
+    private int[] armyValues;
+    private int[] counts;
+
+    /**
+     * @param games     Provides the game once it started, such as {@link ReplayRunner#getGame()} or {@link BWClient#getGame()}.
+     * @param directory Where the tables are written when closed.
+     * @param interval  The number of frames between samples.
+     */
+    public ReplayFeatures(final Supplier<Game> games, final Path directory, final int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("The interval must be positive");
+        }
+        this.games = games;
+        this.directory = directory;
+        this.interval = interval;
+    }
+
+    public FeatureTable getPlayers() {
+        return players;
+    }
+
+    public FeatureTable getUnitCounts() {
+        return unitCounts;
+    }
+
+    public FeatureTable getUnits() {
+        return units;
+    }
+
+    public FeatureTable getBuildOrder() {
+        return buildOrder;
+    }
+
+    @Override
+    public void onStart() {
+        game = games.get();
+        final int playerCount = game.getPlayers().size();
+        workers = new int[playerCount];
+        armyValues = new int[playerCount];
+        counts = new int[playerCount * TYPES];
+    }
+
+    @Override
+    public void onFrame() {
+        final int frame = game.getFrameCount();
+        if (frame % interval != 0) {
+            return;
+        }
+        Arrays.fill(workers, 0);
+        Arrays.fill(armyValues, 0);
+        Arrays.fill(counts, 0);
+        for (final Unit unit : game.getAllUnits()) {
+            final Player player = unit.getPlayer();
+            if (player == null || player.isNeutral()) {
+                continue;
+            }
+            final int id = player.getID();
+            final UnitType type = unit.getType();
+            ++counts[id * TYPES + type.id];
+            if (type.isWorker()) {
+                ++workers[id];
+            } else if (ARMY.test(type)) {
+                armyValues[id] += type.mineralPrice() + type.gasPrice();
+            }
+            units.add(frame).add(unit.getID()).add(id).add(type.id).add(unit.getX()).add(unit.getY());
+        }
+        for (final Player player : game.getPlayers()) {
+            if (player.isNeutral()) {
+                continue;
+            }
+            final int id = player.getID();
+            players.add(frame).add(id).add(player.minerals()).add(player.gas())
+                    .add(player.supplyUsed()).add(player.supplyTotal()).add(workers[id]).add(armyValues[id]);
+            for (int type = 0; type < TYPES; ++type) {
+                final int count = counts[id * TYPES + type];
+                if (count > 0) {
+                    unitCounts.add(frame).add(id).add(type).add(count);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onUnitCreate(final Unit unit) {
+        if (unit.getType() != UnitType.Zerg_Larva) {
+            produced(unit, unit.getType());
+        }
+    }
+
+    /**
+     * Only the morphs which start a production are in the build order: into an egg or a cocoon, logged as the unit
+     * they produce, and into a building, from a drone or another building. Eggs which hatch, tanks which siege or
+     * unsiege, and cancelled morphs are skipped.
+     */
+    @Override
+    public void onUnitMorph(final Unit unit) {
+        final UnitType type = unit.getType();
+        if (type == UnitType.Zerg_Egg || type == UnitType.Zerg_Lurker_Egg || type == UnitType.Zerg_Cocoon) {
+            produced(unit, unit.getBuildType());
+        } else if (type.isBuilding() && (unit.isMorphing() || unit.isBeingConstructed())) {
+            produced(unit, type);
+        }
+    }
+
+    private void produced(final Unit unit, final UnitType type) {
+        final Player player = unit.getPlayer();
+        if (game == null || player == null || player.isNeutral() || type == UnitType.None || type == UnitType.Unknown) {
+            return;
+        }
+        buildOrder.add(game.getFrameCount()).add(player.getID()).add(type.id);
+    }
+
+    /**
+     * Writes the tables to the output directory.
+     */
+    @Override
+    public void close() throws IOException {
+        Files.createDirectories(directory);
+        players.write(directory.resolve("players.bin"));
+        unitCounts.write(directory.resolve("unit_counts.bin"));
+        units.write(directory.resolve("units.bin"));
+        buildOrder.write(directory.resolve("build_order.bin"));
+    }
+}
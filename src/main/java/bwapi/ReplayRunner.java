@@ -0,0 +1,123 @@
+package bwapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays the recordings of {@link FrameRecorder} back without StarCraft, for instance to extract features from
+ * many replays with {@link ReplayFeatures}.
+ * <p>
+ * The game data of each recorded frame is restored, then its events are handled as when connected to StarCraft:
+ * the {@link Game} is updated and the listener is called. The commands and shapes of the listener are discarded.
+ * <p>
+ * A runner holds the game data of one game, about 33 MB, and runs one recording at a time.
+ * {@link #runAll(List, int, ListenerFactory)} runs many recordings in parallel, with one runner per thread.
+ */
+public final class ReplayRunner {
+    /**
+     * Creates the listener of each recording run by {@link #runAll(List, int, ListenerFactory)}.
+     */
+    @FunctionalInterface
+    public interface ListenerFactory {
+        /**
+         * @param recording The recording which is about to run.
+         * @param runner    The runner of the recording, which provides the {@link Game} once it started.
+         */
+        BWEventListener create(Path recording, ReplayRunner runner);
+    }
+
+    private final Client client = new Client(ByteBuffer.allocateDirect(ClientData.GameData.SIZE));
+    private final ClientData.GameData gameData = client.gameData();
+    private final WrappedBuffer buffer = client.clientData().buffer;
+    private EventHandler handler;
+
+    /**
+     * Get the {@link Game} instance of the recording being run, or of the last one.
+     */
+    public Game getGame() {
+        return handler == null ? null : handler.getGame();
+    }
+
+    /**
+     * Runs a recording from start to end.
+     *
+     * @return The number of frames of the recording.
+     */
+    public int run(final Path recording, final BWEventListener listener) throws IOException {
+        try (InputStream in = Files.newInputStream(recording)) {
+            return run(in, listener);
+        }
+    }
+
+    public int run(final InputStream in, final BWEventListener listener) throws IOException {
+        try (FrameReader reader = new FrameReader(in)) {
+            FrameReader.clear(buffer);
+            handler = new EventHandler(listener, client);
+            int frames = 0;
+            while (reader.readFrame(buffer)) {
+                // Cleared by the server at each frame
+                gameData.setCommandCount(0);
+                gameData.setUnitCommandCount(0);
+                gameData.setShapeCount(0);
+                gameData.setStringCount(0);
+                client.processEvents(handler);
+                ++frames;
+            }
+            return frames;
+        }
+    }
+
+    /**
+     * Same as {@link #runAll(List, int, ListenerFactory)}, with a thread per available processor.
+     */
+    public static List<Path> runAll(final List<Path> recordings, final ListenerFactory factory) throws InterruptedException {
+        return runAll(recordings, Runtime.getRuntime().availableProcessors(), factory);
+    }
+
+    /**
+     * Runs many recordings in parallel, each with a new listener. A listener which is {@link Closeable} is
+     * closed after its recording ran successfully, for instance to write its results.
+     * A recording which fails is reported on System.err and skipped.
+     *
+     * @param threads The number of recordings run at the same time, each needs a runner of about 33 MB.
+     * @return The recordings which failed.
+     */
+    public static List<Path> runAll(final List<Path> recordings, final int threads, final ListenerFactory factory) throws InterruptedException {
+        final ConcurrentLinkedQueue<Path> queue = new ConcurrentLinkedQueue<>(recordings);
+        final List<Path> failed = Collections.synchronizedList(new ArrayList<>());
+        final int workers = Math.max(1, Math.min(threads, recordings.size()));
+        final ExecutorService executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                final ReplayRunner runner = new ReplayRunner();
+                Path recording;
+                while ((recording = queue.poll()) != null) {
+                    try {
+                        final BWEventListener listener = factory.create(recording, runner);
+                        runner.run(recording, listener);
+                        if (listener instanceof Closeable) {
+                            ((Closeable) listener).close();
+                        }
+                    } catch (final Exception e) {
+                        System.err.println("Unable to run " + recording + ": " + e);
+                        failed.add(recording);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        return new ArrayList<>(failed);
+    }
+}
@@ -1,7 +1,5 @@
 package bwapi;
 
-import java.util.Arrays;
-
 /**
  * Used in {@link UnitCommand}
  */
@@ -18,7 +16,9 @@ enum ShapeType {
     static final ShapeType[] idToEnum = new ShapeType[8];
 
     static {
-        Arrays.stream(ShapeType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final ShapeType v : ShapeType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
@@ -185,10 +185,23 @@ public enum TechType {
             {}
     };
 
+    // Bit i of the words of a tech is set if techWhatUses contains the UnitType of id i
+    private static final long[][] techUserMasks = new long[techWhatUses.length][(UnitType.idToEnum.length + 63) / 64];
+
+    static {
+        for (int i = 0; i < techWhatUses.length; i++) {
+            for (final UnitType type : techWhatUses[i]) {
+                techUserMasks[i][type.id >>> 6] |= 1L << type.id;
+            }
+        }
+    }
+
     static final TechType[] idToEnum = new TechType[46 + 1];
 
     static {
-        Arrays.stream(TechType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final TechType v : TechType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
@@ -297,6 +310,16 @@ public enum TechType {
         return Collections.unmodifiableList(Arrays.asList(techWhatUses[id]));
     }
 
+    /**
+     * Checks if the given unit type is part of {@link #whatUses()}, without allocating.
+     *
+     * @param type The {@link UnitType} to check.
+     * @return true if the unit type can use this ability, and false otherwise.
+     */
+    public boolean isUsedBy(final UnitType type) {
+        return (techUserMasks[id][type.id >>> 6] & 1L << type.id) != 0;
+    }
+
     /**
      * Retrieves the {@link Order} that a Unit uses when using this ability.
      *
@@ -0,0 +1,336 @@
+package bwapi;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * One bit per build tile of the map, with whole-map and rectangle operations working on 64 tiles at a time.
+ * <p>
+ * The bitmaps returned by {@link Game#getVisibleTiles()}, {@link Game#getExploredTiles()}, {@link Game#getCreepTiles()}
+ * and {@link Game#getOccupiedTiles()} are read-only views which are refreshed on their first use in each frame.
+ * Bitmaps created with {@link #TileBitmap(int, int)} or {@link #copy()} are modifiable, to be used as masks.
+ * Coordinates outside the map are never set.
+ */
+public final class TileBitmap {
+    private static final boolean BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerColumn;
+    private final boolean readOnly;
+    // Column-major: the tiles of column x are in the words [x * wordsPerColumn, (x + 1) * wordsPerColumn)
+    private final long[] words;
+    private int frame = -1;
+
+    /**
+     * Reads the flags of 8 vertically consecutive tiles, one byte per tile, in memory order.
+     */
+    @FunctionalInterface
+    interface FlagReader {
+        long read(ClientData.GameData gameData, int x, int y);
+    }
+
+    /**
+     * Creates an empty modifiable bitmap.
+     *
+     * @param width  The width in tiles, usually {@link Game#mapWidth()}.
+     * @param height The height in tiles, usually {@link Game#mapHeight()}.
+     */
+    public TileBitmap(final int width, final int height) {
+        this(width, height, false);
+    }
+
+    private TileBitmap(final int width, final int height, final boolean readOnly) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Invalid size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.wordsPerColumn = (height + 63) >>> 6;
+        this.readOnly = readOnly;
+        this.words = new long[width * wordsPerColumn];
+    }
+
+    private TileBitmap(final TileBitmap other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.wordsPerColumn = other.wordsPerColumn;
+        this.readOnly = false;
+        this.words = other.words.clone();
+    }
+
+    static TileBitmap readOnly(final int width, final int height) {
+        return new TileBitmap(width, height, true);
+    }
+
+    /**
+     * Refills a read-only bitmap from the game data, if it was not already filled in this frame.
+     */
+    TileBitmap update(final int frame, final ClientData.GameData gameData, final FlagReader reader) {
+        if (frame == this.frame) {
+            return this;
+        }
+        this.frame = frame;
+        if (wordsPerColumn == 0) {
+            return this;
+        }
+        final long lastWordMask = lastWordMask();
+        for (int x = 0; x < width; ++x) {
+            final int column = x * wordsPerColumn;
+            for (int w = 0; w < wordsPerColumn; ++w) {
+                long word = 0;
+                final int top = w << 6;
+                final int bottom = Math.min(top + 64, height);
+                for (int y = top; y < bottom; y += 8) {
+                    word |= (long) packFlags(reader.read(gameData, x, y)) << (y - top);
+                }
+                words[column + w] = word;
+            }
+            words[column + wordsPerColumn - 1] &= lastWordMask;
+        }
+        return this;
+    }
+
+    // Packs 8 bytes into 8 bits, a bit being set if its byte is non zero
+    static int packFlags(long bytes) {
+        if (BIG_ENDIAN) {
+            bytes = Long.reverseBytes(bytes);
+        }
+        final long nonZero = (((bytes & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL) | bytes) & 0x8080808080808080L;
+        return (int) (((nonZero >>> 7) * 0x0102040810204080L) >>> 56);
+    }
+
+    private long lastWordMask() {
+        final int bits = height & 63;
+        return bits == 0 ? -1L : (1L << bits) - 1;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public boolean get(final int x, final int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        return (words[x * wordsPerColumn + (y >>> 6)] & (1L << y)) != 0;
+    }
+
+    public boolean get(final TilePosition position) {
+        return get(position.x, position.y);
+    }
+
+    /**
+     * Counts the set tiles of the whole map.
+     */
+    public int count() {
+        int result = 0;
+        for (final long word : words) {
+            result += Long.bitCount(word);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the set tiles in a rectangle, clipped to the map.
+     *
+     * @param left   The left edge, inclusive.
+     * @param top    The top edge, inclusive.
+     * @param right  The right edge, exclusive.
+     * @param bottom The bottom edge, exclusive.
+     */
+    public int count(int left, int top, int right, int bottom) {
+        left = Math.max(left, 0);
+        top = Math.max(top, 0);
+        right = Math.min(right, width);
+        bottom = Math.min(bottom, height);
+        if (left >= right || top >= bottom) {
+            return 0;
+        }
+        final int firstWord = top >>> 6;
+        final int lastWord = (bottom - 1) >>> 6;
+        final long firstMask = -1L << top;
+        final long lastMask = -1L >>> (63 - ((bottom - 1) & 63));
+        int result = 0;
+        for (int x = left; x < right; ++x) {
+            final int column = x * wordsPerColumn;
+            if (firstWord == lastWord) {
+                result += Long.bitCount(words[column + firstWord] & firstMask & lastMask);
+            } else {
+                result += Long.bitCount(words[column + firstWord] & firstMask);
+                for (int w = firstWord + 1; w < lastWord; ++w) {
+                    result += Long.bitCount(words[column + w]);
+                }
+                result += Long.bitCount(words[column + lastWord] & lastMask);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the tiles set in both this bitmap and the mask.
+     */
+    public int countAnd(final TileBitmap mask) {
+        checkSameSize(mask);
+        int result = 0;
+        for (int i = 0; i < words.length; ++i) {
+            result += Long.bitCount(words[i] & mask.words[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if at least one tile is set in both this bitmap and the mask.
+     */
+    public boolean intersects(final TileBitmap mask) {
+        checkSameSize(mask);
+        for (int i = 0; i < words.length; ++i) {
+            if ((words[i] & mask.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a modifiable copy of this bitmap.
+     */
+    public TileBitmap copy() {
+        return new TileBitmap(this);
+    }
+
+    public void set(final int x, final int y) {
+        checkModifiable();
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            words[x * wordsPerColumn + (y >>> 6)] |= 1L << y;
+        }
+    }
+
+    public void set(final TilePosition position) {
+        set(position.x, position.y);
+    }
+
+    public void clear(final int x, final int y) {
+        checkModifiable();
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            words[x * wordsPerColumn + (y >>> 6)] &= ~(1L << y);
+        }
+    }
+
+    public void clear(final TilePosition position) {
+        clear(position.x, position.y);
+    }
+
+    /**
+     * Sets all the tiles of a rectangle, clipped to the map.
+     *
+     * @param left   The left edge, inclusive.
+     * @param top    The top edge, inclusive.
+     * @param right  The right edge, exclusive.
+     * @param bottom The bottom edge, exclusive.
+     */
+    public void setRectangle(int left, int top, int right, int bottom) {
+        checkModifiable();
+        left = Math.max(left, 0);
+        top = Math.max(top, 0);
+        right = Math.min(right, width);
+        bottom = Math.min(bottom, height);
+        if (left >= right || top >= bottom) {
+            return;
+        }
+        final int firstWord = top >>> 6;
+        final int lastWord = (bottom - 1) >>> 6;
+        final long firstMask = -1L << top;
+        final long lastMask = -1L >>> (63 - ((bottom - 1) & 63));
+        for (int x = left; x < right; ++x) {
+            final int column = x * wordsPerColumn;
+            if (firstWord == lastWord) {
+                words[column + firstWord] |= firstMask & lastMask;
+            } else {
+                words[column + firstWord] |= firstMask;
+                for (int w = firstWord + 1; w < lastWord; ++w) {
+                    words[column + w] = -1L;
+                }
+                words[column + lastWord] |= lastMask;
+            }
+        }
+    }
+
+    /**
+     * Clears all the tiles.
+     */
+    public void clear() {
+        checkModifiable();
+        Arrays.fill(words, 0);
+    }
+
+    /**
+     * Keeps only the tiles which are also set in the other bitmap.
+     */
+    public void and(final TileBitmap other) {
+        checkModifiable();
+        checkSameSize(other);
+        for (int i = 0; i < words.length; ++i) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    /**
+     * Sets the tiles which are set in the other bitmap.
+     */
+    public void or(final TileBitmap other) {
+        checkModifiable();
+        checkSameSize(other);
+        for (int i = 0; i < words.length; ++i) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * Clears the tiles which are set in the other bitmap.
+     */
+    public void andNot(final TileBitmap other) {
+        checkModifiable();
+        checkSameSize(other);
+        for (int i = 0; i < words.length; ++i) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    private void checkModifiable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("This bitmap is a read-only view of the game data");
+        }
+    }
+
+    private void checkSameSize(final TileBitmap other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("Expected a " + width + "x" + height + " bitmap, got " + other.width + "x" + other.height);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final TileBitmap other = (TileBitmap) o;
+        return width == other.width && height == other.height && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + Arrays.hashCode(words);
+    }
+}
@@ -59,6 +59,13 @@ public class Unit implements Comparable<Unit> {
     private int lastPositionUpdate = -1;
     private int lastCommandFrame;
     private UnitCommand lastCommand;
+    // Results of canCommand and canIssueCommandType for the frame of commandCacheFrame, reset when a command is issued
+    private int commandCacheFrame = -1;
+    private boolean canCommandChecked;
+    private boolean canCommand;
+    // One bit per UnitCommandType id
+    private long commandTypesChecked;
+    private long commandTypesValid;
 
     // Don't make non-latcom users pay for latcom in memory usage
     private UnitSelf self = null;
@@ -70,6 +77,10 @@ public class Unit implements Comparable<Unit> {
     }
 
 
+    UnitData unitData() {
+        return unitData;
+    }
+
     Unit(final UnitData unitData, int id, final Game game) {
         this.unitData = unitData;
         this.game = game;
@@ -2105,7 +2116,7 @@ public class Unit implements Comparable<Unit> {
         // If using train or morph on a hatchery, automatically switch selection to larva
         // (assuming canIssueCommand ensures that there is a larva)
         if ((command.type == UnitCommandType.Train || command.type == UnitCommandType.Morph) &&
-                getType().producesLarva() && command.getUnitType().whatBuilds().getKey() == UnitType.Zerg_Larva) {
+                getType().producesLarva() && command.getUnitType().whatBuildsType() == UnitType.Zerg_Larva) {
             for (final Unit larva : getLarva()) {
                 if (!larva.isConstructing() && larva.isCompleted() && larva.canCommand()) {
                     command.unit = larva;
@@ -2117,8 +2128,16 @@ public class Unit implements Comparable<Unit> {
             }
         }
 
+        if (game.isCommandBuffering() && UnitCommandBuffer.repeatsCurrentOrder(command.unit, command, lastCommand)) {
+            return true;
+        }
+
         if (game.isLatComEnabled()) {
+            final UnitType type = command.unit.getType();
             new CommandTemp(command, game).execute();
+            if (command.unit.getType() != type) {
+                game.unitTypeChanged();
+            }
         }
 
         game.addUnitCommand(
@@ -2131,6 +2150,13 @@ public class Unit implements Comparable<Unit> {
         );
         lastCommandFrame = game.getFrameCount();
         lastCommand = command;
+        resetCommandCache();
+        command.unit.resetCommandCache();
+        // Commanding a larva can change what its hatchery can do
+        final Unit hatchery = command.unit.getHatchery();
+        if (hatchery != null) {
+            hatchery.resetCommandCache();
+        }
         return true;
     }
 
@@ -3174,6 +3200,31 @@ public class Unit implements Comparable<Unit> {
      * @see Unit#canIssueCommand
      */
     public boolean canCommand() {
+        refreshCommandCache();
+        if (!canCommandChecked) {
+            canCommand = computeCanCommand();
+            canCommandChecked = true;
+        }
+        return canCommand;
+    }
+
+    private void refreshCommandCache() {
+        final int frame = game.getFrameCount();
+        if (frame != commandCacheFrame) {
+            commandCacheFrame = frame;
+            canCommandChecked = false;
+            commandTypesChecked = 0;
+        }
+    }
+
+    /**
+     * Forgets the results of canCommand and canIssueCommandType, after a command changed the state of this unit.
+     */
+    void resetCommandCache() {
+        commandCacheFrame = -1;
+    }
+
+    private boolean computeCanCommand() {
         if (!exists() || !getPlayer().equals(game.self())) {
             return false;
         }
@@ -3253,6 +3304,20 @@ public class Unit implements Comparable<Unit> {
         if (checkCommandibility && !canCommand()) {
             return false;
         }
+        refreshCommandCache();
+        final long bit = 1L << ct.id;
+        if ((commandTypesChecked & bit) == 0) {
+            if (computeCanIssueCommandType(ct)) {
+                commandTypesValid |= bit;
+            } else {
+                commandTypesValid &= ~bit;
+            }
+            commandTypesChecked |= bit;
+        }
+        return (commandTypesValid & bit) != 0;
+    }
+
+    private boolean computeCanIssueCommandType(final UnitCommandType ct) {
         switch (ct) {
             case Attack_Move:
                 return canAttackMove(false);
@@ -4084,7 +4149,7 @@ public class Unit implements Comparable<Unit> {
 
         Unit thisUnit = this;
         if (getType().producesLarva()) {
-            if (uType.whatBuilds().getKey() == Zerg_Larva) {
+            if (uType.whatBuildsType() == Zerg_Larva) {
                 boolean foundCommandableLarva = false;
                 for (final Unit larva : getLarva()) {
                     if (larva.canTrain(true)) {
@@ -4175,7 +4240,7 @@ public class Unit implements Comparable<Unit> {
 
         Unit thisUnit = this;
         if (getType().producesLarva()) {
-            if (uType.whatBuilds().getKey() == Zerg_Larva) {
+            if (uType.whatBuildsType() == Zerg_Larva) {
                 boolean foundCommandableLarva = false;
                 for (final Unit larva : getLarva()) {
                     if (larva.canMorph(true)) {
@@ -5897,7 +5962,7 @@ public class Unit implements Comparable<Unit> {
             return false;
         }
         // unit check
-        if (tech != TechType.Burrowing && !tech.whatUses().contains(ut)) {
+        if (tech != TechType.Burrowing && !tech.isUsedBy(ut)) {
             return false;
         }
 
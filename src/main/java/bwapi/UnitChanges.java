@@ -0,0 +1,292 @@
+package bwapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The units whose state changed since the previous frame, with a mask of the fields which changed.
+ * <p>
+ * At the end of each frame the tracked fields of every accessible unit are copied into a row of an int array
+ * indexed by unit ID, and compared with the row of the previous frame. Only the units with at least one
+ * changed field are listed, so a bot can react to them instead of polling every unit.
+ * <p>
+ * Timers and cooldowns, which change on almost every frame, are not tracked.
+ */
+public final class UnitChanges {
+    public static final int POSITION = 1;
+    public static final int HIT_POINTS = 1 << 1;
+    public static final int SHIELDS = 1 << 2;
+    public static final int ENERGY = 1 << 3;
+    public static final int TYPE = 1 << 4;
+    public static final int PLAYER = 1 << 5;
+    /**
+     * The order or the secondary order.
+     */
+    public static final int ORDER = 1 << 6;
+    /**
+     * The target unit or position of the order.
+     */
+    public static final int ORDER_TARGET = 1 << 7;
+    public static final int TARGET = 1 << 8;
+    public static final int TRAINING_QUEUE = 1 << 9;
+    /**
+     * The building being constructed, or the type being built.
+     */
+    public static final int BUILD = 1 << 10;
+    /**
+     * The tech being researched or the upgrade in progress.
+     */
+    public static final int RESEARCH = 1 << 11;
+    /**
+     * One of the completed, idle, burrowed, cloaked, detected, lifted, morphing, constructing, training,
+     * gathering, powered or hallucination flags.
+     */
+    public static final int STATUS = 1 << 12;
+    public static final int RESOURCES = 1 << 13;
+    public static final int TRANSPORT = 1 << 14;
+    /**
+     * The unit became accessible in this frame, all its fields are new.
+     */
+    public static final int APPEARED = 1 << 15;
+    /**
+     * The unit is no longer accessible, its fields are not compared.
+     */
+    public static final int DISAPPEARED = 1 << 16;
+
+    private static final int MAX_TRAINING_QUEUE = 5;
+    // The field mask of each column of a row
+    private static final int[] COLUMN_FIELDS = {
+            POSITION, POSITION,
+            HIT_POINTS,
+            SHIELDS,
+            ENERGY,
+            TYPE,
+            PLAYER,
+            ORDER, ORDER,
+            ORDER_TARGET, ORDER_TARGET, ORDER_TARGET,
+            TARGET, TARGET, TARGET,
+            TRAINING_QUEUE, TRAINING_QUEUE, TRAINING_QUEUE, TRAINING_QUEUE, TRAINING_QUEUE, TRAINING_QUEUE,
+            BUILD, BUILD,
+            RESEARCH, RESEARCH,
+            STATUS,
+            RESOURCES,
+            TRANSPORT
+    };
+    private static final int COLUMNS = COLUMN_FIELDS.length;
+
+    private final Game game;
+    private int frame = -1;
+    private int[] previous = new int[0];
+    private int[] current = new int[0];
+    // Frame in which each unit was last accessible
+    private int[] lastSeenFrames = new int[0];
+    private int[] masks = new int[0];
+    private int[] seenIds = new int[16];
+    private int seenCount;
+    private int[] previousSeenIds = new int[16];
+    private int previousSeenCount;
+    private int[] changedIds = new int[16];
+    private int changedCount;
+
+    UnitChanges(final Game game) {
+        this.game = game;
+        update(game.getFrameCount());
+    }
+
+    /**
+     * Compares the units with the previous frame, if this was not already done in this frame.
+     */
+    void update(final int frame) {
+        if (frame == this.frame) {
+            return;
+        }
+        // The rows of previous are only valid for the units seen in the previous comparison
+        final int previousFrame = this.frame;
+        this.frame = frame;
+
+        final int[] swapIds = previousSeenIds;
+        previousSeenIds = seenIds;
+        previousSeenCount = seenCount;
+        seenIds = swapIds;
+        seenCount = 0;
+        final int[] swapRows = previous;
+        previous = current;
+        current = swapRows;
+        for (int i = 0; i < changedCount; ++i) {
+            masks[changedIds[i]] = 0;
+        }
+        changedCount = 0;
+
+        for (final Unit unit : game.getAllUnits()) {
+            if (!unit.exists()) {
+                continue;
+            }
+            final int id = unit.getID();
+            ensureCapacity(id);
+            final int row = id * COLUMNS;
+            read(unit.unitData(), current, row);
+            if (lastSeenFrames[id] != previousFrame) {
+                addChange(id, APPEARED);
+            } else {
+                int mask = 0;
+                for (int column = 0; column < COLUMNS; ++column) {
+                    if (current[row + column] != previous[row + column]) {
+                        mask |= COLUMN_FIELDS[column];
+                    }
+                }
+                if (mask != 0) {
+                    addChange(id, mask);
+                }
+            }
+            lastSeenFrames[id] = frame;
+            if (seenCount == seenIds.length) {
+                seenIds = Arrays.copyOf(seenIds, seenCount * 2);
+            }
+            seenIds[seenCount++] = id;
+        }
+
+        for (int i = 0; i < previousSeenCount; ++i) {
+            final int id = previousSeenIds[i];
+            if (lastSeenFrames[id] != frame) {
+                addChange(id, DISAPPEARED);
+            }
+        }
+    }
+
+    private static void read(final ClientData.UnitData unitData, final int[] rows, int i) {
+        rows[i++] = unitData.getPositionX();
+        rows[i++] = unitData.getPositionY();
+        rows[i++] = unitData.getHitPoints();
+        rows[i++] = unitData.getShields();
+        rows[i++] = unitData.getEnergy();
+        rows[i++] = unitData.getType();
+        rows[i++] = unitData.getPlayer();
+        rows[i++] = unitData.getOrder();
+        rows[i++] = unitData.getSecondaryOrder();
+        rows[i++] = unitData.getOrderTarget();
+        rows[i++] = unitData.getOrderTargetPositionX();
+        rows[i++] = unitData.getOrderTargetPositionY();
+        rows[i++] = unitData.getTarget();
+        rows[i++] = unitData.getTargetPositionX();
+        rows[i++] = unitData.getTargetPositionY();
+        final int queueCount = unitData.getTrainingQueueCount();
+        rows[i++] = queueCount;
+        for (int slot = 0; slot < MAX_TRAINING_QUEUE; ++slot) {
+            rows[i++] = slot < queueCount ? unitData.getTrainingQueue(slot) : -1;
+        }
+        rows[i++] = unitData.getBuildType();
+        rows[i++] = unitData.getBuildUnit();
+        rows[i++] = unitData.getTech();
+        rows[i++] = unitData.getUpgrade();
+        rows[i++] = (unitData.isCompleted() ? 1 : 0)
+                | (unitData.isIdle() ? 1 << 1 : 0)
+                | (unitData.isBurrowed() ? 1 << 2 : 0)
+                | (unitData.isCloaked() ? 1 << 3 : 0)
+                | (unitData.isDetected() ? 1 << 4 : 0)
+                | (unitData.isLifted() ? 1 << 5 : 0)
+                | (unitData.isMorphing() ? 1 << 6 : 0)
+                | (unitData.isConstructing() ? 1 << 7 : 0)
+                | (unitData.isTraining() ? 1 << 8 : 0)
+                | (unitData.isGathering() ? 1 << 9 : 0)
+                | (unitData.isPowered() ? 1 << 10 : 0)
+                | (unitData.isHallucination() ? 1 << 11 : 0);
+        rows[i++] = unitData.getResources();
+        rows[i] = unitData.getTransport();
+    }
+
+    private void addChange(final int id, final int mask) {
+        if (changedCount == changedIds.length) {
+            changedIds = Arrays.copyOf(changedIds, changedCount * 2);
+        }
+        changedIds[changedCount++] = id;
+        masks[id] = mask;
+    }
+
+    private void ensureCapacity(final int id) {
+        if (id < lastSeenFrames.length) {
+            return;
+        }
+        final int length = Math.max(id + 1, Math.max(256, lastSeenFrames.length * 2));
+        final int oldLength = lastSeenFrames.length;
+        lastSeenFrames = Arrays.copyOf(lastSeenFrames, length);
+        Arrays.fill(lastSeenFrames, oldLength, length, Integer.MIN_VALUE);
+        masks = Arrays.copyOf(masks, length);
+        previous = Arrays.copyOf(previous, length * COLUMNS);
+        current = Arrays.copyOf(current, length * COLUMNS);
+    }
+
+    /**
+     * @return The frame of the last comparison.
+     */
+    public int getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return The number of units which changed in this frame.
+     */
+    public int size() {
+        return changedCount;
+    }
+
+    /**
+     * Retrieves a unit which changed in this frame.
+     *
+     * @param index The index of the change, between 0 and {@link #size()} excluded.
+     */
+    public Unit getUnit(final int index) {
+        return game.getUnit(getUnitID(index));
+    }
+
+    public int getUnitID(final int index) {
+        if (index < 0 || index >= changedCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + changedCount + " changes");
+        }
+        return changedIds[index];
+    }
+
+    /**
+     * Retrieves the fields which changed for a unit of this frame.
+     *
+     * @param index The index of the change, between 0 and {@link #size()} excluded.
+     * @return A mask of the field constants of this class.
+     */
+    public int getChangedFields(final int index) {
+        return masks[getUnitID(index)];
+    }
+
+    /**
+     * Retrieves the fields of a unit which changed in this frame.
+     *
+     * @return A mask of the field constants of this class, 0 if the unit did not change.
+     */
+    public int getChangedFields(final Unit unit) {
+        final int id = unit.getID();
+        return id < masks.length ? masks[id] : 0;
+    }
+
+    /**
+     * Checks if at least one of the given fields of a unit changed in this frame.
+     *
+     * @param fields A mask of the field constants of this class.
+     */
+    public boolean hasChanged(final Unit unit, final int fields) {
+        return (getChangedFields(unit) & fields) != 0;
+    }
+
+    /**
+     * Retrieves the units for which at least one of the given fields changed in this frame.
+     *
+     * @param fields A mask of the field constants of this class.
+     */
+    public List<Unit> getChangedUnits(final int fields) {
+        final List<Unit> result = new ArrayList<>();
+        for (int i = 0; i < changedCount; ++i) {
+            if ((masks[changedIds[i]] & fields) != 0) {
+                result.add(game.getUnit(changedIds[i]));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,194 @@
+package bwapi;
+
+import java.util.Arrays;
+
+/**
+ * Collects the unit commands of a frame, to write them to the shared memory once at the end of the frame.
+ * <p>
+ * A command which is not queued replaces the orders given earlier in the same frame to the same unit, as only the
+ * last one would be executed. When writing, the commands with the same type and arguments are written next to
+ * each other in groups of at most 12, the size of a selection, which is what the command optimizer of BWAPI
+ * merges (see {@link Game#setCommandOptimizationLevel}). Commands which must keep their order relative to other
+ * commands of the same unit are written in the order they were issued.
+ */
+class UnitCommandBuffer {
+    private static final int GROUP_SIZE = 12;
+    private static final int NONE = -1;
+    // Commands which replace the previous order of the unit, unless queued, indexed by UnitCommandType id
+    private static final boolean[] ORDERS = new boolean[UnitCommandType.values().length];
+
+    static {
+        for (final UnitCommandType type : Arrays.asList(
+                UnitCommandType.Attack_Move, UnitCommandType.Attack_Unit, UnitCommandType.Move, UnitCommandType.Patrol,
+                UnitCommandType.Hold_Position, UnitCommandType.Stop, UnitCommandType.Follow, UnitCommandType.Gather,
+                UnitCommandType.Return_Cargo, UnitCommandType.Repair, UnitCommandType.Right_Click_Position,
+                UnitCommandType.Right_Click_Unit)) {
+            ORDERS[type.id] = true;
+        }
+    }
+
+    private final Game game;
+    private int count;
+    private int[] types = new int[64];
+    private int[] units = new int[64];
+    private int[] targets = new int[64];
+    private int[] xs = new int[64];
+    private int[] ys = new int[64];
+    private int[] extras = new int[64];
+    private boolean[] dropped = new boolean[64];
+    // Previous command of the same unit in this frame
+    private int[] previousOfUnit = new int[64];
+    // Last command of each unit id in this frame, valid when lastOfUnitMarker[id] == frameMarker
+    private int[] lastOfUnit = new int[0];
+    private int[] lastOfUnitMarker = new int[0];
+    private int frameMarker = 1;
+    private int[] order = new int[64];
+    private boolean[] written = new boolean[64];
+    private int droppedCount;
+
+    UnitCommandBuffer(final Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Returns true if the command repeats the last command issued to the unit, which it is still executing.
+     */
+    static boolean repeatsCurrentOrder(final Unit unit, final UnitCommand command, final UnitCommand lastCommand) {
+        if (lastCommand == null || lastCommand.unit != unit || command.isQueued() || !command.equals(lastCommand)) {
+            return false;
+        }
+        switch (command.type) {
+            case Attack_Unit:
+                return unit.getOrder() == Order.AttackUnit && command.target.equals(unit.getOrderTarget());
+            case Attack_Move:
+                return unit.getOrder() == Order.AttackMove && command.getTargetPosition().equals(unit.getOrderTargetPosition());
+            case Move:
+                return unit.getOrder() == Order.Move && command.getTargetPosition().equals(unit.getOrderTargetPosition());
+            case Follow:
+                return unit.getOrder() == Order.Follow && command.target.equals(unit.getOrderTarget());
+            case Gather:
+                return (unit.isGatheringMinerals() || unit.isGatheringGas()) && command.target.equals(unit.getOrderTarget());
+            case Hold_Position:
+                return unit.getOrder() == Order.HoldPosition;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isOrder(final int type) {
+        return type >= 0 && type < ORDERS.length && ORDERS[type];
+    }
+
+    private static boolean isQueued(final int type, final int extra) {
+        return extra != 0 && isOrder(type);
+    }
+
+    void add(final int type, final int unit, final int target, final int x, final int y, final int extra) {
+        if (count == types.length) {
+            grow();
+        }
+        if (unit >= lastOfUnit.length) {
+            final int length = Math.max(unit + 1, lastOfUnit.length * 2);
+            lastOfUnit = Arrays.copyOf(lastOfUnit, length);
+            lastOfUnitMarker = Arrays.copyOf(lastOfUnitMarker, length);
+        }
+        final int previous = lastOfUnitMarker[unit] == frameMarker ? lastOfUnit[unit] : NONE;
+        if (isOrder(type) && !isQueued(type, extra)) {
+            for (int i = previous; i != NONE; i = previousOfUnit[i]) {
+                if (!dropped[i] && isOrder(types[i])) {
+                    dropped[i] = true;
+                    ++droppedCount;
+                }
+            }
+        }
+        types[count] = type;
+        units[count] = unit;
+        targets[count] = target;
+        xs[count] = x;
+        ys[count] = y;
+        extras[count] = extra;
+        dropped[count] = false;
+        previousOfUnit[count] = previous;
+        lastOfUnit[unit] = count;
+        lastOfUnitMarker[unit] = frameMarker;
+        ++count;
+    }
+
+    private void grow() {
+        final int length = count * 2;
+        types = Arrays.copyOf(types, length);
+        units = Arrays.copyOf(units, length);
+        targets = Arrays.copyOf(targets, length);
+        xs = Arrays.copyOf(xs, length);
+        ys = Arrays.copyOf(ys, length);
+        extras = Arrays.copyOf(extras, length);
+        dropped = Arrays.copyOf(dropped, length);
+        previousOfUnit = Arrays.copyOf(previousOfUnit, length);
+        order = Arrays.copyOf(order, length);
+        written = Arrays.copyOf(written, length);
+    }
+
+    /**
+     * Number of commands which were not written because a later command of the same frame replaced them.
+     */
+    int getDroppedCount() {
+        return droppedCount;
+    }
+
+    int size() {
+        return count;
+    }
+
+    private boolean sameArguments(final int i, final int j) {
+        return types[i] == types[j] && targets[i] == targets[j] && xs[i] == xs[j] && ys[i] == ys[j] && extras[i] == extras[j];
+    }
+
+    // A command can be moved into a group if it is the first remaining command of its unit
+    private boolean isGroupable(final int i) {
+        if (dropped[i] || !isOrder(types[i])) {
+            return false;
+        }
+        for (int p = previousOfUnit[i]; p != NONE; p = previousOfUnit[p]) {
+            if (!dropped[p]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the commands and empties the buffer.
+     */
+    void flush() {
+        int ordered = 0;
+        Arrays.fill(written, 0, count, false);
+        // Groups of identical orders first, in the order of their first command
+        for (int i = 0; i < count; ++i) {
+            if (written[i] || !isGroupable(i)) {
+                continue;
+            }
+            int groupSize = 0;
+            for (int j = i; j < count; ++j) {
+                if (!written[j] && sameArguments(i, j) && isGroupable(j)) {
+                    written[j] = true;
+                    order[ordered++] = j;
+                    if (++groupSize == GROUP_SIZE) {
+                        break;
+                    }
+                }
+            }
+        }
+        // Then the other commands, in the order they were issued
+        for (int i = 0; i < count; ++i) {
+            if (!written[i] && !dropped[i]) {
+                order[ordered++] = i;
+            }
+        }
+        for (int k = 0; k < ordered; ++k) {
+            final int i = order[k];
+            game.writeUnitCommand(types[i], units[i], targets[i], xs[i], ys[i], extras[i]);
+        }
+        count = 0;
+        ++frameMarker;
+    }
+}
@@ -1,238 +1,240 @@
 package bwapi;
 
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 
 public interface UnitFilter extends Predicate<Unit> {
-    UnitFilter IsTransPort = u -> u.getType().spaceProvided() > 0 && u.getType() != UnitType.Terran_Bunker;
-    UnitFilter CanProduce = u -> u.getType().canProduce();
-    UnitFilter CanAttack = u -> u.getType().canAttack();
-    UnitFilter CanMove = u -> u.getType().canMove();
-    UnitFilter IsFlyer = u -> u.getType().isFlyer();
+    UnitTypeFilter IsTransPort = UnitTypeFilter.of(t -> t.spaceProvided() > 0 && t != UnitType.Terran_Bunker);
+    UnitTypeFilter CanProduce = UnitTypeFilter.of(UnitType::canProduce);
+    UnitTypeFilter CanAttack = UnitTypeFilter.of(UnitType::canAttack);
+    UnitTypeFilter CanMove = UnitTypeFilter.of(UnitType::canMove);
+    UnitTypeFilter IsFlyer = UnitTypeFilter.of(UnitType::isFlyer);
     UnitFilter IsFlying = u -> u.isFlying();
-    UnitFilter RegeneratesHP = u -> u.getType().regeneratesHP();
-    UnitFilter IsSpellcaster = u -> u.getType().isSpellcaster();
-    UnitFilter HasPermanentCloak = u -> u.getType().hasPermanentCloak();
-    UnitFilter IsOrganic = u -> u.getType().isOrganic();
-    UnitFilter IsMechanical = u -> u.getType().isMechanical();
-    UnitFilter IsRobotic = u -> u.getType().isRobotic();
-    UnitFilter IsDetector = u -> u.getType().isDetector();
-    UnitFilter IsResourceContainer = u -> u.getType().isResourceContainer();
-    UnitFilter IsResourceDepot = u -> u.getType().isResourceDepot();
-    UnitFilter IsRefinery = u -> u.getType().isRefinery();
-    UnitFilter IsWorker = u -> u.getType().isWorker();
-    UnitFilter RequiresPsi = u -> u.getType().requiresPsi();
-    UnitFilter RequiresCreep = u -> u.getType().requiresCreep();
-    UnitFilter IsBurrowable = u -> u.getType().isBurrowable();
-    UnitFilter IsCloakable = u -> u.getType().isCloakable();
-    UnitFilter IsBuilding = u -> u.getType().isBuilding();
-    UnitFilter IsAddon = u -> u.getType().isAddon();
-    UnitFilter IsFlyingBuilding = u -> u.getType().isFlyingBuilding();
-    UnitFilter IsNeutral = u -> u.getType().isNeutral();
-    UnitFilter IsHero = u -> u.getType().isHero();
-    UnitFilter IsPowerup = u -> u.getType().isPowerup();
-    UnitFilter IsBeacon = u -> u.getType().isBeacon();
-    UnitFilter IsFlagBeacon = u -> u.getType().isFlagBeacon();
-    UnitFilter IsSpecialBuilding = u -> u.getType().isSpecialBuilding();
-    UnitFilter IsSpell = u -> u.getType().isSpell();
-    UnitFilter ProducesLarva = u -> u.getType().producesLarva();
-    UnitFilter IsMineralField = u -> u.getType().isMineralField();
-    UnitFilter IsCritter = u -> u.getType().isCritter();
-    UnitFilter CanBuildAddon = u -> u.getType().canBuildAddon();
+    UnitTypeFilter RegeneratesHP = UnitTypeFilter.of(UnitType::regeneratesHP);
+    UnitTypeFilter IsSpellcaster = UnitTypeFilter.of(UnitType::isSpellcaster);
+    UnitTypeFilter HasPermanentCloak = UnitTypeFilter.of(UnitType::hasPermanentCloak);
+    UnitTypeFilter IsOrganic = UnitTypeFilter.of(UnitType::isOrganic);
+    UnitTypeFilter IsMechanical = UnitTypeFilter.of(UnitType::isMechanical);
+    UnitTypeFilter IsRobotic = UnitTypeFilter.of(UnitType::isRobotic);
+    UnitTypeFilter IsDetector = UnitTypeFilter.of(UnitType::isDetector);
+    UnitTypeFilter IsResourceContainer = UnitTypeFilter.of(UnitType::isResourceContainer);
+    UnitTypeFilter IsResourceDepot = UnitTypeFilter.of(UnitType::isResourceDepot);
+    UnitTypeFilter IsRefinery = UnitTypeFilter.of(UnitType::isRefinery);
+    UnitTypeFilter IsWorker = UnitTypeFilter.of(UnitType::isWorker);
+    UnitTypeFilter RequiresPsi = UnitTypeFilter.of(UnitType::requiresPsi);
+    UnitTypeFilter RequiresCreep = UnitTypeFilter.of(UnitType::requiresCreep);
+    UnitTypeFilter IsBurrowable = UnitTypeFilter.of(UnitType::isBurrowable);
+    UnitTypeFilter IsCloakable = UnitTypeFilter.of(UnitType::isCloakable);
+    UnitTypeFilter IsBuilding = UnitTypeFilter.of(UnitType::isBuilding);
+    UnitTypeFilter IsAddon = UnitTypeFilter.of(UnitType::isAddon);
+    UnitTypeFilter IsFlyingBuilding = UnitTypeFilter.of(UnitType::isFlyingBuilding);
+    UnitTypeFilter IsNeutral = UnitTypeFilter.of(UnitType::isNeutral);
+    UnitTypeFilter IsHero = UnitTypeFilter.of(UnitType::isHero);
+    UnitTypeFilter IsPowerup = UnitTypeFilter.of(UnitType::isPowerup);
+    UnitTypeFilter IsBeacon = UnitTypeFilter.of(UnitType::isBeacon);
+    UnitTypeFilter IsFlagBeacon = UnitTypeFilter.of(UnitType::isFlagBeacon);
+    UnitTypeFilter IsSpecialBuilding = UnitTypeFilter.of(UnitType::isSpecialBuilding);
+    UnitTypeFilter IsSpell = UnitTypeFilter.of(UnitType::isSpell);
+    UnitTypeFilter ProducesLarva = UnitTypeFilter.of(UnitType::producesLarva);
+    UnitTypeFilter IsMineralField = UnitTypeFilter.of(UnitType::isMineralField);
+    UnitTypeFilter IsCritter = UnitTypeFilter.of(UnitType::isCritter);
+    UnitTypeFilter CanBuildAddon = UnitTypeFilter.of(UnitType::canBuildAddon);
 
     // static UnitFilter example = HP(x -> x > 40);
-    static UnitFilter HP(Predicate<Integer> c) {
+    static UnitFilter HP(IntPredicate c) {
         return u -> c.test(u.getHitPoints());
     }
 
-    static UnitFilter MaxHP(Predicate<Integer> c) {
-        return u -> c.test(u.getType().maxHitPoints());
+    static UnitTypeFilter MaxHP(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.maxHitPoints()));
     }
 
-    static UnitFilter HP_Percent(Predicate<Integer> c) {
+    static UnitFilter HP_Percent(IntPredicate c) {
         return u -> c.test((u.getType().maxHitPoints() != 0) ? ((u.getHitPoints() * 100) / u.getType().maxHitPoints()) : 0);
     }
 
-    static UnitFilter Shields(Predicate<Integer> c) {
+    static UnitFilter Shields(IntPredicate c) {
         return u -> c.test(u.getShields());
     }
 
-    static UnitFilter MaxShields(Predicate<Integer> c) {
-        return u -> c.test(u.getType().maxShields());
+    static UnitTypeFilter MaxShields(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.maxShields()));
     }
 
-    static UnitFilter Shields_Percent(Predicate<Integer> c) {
+    static UnitFilter Shields_Percent(IntPredicate c) {
         return u -> c.test((u.getType().maxShields() != 0) ? ((u.getShields() * 100) / u.getType().maxShields()) : 0);
     }
 
-    static UnitFilter Energy(Predicate<Integer> c) {
+    static UnitFilter Energy(IntPredicate c) {
         return u -> c.test(u.getEnergy());
     }
 
-    static UnitFilter MaxEnergy(Predicate<Integer> c) {
+    static UnitFilter MaxEnergy(IntPredicate c) {
         return u -> c.test(u.getPlayer().maxEnergy(u.getType()));
     }
 
-    static UnitFilter Energy_Percent(Predicate<Integer> c) {
+    static UnitFilter Energy_Percent(IntPredicate c) {
         return u -> c.test((u.getPlayer().maxEnergy(u.getType()) != 0) ? ((u.getEnergy() * 100) / u.getPlayer().maxEnergy(u.getType())) : 0);
     }
 
-    static UnitFilter Armor(Predicate<Integer> c) {
+    static UnitFilter Armor(IntPredicate c) {
         return u -> c.test(u.getPlayer().armor(u.getType()));
     }
 
-    static UnitFilter ArmorUpgrade(Predicate<UpgradeType> c) {
-        return u -> c.test(u.getType().armorUpgrade());
+    static UnitTypeFilter ArmorUpgrade(Predicate<UpgradeType> c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.armorUpgrade()));
     }
 
-    static UnitFilter MineralPrice(Predicate<Integer> c) {
-        return u -> c.test(u.getType().mineralPrice());
+    static UnitTypeFilter MineralPrice(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.mineralPrice()));
     }
 
-    static UnitFilter GasPrice(Predicate<Integer> c) {
-        return u -> c.test(u.getType().gasPrice());
+    static UnitTypeFilter GasPrice(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.gasPrice()));
     }
 
-    static UnitFilter BuildTime(Predicate<Integer> c) {
-        return u -> c.test(u.getType().buildTime());
+    static UnitTypeFilter BuildTime(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.buildTime()));
     }
 
-    static UnitFilter SupplyRequired(Predicate<Integer> c) {
-        return u -> c.test(u.getType().supplyRequired());
+    static UnitTypeFilter SupplyRequired(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.supplyRequired()));
     }
 
-    static UnitFilter SupplyProvided(Predicate<Integer> c) {
-        return u -> c.test(u.getType().supplyProvided());
+    static UnitTypeFilter SupplyProvided(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.supplyProvided()));
     }
 
-    static UnitFilter SpaceRequired(Predicate<Integer> c) {
-        return u -> c.test(u.getType().spaceRequired());
+    static UnitTypeFilter SpaceRequired(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.spaceRequired()));
     }
 
-    static UnitFilter SpaceRemaining(Predicate<Integer> c) {
+    static UnitFilter SpaceRemaining(IntPredicate c) {
         return u -> c.test(u.getSpaceRemaining());
     }
 
-    static UnitFilter SpaceProvided(Predicate<Integer> c) {
-        return u -> c.test(u.getType().spaceProvided());
+    static UnitTypeFilter SpaceProvided(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.spaceProvided()));
     }
 
-    static UnitFilter BuildScore(Predicate<Integer> c) {
-        return u -> c.test(u.getType().buildScore());
+    static UnitTypeFilter BuildScore(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.buildScore()));
     }
 
-    static UnitFilter DestroyScore(Predicate<Integer> c) {
-        return u -> c.test(u.getType().destroyScore());
+    static UnitTypeFilter DestroyScore(IntPredicate c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.destroyScore()));
     }
 
-    static UnitFilter TopSpeed(Predicate<Double> c) {
+    static UnitFilter TopSpeed(DoublePredicate c) {
         return u -> c.test(u.getPlayer().topSpeed(u.getType()));
     }
 
-    static UnitFilter SightRange(Predicate<Integer> c) {
+    static UnitFilter SightRange(IntPredicate c) {
         return u -> c.test(u.getPlayer().sightRange(u.getType()));
     }
 
-    static UnitFilter MaxWeaponCooldown(Predicate<Integer> c) {
+    static UnitFilter MaxWeaponCooldown(IntPredicate c) {
         return u -> c.test(u.getPlayer().weaponDamageCooldown(u.getType()));
     }
 
-    static UnitFilter SizeType(Predicate<UnitSizeType> c) {
-        return u -> c.test(u.getType().size());
+    static UnitTypeFilter SizeType(Predicate<UnitSizeType> c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.size()));
     }
 
-    static UnitFilter GroundWeapon(Predicate<WeaponType> c) {
-        return u -> c.test(u.getType().groundWeapon());
+    static UnitTypeFilter GroundWeapon(Predicate<WeaponType> c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.groundWeapon()));
     }
 
-    static UnitFilter AirWeapon(Predicate<WeaponType> c) {
-        return u -> c.test(u.getType().airWeapon());
+    static UnitTypeFilter AirWeapon(Predicate<WeaponType> c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.airWeapon()));
     }
 
-    static UnitFilter GetType(Predicate<UnitType> c) {
-        return u -> c.test(u.getType());
+    static UnitTypeFilter GetType(Predicate<UnitType> c) {
+        return UnitTypeFilter.lazy(c);
     }
 
-    static UnitFilter GetRace(Predicate<Race> c) {
-        return u -> c.test(u.getType().getRace());
+    static UnitTypeFilter GetRace(Predicate<Race> c) {
+        return UnitTypeFilter.lazy(t -> c.test(t.getRace()));
     }
 
     static UnitFilter GetPlayer(Predicate<Player> c) {
         return u -> c.test(u.getPlayer());
     }
 
-    static UnitFilter Resources(Predicate<Integer> c) {
+    static UnitFilter Resources(IntPredicate c) {
         return u -> c.test(u.getResources());
     }
 
-    static UnitFilter ResourceGroup(Predicate<Integer> c) {
+    static UnitFilter ResourceGroup(IntPredicate c) {
         return u -> c.test(u.getResourceGroup());
     }
 
-    static UnitFilter AcidSporeCount(Predicate<Integer> c) {
+    static UnitFilter AcidSporeCount(IntPredicate c) {
         return u -> c.test(u.getAcidSporeCount());
     }
 
-    static UnitFilter InterceptorCount(Predicate<Integer> c) {
+    static UnitFilter InterceptorCount(IntPredicate c) {
         return u -> c.test(u.getInterceptorCount());
     }
 
-    static UnitFilter ScarabCount(Predicate<Integer> c) {
+    static UnitFilter ScarabCount(IntPredicate c) {
         return u -> c.test(u.getScarabCount());
     }
 
-    static UnitFilter SpiderMineCount(Predicate<Integer> c) {
+    static UnitFilter SpiderMineCount(IntPredicate c) {
         return u -> c.test(u.getSpiderMineCount());
     }
 
-    static UnitFilter WeaponCooldown(Predicate<Integer> c) {
+    static UnitFilter WeaponCooldown(IntPredicate c) {
         return u -> c.test(u.getGroundWeaponCooldown());
     }
 
-    static UnitFilter SpellCooldown(Predicate<Integer> c) {
+    static UnitFilter SpellCooldown(IntPredicate c) {
         return u -> c.test(u.getSpellCooldown());
     }
 
-    static UnitFilter DefenseMatrixPoints(Predicate<Integer> c) {
+    static UnitFilter DefenseMatrixPoints(IntPredicate c) {
         return u -> c.test(u.getDefenseMatrixPoints());
     }
 
-    static UnitFilter DefenseMatrixTime(Predicate<Integer> c) {
+    static UnitFilter DefenseMatrixTime(IntPredicate c) {
         return u -> c.test(u.getDefenseMatrixTimer());
     }
 
-    static UnitFilter EnsnareTime(Predicate<Integer> c) {
+    static UnitFilter EnsnareTime(IntPredicate c) {
         return u -> c.test(u.getEnsnareTimer());
     }
 
-    static UnitFilter IrradiateTime(Predicate<Integer> c) {
+    static UnitFilter IrradiateTime(IntPredicate c) {
         return u -> c.test(u.getIrradiateTimer());
     }
 
-    static UnitFilter LockdownTime(Predicate<Integer> c) {
+    static UnitFilter LockdownTime(IntPredicate c) {
         return u -> c.test(u.getLockdownTimer());
     }
 
-    static UnitFilter MaelstromTime(Predicate<Integer> c) {
+    static UnitFilter MaelstromTime(IntPredicate c) {
         return u -> c.test(u.getMaelstromTimer());
     }
 
-    static UnitFilter OrderTime(Predicate<Integer> c) {
+    static UnitFilter OrderTime(IntPredicate c) {
         return u -> c.test(u.getOrderTimer());
     }
 
-    static UnitFilter PlagueTimer(Predicate<Integer> c) {
+    static UnitFilter PlagueTimer(IntPredicate c) {
         return u -> c.test(u.getPlagueTimer());
     }
 
-    static UnitFilter RemoveTime(Predicate<Integer> c) {
+    static UnitFilter RemoveTime(IntPredicate c) {
         return u -> c.test(u.getRemoveTimer());
     }
 
-    static UnitFilter StasisTime(Predicate<Integer> c) {
+    static UnitFilter StasisTime(IntPredicate c) {
         return u -> c.test(u.getStasisTimer());
     }
 
-    static UnitFilter StimTime(Predicate<Integer> c) {
+    static UnitFilter StimTime(IntPredicate c) {
         return u -> c.test(u.getStimTimer());
     }
 
@@ -240,11 +242,11 @@ public interface UnitFilter extends Predicate<Unit> {
         return u -> c.test(u.getBuildType());
     }
 
-    static UnitFilter RemainingBuildTime(Predicate<Integer> c) {
+    static UnitFilter RemainingBuildTime(IntPredicate c) {
         return u -> c.test(u.getRemainingBuildTime());
     }
 
-    static UnitFilter RemainingTrainTime(Predicate<Integer> c) {
+    static UnitFilter RemainingTrainTime(IntPredicate c) {
         return u -> c.test(u.getRemainingTrainTime());
     }
 
@@ -264,19 +266,19 @@ public interface UnitFilter extends Predicate<Unit> {
         return u -> c.test(u.getOrderTarget());
     }
 
-    static UnitFilter GetLeft(Predicate<Integer> c) {
+    static UnitFilter GetLeft(IntPredicate c) {
         return u -> c.test(u.getLeft());
     }
 
-    static UnitFilter GetTop(Predicate<Integer> c) {
+    static UnitFilter GetTop(IntPredicate c) {
         return u -> c.test(u.getTop());
     }
 
-    static UnitFilter GetRight(Predicate<Integer> c) {
+    static UnitFilter GetRight(IntPredicate c) {
         return u -> c.test(u.getRight());
     }
 
-    static UnitFilter GetBottom(Predicate<Integer> c) {
+    static UnitFilter GetBottom(IntPredicate c) {
         return u -> c.test(u.getBottom());
     }
 
@@ -0,0 +1,368 @@
+package bwapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Last known state of the enemy units, including the ones which left vision.
+ * <p>
+ * The type, owner, position, hit points, shields, and burrowed, cloaked and detected states of each visible enemy unit
+ * are recorded at the end of every frame, so they are still available after the unit is hidden, when its {@link Unit}
+ * getters no longer return them. A remembered unit is forgotten when it is destroyed, or when the tile of its last known
+ * position is visible again without it, unless it was burrowed or cloaked: it may still be there, undetected.
+ * <p>
+ * Visible and remembered units are kept in the same grid of 8x8 tiles cells, for spatial queries over
+ * last known positions. The state is stored in arrays indexed by unit ID, so tracking a unit does not allocate.
+ */
+public final class UnitMemory {
+    private static final int CELL_SHIFT = 8;
+    private static final int NONE = -1;
+    private static final byte UNTRACKED = 0;
+    private static final byte VISIBLE = 1;
+    private static final byte REMEMBERED = 2;
+    private static final byte BURROWED = 1;
+    private static final byte CLOAKED = 2;
+    private static final byte DETECTED = 4;
+
+    private final Game game;
+    private final int cellsX;
+    private final int cellsY;
+    // First unit ID of each cell, the others are linked by next and prev
+    private final int[] cellHead;
+
+    private byte[] states = new byte[0];
+    private int[] cells = new int[0];
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+    private UnitType[] types = new UnitType[0];
+    private int[] players = new int[0];
+    private int[] positionX = new int[0];
+    private int[] positionY = new int[0];
+    private int[] hitPoints = new int[0];
+    private int[] shields = new int[0];
+    private byte[] statuses = new byte[0];
+    private int[] lastSeenFrames = new int[0];
+
+    UnitMemory(final Game game) {
+        this.game = game;
+        this.cellsX = (game.mapPixelWidth() + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        this.cellsY = (game.mapPixelHeight() + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT;
+        this.cellHead = new int[Math.max(1, cellsX * cellsY)];
+        Arrays.fill(cellHead, NONE);
+        onFrame(game.getFrameCount());
+    }
+
+    /**
+     * Records the state of the visible enemy units, and forgets the remembered ones whose position is visible.
+     */
+    void onFrame(final int frame) {
+        final Player self = game.self();
+        for (final Unit unit : game.getAllUnits()) {
+            final Player player = unit.getPlayer();
+            if (!unit.exists() || player == null || player.isNeutral() || (self != null && !self.isEnemy(player))) {
+                // Owned, allied or neutral units, which can also be former enemy units that changed owner
+                if (unit.getID() < states.length && states[unit.getID()] != UNTRACKED) {
+                    forget(unit.getID());
+                }
+                continue;
+            }
+            final int id = unit.getID();
+            ensureCapacity(id);
+            final Position position = unit.getPosition();
+            types[id] = unit.getType();
+            players[id] = player.getID();
+            positionX[id] = position.x;
+            positionY[id] = position.y;
+            hitPoints[id] = unit.getHitPoints();
+            shields[id] = unit.getShields();
+            statuses[id] = (byte) ((unit.isBurrowed() ? BURROWED : 0)
+                    | (unit.isCloaked() || types[id].hasPermanentCloak() ? CLOAKED : 0)
+                    | (unit.isDetected() ? DETECTED : 0));
+            lastSeenFrames[id] = frame;
+            states[id] = VISIBLE;
+            move(id, cellOf(position.x, position.y));
+        }
+
+        for (int id = 0; id < states.length; ++id) {
+            if (states[id] == REMEMBERED && lastSeenFrames[id] < frame && (statuses[id] & (BURROWED | CLOAKED)) == 0
+                    && game.isVisible(positionX[id] >> 5, positionY[id] >> 5)) {
+                forget(id);
+            }
+        }
+    }
+
+    /**
+     * Called when a unit left vision, it keeps its last recorded state.
+     */
+    void unitHide(final int id) {
+        if (id < states.length && states[id] == VISIBLE) {
+            states[id] = REMEMBERED;
+        }
+    }
+
+    /**
+     * Called when a unit was destroyed.
+     */
+    void unitDestroy(final int id) {
+        if (id < states.length && states[id] != UNTRACKED) {
+            forget(id);
+        }
+    }
+
+    private void ensureCapacity(final int id) {
+        if (id < states.length) {
+            return;
+        }
+        final int length = Math.max(id + 1, Math.max(256, states.length * 2));
+        final int oldLength = states.length;
+        states = Arrays.copyOf(states, length);
+        cells = Arrays.copyOf(cells, length);
+        next = Arrays.copyOf(next, length);
+        prev = Arrays.copyOf(prev, length);
+        types = Arrays.copyOf(types, length);
+        players = Arrays.copyOf(players, length);
+        positionX = Arrays.copyOf(positionX, length);
+        positionY = Arrays.copyOf(positionY, length);
+        hitPoints = Arrays.copyOf(hitPoints, length);
+        shields = Arrays.copyOf(shields, length);
+        statuses = Arrays.copyOf(statuses, length);
+        lastSeenFrames = Arrays.copyOf(lastSeenFrames, length);
+        Arrays.fill(cells, oldLength, length, NONE);
+    }
+
+    private int cellOf(final int x, final int y) {
+        final int cellX = Math.min(Math.max(x >> CELL_SHIFT, 0), cellsX - 1);
+        final int cellY = Math.min(Math.max(y >> CELL_SHIFT, 0), cellsY - 1);
+        return Math.max(cellY * cellsX + cellX, 0);
+    }
+
+    private void move(final int id, final int cell) {
+        if (cells[id] == cell) {
+            return;
+        }
+        unlink(id);
+        cells[id] = cell;
+        prev[id] = NONE;
+        next[id] = cellHead[cell];
+        if (cellHead[cell] != NONE) {
+            prev[cellHead[cell]] = id;
+        }
+        cellHead[cell] = id;
+    }
+
+    private void unlink(final int id) {
+        final int cell = cells[id];
+        if (cell == NONE) {
+            return;
+        }
+        if (prev[id] != NONE) {
+            next[prev[id]] = next[id];
+        } else {
+            cellHead[cell] = next[id];
+        }
+        if (next[id] != NONE) {
+            prev[next[id]] = prev[id];
+        }
+        cells[id] = NONE;
+    }
+
+    private void forget(final int id) {
+        unlink(id);
+        states[id] = UNTRACKED;
+        types[id] = null;
+    }
+
+    private boolean isTracked(final Unit unit) {
+        return unit != null && unit.getID() < states.length && states[unit.getID()] != UNTRACKED;
+    }
+
+    /**
+     * Checks if the unit is an enemy unit which is known to exist: visible, or remembered since it left vision.
+     */
+    public boolean isKnown(final Unit unit) {
+        return isTracked(unit);
+    }
+
+    /**
+     * Checks if the unit is an enemy unit which left vision, and is still remembered.
+     */
+    public boolean isRemembered(final Unit unit) {
+        return isTracked(unit) && states[unit.getID()] == REMEMBERED;
+    }
+
+    /**
+     * Retrieves the type of the unit when it was last seen.
+     *
+     * @return The last known {@link UnitType}, or {@link UnitType#Unknown} if the unit is not known.
+     */
+    public UnitType getType(final Unit unit) {
+        return isTracked(unit) ? types[unit.getID()] : UnitType.Unknown;
+    }
+
+    /**
+     * Retrieves the owner of the unit when it was last seen.
+     *
+     * @return The last known owner, or null if the unit is not known.
+     */
+    public Player getPlayer(final Unit unit) {
+        return isTracked(unit) ? game.getPlayer(players[unit.getID()]) : null;
+    }
+
+    /**
+     * Retrieves the position of the unit when it was last seen.
+     *
+     * @return The last known position, or {@link Position#Unknown} if the unit is not known.
+     */
+    public Position getPosition(final Unit unit) {
+        return isTracked(unit) ? new Position(positionX[unit.getID()], positionY[unit.getID()]) : Position.Unknown;
+    }
+
+    public int getX(final Unit unit) {
+        return isTracked(unit) ? positionX[unit.getID()] : Position.Unknown.x;
+    }
+
+    public int getY(final Unit unit) {
+        return isTracked(unit) ? positionY[unit.getID()] : Position.Unknown.y;
+    }
+
+    /**
+     * @return The hit points of the unit when it was last seen, or 0 if the unit is not known.
+     */
+    public int getHitPoints(final Unit unit) {
+        return isTracked(unit) ? hitPoints[unit.getID()] : 0;
+    }
+
+    /**
+     * @return The shields of the unit when it was last seen, or 0 if the unit is not known.
+     */
+    public int getShields(final Unit unit) {
+        return isTracked(unit) ? shields[unit.getID()] : 0;
+    }
+
+    /**
+     * @return true if the unit was burrowed when it was last seen, false if the unit is not known.
+     */
+    public boolean isBurrowed(final Unit unit) {
+        return isTracked(unit) && (statuses[unit.getID()] & BURROWED) != 0;
+    }
+
+    /**
+     * @return true if the unit was cloaked, or has a permanent cloak, when it was last seen, false if the unit is not known.
+     */
+    public boolean isCloaked(final Unit unit) {
+        return isTracked(unit) && (statuses[unit.getID()] & CLOAKED) != 0;
+    }
+
+    /**
+     * @return true if the unit was detected when it was last seen, false if the unit is not known.
+     */
+    public boolean isDetected(final Unit unit) {
+        return isTracked(unit) && (statuses[unit.getID()] & DETECTED) != 0;
+    }
+
+    /**
+     * Retrieves the last frame in which the unit was visible.
+     *
+     * @return The frame number, or -1 if the unit is not known.
+     */
+    public int getLastSeenFrame(final Unit unit) {
+        return isTracked(unit) ? lastSeenFrames[unit.getID()] : -1;
+    }
+
+    /**
+     * Retrieves the enemy units which left vision and are still remembered.
+     */
+    public List<Unit> getRememberedUnits() {
+        final List<Unit> result = new ArrayList<>();
+        for (int id = 0; id < states.length; ++id) {
+            if (states[id] == REMEMBERED) {
+                result.add(game.getUnit(id));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Retrieves the known enemy units, visible or remembered, whose last known position is within a radius.
+     * Like {@link Game#getUnitsInRadius(Position, int)}, the distance is the approximate distance between positions.
+     *
+     * @param x      The x coordinate of the center, in pixels.
+     * @param y      The y coordinate of the center, in pixels.
+     * @param radius The radius from the center, in pixels.
+     * @param pred   Selects the units to return, it can use the last known state from this memory.
+     */
+    public List<Unit> getUnitsInRadius(final int x, final int y, final int radius, final UnitFilter pred) {
+        final List<Unit> result = new ArrayList<>();
+        final int left = Math.max((x - radius) >> CELL_SHIFT, 0);
+        final int top = Math.max((y - radius) >> CELL_SHIFT, 0);
+        final int right = Math.min((x + radius) >> CELL_SHIFT, cellsX - 1);
+        final int bottom = Math.min((y + radius) >> CELL_SHIFT, cellsY - 1);
+        for (int cellY = top; cellY <= bottom; ++cellY) {
+            for (int cellX = left; cellX <= right; ++cellX) {
+                for (int id = cellHead[cellY * cellsX + cellX]; id != NONE; id = next[id]) {
+                    if (approxDistance(positionX[id] - x, positionY[id] - y) <= radius) {
+                        final Unit unit = game.getUnit(id);
+                        if (pred.test(unit)) {
+                            result.add(unit);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<Unit> getUnitsInRadius(final int x, final int y, final int radius) {
+        return getUnitsInRadius(x, y, radius, u -> true);
+    }
+
+    public List<Unit> getUnitsInRadius(final Position center, final int radius) {
+        return getUnitsInRadius(center.x, center.y, radius, u -> true);
+    }
+
+    public List<Unit> getUnitsInRadius(final Position center, final int radius, final UnitFilter pred) {
+        return getUnitsInRadius(center.x, center.y, radius, pred);
+    }
+
+    /**
+     * Counts the known enemy units, visible or remembered, whose last known position is within a radius.
+     * This does not allocate.
+     *
+     * @param x      The x coordinate of the center, in pixels.
+     * @param y      The y coordinate of the center, in pixels.
+     * @param radius The radius from the center, in pixels.
+     * @param type   Only counts the units of this type, or all of them if {@link UnitType#AllUnits}.
+     */
+    public int countUnitsInRadius(final int x, final int y, final int radius, final UnitType type) {
+        int count = 0;
+        final int left = Math.max((x - radius) >> CELL_SHIFT, 0);
+        final int top = Math.max((y - radius) >> CELL_SHIFT, 0);
+        final int right = Math.min((x + radius) >> CELL_SHIFT, cellsX - 1);
+        final int bottom = Math.min((y + radius) >> CELL_SHIFT, cellsY - 1);
+        for (int cellY = top; cellY <= bottom; ++cellY) {
+            for (int cellX = left; cellX <= right; ++cellX) {
+                for (int id = cellHead[cellY * cellsX + cellX]; id != NONE; id = next[id]) {
+                    if ((type == UnitType.AllUnits || types[id] == type) && approxDistance(positionX[id] - x, positionY[id] - y) <= radius) {
+                        ++count;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // Same as Point.getApproxDistance
+    private static int approxDistance(int dx, int dy) {
+        dx = Math.abs(dx);
+        dy = Math.abs(dy);
+        final int max = Math.max(dx, dy);
+        final int min = Math.min(dx, dy);
+        if (min <= (max >> 2)) {
+            return max;
+        }
+        final int minCalc = (3 * min) >> 3;
+        return (minCalc >> 5) + minCalc + max - (max >> 4) - (max >> 6);
+    }
+}
@@ -249,7 +249,9 @@ public enum UnitType {
     static final UnitType[] idToEnum = new UnitType[233 + 1];
 
     static {
-        Arrays.stream(UnitType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final UnitType v : UnitType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
@@ -298,26 +300,75 @@ public enum UnitType {
      * Returns pair({@link UnitType#None},0) If this unit type cannot be made by the player.
      */
     public Pair<UnitType, Integer> whatBuilds() {
-        // Retrieve the type
-        final UnitType type = UnitTypeContainer.whatBuilds[id];
-        int count = 1;
+        return new Pair<>(whatBuildsType(), whatBuildsCount());
+    }
+
+    /**
+     * Retrieves the source unit type that is used to build or train this unit type.
+     * Same as the first value of {@link #whatBuilds()}, without allocating a pair.
+     *
+     * @return {@link UnitType} that builds this unit type.
+     * Returns {@link UnitType#None} If this unit type cannot be made by the player.
+     */
+    public UnitType whatBuildsType() {
+        return UnitTypeContainer.whatBuilds[id];
+    }
+
+    /**
+     * Retrieves the number of {@link #whatBuildsType()} units that are required to make this unit type.
+     * Same as the second value of {@link #whatBuilds()}, without allocating a pair.
+     *
+     * @return 2 for @Archons, 0 if this unit type cannot be made by the player, and 1 otherwise.
+     */
+    public int whatBuildsCount() {
         // Set count to 0 if there is no whatBuilds and 2 if it's an archon
-        if (type == UnitType.None) {
-            count = 0;
+        if (whatBuildsType() == UnitType.None) {
+            return 0;
         } else if (this == UnitType.Protoss_Archon || this == UnitType.Protoss_Dark_Archon) {
-            count = 2;
+            return 2;
         }
-        // Return the desired pair
-        return new Pair<>(type, count);
+        return 1;
     }
 
     /**
      * Retrieves the immediate technology tree requirements to make this unit type.
      *
      * @return Map containing a UnitType to number mapping of UnitTypes required.
+     * @see #requiredUnitTypeCount()
      */
     public Map<UnitType, Integer> requiredUnits() {
-        return UnitTypeContainer.reqUnitsMap.get(id);
+        return UnitTypeContainer.RequiredUnits.reqUnitsMap.get(id);
+    }
+
+    /**
+     * Retrieves the number of distinct unit types in {@link #requiredUnits()}.
+     * Together with {@link #requiredUnitType(int)} and {@link #requiredUnitAmount(int)}, the requirements
+     * can be iterated without allocating, in the same order as the map.
+     *
+     * @return The number of required unit types.
+     */
+    public int requiredUnitTypeCount() {
+        return UnitTypeContainer.RequiredUnits.reqUnitTypes[id].length;
+    }
+
+    /**
+     * Retrieves a required unit type.
+     *
+     * @param index The index of the requirement, between 0 and {@link #requiredUnitTypeCount()} (exclusive).
+     * @return {@link UnitType} that is required to make this unit type.
+     */
+    public UnitType requiredUnitType(final int index) {
+        return UnitTypeContainer.RequiredUnits.reqUnitTypes[id][index];
+    }
+
+    /**
+     * Retrieves the number of units of a required unit type.
+     *
+     * @param index The index of the requirement, between 0 and {@link #requiredUnitTypeCount()} (exclusive).
+     * @return The number of {@link #requiredUnitType(int)} units that are required to make this unit type.
+     */
+    public int requiredUnitAmount(final int index) {
+        return UnitTypeContainer.RequiredUnits.reqUnitAmounts[id][index];
     }
 
     /**
@@ -377,6 +428,26 @@ public enum UnitType {
         return Collections.unmodifiableList(Arrays.asList(UnitTypeContainer.upgrades[id]));
     }
 
+    /**
+     * Checks if the given ability is part of {@link #abilities()}, without allocating.
+     *
+     * @param tech The {@link TechType} to check.
+     * @return true if this unit type can use the ability, and false otherwise.
+     */
+    public boolean hasAbility(final TechType tech) {
+        return (UnitTypeContainer.unitTechMasks[id] & 1L << tech.id) != 0;
+    }
+
+    /**
+     * Checks if the given upgrade is part of {@link #upgrades()}, without allocating.
+     *
+     * @param upgrade The {@link UpgradeType} to check.
+     * @return true if the upgrade impacts this unit type, and false otherwise.
+     */
+    public boolean hasUpgrade(final UpgradeType upgrade) {
+        return (UnitTypeContainer.upgradeMasks[id] & 1L << upgrade.id) != 0;
+    }
+
     /**
      * Retrieves the upgrade type used to increase the armor of this unit type. For each upgrade,
      * this unit type gains +1 additional armor.
@@ -1090,7 +1161,7 @@ public enum UnitType {
      */
     public boolean isSpecialBuilding() {
         return isBuilding() &&
-                whatBuilds().getValue() == 0 &&
+                whatBuildsCount() == 0 &&
                 this != Zerg_Infested_Command_Center;
     }
 
@@ -1,7 +1,8 @@
 package bwapi;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -930,6 +931,18 @@ class UnitTypeContainer {
             trapUpgrade, flame_trapUpgrade, {}, {}, {}, {}, {}, {}, {}, {},
             {}, {}, {}, {}, {}, {}, {}, {}, {}, {}, {}, {}
     };
+
+    // Bit i is set if upgrades contains the UpgradeType of id i
+    static final long[] upgradeMasks = new long[upgrades.length];
+
+    static {
+        for (int i = 0; i < upgrades.length; i++) {
+            for (final UpgradeType upgrade : upgrades[i]) {
+                upgradeMasks[i] |= 1L << upgrade.id;
+            }
+        }
+    }
+
     static final UpgradeType[][] upgradesWhat = {
             {},// Terran_Marine = 0,
             {},// Terran_Ghost,
@@ -1211,6 +1224,18 @@ class UnitTypeContainer {
             {}, {}, {}, {}, {}, {}, {}, {}, {}, {}, {}, {},
             {}, {}, {}, {}, {}, {}, {}, {}, {}, {}, {}, {}
     };
+
+    // Bit i is set if unitTechs contains the TechType of id i
+    static final long[] unitTechMasks = new long[unitTechs.length];
+
+    static {
+        for (int i = 0; i < unitTechs.length; i++) {
+            for (final TechType tech : unitTechs[i]) {
+                unitTechMasks[i] |= 1L << tech.id;
+            }
+        }
+    }
+
     static final TechType[][] researchesWhat = {
             {},// Terran_Marine = 0,
             {},// Terran_Ghost,
@@ -1448,16 +1473,39 @@ class UnitTypeContainer {
             {},// Factories,
             {}// Unknown,
     };
-    static final List<Map<UnitType, Integer>> reqUnitsMap = reqUnitsInit();
+    /**
+     * Holder of the required units, which are only built on the first call to {@link UnitType#requiredUnits()}.
+     */
+    static final class RequiredUnits {
+        static final List<Map<UnitType, Integer>> reqUnitsMap = reqUnitsInit();
+        static final UnitType[][] reqUnitTypes = new UnitType[reqUnitsMap.size()][];
+        static final int[][] reqUnitAmounts = new int[reqUnitsMap.size()][];
+
+        static {
+            for (int i = 0; i < reqUnitsMap.size(); i++) {
+                final Map<UnitType, Integer> req = reqUnitsMap.get(i);
+                reqUnitTypes[i] = new UnitType[req.size()];
+                reqUnitAmounts[i] = new int[req.size()];
+                int j = 0;
+                for (final Map.Entry<UnitType, Integer> entry : req.entrySet()) {
+                    reqUnitTypes[i][j] = entry.getKey();
+                    reqUnitAmounts[i][j] = entry.getValue();
+                    j++;
+                }
+            }
+        }
+
+        private RequiredUnits() {
+        }
+    }
 
     private static List<Map<UnitType, Integer>> reqUnitsInit() {
         final List<Map<UnitType, Integer>> req = new ArrayList<>(UnitType.values().length);
         // Add the whatBuilds types to the required units map
         for (final UnitType i : UnitType.values()) {
-            req.add(new HashMap<>());
-            final Pair<UnitType, Integer> wb = i.whatBuilds();
-            if (wb.getKey() != UnitType.None) {
-                req.get(i.id).put(wb.getKey(), wb.getValue());
+            req.add(new LinkedHashMap<>());
+            if (i.whatBuildsType() != UnitType.None) {
+                req.get(i.id).put(i.whatBuildsType(), i.whatBuildsCount());
             }
         }
 
@@ -1532,7 +1580,10 @@ class UnitTypeContainer {
         req.get(Protoss_Robotics_Support_Bay.id).put(Protoss_Robotics_Facility, 1);
         req.get(Protoss_Shield_Battery.id).put(Protoss_Gateway, 1);
 
-        return req;
+        for (int i = 0; i < req.size(); i++) {
+            req.set(i, Collections.unmodifiableMap(req.get(i)));
+        }
+        return Collections.unmodifiableList(req);
     }
 
     static class UnitDimensions {
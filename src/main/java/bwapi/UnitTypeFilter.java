@@ -0,0 +1,202 @@
+package bwapi;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * A {@link UnitFilter} which only depends on the unit's type, stored as one bit per {@link UnitType}.
+ * <p>
+ * The predicate is evaluated for each of the types, about 230, when the bits are built, so testing a unit is then a
+ * single bit test, and {@link #and(UnitTypeFilter)}, {@link #or(UnitTypeFilter)} and {@link #negate()} combine the bits.
+ * The spatial queries of {@link Game} only visit the units of the matching types.
+ * <p>
+ * The filters of {@link #of(Predicate)} build their bits when created, they are meant to be created once and reused.
+ * The parameterized filters of {@link UnitFilter}, such as {@link UnitFilter#MaxHP}, are often created inline for a
+ * single query instead: they test the predicate on the type of each unit, and only build their bits when combined
+ * or used in a spatial query of {@link Game}.
+ */
+public final class UnitTypeFilter implements UnitFilter {
+    private static final int WORDS = (UnitType.idToEnum.length + 63) >>> 6;
+
+    // Null until the bits are built, for the filters created by lazy
+    private final Predicate<UnitType> predicate;
+    private volatile long[] bits;
+
+    private UnitTypeFilter(final long[] bits) {
+        this.predicate = null;
+        this.bits = bits;
+    }
+
+    private UnitTypeFilter(final Predicate<UnitType> predicate) {
+        this.predicate = predicate;
+    }
+
+    /**
+     * Creates a filter matching the types for which the predicate is true.
+     * The predicate is evaluated for all the types, including the special ones, when the filter is created.
+     */
+    public static UnitTypeFilter of(final Predicate<UnitType> predicate) {
+        return new UnitTypeFilter(bitsOf(predicate));
+    }
+
+    /**
+     * Creates a filter matching the types for which the predicate is true, which only evaluates the predicate
+     * for all the types when its bits are needed.
+     */
+    static UnitTypeFilter lazy(final Predicate<UnitType> predicate) {
+        return new UnitTypeFilter(predicate);
+    }
+
+    private static long[] bitsOf(final Predicate<UnitType> predicate) {
+        final long[] bits = new long[WORDS];
+        for (final UnitType type : UnitType.idToEnum) {
+            if (type != null && predicate.test(type)) {
+                bits[type.id >>> 6] |= 1L << type.id;
+            }
+        }
+        return bits;
+    }
+
+    private long[] bits() {
+        long[] result = bits;
+        if (result == null) {
+            result = bitsOf(predicate);
+            bits = result;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a filter matching the given types.
+     */
+    public static UnitTypeFilter of(final UnitType... types) {
+        final long[] bits = new long[WORDS];
+        for (final UnitType type : types) {
+            bits[type.id >>> 6] |= 1L << type.id;
+        }
+        return new UnitTypeFilter(bits);
+    }
+
+    @Override
+    public boolean test(final Unit unit) {
+        return test(unit.getType());
+    }
+
+    public boolean test(final UnitType type) {
+        final long[] bits = this.bits;
+        if (bits == null) {
+            return predicate.test(type);
+        }
+        return (bits[type.id >>> 6] & (1L << type.id)) != 0;
+    }
+
+    public UnitTypeFilter and(final UnitTypeFilter other) {
+        final long[] bits = bits();
+        final long[] otherBits = other.bits();
+        final long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; ++i) {
+            result[i] = bits[i] & otherBits[i];
+        }
+        return new UnitTypeFilter(result);
+    }
+
+    public UnitTypeFilter or(final UnitTypeFilter other) {
+        final long[] bits = bits();
+        final long[] otherBits = other.bits();
+        final long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; ++i) {
+            result[i] = bits[i] | otherBits[i];
+        }
+        return new UnitTypeFilter(result);
+    }
+
+    /**
+     * Combines this filter with one which also depends on the state of the unit.
+     * The spatial queries of {@link Game} still only visit the units of the types of this filter.
+     */
+    public UnitFilter and(final UnitFilter other) {
+        if (other instanceof UnitTypeFilter) {
+            return and((UnitTypeFilter) other);
+        }
+        return new Masked(this, other);
+    }
+
+    @Override
+    public UnitTypeFilter negate() {
+        final long[] bits = bits();
+        final long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; ++i) {
+            result[i] = ~bits[i];
+        }
+        // Keep the bits past the last type cleared
+        final int lastBits = UnitType.idToEnum.length & 63;
+        if (lastBits != 0) {
+            result[WORDS - 1] &= (1L << lastBits) - 1;
+        }
+        return new UnitTypeFilter(result);
+    }
+
+    /**
+     * Returns the first matching type id which is at least the given id, or -1 if there is none.
+     */
+    int nextTypeId(final int fromId) {
+        int i = fromId >>> 6;
+        if (i >= WORDS) {
+            return -1;
+        }
+        final long[] bits = bits();
+        long word = bits[i] & (-1L << fromId);
+        while (word == 0) {
+            if (++i == WORDS) {
+                return -1;
+            }
+            word = bits[i];
+        }
+        return (i << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Returns the types a filter is restricted to, or null if it can match units of any type.
+     */
+    static UnitTypeFilter typesOf(final UnitFilter filter) {
+        if (filter instanceof UnitTypeFilter) {
+            return (UnitTypeFilter) filter;
+        }
+        if (filter instanceof Masked) {
+            return ((Masked) filter).types;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(bits(), ((UnitTypeFilter) o).bits());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits());
+    }
+
+    // A type filter and another filter, keeping the types available to Game
+    private static final class Masked implements UnitFilter {
+        private final UnitTypeFilter types;
+        private final UnitFilter other;
+
+        Masked(final UnitTypeFilter types, final UnitFilter other) {
+            this.types = types;
+            this.other = other;
+        }
+
+        @Override
+        public boolean test(final Unit unit) {
+            return types.test(unit) && other.test(unit);
+        }
+    }
+}
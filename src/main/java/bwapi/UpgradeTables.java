@@ -0,0 +1,66 @@
+package bwapi;
+
+import java.util.Arrays;
+
+/**
+ * Upgrade-adjusted weapon and unit type values of a {@link Player}.
+ * <p>
+ * The upgrade levels are read at most once per frame, and the tables are only rebuilt when one of them changed.
+ */
+class UpgradeTables {
+    private static final int WEAPON_TYPE_COUNT = WeaponType.Unknown.id + 1;
+    private static final int UNIT_TYPE_COUNT = UnitType.idToEnum.length;
+
+    private final Player player;
+    private final int[] upgradeLevels = new int[UpgradeType.idToEnum.length];
+    private int frame = -1;
+    private int version = -1;
+
+    final int[] weaponDamage = new int[WEAPON_TYPE_COUNT];
+    final int[] weaponMaxRange = new int[WEAPON_TYPE_COUNT];
+    final int[] armor = new int[UNIT_TYPE_COUNT];
+
+    UpgradeTables(final Player player) {
+        this.player = player;
+    }
+
+    /**
+     * Rebuilds the tables if an upgrade level changed since the last frame they were checked on.
+     */
+    void update(final int frame) {
+        if (frame == this.frame && version >= 0) {
+            return;
+        }
+        this.frame = frame;
+
+        boolean changed = version < 0;
+        for (final UpgradeType upgrade : UpgradeType.values()) {
+            final int level = player.getUpgradeLevel(upgrade);
+            if (level != upgradeLevels[upgrade.id]) {
+                upgradeLevels[upgrade.id] = level;
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return;
+        }
+
+        Arrays.fill(weaponDamage, 0);
+        Arrays.fill(weaponMaxRange, 0);
+        for (final WeaponType weapon : WeaponType.values()) {
+            weaponDamage[weapon.id] = player.computeDamage(weapon);
+            weaponMaxRange[weapon.id] = player.computeWeaponMaxRange(weapon);
+        }
+        for (final UnitType unit : UnitType.values()) {
+            armor[unit.id] = player.computeArmor(unit);
+        }
+        ++version;
+    }
+
+    /**
+     * Increases each time the tables are rebuilt.
+     */
+    int getVersion() {
+        return version;
+    }
+}
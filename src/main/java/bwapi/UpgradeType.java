@@ -202,7 +202,9 @@ public enum UpgradeType {
     public static final UpgradeType[] idToEnum = new UpgradeType[62 + 1];
 
     static {
-        Arrays.stream(UpgradeType.values()).forEach(v -> idToEnum[v.id] = v);
+        for (final UpgradeType v : UpgradeType.values()) {
+            idToEnum[v.id] = v;
+        }
     }
 
     final int id;
@@ -1,93 +1,412 @@
 package bwapi;
 
 import sun.misc.Unsafe;
-import sun.nio.ch.DirectBuffer;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Wrapper around ByteBuffer that makes use of sun.misc.Unsafe if available.
+ * <p>
+ * The access itself is done by one of three backends, chosen by {@link #wrap(ByteBuffer)}: {@link UnsafeBackend},
+ * which reads the memory of the direct buffer through sun.misc.Unsafe, VarHandleBackend, which uses the VarHandle views
+ * of ByteBuffer on Java 9 and later, or {@link ByteBufferBackend}, which only uses the absolute accessors of ByteBuffer.
+ * The first one available is used, and the system property {@value #BACKEND_PROPERTY} can be set to "unsafe",
+ * "varhandle" or "bytebuffer" to choose one.
+ * <p>
+ * By default, the direct buffer of the client uses UnsafeBackend on both Java 8 and Java 9 and later, as long as
+ * sun.misc.Unsafe is there. Without it, or for a heap buffer, Java 9 and later use VarHandleBackend and Java 8 uses
+ * ByteBufferBackend.
+ * <p>
+ * VarHandleBackend is compiled for Java 9 from src/main/java9 into META-INF/versions/9 of the multi-release jar,
+ * so it is not found on Java 8.
  */
-class WrappedBuffer {
-    private final ByteBuffer buffer;
-    private final long address;
-    private final Unsafe unsafe;
-
-    WrappedBuffer(final ByteBuffer byteBuffer) {
-        unsafe = getTheUnsafe();
-        buffer = byteBuffer;
-        address = ((DirectBuffer) buffer).address();
+abstract class WrappedBuffer {
+    static final String BACKEND_PROPERTY = "bwapi.buffer";
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    private static final int INTERNED_STRINGS = 256;
+    private static final Constructor<? extends WrappedBuffer> VAR_HANDLE_BACKEND = findVarHandleBackend();
+
+    final ByteBuffer buffer;
+    // Recently read strings, by hash of their bytes
+    private final InternedString[] internedStrings = new InternedString[INTERNED_STRINGS];
+    // Reused to encode long strings before copying them
+    private byte[] stringBytes = new byte[256];
+
+    WrappedBuffer(final ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    static WrappedBuffer wrap(final ByteBuffer buffer) {
+        return wrap(buffer, System.getProperty(BACKEND_PROPERTY, "unsafe"));
     }
 
-    private static Unsafe getTheUnsafe() {
+    /**
+     * Uses the given backend if it is available, else the next one in the order unsafe, varhandle, bytebuffer.
+     */
+    static WrappedBuffer wrap(final ByteBuffer buffer, final String backend) {
+        if (backend.equals("unsafe") && buffer.isDirect() && UnsafeBackend.UNSAFE != null) {
+            return new UnsafeBackend(buffer);
+        }
+        if (!backend.equals("bytebuffer") && VAR_HANDLE_BACKEND != null) {
+            try {
+                return VAR_HANDLE_BACKEND.newInstance(buffer);
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return new ByteBufferBackend(buffer);
+    }
+
+    // Not initialized here, as it extends this class
+    private static Constructor<? extends WrappedBuffer> findVarHandleBackend() {
         try {
-            final Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
-            theUnsafe.setAccessible(true);
-            return (Unsafe) theUnsafe.get(null);
-        } catch (final Exception e) {
-            e.printStackTrace();
+            return Class.forName("bwapi.VarHandleBackend", false, WrappedBuffer.class.getClassLoader())
+                    .asSubclass(WrappedBuffer.class)
+                    .getDeclaredConstructor(ByteBuffer.class);
+        } catch (final ClassNotFoundException | NoSuchMethodException | LinkageError e) {
             return null;
         }
     }
 
-    byte getByte(final int offset) {
-        return unsafe.getByte(address + offset);
-    }
+    abstract byte getByte(int offset);
 
-    void putByte(final int offset, final byte value) {
-        unsafe.putByte(address + offset, value);
-    }
+    abstract void putByte(int offset, byte value);
 
-    short getShort(final int offset) {
-        return unsafe.getShort(address + offset);
-    }
+    abstract short getShort(int offset);
 
-    void putShort(final int offset, final short value) {
-        unsafe.putShort(address + offset, value);
-    }
+    abstract void putShort(int offset, short value);
 
-    int getInt(final int offset) {
-        return unsafe.getInt(address + offset);
-    }
+    abstract int getInt(int offset);
 
-    void putInt(final int offset, final int value) {
-        unsafe.putInt(address + offset, value);
+    abstract void putInt(int offset, int value);
+
+    abstract long getLong(int offset);
+
+    abstract double getDouble(int offset);
+
+    abstract void putDouble(int offset, double value);
+
+    abstract void getBytes(int offset, byte[] dst, int dstOffset, int length);
+
+    abstract void putBytes(int offset, byte[] src, int srcOffset, int length);
+
+    /**
+     * Reads consecutive ints, such as an int array of a struct, in a single copy.
+     */
+    abstract void getInts(int offset, int[] dst, int dstOffset, int count);
+
+    abstract void putInts(int offset, int[] src, int srcOffset, int count);
+
+    /**
+     * Returns the length of the zero terminated string at the offset, reading 8 bytes at a time.
+     */
+    int getStringLength(final int offset, final int maxLen) {
+        int i = 0;
+        if (LITTLE_ENDIAN) {
+            for (; i + 8 <= maxLen; i += 8) {
+                final long word = getLong(offset + i);
+                // The lowest set bit is in the first zero byte
+                final long zeros = (word - 0x0101010101010101L) & ~word & 0x8080808080808080L;
+                if (zeros != 0) {
+                    return i + (Long.numberOfTrailingZeros(zeros) >>> 3);
+                }
+            }
+        }
+        for (; i < maxLen; i++) {
+            if (getByte(offset + i) == 0) {
+                return i;
+            }
+        }
+        return maxLen;
     }
 
-    double getDouble(final int offset) {
-        return unsafe.getDouble(address + offset);
+    String getString(final int offset, final int maxLen) {
+        final int length = getStringLength(offset, maxLen);
+        final byte[] bytes = new byte[length];
+        getBytes(offset, bytes, 0, length);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
     }
 
-    void putDouble(final int offset, final double value) {
-        unsafe.putDouble(address + offset, value);
+    /**
+     * Same as {@link #getString}, but returns the same String instance for a string which was recently read,
+     * without allocating. For strings which repeat, like names and chat messages.
+     */
+    String getInternedString(final int offset, final int maxLen) {
+        final int length = getStringLength(offset, maxLen);
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + getByte(offset + i);
+        }
+        final int slot = (hash ^ (hash >>> 16)) & (INTERNED_STRINGS - 1);
+        final InternedString interned = internedStrings[slot];
+        if (interned != null && interned.bytes.length == length && equalsBytes(offset, interned.bytes)) {
+            return interned.string;
+        }
+        final String string = getString(offset, maxLen);
+        internedStrings[slot] = new InternedString(string);
+        return string;
     }
 
-    String getString(final int offset, final int maxLen) {
-        char[] buf = new char[maxLen];
-        long pos = offset + address;
-        for (int i = 0; i < maxLen; i++) {
-            byte b = unsafe.getByte(pos);
-            if (b == 0) break;
-            buf[i] = (char) (b & 0xff);
-            pos++;
-        }
-        return new String(buf, 0, (int) (pos - offset - address));
+    private boolean equalsBytes(final int offset, final byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (getByte(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     void putString(final int offset, final int maxLen, final String string) {
-        if (string.length() + 1 >= maxLen) {
+        final int length = string.length();
+        if (length + 1 >= maxLen) {
             throw new StringIndexOutOfBoundsException();
         }
-        long pos = offset + address;
-        for (int i = 0; i < string.length(); i++) {
-            unsafe.putByte(pos, (byte) string.charAt(i));
-            pos++;
+        if (length < 64) {
+            for (int i = 0; i < length; i++) {
+                putByte(offset + i, (byte) string.charAt(i));
+            }
+            putByte(offset + length, (byte) 0);
+            return;
+        }
+        // Longer strings are encoded first, then copied at once
+        byte[] bytes = stringBytes;
+        if (bytes.length <= length) {
+            bytes = stringBytes = new byte[Math.max(length + 1, bytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) string.charAt(i);
+        }
+        bytes[length] = 0;
+        putBytes(offset, bytes, 0, length + 1);
+    }
+
+    static void checkBounds(final int arrayLength, final int arrayOffset, final int length) {
+        if (arrayOffset < 0 || length < 0 || arrayOffset + length > arrayLength) {
+            throw new IndexOutOfBoundsException();
         }
-        unsafe.putByte(pos, (byte) 0);
     }
 
     ByteBuffer getBuffer() {
         return buffer;
     }
+
+    private static final class InternedString {
+        final String string;
+        final byte[] bytes;
+
+        InternedString(final String string) {
+            this.string = string;
+            this.bytes = string.getBytes(StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * Reads and writes the memory of a direct buffer through sun.misc.Unsafe, without bounds checks.
+     */
+    static final class UnsafeBackend extends WrappedBuffer {
+        static final Unsafe UNSAFE = getTheUnsafe();
+
+        private final long address;
+
+        UnsafeBackend(final ByteBuffer buffer) {
+            super(buffer);
+            address = getAddress(buffer);
+        }
+
+        private static Unsafe getTheUnsafe() {
+            try {
+                final Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return (Unsafe) theUnsafe.get(null);
+            } catch (final Exception e) {
+                return null;
+            }
+        }
+
+        // Same as sun.nio.ch.DirectBuffer.address(), which is not exported since Java 9
+        private static long getAddress(final ByteBuffer buffer) {
+            try {
+                return UNSAFE.getLong(buffer, UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address")));
+            } catch (final NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        byte getByte(final int offset) {
+            return UNSAFE.getByte(address + offset);
+        }
+
+        @Override
+        void putByte(final int offset, final byte value) {
+            UNSAFE.putByte(address + offset, value);
+        }
+
+        @Override
+        short getShort(final int offset) {
+            return UNSAFE.getShort(address + offset);
+        }
+
+        @Override
+        void putShort(final int offset, final short value) {
+            UNSAFE.putShort(address + offset, value);
+        }
+
+        @Override
+        int getInt(final int offset) {
+            return UNSAFE.getInt(address + offset);
+        }
+
+        @Override
+        void putInt(final int offset, final int value) {
+            UNSAFE.putInt(address + offset, value);
+        }
+
+        @Override
+        long getLong(final int offset) {
+            return UNSAFE.getLong(address + offset);
+        }
+
+        @Override
+        double getDouble(final int offset) {
+            return UNSAFE.getDouble(address + offset);
+        }
+
+        @Override
+        void putDouble(final int offset, final double value) {
+            UNSAFE.putDouble(address + offset, value);
+        }
+
+        @Override
+        void getBytes(final int offset, final byte[] dst, final int dstOffset, final int length) {
+            checkBounds(dst.length, dstOffset, length);
+            UNSAFE.copyMemory(null, address + offset, dst, Unsafe.ARRAY_BYTE_BASE_OFFSET + dstOffset, length);
+        }
+
+        @Override
+        void putBytes(final int offset, final byte[] src, final int srcOffset, final int length) {
+            checkBounds(src.length, srcOffset, length);
+            final long from = Unsafe.ARRAY_BYTE_BASE_OFFSET + srcOffset;
+            if (length >= 256) {
+                UNSAFE.copyMemory(src, from, null, address + offset, length);
+                return;
+            }
+            // Short copies, such as strings, are faster by words than through copyMemory
+            int i = 0;
+            for (; i + 8 <= length; i += 8) {
+                UNSAFE.putLong(address + offset + i, UNSAFE.getLong(src, from + i));
+            }
+            for (; i < length; ++i) {
+                UNSAFE.putByte(address + offset + i, UNSAFE.getByte(src, from + i));
+            }
+        }
+
+        @Override
+        void getInts(final int offset, final int[] dst, final int dstOffset, final int count) {
+            checkBounds(dst.length, dstOffset, count);
+            UNSAFE.copyMemory(null, address + offset, dst,
+                    Unsafe.ARRAY_INT_BASE_OFFSET + (long) dstOffset * Unsafe.ARRAY_INT_INDEX_SCALE,
+                    (long) count * Unsafe.ARRAY_INT_INDEX_SCALE);
+        }
+
+        @Override
+        void putInts(final int offset, final int[] src, final int srcOffset, final int count) {
+            checkBounds(src.length, srcOffset, count);
+            UNSAFE.copyMemory(src, Unsafe.ARRAY_INT_BASE_OFFSET + (long) srcOffset * Unsafe.ARRAY_INT_INDEX_SCALE,
+                    null, address + offset, (long) count * Unsafe.ARRAY_INT_INDEX_SCALE);
+        }
+    }
+
+    /**
+     * Reads and writes through the absolute accessors of ByteBuffer, in native order, with bounds checks.
+     */
+    static class ByteBufferBackend extends WrappedBuffer {
+        private final ByteBuffer data;
+        // Positioned for the bulk copies, which have no absolute variant before Java 13
+        private final ByteBuffer bulk;
+
+        ByteBufferBackend(final ByteBuffer buffer) {
+            super(buffer);
+            data = buffer.duplicate().order(ByteOrder.nativeOrder());
+            bulk = buffer.duplicate().order(ByteOrder.nativeOrder());
+        }
+
+        @Override
+        byte getByte(final int offset) {
+            return data.get(offset);
+        }
+
+        @Override
+        void putByte(final int offset, final byte value) {
+            data.put(offset, value);
+        }
+
+        @Override
+        short getShort(final int offset) {
+            return data.getShort(offset);
+        }
+
+        @Override
+        void putShort(final int offset, final short value) {
+            data.putShort(offset, value);
+        }
+
+        @Override
+        int getInt(final int offset) {
+            return data.getInt(offset);
+        }
+
+        @Override
+        void putInt(final int offset, final int value) {
+            data.putInt(offset, value);
+        }
+
+        @Override
+        long getLong(final int offset) {
+            return data.getLong(offset);
+        }
+
+        @Override
+        double getDouble(final int offset) {
+            return data.getDouble(offset);
+        }
+
+        @Override
+        void putDouble(final int offset, final double value) {
+            data.putDouble(offset, value);
+        }
+
+        // The casts to Buffer keep the Java 8 signatures of clear, limit and position
+        private ByteBuffer at(final int offset, final int length) {
+            ((Buffer) bulk).clear();
+            ((Buffer) bulk).limit(offset + length);
+            ((Buffer) bulk).position(offset);
+            return bulk;
+        }
+
+        @Override
+        void getBytes(final int offset, final byte[] dst, final int dstOffset, final int length) {
+            at(offset, length).get(dst, dstOffset, length);
+        }
+
+        @Override
+        void putBytes(final int offset, final byte[] src, final int srcOffset, final int length) {
+            at(offset, length).put(src, srcOffset, length);
+        }
+
+        @Override
+        void getInts(final int offset, final int[] dst, final int dstOffset, final int count) {
+            at(offset, count * 4).asIntBuffer().get(dst, dstOffset, count);
+        }
+
+        @Override
+        void putInts(final int offset, final int[] src, final int srcOffset, final int count) {
+            at(offset, count * 4).asIntBuffer().put(src, srcOffset, count);
+        }
+    }
 }
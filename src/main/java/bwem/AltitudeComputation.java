@@ -0,0 +1,20 @@
+package bwem;
+
+/**
+ * Algorithm used to compute the {@link MiniTile#getAltitude()} of all MiniTiles during {@link BWEM#initialize()}.
+ */
+public enum AltitudeComputation {
+    /**
+     * The original BWEM algorithm: all deltas sorted by altitude are applied to the active seaside MiniTiles,
+     * which are dropped once they stop producing new altitudes.
+     */
+    DIJKSTRA,
+    /**
+     * Exact euclidean distance transform of the seas over the MiniTile grid, in linear time.
+     * <p>
+     * About 5x faster than {@link #DIJKSTRA}. The altitudes are never higher, but they can be lower by one in the
+     * few MiniTiles where {@link #DIJKSTRA} dropped the nearest seaside MiniTile too early.
+     * Because Areas are grown in order of altitude, this can move some Area borders and ChokePoints.
+     */
+    DISTANCE_TRANSFORM
+}
@@ -18,6 +18,7 @@ import bwapi.UnitType;
 import bwapi.WalkPosition;
 import bwem.util.BwemExt;
 import bwem.util.CheckMode;
+import bwem.util.IndexedIntHeap;
 import bwem.util.Markable;
 import bwem.util.StaticMarkable;
 
@@ -28,6 +29,9 @@ import static bwem.AreaId.UNINITIALIZED;
 final class AreaInitializer extends Area {
 
     private static final StaticMarkable staticMarkable = new StaticMarkable();
+    // The 8 neighbors of a Tile
+    private static final int[] DELTA_X = {-1, 0, +1, -1, +1, -1, 0, +1};
+    private static final int[] DELTA_Y = {-1, -1, -1, 0, 0, +1, +1, +1};
     private final Markable markable;
 
     AreaInitializer(
@@ -147,22 +151,27 @@ final class AreaInitializer extends Area {
 
     private int[] computeDistances(final TilePosition start, final List<TilePosition> targets) {
         final int[] distances = new int[targets.size()];
+        final TileData tileData = this.map.getData().getTileData();
+        final int width = this.map.getData().getMapData().getTileSize().getX();
+        final int height = this.map.getData().getMapData().getTileSize().getY();
+
+        final int[] targetIndices = new int[targets.size()];
+        for (int i = 0; i < targets.size(); ++i) {
+            targetIndices[i] = targets.get(i).getY() * width + targets.get(i).getX();
+        }
 
         Tile.getStaticMarkable().unmarkAll();
 
-        final Queue<Pair<Integer, TilePosition>> toVisit =
-            new PriorityQueue<>(
-                Comparator.comparingInt(
-                    Pair::getLeft)); // a priority queue holding the tiles to visit ordered by their
-        // distance to start.
-        toVisit.offer(new Pair<>(0, start));
+        // a priority queue holding the tiles to visit ordered by their distance to start.
+        final IndexedIntHeap toVisit = this.map.getTileQueue();
+        toVisit.clear();
+        toVisit.offer(start.getY() * width + start.getX(), 0);
 
         int remainingTargets = targets.size();
         while (!toVisit.isEmpty()) {
-            final Pair<Integer, TilePosition> distanceAndTilePosition = toVisit.poll();
-            final int currentDist = distanceAndTilePosition.getLeft();
-            final TilePosition current = distanceAndTilePosition.getRight();
-            final Tile currentTile = this.map.getData().getTile(current, CheckMode.NO_CHECK);
+            final int currentDist = toVisit.getPriority(toVisit.peek());
+            final int current = toVisit.poll();
+            final Tile currentTile = tileData.getTile(current);
             if (!(currentTile.getInternalData() == currentDist)) {
                 map.asserter.throwIllegalStateException(
                     "currentTile.InternalData().intValue()="
@@ -174,8 +183,8 @@ final class AreaInitializer extends Area {
                 .setInternalData(0); // resets Tile::m_internalData for future usage
             currentTile.getMarkable().setMarked();
 
-            for (int i = 0; i < targets.size(); ++i) {
-                if (current.equals(targets.get(i))) {
+            for (int i = 0; i < targetIndices.length; ++i) {
+                if (current == targetIndices[i]) {
                     distances[i] = (int) Math.round(currentDist * 32.0 / 10000.0);
                     --remainingTargets;
                 }
@@ -184,43 +193,34 @@ final class AreaInitializer extends Area {
                 break;
             }
 
-            final TilePosition[] deltas = {
-                new TilePosition(-1, -1),
-                new TilePosition(0, -1),
-                new TilePosition(+1, -1),
-                new TilePosition(-1, 0),
-                new TilePosition(+1, 0),
-                new TilePosition(-1, +1),
-                new TilePosition(0, +1),
-                new TilePosition(+1, +1)
-            };
-            for (final TilePosition delta : deltas) {
-                final boolean diagonalMove = (delta.getX() != 0) && (delta.getY() != 0);
+            final int currentX = current % width;
+            final int currentY = current / width;
+            for (int d = 0; d < DELTA_X.length; ++d) {
+                final boolean diagonalMove = (DELTA_X[d] != 0) && (DELTA_Y[d] != 0);
                 final int newNextDist = currentDist + (diagonalMove ? 14142 : 10000);
 
-                final TilePosition next = current.add(delta);
-                if (this.map.getData().getMapData().isValid(next)) {
-                    final Tile nextTile = this.map.getData().getTile(next, CheckMode.NO_CHECK);
+                final int nextX = currentX + DELTA_X[d];
+                final int nextY = currentY + DELTA_Y[d];
+                if (nextX >= 0 && nextY >= 0 && nextX < width && nextY < height) {
+                    final int next = nextY * width + nextX;
+                    final Tile nextTile = tileData.getTile(next);
                     if (nextTile.getMarkable().isUnmarked()) {
                         if (nextTile.getInternalData()
                             != 0) { // next already in toVisit
                             if (newNextDist
                                 < nextTile
                                 .getInternalData()) { // nextNewDist < nextOldDist
-                                // To update next's distance, we need to remove-insert it from toVisit:
-                                final boolean removed =
-                                    toVisit.remove(
-                                        new Pair<>(nextTile.getInternalData(), next));
-                                if (!removed) {
+                                // To update next's distance, we need to update its position in toVisit:
+                                if (!toVisit.contains(next)) {
                                     map.asserter.throwIllegalStateException("");
                                 }
                                 nextTile.setInternalData(newNextDist);
-                                toVisit.offer(new Pair<>(newNextDist, next));
+                                toVisit.update(next, newNextDist);
                             }
                         } else if ((nextTile.getAreaId().equals(getId()))
                             || (nextTile.getAreaId().equals(UNINITIALIZED))) {
                             nextTile.setInternalData(newNextDist);
-                            toVisit.offer(new Pair<>(newNextDist, next));
+                            toVisit.offer(next, newNextDist);
                         }
                     }
                 }
@@ -231,12 +231,10 @@ final class AreaInitializer extends Area {
             map.asserter.throwIllegalStateException("");
         }
 
-        for (final Pair<Integer, TilePosition> distanceAndTilePosition : toVisit) {
-            final Tile tileToUpdate =
-                    this.map.getData()
-                        .getTile(distanceAndTilePosition.getRight(), CheckMode.NO_CHECK);
-            tileToUpdate.setInternalData(0);
+        for (int i = 0; i < toVisit.size(); ++i) {
+            tileData.getTile(toVisit.get(i)).setInternalData(0);
         }
+        toVisit.clear();
 
         return distances;
     }
@@ -54,6 +54,14 @@ public final class BWEM {
         this.map.assignStartingLocationsToSuitableBases();
     }
 
+    /**
+     * Selects the algorithm used to compute the altitudes by {@link #initialize()},
+     * defaults to {@link AltitudeComputation#DIJKSTRA}.
+     */
+    public void setAltitudeComputation(AltitudeComputation altitudeComputation) {
+        ((BWMapInitializer) this.map).setAltitudeComputation(altitudeComputation);
+    }
+
     public void setFailOnError(boolean failOnError) {
         asserter.setFailOnError(failOnError);
     }
@@ -15,6 +15,8 @@ package bwem;
 import bwapi.*;
 import bwem.util.BwemExt;
 import bwem.util.CheckMode;
+import bwem.util.IndexedIntHeap;
+import bwem.util.KdTree;
 import bwem.util.Pred;
 
 import java.util.*;
@@ -36,6 +38,17 @@ public abstract class BWMap {
     NeutralData neutralData = null;
     Altitude highestAltitude;
     final Asserter asserter;
+    private IndexedIntHeap tileQueue;
+    private KdTree<Base> baseIndex;
+    private KdTree<ChokePoint> chokePointIndex;
+    private final SearchStatePool tileSearch = new SearchStatePool();
+    private final SearchStatePool miniTileSearch = new SearchStatePool();
+
+    // Neighbor directions used by breadthFirstSearch, in visiting order
+    private static final int[] DIR8_X = {-1, 0, 1, -1, 1, -1, 0, 1};
+    private static final int[] DIR8_Y = {-1, -1, -1, 0, 0, 1, 1, 1};
+    static final int[] DIR4_X = {0, -1, 1, 0};
+    static final int[] DIR4_Y = {-1, 0, 0, 1};
 
     BWMap(final Game game, final Asserter asserter) {
         this.game = game;
@@ -60,6 +73,15 @@ public abstract class BWMap {
         return graph;
     }
 
+    // Returns the Dijkstra queue over Tile indices shared by the Area distance computations
+    IndexedIntHeap getTileQueue() {
+        if (tileQueue == null) {
+            final TilePosition tileSize = getData().getMapData().getTileSize();
+            tileQueue = new IndexedIntHeap(tileSize.getX() * tileSize.getY());
+        }
+        return tileQueue;
+    }
+
     public List<Pair<Pair<AreaId, AreaId>, WalkPosition>> getRawFrontier() {
         return rawFrontier;
     }
@@ -123,6 +145,51 @@ public abstract class BWMap {
         return getGraph().getChokePoints();
     }
 
+    // Returns the Base whose center is the nearest to position, or null if there are no Bases.
+    public Base getNearestBase(final Position position) {
+        return getBaseIndex().nearest(position.getX(), position.getY());
+    }
+
+    // Returns up to k Bases, ordered by the distance of their center to position.
+    public List<Base> getNearestBases(final Position position, final int k) {
+        return getBaseIndex().nearest(position.getX(), position.getY(), k);
+    }
+
+    // Returns the Bases whose center is within radius pixels of position.
+    public List<Base> getBasesInRadius(final Position position, final int radius) {
+        return getBaseIndex().withinRadius(position.getX(), position.getY(), radius);
+    }
+
+    // Returns the ChokePoint whose center is the nearest to position, or null if there are no ChokePoints.
+    public ChokePoint getNearestChokePoint(final Position position) {
+        return getChokePointIndex().nearest(position.getX(), position.getY());
+    }
+
+    // Returns up to k ChokePoints, ordered by the distance of their center to position.
+    public List<ChokePoint> getNearestChokePoints(final Position position, final int k) {
+        return getChokePointIndex().nearest(position.getX(), position.getY(), k);
+    }
+
+    // Returns the ChokePoints whose center is within radius pixels of position.
+    public List<ChokePoint> getChokePointsInRadius(final Position position, final int radius) {
+        return getChokePointIndex().withinRadius(position.getX(), position.getY(), radius);
+    }
+
+    private KdTree<Base> getBaseIndex() {
+        if (baseIndex == null) {
+            baseIndex = new KdTree<>(getBases(), b -> b.getCenter().getX(), b -> b.getCenter().getY());
+        }
+        return baseIndex;
+    }
+
+    private KdTree<ChokePoint> getChokePointIndex() {
+        if (chokePointIndex == null) {
+            chokePointIndex = new KdTree<>(getChokePoints(),
+                    cp -> BwemExt.center(cp.getCenter()).getX(), cp -> BwemExt.center(cp.getCenter()).getY());
+        }
+        return chokePointIndex;
+    }
+
     public NeutralData getNeutralData() {
         return this.neutralData;
     }
@@ -228,48 +295,36 @@ public abstract class BWMap {
             return start;
         }
 
-        final Set<TilePosition> visited =
-                new TreeSet<>(
-                        Comparator.comparing((TilePosition tilePosition) -> tilePosition.x)
-                            .thenComparing((TilePosition tilePosition) -> tilePosition.y));
-        Queue<TilePosition> toVisit = new ArrayDeque<>();
-
-        toVisit.add(start);
-        visited.add(start);
-
-        TilePosition[] dir8 = {
-                new TilePosition(-1, -1),
-                new TilePosition(0, -1),
-                new TilePosition(1, -1),
-                new TilePosition(-1, 0),
-                new TilePosition(1, 0),
-                new TilePosition(-1, 1),
-                new TilePosition(0, 1),
-                new TilePosition(1, 1)
-        };
-        TilePosition[] dir4 = {
-                new TilePosition(0, -1),
-                new TilePosition(-1, 0),
-                new TilePosition(+1, 0),
-                new TilePosition(0, +1)
-        };
-        TilePosition[] directions = connect8 ? dir8 : dir4;
-
-        while (!toVisit.isEmpty()) {
-            TilePosition current = toVisit.remove();
-            for (TilePosition delta : directions) {
-                TilePosition next = current.add(delta);
-                if (getData().getMapData().isValid(next)) {
-                    Tile nextTile = getData().getTile(next, CheckMode.NO_CHECK);
-                    if (findCond.test(nextTile, next)) {
-                        return next;
-                    }
-                    if (visitCond.test(nextTile, next) && !visited.contains(next)) {
-                        toVisit.add(next);
-                        visited.add(next);
+        final int width = getData().getMapData().getTileSize().getX();
+        final int height = getData().getMapData().getTileSize().getY();
+        final SearchState search = tileSearch.acquire(width * height);
+        final int[] dx = connect8 ? DIR8_X : DIR4_X;
+        final int[] dy = connect8 ? DIR8_Y : DIR4_Y;
+        try {
+            search.visit(start.getY() * width + start.getX());
+
+            while (!search.isEmpty()) {
+                final int current = search.remove();
+                final int currentX = current % width;
+                final int currentY = current / width;
+                for (int d = 0; d < dx.length; ++d) {
+                    final int nextX = currentX + dx[d];
+                    final int nextY = currentY + dy[d];
+                    if (nextX >= 0 && nextY >= 0 && nextX < width && nextY < height) {
+                        final int nextIndex = nextY * width + nextX;
+                        final TilePosition next = new TilePosition(nextX, nextY);
+                        final Tile nextTile = getData().getTileData().getTile(nextIndex);
+                        if (findCond.test(nextTile, next)) {
+                            return next;
+                        }
+                        if (visitCond.test(nextTile, next) && !search.isVisited(nextIndex)) {
+                            search.visit(nextIndex);
+                        }
                     }
                 }
             }
+        } finally {
+            tileSearch.release(search);
         }
 
         // TODO: Are we supposed to return start or not?
@@ -287,48 +342,36 @@ public abstract class BWMap {
             return start;
         }
 
-        final Set<WalkPosition> visited =
-                new TreeSet<>(
-                    Comparator.comparing((WalkPosition pos) -> pos.x)
-                        .thenComparing((WalkPosition pos) -> pos.y));
-        final Queue<WalkPosition> toVisit = new ArrayDeque<>();
-
-        toVisit.add(start);
-        visited.add(start);
-
-        final WalkPosition[] dir8 = {
-                new WalkPosition(-1, -1),
-                new WalkPosition(0, -1),
-                new WalkPosition(1, -1),
-                new WalkPosition(-1, 0),
-                new WalkPosition(1, 0),
-                new WalkPosition(-1, 1),
-                new WalkPosition(0, 1),
-                new WalkPosition(1, 1)
-        };
-        final WalkPosition[] dir4 = {
-                new WalkPosition(0, -1),
-                new WalkPosition(-1, 0),
-                new WalkPosition(1, 0),
-                new WalkPosition(0, 1)
-        };
-        final WalkPosition[] directions = connect8 ? dir8 : dir4;
-
-        while (!toVisit.isEmpty()) {
-            final WalkPosition current = toVisit.remove();
-            for (final WalkPosition delta : directions) {
-                final WalkPosition next = current.add(delta);
-                if (getData().getMapData().isValid(next)) {
-                    final MiniTile miniTile = getData().getMiniTile(next, CheckMode.NO_CHECK);
-                    if (findCond.test(miniTile, next)) {
-                        return next;
-                    }
-                    if (visitCond.test(miniTile, next) && !visited.contains(next)) {
-                        toVisit.add(next);
-                        visited.add(next);
+        final int width = getData().getMapData().getWalkSize().getX();
+        final int height = getData().getMapData().getWalkSize().getY();
+        final SearchState search = miniTileSearch.acquire(width * height);
+        final int[] dx = connect8 ? DIR8_X : DIR4_X;
+        final int[] dy = connect8 ? DIR8_Y : DIR4_Y;
+        try {
+            search.visit(start.getY() * width + start.getX());
+
+            while (!search.isEmpty()) {
+                final int current = search.remove();
+                final int currentX = current % width;
+                final int currentY = current / width;
+                for (int d = 0; d < dx.length; ++d) {
+                    final int nextX = currentX + dx[d];
+                    final int nextY = currentY + dy[d];
+                    if (nextX >= 0 && nextY >= 0 && nextX < width && nextY < height) {
+                        final int nextIndex = nextY * width + nextX;
+                        final WalkPosition next = new WalkPosition(nextX, nextY);
+                        final MiniTile miniTile = getData().getTileData().getMiniTile(nextIndex);
+                        if (findCond.test(miniTile, next)) {
+                            return next;
+                        }
+                        if (visitCond.test(miniTile, next) && !search.isVisited(nextIndex)) {
+                            search.visit(nextIndex);
+                        }
                     }
                 }
             }
+        } finally {
+            miniTileSearch.release(search);
         }
 
         // TODO: Are we supposed to return start or not?
@@ -394,15 +437,13 @@ public abstract class BWMap {
     Pair<AreaId, AreaId> findNeighboringAreas(final WalkPosition p) {
         final Pair<AreaId, AreaId> result = new Pair<>(null, null);
 
-        final WalkPosition[] deltas = {
-                new WalkPosition(0, -1),
-                new WalkPosition(-1, 0),
-                new WalkPosition(+1, 0),
-                new WalkPosition(0, +1)
-        };
-        for (final WalkPosition delta : deltas) {
-            if (getData().getMapData().isValid(p.add(delta))) {
-                final AreaId areaId = getData().getMiniTile(p.add(delta), CheckMode.NO_CHECK).getAreaId();
+        final int walkWidth = getData().getMapData().getWalkSize().getX();
+        final int walkHeight = getData().getMapData().getWalkSize().getY();
+        for (int d = 0; d < DIR4_X.length; ++d) {
+            final int x = p.getX() + DIR4_X[d];
+            final int y = p.getY() + DIR4_Y[d];
+            if (x >= 0 && y >= 0 && x < walkWidth && y < walkHeight) {
+                final AreaId areaId = getData().getTileData().getMiniTile(y * walkWidth + x).getAreaId();
                 if (areaId.intValue() > 0) {
                     if (result.getLeft() == null) {
                         result.setLeft(areaId);
@@ -441,4 +482,70 @@ public abstract class BWMap {
             return areaPairFlag.get(cantor) ? a : b;
         }
     }
+
+    /**
+     * Visited set and queue of a breadth first search over grid indices.
+     * The visited set is epoch-stamped, so it is cleared in O(1) when the state is reused.
+     */
+    private static final class SearchState {
+        private final int[] visitedEpoch;
+        private final int[] queue; // every index is queued at most once
+        private int epoch;
+        private int head;
+        private int tail;
+
+        SearchState(final int size) {
+            visitedEpoch = new int[size];
+            queue = new int[size];
+        }
+
+        void reset() {
+            if (++epoch == 0) {
+                Arrays.fill(visitedEpoch, 0);
+                epoch = 1;
+            }
+            head = 0;
+            tail = 0;
+        }
+
+        boolean isVisited(final int index) {
+            return visitedEpoch[index] == epoch;
+        }
+
+        // Marks an index as visited and queues it
+        void visit(final int index) {
+            visitedEpoch[index] = epoch;
+            queue[tail++] = index;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        int remove() {
+            return queue[head++];
+        }
+    }
+
+    /**
+     * Keeps one SearchState for reuse, nested searches (from within a predicate) get a fresh one.
+     * Concurrent searches from several threads also get a fresh one, the pool never hands out a state twice.
+     */
+    private static final class SearchStatePool {
+        private SearchState available;
+
+        synchronized SearchState acquire(final int size) {
+            SearchState state = available;
+            available = null;
+            if (state == null || state.visitedEpoch.length != size) {
+                state = new SearchState(size);
+            }
+            state.reset();
+            return state;
+        }
+
+        synchronized void release(final SearchState state) {
+            available = state;
+        }
+    }
 }
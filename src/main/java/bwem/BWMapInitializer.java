@@ -16,14 +16,21 @@ import bwapi.*;
 import bwem.util.*;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
 class BWMapInitializer extends BWMap {
+    private AltitudeComputation altitudeComputation = AltitudeComputation.DIJKSTRA;
+    private int[] replaceAreaIdsStack;
+
     BWMapInitializer(final Game game, final Asserter asserter) {
         super(game, asserter);
     }
 
+    void setAltitudeComputation(final AltitudeComputation altitudeComputation) {
+        this.altitudeComputation = altitudeComputation;
+    }
+
     void initialize() {
         initializeTerrainData(
                 game.mapWidth(), game.mapHeight(), game.getStartLocations());
@@ -45,7 +52,11 @@ class BWMapInitializer extends BWMap {
                 filterNeutralPlayerUnits(super.units, super.players));
 
 
-        computeAltitude(getData());
+        if (altitudeComputation == AltitudeComputation.DISTANCE_TRANSFORM) {
+            computeAltitudeByDistanceTransform(getData());
+        } else {
+            computeAltitude(getData());
+        }
 
 
         processBlockingNeutrals(
@@ -109,14 +120,13 @@ class BWMapInitializer extends BWMap {
                 8; // 8 provides a pixel definition for altitude_t, since altitudes are computed from
         // miniTiles which are 8x8 pixels
 
-        final List<Pair<WalkPosition, Altitude>> deltasByAscendingAltitude =
+        final long[] deltasByAscendingAltitude =
                 getSortedDeltasByAscendingAltitude(
                         terrainData.getMapData().getWalkSize().getX(),
                         terrainData.getMapData().getWalkSize().getY(),
                         altitudeScale);
 
-        final List<Pair<WalkPosition, Altitude>> activeSeaSides =
-                getActiveSeaSideList(terrainData);
+        final ActiveSeaSides activeSeaSides = getActiveSeaSideList(terrainData);
 
         super.highestAltitude = setAltitudesAndGetUpdatedHighestAltitude(
                         getHighestAltitude(),
@@ -126,50 +136,94 @@ class BWMapInitializer extends BWMap {
                         altitudeScale);
     }
 
+    // Deltas are packed in a long: altitude (bits 32-63), dy (bits 16-31), dx (bits 0-15)
+    private static long packDelta(final int altitude, final int dx, final int dy) {
+        return ((long) altitude << 32) | (dy << 16) | dx;
+    }
+
     /**
      * 1) Fill in and sort DeltasByAscendingAltitude
      */
-    private List<Pair<WalkPosition, Altitude>> getSortedDeltasByAscendingAltitude(
+    private long[] getSortedDeltasByAscendingAltitude(
         final int mapWalkTileWidth, final int mapWalkTileHeight, int altitudeScale) {
         final int range =
                 Math.max(mapWalkTileWidth, mapWalkTileHeight) / 2
                         + 3; // should suffice for maps with no Sea.
 
-        final List<Pair<WalkPosition, Altitude>> deltasByAscendingAltitude = new ArrayList<>();
+        final long[] deltasByAscendingAltitude = new long[(range + 1) * (range + 2) / 2 - 1];
+        int count = 0;
 
         for (int dy = 0; dy <= range; ++dy) {
             for (int dx = dy;
                  dx <= range;
                  ++dx) { // Only consider 1/8 of possible deltas. Other ones obtained by symmetry.
                 if (dx != 0 || dy != 0) {
-                    deltasByAscendingAltitude.add(
-                            new Pair<>(
-                                    new WalkPosition(dx, dy),
-                                    new Altitude((int) Math.round(Utils.norm(dx, dy) * altitudeScale))));
+                    deltasByAscendingAltitude[count++] =
+                            packDelta((int) Math.round(Utils.norm(dx, dy) * altitudeScale), dx, dy);
                 }
             }
         }
 
-        deltasByAscendingAltitude.sort(Altitude.BY_ALTITUDE_ORDER);
+        // Deltas with the same altitude are ordered by ascending dy, then dx, like a stable sort of the
+        // insertion order would do.
+        Arrays.sort(deltasByAscendingAltitude);
 
         return deltasByAscendingAltitude;
     }
 
+    /**
+     * The seaside miniTiles with the altitude they last assigned, in insertion order.
+     */
+    private static final class ActiveSeaSides {
+        int[] x;
+        int[] y;
+        int[] altitude;
+        int size;
+
+        ActiveSeaSides(final int capacity) {
+            x = new int[capacity];
+            y = new int[capacity];
+            altitude = new int[capacity];
+        }
+
+        void add(final int x, final int y) {
+            if (size == this.x.length) {
+                this.x = Arrays.copyOf(this.x, size * 2);
+                this.y = Arrays.copyOf(this.y, size * 2);
+                this.altitude = Arrays.copyOf(this.altitude, size * 2);
+            }
+            this.x[size] = x;
+            this.y[size] = y;
+            this.altitude[size] = 0;
+            ++size;
+        }
+
+        // Same as Utils.fastErase: the last element takes the place of the removed one
+        void fastErase(final int i) {
+            --size;
+            x[i] = x[size];
+            y[i] = y[size];
+            altitude[i] = altitude[size];
+        }
+    }
+
     /**
      * 2) Fill in ActiveSeaSideList, which basically contains all the seaside miniTiles (from which
      * altitudes are to be computed) It also includes extra border-miniTiles which are considered as
      * seaside miniTiles too.
      */
-    private List<Pair<WalkPosition, Altitude>> getActiveSeaSideList(
+    private ActiveSeaSides getActiveSeaSideList(
         final TerrainData terrainData) {
-        final List<Pair<WalkPosition, Altitude>> activeSeaSideList = new ArrayList<>();
+        final int walkWidth = terrainData.getMapData().getWalkSize().getX();
+        final int walkHeight = terrainData.getMapData().getWalkSize().getY();
+        final ActiveSeaSides activeSeaSideList = new ActiveSeaSides(2 * (walkWidth + walkHeight) + 4);
 
-        for (int y = -1; y <= terrainData.getMapData().getWalkSize().getY(); ++y) {
-            for (int x = -1; x <= terrainData.getMapData().getWalkSize().getX(); ++x) {
+        for (int y = -1; y <= walkHeight; ++y) {
+            for (int x = -1; x <= walkWidth; ++x) {
                 final WalkPosition walkPosition = new WalkPosition(x, y);
                 if (!terrainData.getMapData().isValid(walkPosition)
                         || terrainData.isSeaWithNonSeaNeighbors(walkPosition)) {
-                    activeSeaSideList.add(new Pair<>(walkPosition, Altitude.ZERO));
+                    activeSeaSideList.add(x, y);
                 }
             }
         }
@@ -184,41 +238,66 @@ class BWMapInitializer extends BWMap {
     private Altitude setAltitudesAndGetUpdatedHighestAltitude(
         final Altitude currentHighestAltitude,
         final TerrainData terrainData,
-        final List<Pair<WalkPosition, Altitude>> deltasByAscendingAltitude,
-        final List<Pair<WalkPosition, Altitude>> activeSeaSideList,
+        final long[] deltasByAscendingAltitude,
+        final ActiveSeaSides activeSeaSideList,
         final int altitudeScale) {
         Altitude updatedHighestAltitude = currentHighestAltitude;
 
-        for (final Pair<WalkPosition, Altitude> deltaAltitude : deltasByAscendingAltitude) {
-            final WalkPosition d = deltaAltitude.getLeft();
-            final Altitude altitude = deltaAltitude.getRight();
+        final int walkWidth = terrainData.getMapData().getWalkSize().getX();
+        final int walkHeight = terrainData.getMapData().getWalkSize().getY();
+        final boolean[] altitudeMissing = new boolean[walkWidth * walkHeight];
+        int missingCount = 0;
+        for (int i = 0; i < altitudeMissing.length; ++i) {
+            if (terrainData.getTileData().getMiniTile(i).isAltitudeMissing()) {
+                altitudeMissing[i] = true;
+                ++missingCount;
+            }
+        }
 
-            for (int i = 0; i < activeSeaSideList.size(); ++i) {
-                final Pair<WalkPosition, Altitude> current = activeSeaSideList.get(i);
-                if (altitude.intValue() - current.getRight().intValue() >= 2 * altitudeScale) {
+        final int[] deltaX = new int[8];
+        final int[] deltaY = new int[8];
+        for (final long deltaAltitude : deltasByAscendingAltitude) {
+            if (missingCount == 0) {
+                // Remaining deltas could only remove seaside miniTiles from the active list
+                break;
+            }
+            final int dy = (int) (deltaAltitude >>> 16) & 0xFFFF;
+            final int dx = (int) deltaAltitude & 0xFFFF;
+            final int altitudeValue = (int) (deltaAltitude >>> 32);
+            Altitude altitude = null;
+
+            deltaX[0] = dx; deltaY[0] = dy;
+            deltaX[1] = -dx; deltaY[1] = dy;
+            deltaX[2] = dx; deltaY[2] = -dy;
+            deltaX[3] = -dx; deltaY[3] = -dy;
+            deltaX[4] = dy; deltaY[4] = dx;
+            deltaX[5] = -dy; deltaY[5] = dx;
+            deltaX[6] = dy; deltaY[6] = -dx;
+            deltaX[7] = -dy; deltaY[7] = -dx;
+
+            for (int i = 0; i < activeSeaSideList.size; ++i) {
+                if (altitudeValue - activeSeaSideList.altitude[i] >= 2 * altitudeScale) {
                     // optimization : once a seaside miniTile verifies this condition,
                     // we can throw it away as it will not generate min altitudes anymore
-                    Utils.fastErase(activeSeaSideList, i--);
+                    activeSeaSideList.fastErase(i--);
                 } else {
-                    final WalkPosition[] deltas = {
-                            new WalkPosition(d.getX(), d.getY()), new WalkPosition(-d.getX(), d.getY()),
-                            new WalkPosition(d.getX(), -d.getY()), new WalkPosition(-d.getX(), -d.getY()),
-                            new WalkPosition(d.getY(), d.getX()), new WalkPosition(-d.getY(), d.getX()),
-                            new WalkPosition(d.getY(), -d.getX()), new WalkPosition(-d.getY(), -d.getX())
-                    };
-                    for (final WalkPosition delta : deltas) {
-                        final WalkPosition w = current.getLeft().add(delta);
-                        if (terrainData.getMapData().isValid(w)) {
-                            final MiniTile miniTile = terrainData.getMiniTile(w, CheckMode.NO_CHECK);
-                            if (miniTile.isAltitudeMissing()) {
-                                if (updatedHighestAltitude != null
-                                        && updatedHighestAltitude.intValue() > altitude.intValue()) {
-                                    asserter.throwIllegalStateException("");
-                                }
-                                updatedHighestAltitude = altitude;
-                                current.setRight(altitude);
-                                miniTile.setAltitude(altitude);
+                    for (int d = 0; d < 8; ++d) {
+                        final int x = activeSeaSideList.x[i] + deltaX[d];
+                        final int y = activeSeaSideList.y[i] + deltaY[d];
+                        if (x >= 0 && y >= 0 && x < walkWidth && y < walkHeight
+                                && altitudeMissing[y * walkWidth + x]) {
+                            if (updatedHighestAltitude != null
+                                    && updatedHighestAltitude.intValue() > altitudeValue) {
+                                asserter.throwIllegalStateException("");
+                            }
+                            if (altitude == null) {
+                                altitude = new Altitude(altitudeValue);
                             }
+                            updatedHighestAltitude = altitude;
+                            activeSeaSideList.altitude[i] = altitudeValue;
+                            altitudeMissing[y * walkWidth + x] = false;
+                            --missingCount;
+                            terrainData.getTileData().getMiniTile(y * walkWidth + x).setAltitude(altitude);
                         }
                     }
                 }
@@ -228,7 +307,44 @@ class BWMapInitializer extends BWMap {
         return updatedHighestAltitude;
     }
 
-    // ----------------------------------------------------------------------
+    // Alternative to computeAltitude, in linear time:
+    // the altitude of a MiniTile is its exact distance to the nearest sea MiniTile, where the MiniTiles
+    // just outside of the map count as sea too. The nearest sea MiniTile is always a seaside one.
+    private void computeAltitudeByDistanceTransform(final TerrainData terrainData) {
+        final int altitudeScale = 8;
+        final int walkWidth = terrainData.getMapData().getWalkSize().getX();
+        final int walkHeight = terrainData.getMapData().getWalkSize().getY();
+
+        // The grid is extended by one MiniTile on each side for the border-miniTiles
+        final int width = walkWidth + 2;
+        final int height = walkHeight + 2;
+        final boolean[] seas = new boolean[width * height];
+        for (int y = -1; y <= walkHeight; ++y) {
+            for (int x = -1; x <= walkWidth; ++x) {
+                seas[(y + 1) * width + x + 1] = x < 0 || y < 0 || x >= walkWidth || y >= walkHeight
+                        || terrainData.getTileData().getMiniTile(y * walkWidth + x).isSea();
+            }
+        }
+
+        final int[] squaredDistances = DistanceTransform.squaredDistances(seas, width, height);
+
+        Altitude updatedHighestAltitude = getHighestAltitude();
+        for (int y = 0; y < walkHeight; ++y) {
+            for (int x = 0; x < walkWidth; ++x) {
+                final MiniTile miniTile = terrainData.getTileData().getMiniTile(y * walkWidth + x);
+                if (miniTile.isAltitudeMissing()) {
+                    final Altitude altitude = new Altitude((int) Math.round(
+                            Math.sqrt(squaredDistances[(y + 1) * width + x + 1]) * altitudeScale));
+                    if (updatedHighestAltitude == null
+                            || updatedHighestAltitude.intValue() < altitude.intValue()) {
+                        updatedHighestAltitude = altitude;
+                    }
+                    miniTile.setAltitude(altitude);
+                }
+            }
+        }
+        super.highestAltitude = updatedHighestAltitude;
+    }
 
     ////////////////////////////////////////////////////////////////////////
 
@@ -428,34 +544,61 @@ class BWMapInitializer extends BWMap {
         setAreaIdAndLowestAltitudeInTiles();
     }
 
-    private List<Pair<WalkPosition, MiniTile>> getSortedMiniTilesByDescendingAltitude() {
-        final List<Pair<WalkPosition, MiniTile>> miniTilesByDescendingAltitude =
-                new ArrayList<>();
+    // Returns the indices of the MiniTiles having AreaIdMissing(), in the order of a stable sort by
+    // ascending altitude followed by a reversal. Altitudes are small, so a counting sort is used.
+    private int[] getSortedMiniTilesByDescendingAltitude() {
+        final TileData tileData = getData().getTileData();
+        final int miniTileCount = getData().getMapData().getWalkSize().getX() * getData().getMapData().getWalkSize().getY();
+
+        int count = 0;
+        int maxAltitude = 0;
+        for (int i = 0; i < miniTileCount; ++i) {
+            final MiniTile miniTile = tileData.getMiniTile(i);
+            if (miniTile.isAreaIdMissing()) {
+                ++count;
+                maxAltitude = Math.max(maxAltitude, miniTile.getAltitude().intValue());
+            }
+        }
 
-        for (int y = 0; y < getData().getMapData().getWalkSize().getY(); ++y) {
-            for (int x = 0; x < getData().getMapData().getWalkSize().getX(); ++x) {
-                final WalkPosition w = new WalkPosition(x, y);
-                final MiniTile miniTile = getData().getMiniTile(w, CheckMode.NO_CHECK);
-                if (miniTile.isAreaIdMissing()) {
-                    miniTilesByDescendingAltitude.add(new Pair<>(w, miniTile));
-                }
+        // offsets[a] is the number of MiniTiles higher than a, where the MiniTiles of altitude a start
+        final int[] offsets = new int[maxAltitude + 2];
+        for (int i = 0; i < miniTileCount; ++i) {
+            final MiniTile miniTile = tileData.getMiniTile(i);
+            if (miniTile.isAreaIdMissing()) {
+                ++offsets[miniTile.getAltitude().intValue()];
             }
         }
+        int higher = 0;
+        for (int altitude = maxAltitude; altitude >= 0; --altitude) {
+            final int sameAltitude = offsets[altitude];
+            offsets[altitude] = higher;
+            higher += sameAltitude;
+        }
 
-        miniTilesByDescendingAltitude.sort(MiniTile.BY_ALTITUDE_ORDER);
-        Collections.reverse(miniTilesByDescendingAltitude);
+        final int[] miniTilesByDescendingAltitude = new int[count];
+        for (int i = miniTileCount - 1; i >= 0; --i) {
+            final MiniTile miniTile = tileData.getMiniTile(i);
+            if (miniTile.isAreaIdMissing()) {
+                miniTilesByDescendingAltitude[offsets[miniTile.getAltitude().intValue()]++] = i;
+            }
+        }
 
         return miniTilesByDescendingAltitude;
     }
 
-    private List<TempAreaInfo> computeTempAreas(
-        final List<Pair<WalkPosition, MiniTile>> miniTilesByDescendingAltitude) {
+    private List<TempAreaInfo> computeTempAreas(final int[] miniTilesByDescendingAltitude) {
         final List<TempAreaInfo> tempAreaList = new ArrayList<>();
         tempAreaList.add(new TempAreaInfo(asserter)); // tempAreaList[0] left unused, as AreaIds are > 0
 
-        for (final Pair<WalkPosition, MiniTile> current : miniTilesByDescendingAltitude) {
-            final WalkPosition pos = new WalkPosition(current.getLeft().getX(), current.getLeft().getY());
-            final MiniTile cur = current.getRight();
+        final int walkWidth = getData().getMapData().getWalkSize().getX();
+        final List<TilePosition> startingLocations = new ArrayList<>();
+        for (final TilePosition startingLoc : getData().getMapData().getStartingLocations()) {
+            startingLocations.add(startingLoc.add(new TilePosition(2, 1)));
+        }
+
+        for (final int index : miniTilesByDescendingAltitude) {
+            final WalkPosition pos = new WalkPosition(index % walkWidth, index / walkWidth);
+            final MiniTile cur = getData().getTileData().getMiniTile(index);
 
             final Pair<AreaId, AreaId> neighboringAreas = findNeighboringAreas(pos);
             if (neighboringAreas.getLeft() == null) { // no neighboring area : creates of a new area
@@ -478,15 +621,13 @@ class BWMapInitializer extends BWMap {
                 // [&pos](const TilePosition & startingLoc)
                 //                    { return dist(TilePosition(pos), startingLoc + TilePosition(2, 1)) <=
                 // 3;})
-                boolean cppAlgorithmStdAnyOf =
-                        getData()
-                                .getMapData()
-                                .getStartingLocations()
-                                .stream()
-                                .anyMatch(
-                                        startingLoc ->
-                                                BwemExt.dist(pos.toTilePosition(), startingLoc.add(new TilePosition(2, 1)))
-                                                        <= 3.0);
+                boolean cppAlgorithmStdAnyOf = false;
+                for (final TilePosition startingLoc : startingLocations) {
+                    if (BwemExt.dist(pos.toTilePosition(), startingLoc) <= 3.0) {
+                        cppAlgorithmStdAnyOf = true;
+                        break;
+                    }
+                }
                 final int curAltitude = cur.getAltitude().intValue();
                 final int biggerHighestAltitude =
                         tempAreaList.get(bigger.intValue()).getHighestAltitude().intValue();
@@ -524,23 +665,24 @@ class BWMapInitializer extends BWMap {
         final AreaId oldAreaId = origin.getAreaId();
         origin.replaceAreaId(newAreaId);
 
-        List<WalkPosition> toSearch = new ArrayList<>();
-        toSearch.add(p);
-        while (!toSearch.isEmpty()) {
-            final WalkPosition current = toSearch.remove(toSearch.size() - 1);
-
-            final WalkPosition[] deltas = {
-                    new WalkPosition(0, -1),
-                    new WalkPosition(-1, 0),
-                    new WalkPosition(+1, 0),
-                    new WalkPosition(0, +1)
-            };
-            for (final WalkPosition delta : deltas) {
-                final WalkPosition next = current.add(delta);
-                if (getData().getMapData().isValid(next)) {
-                    final MiniTile miniTile = getData().getMiniTile(next, CheckMode.NO_CHECK);
+        final int walkWidth = getData().getMapData().getWalkSize().getX();
+        final int walkHeight = getData().getMapData().getWalkSize().getY();
+        final int[] toSearch = getReplaceAreaIdsStack();
+        int size = 0;
+        toSearch[size++] = p.getY() * walkWidth + p.getX();
+        while (size > 0) {
+            final int current = toSearch[--size];
+            final int currentX = current % walkWidth;
+            final int currentY = current / walkWidth;
+
+            for (int d = 0; d < DIR4_X.length; ++d) {
+                final int nextX = currentX + DIR4_X[d];
+                final int nextY = currentY + DIR4_Y[d];
+                if (nextX >= 0 && nextY >= 0 && nextX < walkWidth && nextY < walkHeight) {
+                    final int next = nextY * walkWidth + nextX;
+                    final MiniTile miniTile = getData().getTileData().getMiniTile(next);
                     if (miniTile.getAreaId().equals(oldAreaId)) {
-                        toSearch.add(next);
+                        toSearch[size++] = next;
                         miniTile.replaceAreaId(newAreaId);
                     }
                 }
@@ -560,6 +702,14 @@ class BWMapInitializer extends BWMap {
         }
     }
 
+    // Every MiniTile is pushed at most once by replaceAreaIds
+    private int[] getReplaceAreaIdsStack() {
+        if (replaceAreaIdsStack == null) {
+            replaceAreaIdsStack = new int[getData().getMapData().getWalkSize().getX() * getData().getMapData().getWalkSize().getY()];
+        }
+        return replaceAreaIdsStack;
+    }
+
     // Initializes Graph with the valid and big enough areas in tempAreaList.
     private void createAreas(final List<TempAreaInfo> tempAreaList, final int areaMinMiniTiles) {
         final List<Pair<WalkPosition, Integer>> areasList = new ArrayList<>();
@@ -662,6 +812,7 @@ class BWMapInitializer extends BWMap {
             }
         }
 
+        getGraph().clearNearestAreas();
         if (automaticPathUpdate()) {
             getGraph().computeChokePointDistanceMatrix();
         }
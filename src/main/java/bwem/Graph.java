@@ -18,6 +18,7 @@ import bwapi.TilePosition;
 import bwapi.WalkPosition;
 import bwem.util.BwemExt;
 import bwem.util.CheckMode;
+import bwem.util.IndexedIntHeap;
 import bwem.util.Pred;
 import bwem.util.Utils;
 
@@ -27,13 +28,20 @@ public final class Graph {
     private final BWMap map;
     private final List<Area> areas = new ArrayList<>();
     private final List<ChokePoint> chokePoints = new ArrayList<>();
-    private final List<List<List<ChokePoint>>> chokePointsMatrix =
-            new ArrayList<>(); // index == Area::id x Area::id
-    private final List<List<Integer>> chokePointDistanceMatrix =
-            new ArrayList<>(); // index == ChokePoint::index x ChokePoint::index
-    private final List<List<CPPath>> pathsBetweenChokePoints =
-            new ArrayList<>(); // index == ChokePoint::index x ChokePoint::index
+    private List<ChokePoint>[] chokePointsMatrix; // triangular, index == Area::id x Area::id
+    private ChokePoint[] chokePointsByIndex; // index == ChokePoint::index
+    private int[] chokePointDistanceMatrix; // index == ChokePoint::index x ChokePoint::index
+    // Paths are stored as packed sequences of ChokePoint::index: the path between cpA and cpB is
+    // pathsBetweenChokePoints[pathOffsets[i] .. pathOffsets[i + 1]), with i == cpA::index x cpB::index.
+    private short[] pathsBetweenChokePoints;
+    private int[] pathOffsets;
+    private CPPath[] pathCache; // materialized on demand, index == ChokePoint::index x ChokePoint::index
+    private short[][] pathsUnderConstruction;
+    private IndexedIntHeap chokePointQueue; // Dijkstra queue of ChokePoint::index, reused by computeDistances
     private final List<Base> bases = new ArrayList<>();
+    // Memoized results of getNearestArea for the MiniTiles and Tiles outside of any Area, 0 if not known yet
+    private int[] nearestAreaIdByMiniTile;
+    private int[] nearestAreaIdByTile;
 
     Graph(BWMap map) {
         this.map = map;
@@ -74,6 +82,15 @@ public final class Graph {
             return area;
         }
 
+        final int walkWidth = getMap().getData().getMapData().getWalkSize().getX();
+        final int index = walkPosition.getY() * walkWidth + walkPosition.getX();
+        if (nearestAreaIdByMiniTile == null) {
+            nearestAreaIdByMiniTile = new int[walkWidth * getMap().getData().getMapData().getWalkSize().getY()];
+        }
+        if (nearestAreaIdByMiniTile[index] > 0) {
+            return areas.get(nearestAreaIdByMiniTile[index] - 1);
+        }
+
         final WalkPosition w =
                 getMap()
                         .breadthFirstSearch(
@@ -83,7 +100,9 @@ public final class Graph {
                                 // visitCond
                             Pred.accept());
 
-        return getArea(w);
+        final Area nearestArea = getArea(w);
+        nearestAreaIdByMiniTile[index] = nearestArea.getId().intValue();
+        return nearestArea;
     }
 
     public Area getNearestArea(final TilePosition tilePosition) {
@@ -92,6 +111,15 @@ public final class Graph {
             return area;
         }
 
+        final int tileWidth = getMap().getData().getMapData().getTileSize().getX();
+        final int index = tilePosition.getY() * tileWidth + tilePosition.getX();
+        if (nearestAreaIdByTile == null) {
+            nearestAreaIdByTile = new int[tileWidth * getMap().getData().getMapData().getTileSize().getY()];
+        }
+        if (nearestAreaIdByTile[index] > 0) {
+            return areas.get(nearestAreaIdByTile[index] - 1);
+        }
+
         final TilePosition t =
             getMap()
                 .breadthFirstSearch(
@@ -101,7 +129,15 @@ public final class Graph {
                     // visitCond
                     (Tile tile, TilePosition unused) -> true);
 
-        return getArea(t);
+        final Area nearestArea = getArea(t);
+        nearestAreaIdByTile[index] = nearestArea.getId().intValue();
+        return nearestArea;
+    }
+
+    // Forgets the nearest areas found so far, after the areas of some tiles changed.
+    void clearNearestAreas() {
+        nearestAreaIdByMiniTile = null;
+        nearestAreaIdByTile = null;
     }
 
     // Returns the list of all the getChokePoints in the BWMap.
@@ -123,7 +159,7 @@ public final class Graph {
             bVal = aValTmp;
         }
 
-        return chokePointsMatrix.get(bVal).get(aVal);
+        return chokePointsMatrix[bVal * (bVal - 1) / 2 + aVal];
     }
 
     // Returns the getChokePoints between two areas.
@@ -133,17 +169,22 @@ public final class Graph {
 
     // Returns the ground distance in pixels between cpA->center() and cpB>center()
     public int distance(ChokePoint cpA, ChokePoint cpB) {
-        return chokePointDistanceMatrix
-                .get(cpA.getIndex())
-                .get(cpB.getIndex());
+        return chokePointDistanceMatrix[cpA.getIndex() * chokePointsByIndex.length + cpB.getIndex()];
     }
 
     // Returns a list of getChokePoints, which is intended to be the shortest walking path from cpA to
     // cpB.
     public CPPath getPath(ChokePoint cpA, ChokePoint cpB) {
-        return pathsBetweenChokePoints
-                .get(cpA.getIndex())
-                .get(cpB.getIndex());
+        final int i = cpA.getIndex() * chokePointsByIndex.length + cpB.getIndex();
+        CPPath path = pathCache[i];
+        if (path == null) {
+            path = new CPPath();
+            for (int p = pathOffsets[i]; p < pathOffsets[i + 1]; ++p) {
+                path.add(chokePointsByIndex[pathsBetweenChokePoints[p]]);
+            }
+            pathCache[i] = path;
+        }
+        return path;
     }
 
     public Optional<PathingResult> getPathingResult(Position a, Position b) {
@@ -175,17 +216,13 @@ public final class Graph {
     // ----------------------------------------------------------------------
     // 1) size the matrix
     // ----------------------------------------------------------------------
+    @SuppressWarnings("unchecked")
     private void initializeChokePointsMatrix() {
         int areasCount = getAreaCount();
-        chokePointsMatrix.clear();
-        // Unused due to ids starting at 1
-        chokePointsMatrix.add(null);
-        for (int id = 1; id <= areasCount; ++id) { // triangular matrix
-            ArrayList<List<ChokePoint>> subList = new ArrayList<>();
-            chokePointsMatrix.add(subList);
-            for (int n = 0; n < id; ++n) {
-                subList.add(new ArrayList<>());
-            }
+        // Row id holds the pairs (id, n) with n < id; n == 0 is unused due to ids starting at 1
+        chokePointsMatrix = new List[areasCount * (areasCount + 1) / 2];
+        for (int i = 0; i < chokePointsMatrix.length; ++i) {
+            chokePointsMatrix[i] = new ArrayList<>();
         }
     }
     // ----------------------------------------------------------------------
@@ -374,25 +411,15 @@ public final class Graph {
     // If Context == Graph, Dijkstra's algorithm works on the GetChokePoints between the AreaS.
     public void computeChokePointDistanceMatrix() {
         // 1) size the matrix
-        chokePointDistanceMatrix.clear();
-        for (int i = 0; i < chokePoints.size(); ++i) {
-            chokePointDistanceMatrix.add(new ArrayList<>());
-        }
-        for (List<Integer> chokePointDistanceMatrix1 : chokePointDistanceMatrix) {
-            for (int n = 0; n < chokePoints.size(); ++n) {
-                chokePointDistanceMatrix1.add(-1);
-            }
-        }
-
-        pathsBetweenChokePoints.clear();
-        for (int i = 0; i < chokePoints.size(); ++i) {
-            pathsBetweenChokePoints.add(new ArrayList<>());
-        }
-        for (List<CPPath> pathsBetweenChokePoint : pathsBetweenChokePoints) {
-            for (int n = 0; n < chokePoints.size(); ++n) {
-                pathsBetweenChokePoint.add(new CPPath());
-            }
+        final int chokePointCount = chokePoints.size();
+        chokePointsByIndex = new ChokePoint[chokePointCount];
+        for (final ChokePoint cp : chokePoints) {
+            chokePointsByIndex[cp.getIndex()] = cp;
         }
+        chokePointDistanceMatrix = new int[chokePointCount * chokePointCount];
+        Arrays.fill(chokePointDistanceMatrix, -1);
+        pathsUnderConstruction = new short[chokePointCount * chokePointCount][];
+        chokePointQueue = new IndexedIntHeap(chokePointCount);
 
         // 2) Compute distances inside each Area
         for (final Area area : getAreas()) {
@@ -404,10 +431,9 @@ public final class Graph {
 
         for (final ChokePoint cp : getChokePoints()) {
             setDistance(cp, cp, 0);
-            CPPath cppath = new CPPath();
-            cppath.add(cp);
-            setPath(cp, cp, cppath);
+            setPath(cp, cp, new short[]{(short) cp.getIndex()});
         }
+        packPaths();
 
         // 4) Update Area::m_AccessibleNeighbors for each Area
         for (final Area area : getAreas()) ((AreaInitializer) area).updateAccessibleNeighbors();
@@ -510,9 +536,7 @@ public final class Graph {
 
                 // Build the path from pStart to targets[i]:
 
-                final CPPath path = new CPPath();
-                path.add(pStart);
-                path.add(target);
+                int pathSize = 2;
 
                 //                // if (Context == Graph), there may be intermediate getChokePoints. They
                 // have been set by computeDistances,
@@ -524,7 +548,19 @@ public final class Graph {
                     for (ChokePoint pPrev = target.getPathBackTrace();
                          !pPrev.equals(pStart);
                          pPrev = pPrev.getPathBackTrace()) {
-                        path.add(1, pPrev);
+                        ++pathSize;
+                    }
+                }
+
+                final short[] path = new short[pathSize];
+                path[0] = (short) pStart.getIndex();
+                path[pathSize - 1] = (short) target.getIndex();
+                if (collectIntermediateChokePoints) {
+                    int p = pathSize - 2;
+                    for (ChokePoint pPrev = target.getPathBackTrace();
+                         !pPrev.equals(pStart);
+                         pPrev = pPrev.getPathBackTrace()) {
+                        path[p--] = (short) pPrev.getIndex();
                     }
                 }
 
@@ -548,15 +584,14 @@ public final class Graph {
 
         Tile.getStaticMarkable().unmarkAll();
 
-        final Queue<Pair<Integer, ChokePoint>> toVisit =
-                new PriorityQueue<>(Comparator.comparingInt(Pair::getLeft));
-        toVisit.offer(new Pair<>(0, start));
+        final IndexedIntHeap toVisit = chokePointQueue;
+        toVisit.clear();
+        toVisit.offer(start.getIndex(), 0);
 
         int remainingTargets = targets.size();
         while (!toVisit.isEmpty()) {
-            final Pair<Integer, ChokePoint> distanceAndChokePoint = toVisit.poll();
-            final int currentDist = distanceAndChokePoint.getLeft();
-            final ChokePoint current = distanceAndChokePoint.getRight();
+            final int currentDist = toVisit.getPriority(toVisit.peek());
+            final ChokePoint current = chokePointsByIndex[toVisit.poll()];
             final Tile currentTile =
                     getMap().getData().getTile(current.getCenter().toTilePosition(), CheckMode.NO_CHECK);
             if (!(currentTile.getInternalData() == currentDist)) {
@@ -590,20 +625,18 @@ public final class Graph {
                             if (nextTile.getInternalData() != 0) { // next already in toVisit
                                 if (newNextDist
                                         < nextTile.getInternalData()) { // nextNewDist < nextOldDist
-                                    // To update next's distance, we need to remove-insert it from toVisit:
-                                    final boolean removed =
-                                            toVisit.remove(new Pair<>(nextTile.getInternalData(), next));
-                                    if (!removed) {
+                                    // To update next's distance, we need to update its position in toVisit:
+                                    if (!toVisit.contains(next.getIndex())) {
                                         map.asserter.throwIllegalStateException("");
                                     }
                                     nextTile.setInternalData(newNextDist);
                                     next.setPathBackTrace(current);
-                                    toVisit.offer(new Pair<>(newNextDist, next));
+                                    toVisit.update(next.getIndex(), newNextDist);
                                 }
                             } else {
                                 nextTile.setInternalData(newNextDist);
                                 next.setPathBackTrace(current);
-                                toVisit.offer(new Pair<>(newNextDist, next));
+                                toVisit.offer(next.getIndex(), newNextDist);
                             }
                         }
                     }
@@ -617,14 +650,15 @@ public final class Graph {
         //        }
 
         // reset Tile::m_internalData for future usage
-        for (Pair<Integer, ChokePoint> distanceToChokePoint : toVisit) {
+        for (int i = 0; i < toVisit.size(); ++i) {
             getMap()
                     .getData()
                     .getTile(
-                            distanceToChokePoint.getRight().getCenter().toTilePosition(),
+                            chokePointsByIndex[toVisit.get(i)].getCenter().toTilePosition(),
                             CheckMode.NO_CHECK)
                     .setInternalData(0);
         }
+        toVisit.clear();
 
         return distances;
     }
@@ -657,24 +691,45 @@ public final class Graph {
     private void setDistance(final ChokePoint cpA, final ChokePoint cpB, final int value) {
         final int indexA = cpA.getIndex();
         final int indexB = cpB.getIndex();
-        this.chokePointDistanceMatrix.get(indexA).set(indexB, value);
-        this.chokePointDistanceMatrix.get(indexB).set(indexA, value);
+        final int chokePointCount = chokePointsByIndex.length;
+        this.chokePointDistanceMatrix[indexA * chokePointCount + indexB] = value;
+        this.chokePointDistanceMatrix[indexB * chokePointCount + indexA] = value;
     }
 
-    private void setPath(final ChokePoint cpA, final ChokePoint cpB, final CPPath pathAB) {
+    private void setPath(final ChokePoint cpA, final ChokePoint cpB, final short[] pathAB) {
         final int indexA = cpA.getIndex();
         final int indexB = cpB.getIndex();
+        final int chokePointCount = chokePointsByIndex.length;
 
-        this.pathsBetweenChokePoints.get(indexA).set(indexB, pathAB);
+        this.pathsUnderConstruction[indexA * chokePointCount + indexB] = pathAB;
 
         if (cpA != cpB) {
-            final CPPath reversePath = this.pathsBetweenChokePoints.get(indexB).get(indexA);
-            reversePath.clear();
-            for (int i = pathAB.size() - 1; i >= 0; --i) {
-                final ChokePoint cp = pathAB.get(i);
-                reversePath.add(cp);
+            final short[] reversePath = new short[pathAB.length];
+            for (int i = 0; i < pathAB.length; ++i) {
+                reversePath[i] = pathAB[pathAB.length - 1 - i];
+            }
+            this.pathsUnderConstruction[indexB * chokePointCount + indexA] = reversePath;
+        }
+    }
+
+    // Flattens the paths computed by computeChokePointDistanceMatrix into pathsBetweenChokePoints.
+    // Pairs without a path (not accessible from each other) get an empty range.
+    private void packPaths() {
+        final int pairCount = pathsUnderConstruction.length;
+        pathOffsets = new int[pairCount + 1];
+        for (int i = 0; i < pairCount; ++i) {
+            final short[] path = pathsUnderConstruction[i];
+            pathOffsets[i + 1] = pathOffsets[i] + (path == null ? 0 : path.length);
+        }
+        pathsBetweenChokePoints = new short[pathOffsets[pairCount]];
+        for (int i = 0; i < pairCount; ++i) {
+            final short[] path = pathsUnderConstruction[i];
+            if (path != null) {
+                System.arraycopy(path, 0, pathsBetweenChokePoints, pathOffsets[i], path.length);
             }
         }
+        pathCache = new CPPath[pairCount];
+        pathsUnderConstruction = null;
     }
 
     private boolean isValid(AreaId id) {
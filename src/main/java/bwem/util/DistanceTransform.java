@@ -0,0 +1,87 @@
+package bwem.util;
+
+/**
+ * Exact Euclidean distance transform over a grid, using the two-pass algorithm from
+ * Felzenszwalb and Huttenlocher, "Distance Transforms of Sampled Functions" (2012).
+ * <p>
+ * Runs in O(width * height), independently of the distances involved.
+ */
+public final class DistanceTransform {
+
+    private DistanceTransform() {
+    }
+
+    /**
+     * Returns, for each cell of a row-major width x height grid, the squared euclidean distance to the
+     * nearest cell for which sources is true.
+     * Every column must contain at least one source.
+     */
+    public static int[] squaredDistances(final boolean[] sources, final int width, final int height) {
+        if (sources.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " cells, got " + sources.length);
+        }
+        final int[] result = new int[width * height];
+
+        // 1) Distance to the nearest source in the same column
+        final int unreached = width + height;
+        for (int x = 0; x < width; ++x) {
+            int dist = unreached;
+            for (int y = 0; y < height; ++y) {
+                dist = sources[y * width + x] ? 0 : Math.min(dist + 1, unreached);
+                result[y * width + x] = dist;
+            }
+            dist = unreached;
+            for (int y = height - 1; y >= 0; --y) {
+                final int i = y * width + x;
+                dist = sources[i] ? 0 : Math.min(dist + 1, unreached);
+                if (dist < result[i]) {
+                    result[i] = dist;
+                }
+                if (result[i] == unreached) {
+                    throw new IllegalArgumentException("Column " + x + " contains no source");
+                }
+                result[i] *= result[i];
+            }
+        }
+
+        // 2) Lower envelope of the parabolas of each row
+        final int[] f = new int[width];
+        final int[] v = new int[width];
+        final double[] z = new double[width + 1];
+        for (int y = 0; y < height; ++y) {
+            final int row = y * width;
+            System.arraycopy(result, row, f, 0, width);
+
+            int k = 0;
+            v[0] = 0;
+            z[0] = Double.NEGATIVE_INFINITY;
+            z[1] = Double.POSITIVE_INFINITY;
+            for (int q = 1; q < width; ++q) {
+                double s = intersection(f, q, v[k]);
+                while (s <= z[k]) {
+                    --k;
+                    s = intersection(f, q, v[k]);
+                }
+                ++k;
+                v[k] = q;
+                z[k] = s;
+                z[k + 1] = Double.POSITIVE_INFINITY;
+            }
+
+            k = 0;
+            for (int q = 0; q < width; ++q) {
+                while (z[k + 1] < q) {
+                    ++k;
+                }
+                final int dx = q - v[k];
+                result[row + q] = dx * dx + f[v[k]];
+            }
+        }
+
+        return result;
+    }
+
+    private static double intersection(final int[] f, final int q, final int p) {
+        return ((f[q] + (double) q * q) - (f[p] + (double) p * p)) / (2.0 * q - 2.0 * p);
+    }
+}
@@ -0,0 +1,165 @@
+package bwem.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int elements in the range [0, capacity) with int priorities.
+ * <p>
+ * Every element can be queued at most once, its position in the heap is tracked so removing
+ * or re-prioritizing an element is O(log n) instead of the O(n) search of {@link java.util.PriorityQueue#remove(Object)}.
+ * Elements with equal priority are polled in the same order as a {@link java.util.PriorityQueue} would poll them,
+ * which keeps the results of BWEM's Dijkstra routines identical.
+ * <p>
+ * No allocation happens after construction, instances are meant to be cleared and reused.
+ */
+public final class IndexedIntHeap {
+    private final int[] heap;
+    private final int[] priorities;
+    private final int[] positions;
+    private int size;
+
+    public IndexedIntHeap(final int capacity) {
+        this.heap = new int[capacity];
+        this.priorities = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(final int element) {
+        return positions[element] >= 0;
+    }
+
+    /**
+     * Returns the priority of a queued element.
+     */
+    public int getPriority(final int element) {
+        return priorities[element];
+    }
+
+    /**
+     * Returns the i-th queued element in heap order, for iteration over 0 &lt;= i &lt; size().
+     */
+    public int get(final int i) {
+        return heap[i];
+    }
+
+    /**
+     * Queues an element which is not queued yet.
+     */
+    public void offer(final int element, final int priority) {
+        if (positions[element] >= 0) {
+            throw new IllegalStateException("Element " + element + " is already queued");
+        }
+        priorities[element] = priority;
+        siftUp(size++, element);
+    }
+
+    /**
+     * Returns the element with the lowest priority without removing it.
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes and returns the element with the lowest priority.
+     */
+    public int poll() {
+        final int result = peek();
+        positions[result] = -1;
+        final int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return result;
+    }
+
+    /**
+     * Removes an element, returns false if it was not queued.
+     */
+    public boolean remove(final int element) {
+        final int i = positions[element];
+        if (i < 0) {
+            return false;
+        }
+        positions[element] = -1;
+        final int s = --size;
+        if (s != i) {
+            final int moved = heap[s];
+            siftDown(i, moved);
+            if (heap[i] == moved) {
+                siftUp(i, moved);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Changes the priority of a queued element, with the same ordering as a remove followed by an offer.
+     */
+    public void update(final int element, final int priority) {
+        if (!remove(element)) {
+            throw new IllegalStateException("Element " + element + " is not queued");
+        }
+        offer(element, priority);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int k, final int element) {
+        final int priority = priorities[element];
+        while (k > 0) {
+            final int parent = (k - 1) >>> 1;
+            final int e = heap[parent];
+            if (priority >= priorities[e]) {
+                break;
+            }
+            heap[k] = e;
+            positions[e] = k;
+            k = parent;
+        }
+        heap[k] = element;
+        positions[element] = k;
+    }
+
+    private void siftDown(int k, final int element) {
+        final int priority = priorities[element];
+        final int half = size >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            int c = heap[child];
+            final int right = child + 1;
+            if (right < size && priorities[c] > priorities[heap[right]]) {
+                c = heap[child = right];
+            }
+            if (priority <= priorities[c]) {
+                break;
+            }
+            heap[k] = c;
+            positions[c] = k;
+            k = child;
+        }
+        heap[k] = element;
+        positions[element] = k;
+    }
+}
@@ -0,0 +1,194 @@
+package bwem.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Static 2d-tree over items with integer coordinates, for nearest, k-nearest and within-radius queries.
+ * <p>
+ * The tree is stored implicitly in arrays: the root of the range [lo, hi) is its middle element,
+ * split on x at even depths and on y at odd depths. Distances are euclidean.
+ */
+public final class KdTree<T> {
+    private final int[] xs;
+    private final int[] ys;
+    private final Object[] items;
+
+    public KdTree(final List<T> items, final ToIntFunction<T> x, final ToIntFunction<T> y) {
+        final int size = items.size();
+        this.xs = new int[size];
+        this.ys = new int[size];
+        this.items = new Object[size];
+        final Integer[] order = new Integer[size];
+        final int[] allX = new int[size];
+        final int[] allY = new int[size];
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+            allX[i] = x.applyAsInt(items.get(i));
+            allY[i] = y.applyAsInt(items.get(i));
+        }
+        build(order, 0, size, 0, allX, allY);
+        for (int i = 0; i < size; ++i) {
+            xs[i] = allX[order[i]];
+            ys[i] = allY[order[i]];
+            this.items[i] = items.get(order[i]);
+        }
+    }
+
+    private static void build(final Integer[] order, final int lo, final int hi, final int depth, final int[] allX, final int[] allY) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        final int[] key = depth % 2 == 0 ? allX : allY;
+        Arrays.sort(order, lo, hi, (a, b) -> Integer.compare(key[a], key[b]));
+        final int mid = (lo + hi) >>> 1;
+        build(order, lo, mid, depth + 1, allX, allY);
+        build(order, mid + 1, hi, depth + 1, allX, allY);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Returns the item nearest to (x, y), or null if the tree is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T nearest(final int x, final int y) {
+        if (items.length == 0) {
+            return null;
+        }
+        final long[] best = {Long.MAX_VALUE, -1};
+        nearest(0, items.length, 0, x, y, best);
+        return (T) items[(int) best[1]];
+    }
+
+    private void nearest(final int lo, final int hi, final int depth, final int x, final int y, final long[] best) {
+        if (lo >= hi) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        final long d = squaredDistance(mid, x, y);
+        if (d < best[0]) {
+            best[0] = d;
+            best[1] = mid;
+        }
+        final long diff = depth % 2 == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, x, y, best);
+            if (diff * diff < best[0]) {
+                nearest(mid + 1, hi, depth + 1, x, y, best);
+            }
+        } else {
+            nearest(mid + 1, hi, depth + 1, x, y, best);
+            if (diff * diff < best[0]) {
+                nearest(lo, mid, depth + 1, x, y, best);
+            }
+        }
+    }
+
+    /**
+     * Returns up to k items nearest to (x, y), nearest first.
+     */
+    public List<T> nearest(final int x, final int y, final int k) {
+        final List<T> result = new ArrayList<>(Math.min(k, items.length));
+        nearest(x, y, k, result);
+        return result;
+    }
+
+    /**
+     * Clears result and fills it with up to k items nearest to (x, y), nearest first.
+     */
+    @SuppressWarnings("unchecked")
+    public void nearest(final int x, final int y, final int k, final List<? super T> result) {
+        result.clear();
+        final int count = Math.min(k, items.length);
+        if (count <= 0) {
+            return;
+        }
+        final long[] distances = new long[count];
+        final int[] indices = new int[count];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        nearest(0, items.length, 0, x, y, distances, indices);
+        for (int i = 0; i < count; ++i) {
+            result.add((T) items[indices[i]]);
+        }
+    }
+
+    // distances/indices are kept sorted by ascending distance, the last one being the pruning bound
+    private void nearest(final int lo, final int hi, final int depth, final int x, final int y,
+                         final long[] distances, final int[] indices) {
+        if (lo >= hi) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        final long d = squaredDistance(mid, x, y);
+        final int last = distances.length - 1;
+        if (d < distances[last]) {
+            int i = last;
+            while (i > 0 && distances[i - 1] > d) {
+                distances[i] = distances[i - 1];
+                indices[i] = indices[i - 1];
+                --i;
+            }
+            distances[i] = d;
+            indices[i] = mid;
+        }
+        final long diff = depth % 2 == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, x, y, distances, indices);
+            if (diff * diff < distances[last]) {
+                nearest(mid + 1, hi, depth + 1, x, y, distances, indices);
+            }
+        } else {
+            nearest(mid + 1, hi, depth + 1, x, y, distances, indices);
+            if (diff * diff < distances[last]) {
+                nearest(lo, mid, depth + 1, x, y, distances, indices);
+            }
+        }
+    }
+
+    /**
+     * Returns all items within radius of (x, y), in no particular order.
+     */
+    public List<T> withinRadius(final int x, final int y, final int radius) {
+        final List<T> result = new ArrayList<>();
+        withinRadius(x, y, radius, result);
+        return result;
+    }
+
+    /**
+     * Clears result and fills it with all items within radius of (x, y), in no particular order.
+     */
+    public void withinRadius(final int x, final int y, final int radius, final List<? super T> result) {
+        result.clear();
+        withinRadius(0, items.length, 0, x, y, (long) radius * radius, result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void withinRadius(final int lo, final int hi, final int depth, final int x, final int y,
+                              final long squaredRadius, final List<? super T> result) {
+        if (lo >= hi) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        if (squaredDistance(mid, x, y) <= squaredRadius) {
+            result.add((T) items[mid]);
+        }
+        final long diff = depth % 2 == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff < 0 || diff * diff <= squaredRadius) {
+            withinRadius(lo, mid, depth + 1, x, y, squaredRadius, result);
+        }
+        if (diff >= 0 || diff * diff <= squaredRadius) {
+            withinRadius(mid + 1, hi, depth + 1, x, y, squaredRadius, result);
+        }
+    }
+
+    private long squaredDistance(final int i, final int x, final int y) {
+        final long dx = xs[i] - x;
+        final long dy = ys[i] - y;
+        return dx * dx + dy * dy;
+    }
+}
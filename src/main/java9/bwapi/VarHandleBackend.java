@@ -0,0 +1,59 @@
+package bwapi;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads and writes the shorts, ints, longs and doubles through VarHandle views of the buffer, in native order, with
+ * bounds checks. The bytes and the bulk copies are the ones of {@link WrappedBuffer.ByteBufferBackend}.
+ * <p>
+ * This class is compiled for Java 9 into META-INF/versions/9 of the multi-release jar, so
+ * {@link WrappedBuffer#wrap(ByteBuffer)} only finds it on Java 9 and later.
+ */
+final class VarHandleBackend extends WrappedBuffer.ByteBufferBackend {
+    private static final VarHandle SHORT = MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle DOUBLE = MethodHandles.byteBufferViewVarHandle(double[].class, ByteOrder.nativeOrder());
+
+    VarHandleBackend(final ByteBuffer buffer) {
+        super(buffer);
+    }
+
+    @Override
+    short getShort(final int offset) {
+        return (short) SHORT.get(buffer, offset);
+    }
+
+    @Override
+    void putShort(final int offset, final short value) {
+        SHORT.set(buffer, offset, value);
+    }
+
+    @Override
+    int getInt(final int offset) {
+        return (int) INT.get(buffer, offset);
+    }
+
+    @Override
+    void putInt(final int offset, final int value) {
+        INT.set(buffer, offset, value);
+    }
+
+    @Override
+    long getLong(final int offset) {
+        return (long) LONG.get(buffer, offset);
+    }
+
+    @Override
+    double getDouble(final int offset) {
+        return (double) DOUBLE.get(buffer, offset);
+    }
+
+    @Override
+    void putDouble(final int offset, final double value) {
+        DOUBLE.set(buffer, offset, value);
+    }
+}
@@ -8,8 +8,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -20,6 +23,15 @@ public class DumpToClient {
         "^\\s+(\\d+) \\| +((?:struct )?BWAPI[^:]*::)?(\\S[^\\[]+)\\s([\\[0-9\\]]+)?\\s?(\\S+)$");
     private static final Pattern SIZE_DECL = Pattern.compile(
         "^\\s+\\| \\[sizeof=(\\d+), align=\\d+.+");
+    // Flag grids which are also read 8 tiles at a time
+    private static final Set<String> WORD_READ_FLAGS = new HashSet<>(
+        Arrays.asList("isVisible", "isExplored", "hasCreep", "isOccupied"));
+    // Arrays which are also written from encoded bytes
+    private static final Set<String> BULK_WRITES = new HashSet<>(Arrays.asList("strings", "shapes"));
+    // Strings which are written by the client, all the others are interned when read
+    private static final Set<String> UNIQUE_STRINGS = Collections.singleton("strings");
+    // Structs which are too large to be copied as records
+    private static final Set<String> NO_RECORDS = Collections.singleton("GameData");
 
     public static void main(String[] args) throws IOException {
         Map<String, Struct> structs = new HashMap<>();
@@ -91,18 +103,33 @@ public class DumpToClient {
         try (PrintWriter out = new PrintWriter(sw)) {
             out.println("package bwapi;");
             out.println("import java.nio.ByteBuffer;");
+            out.println("import java.nio.ByteOrder;");
             out.println("final class ClientData {");
+            out.println("    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;");
             out.println("    final WrappedBuffer buffer;");
             out.println("    ClientData(final ByteBuffer buffer) {");
-            out.println("        this.buffer = new WrappedBuffer(buffer);");
+            out.println("        this.buffer = WrappedBuffer.wrap(buffer);");
             out.println("    }");
+            printRecordFunctions(out);
             structs.values().forEach(s -> {
                 out.printf("    class %s {\n", s.name);
                 out.printf("        static final int SIZE = %d;\n", s.size);
+                final boolean records = !NO_RECORDS.contains(s.name) && s.size % 4 == 0;
+                if (records) {
+                    printRecordConstants(out, s);
+                }
                 out.println("        private int myOffset;");
                 out.printf("        public %s(int myOffset) {\n", s.name);
                 out.println("          this.myOffset = myOffset;");
                 out.println("        }");
+                if (records) {
+                    out.println("        void readInts(int[] record, int recordOffset) {");
+                    out.println("            buffer.getInts(myOffset, record, recordOffset, INTS);");
+                    out.println("        }");
+                    out.println("        void writeInts(int[] record, int recordOffset) {");
+                    out.println("            buffer.putInts(myOffset, record, recordOffset, INTS);");
+                    out.println("        }");
+                }
                 s.variables.forEach(v -> {
                     out.print("        ");
                     switch (v.type) {
@@ -187,7 +214,7 @@ public class DumpToClient {
                             out.print("buffer.getInt(offset)");
                             break;
                         case CHAR:
-                            out.printf("buffer.getString(offset, %d)",
+                            out.printf(UNIQUE_STRINGS.contains(v.name) ? "buffer.getString(offset, %d)" : "buffer.getInternedString(offset, %d)",
                                 v.arraySizes.get(v.arraySizes.size() - 1));
                             break;
                         case ENUM:
@@ -209,6 +236,13 @@ public class DumpToClient {
                     out.println(";");
                     out.println("        }");
 
+                    if (WORD_READ_FLAGS.contains(v.name) && v.arraySizes.size() == 2) {
+                        out.printf("        long get%sBytes(%s) {\n", camelCaseName, paramString);
+                        out.printf("            int offset = %s;\n", offsetString);
+                        out.println("            return buffer.getLong(offset);");
+                        out.println("        }");
+                    }
+
                     if (v.type != Type.STRUCT && (v.type != Type.CHAR || !v.arraySizes.isEmpty())) {
                         if (paramString.isEmpty()) {
                             out.printf("        void set%s(", camelCaseName);
@@ -254,6 +288,12 @@ public class DumpToClient {
                         }
                         out.println("        }");
                     }
+
+                    if (BULK_WRITES.contains(v.name)) {
+                        out.printf("        void set%sBytes(%s, byte[] value, int valueOffset, int length) {\n", camelCaseName, paramString);
+                        out.printf("            buffer.putBytes(%s, value, valueOffset, length);\n", offsetString);
+                        out.println("        }");
+                    }
                 });
                 out.println("    }");
             });
@@ -264,6 +304,65 @@ public class DumpToClient {
             StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE);
     }
 
+    /**
+     * Prints the index in a record of the int holding each field, or for a boolean its byte offset.
+     */
+    private static void printRecordConstants(PrintWriter out, Struct s) {
+        out.printf("        static final int INTS = %d;\n", s.size / 4);
+        s.variables.forEach(v -> {
+            String constantName = v.name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+            switch (v.type) {
+                case INT:
+                case UNSIGNED_INT:
+                case ENUM:
+                case DOUBLE:
+                    if (v.offset % 4 == 0) {
+                        out.printf("        static final int %s_INDEX = %d;\n", constantName, v.offset / 4);
+                    }
+                    break;
+                case BOOLEAN:
+                    if (v.arraySizes.isEmpty()) {
+                        out.printf("        static final int %s_BYTE = %d;\n", constantName, v.offset);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        });
+    }
+
+    /**
+     * Prints the functions which decode the fields of records and encode the difference between two records.
+     */
+    private static void printRecordFunctions(PrintWriter out) {
+        out.println("    static boolean getRecordBoolean(int[] record, int recordOffset, int byteOffset) {");
+        out.println("        return (record[recordOffset + (byteOffset >> 2)] & recordByteMask(byteOffset)) != 0;");
+        out.println("    }");
+        out.println("    static int recordByteMask(int byteOffset) {");
+        out.println("        return 0xff << (LITTLE_ENDIAN ? (byteOffset & 3) * 8 : (3 - (byteOffset & 3)) * 8);");
+        out.println("    }");
+        out.println("    static double getRecordDouble(int[] record, int recordOffset, int index) {");
+        out.println("        long low = record[recordOffset + index] & 0xffffffffL;");
+        out.println("        long high = record[recordOffset + index + 1] & 0xffffffffL;");
+        out.println("        return Double.longBitsToDouble(LITTLE_ENDIAN ? high << 32 | low : low << 32 | high);");
+        out.println("    }");
+        out.println("    static int encodeRecordDelta(int[] previous, int[] current, int recordOffset, int ints, int[] delta) {");
+        out.println("        int length = 0;");
+        out.println("        for (int i = 0; i < ints; i++) {");
+        out.println("            if (previous[recordOffset + i] != current[recordOffset + i]) {");
+        out.println("                delta[length++] = i;");
+        out.println("                delta[length++] = current[recordOffset + i];");
+        out.println("            }");
+        out.println("        }");
+        out.println("        return length;");
+        out.println("    }");
+        out.println("    static void applyRecordDelta(int[] record, int recordOffset, int[] delta, int deltaOffset, int length) {");
+        out.println("        for (int i = deltaOffset; i < deltaOffset + length; i += 2) {");
+        out.println("            record[recordOffset + delta[i]] = delta[i + 1];");
+        out.println("        }");
+        out.println("    }");
+    }
+
     public enum Type {
         STRUCT,
         BOOLEAN,
@@ -1,19 +1,20 @@
 package bwapi;
 
+import bwem.AltitudeComputation;
 import bwem.BWEM;
 import bwem.BWMap;
+import bwem.MiniTile;
+import bwem.Neutral;
 import org.junit.Test;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.zip.InflaterOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class BWEMTest {
     static class BWEMMap{
@@ -57,33 +58,80 @@ public class BWEMTest {
     }
 
 
-    Game initGame(String mapName) throws IOException {
-        String location = "src/test/resources/" + mapName + "_frame0_buffer.bin";
-
-        // load bytebuffer
-        byte[] compressedBytes = Files.readAllBytes(Paths.get(location));
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        InflaterOutputStream zin = new InflaterOutputStream(out);
-        zin.write(compressedBytes);
-        zin.flush();
-        zin.close();
-        byte[] bytes = out.toByteArray();
-        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
-        buffer.put(bytes);
-
-        Client client = new Client(buffer);
-        Game game = new Game(client);
-        game.init();
-        return game;
-    }
-
     @Test
     public void checkSSCAITMaps() throws IOException {
         for (String mapName : mapData.keySet()) {
-            Game game = initGame(mapName);
+            Game game = GameFixture.initGame(mapName);
             BWEM bwem = new BWEM(game);
             bwem.initialize();
             assertEquals(new BWEMMap(bwem.getMap()), mapData.get(mapName));
         }
     }
+
+    @Test
+    public void nearestAreasFollowDestroyedBlockingNeutrals() throws IOException {
+        int destroyed = 0;
+        for (String mapName : mapData.keySet()) {
+            BWEM bwem = new BWEM(GameFixture.initGame(mapName));
+            bwem.initialize();
+            BWMap map = bwem.getMap();
+            List<Neutral> neutrals = new ArrayList<>(map.getNeutralData().getMinerals());
+            neutrals.addAll(map.getNeutralData().getStaticBuildings());
+            Neutral blocking = neutrals.stream().filter(Neutral::isBlocking).findFirst().orElse(null);
+            if (blocking == null) {
+                continue;
+            }
+
+            // The tiles around the neutral, whose nearest areas are found before it is destroyed
+            TilePosition size = map.getData().getMapData().getTileSize();
+            TilePosition from = blocking.getTopLeft().subtract(new TilePosition(8, 8));
+            TilePosition to = blocking.getBottomRight().add(new TilePosition(8, 8));
+            List<TilePosition> tiles = new ArrayList<>();
+            for (int y = Math.max(from.getY(), 0); y <= Math.min(to.getY(), size.getY() - 1); y++) {
+                for (int x = Math.max(from.getX(), 0); x <= Math.min(to.getX(), size.getX() - 1); x++) {
+                    tiles.add(new TilePosition(x, y));
+                }
+            }
+            tiles.forEach(t -> {
+                map.getNearestArea(t);
+                map.getNearestArea(t.toWalkPosition());
+            });
+
+            map.onUnitDestroyed(blocking.getUnit());
+            ++destroyed;
+            for (TilePosition t : tiles) {
+                TilePosition nearestTile = map.breadthFirstSearch(t, (tile, p) -> tile.getAreaId().intValue() > 0, (tile, p) -> true);
+                assertEquals(mapName + " " + t, map.getArea(nearestTile), map.getNearestArea(t));
+                WalkPosition w = t.toWalkPosition();
+                WalkPosition nearestMiniTile = map.breadthFirstSearch(w, (miniTile, p) -> miniTile.getAreaId().intValue() > 0, (miniTile, p) -> true);
+                assertEquals(mapName + " " + w, map.getArea(nearestMiniTile), map.getNearestArea(w));
+            }
+        }
+        assertTrue(destroyed > 0);
+    }
+
+    @Test
+    public void distanceTransformAltitudesMatchDijkstra() throws IOException {
+        for (String mapName : mapData.keySet()) {
+            BWEM dijkstra = new BWEM(GameFixture.initGame(mapName));
+            dijkstra.setAltitudeComputation(AltitudeComputation.DIJKSTRA);
+            dijkstra.initialize();
+            BWEM distanceTransform = new BWEM(GameFixture.initGame(mapName));
+            distanceTransform.setAltitudeComputation(AltitudeComputation.DISTANCE_TRANSFORM);
+            distanceTransform.initialize();
+
+            WalkPosition size = dijkstra.getMap().getData().getMapData().getWalkSize();
+            int differences = 0;
+            for (int y = 0; y < size.getY(); y++) {
+                for (int x = 0; x < size.getX(); x++) {
+                    MiniTile expected = dijkstra.getMap().getData().getMiniTile(new WalkPosition(x, y));
+                    MiniTile actual = distanceTransform.getMap().getData().getMiniTile(new WalkPosition(x, y));
+                    int delta = expected.getAltitude().intValue() - actual.getAltitude().intValue();
+                    assertTrue(mapName + " at " + x + "," + y, delta == 0 || delta == 1);
+                    differences += delta;
+                }
+            }
+            assertTrue(mapName + ": " + differences, differences * 1000 < size.getX() * size.getY());
+        }
+    }
 }
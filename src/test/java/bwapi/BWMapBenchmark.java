@@ -0,0 +1,57 @@
+package bwapi;
+
+import bwem.BWEM;
+import bwem.BWMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BWMapBenchmark {
+    private static final int QUERIES = 1024;
+
+    @State(Scope.Benchmark)
+    public static class MapState {
+        @Param({"(2)Benzene.scx", "(4)Fighting Spirit.scx", "(4)Python.scx"})
+        String mapName;
+
+        BWMap map;
+        Position[] from = new Position[QUERIES];
+        Position[] to = new Position[QUERIES];
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            Game game = GameFixture.initGame(mapName);
+            BWEM bwem = new BWEM(game);
+            bwem.initialize();
+            map = bwem.getMap();
+
+            SplittableRandom rnd = new SplittableRandom(123456789L);
+            Position size = map.getData().getMapData().getPixelSize();
+            for (int i = 0; i < QUERIES; i++) {
+                from[i] = new Position(rnd.nextInt(size.getX()), rnd.nextInt(size.getY()));
+                to[i] = new Position(rnd.nextInt(size.getX()), rnd.nextInt(size.getY()));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void getPath(MapState s, Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(s.map.getPath(s.from[i], s.to[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void getPathLength(MapState s, Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(s.map.getPathLength(s.from[i], s.to[i]));
+        }
+    }
+}
@@ -44,6 +44,42 @@ public class ClientDataBenchmark {
         }
     }
 
+    @State(Scope.Thread)
+    public static class FilledWithShortStrings {
+        Client client;
+        ClientData.GameData data;
+        String[] strings;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            client = new Client(ByteBuffer.allocateDirect(ClientData.GameData.SIZE));
+            data = client.gameData();
+            strings = buildShortStrings();
+            for (String s : strings) {
+                client.addString(s);
+            }
+            for (int i = 0; i < EVENT_STRINGS; i++) {
+                data.setEventStrings(i, strings[i % 8]);
+            }
+            data.setShapeCount(0);
+            data.setStringCount(0);
+        }
+    }
+
+    static final int EVENT_STRINGS = 1000;
+
+    // Chat messages and labels, most of them repeated
+    private static String[] buildShortStrings() {
+        SplittableRandom rnd = new SplittableRandom(987654321L);
+        String[] strings = new String[Client.MAX_COUNT];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = rnd.ints(rnd.nextInt(4, 24), 'a', 'z' + 1)
+                    .mapToObj(c -> String.valueOf((char) c))
+                    .collect(Collectors.joining());
+        }
+        return strings;
+    }
+
     private static String[] buildStrings() {
         SplittableRandom rnd = new SplittableRandom(987654321L);
         String[] strings = new String[Client.MAX_COUNT];
@@ -88,4 +124,29 @@ public class ClientDataBenchmark {
             blackhole.consume(s.data.getStrings(i));
         }
     }
+
+    @Benchmark
+    @OperationsPerInvocation(Client.MAX_COUNT)
+    public int addShortString(FilledWithShortStrings s) {
+        for (int i = 0; i < Client.MAX_COUNT; i++) {
+            s.client.addString(s.strings[i]);
+        }
+        return s.client.gameData().getStringCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Client.MAX_COUNT)
+    public void getShortString(FilledWithShortStrings s, Blackhole blackhole) {
+        for (int i = 0; i < Client.MAX_COUNT; i++) {
+            blackhole.consume(s.data.getStrings(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENT_STRINGS)
+    public void getEventString(FilledWithShortStrings s, Blackhole blackhole) {
+        for (int i = 0; i < EVENT_STRINGS; i++) {
+            blackhole.consume(s.data.getEventStrings(i));
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package bwapi;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClientDataTest {
+    private final ClientData.GameData gameData = new ClientData(ByteBuffer.allocateDirect(ClientData.GameData.SIZE)).new GameData(0);
+
+    @Test
+    public void recordsHoldTheFieldsOfTheStruct() {
+        final ClientData.UnitData unitData = gameData.getUnits(3);
+        unitData.setPositionX(1234);
+        unitData.setHitPoints(45);
+        unitData.setVelocityX(-2.5);
+        unitData.setIsCompleted(true);
+        unitData.setIsIdle(false);
+        unitData.setTrainingQueue(2, UnitType.Terran_Marine.id);
+
+        final int[] record = new int[ClientData.UnitData.INTS + 1];
+        unitData.readInts(record, 1);
+
+        assertEquals(1234, record[1 + ClientData.UnitData.POSITION_X_INDEX]);
+        assertEquals(45, record[1 + ClientData.UnitData.HIT_POINTS_INDEX]);
+        assertEquals(-2.5, ClientData.getRecordDouble(record, 1, ClientData.UnitData.VELOCITY_X_INDEX), 0);
+        assertTrue(ClientData.getRecordBoolean(record, 1, ClientData.UnitData.IS_COMPLETED_BYTE));
+        assertFalse(ClientData.getRecordBoolean(record, 1, ClientData.UnitData.IS_IDLE_BYTE));
+        assertEquals(UnitType.Terran_Marine.id, record[1 + ClientData.UnitData.TRAINING_QUEUE_INDEX + 2]);
+
+        final ClientData.UnitData copy = gameData.getUnits(4);
+        copy.writeInts(record, 1);
+        assertEquals(1234, copy.getPositionX());
+        assertEquals(-2.5, copy.getVelocityX(), 0);
+        assertTrue(copy.isCompleted());
+    }
+
+    @Test
+    public void deltaTurnsOneRecordIntoAnother() {
+        final ClientData.UnitData unitData = gameData.getUnits(0);
+        final int[] previous = new int[ClientData.UnitData.INTS];
+        unitData.readInts(previous, 0);
+        unitData.setPositionY(800);
+        unitData.setOrder(Order.Move.id);
+        final int[] current = new int[ClientData.UnitData.INTS];
+        unitData.readInts(current, 0);
+
+        final int[] delta = new int[2 * ClientData.UnitData.INTS];
+        final int length = ClientData.encodeRecordDelta(previous, current, 0, ClientData.UnitData.INTS, delta);
+        assertEquals(4, length);
+
+        ClientData.applyRecordDelta(previous, 0, delta, 0, length);
+        assertArrayEquals(current, previous);
+    }
+}
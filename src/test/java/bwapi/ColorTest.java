@@ -0,0 +1,56 @@
+package bwapi;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ColorTest {
+    // Searches the whole palette, as the table of Color was filled before it was computed lazily. The reserved
+    // entries are black, so they never beat the black of index 0.
+    private static int closestPaletteColor(final int red, final int green, final int blue) {
+        int minDistance = 3 * 256 * 256;
+        int bestId = 0;
+        for (int id = 0; id < 255; ++id) {
+            final Color color = new Color(id);
+            final int r = red - color.red();
+            final int g = green - color.green();
+            final int b = blue - color.blue();
+            final int distance = r * r + g * g + b * b;
+            if (distance < minDistance) {
+                minDistance = distance;
+                bestId = id;
+            }
+        }
+        return bestId;
+    }
+
+    @Test
+    public void rgbConstructorPicksClosestPaletteColor() {
+        assertEquals(0, new Color(0, 0, 0).id);
+        assertEquals(16, new Color(24, 36, 44).id);
+        assertEquals(16, new Color(25, 37, 45).id);
+    }
+
+    @Test
+    public void rgbConstructorMatchesPaletteSearch() {
+        int highIds = 0;
+        // Includes 0 and 255, so the corners of the cube, far from any palette color, are covered
+        for (int red = 0; red < 256; red += 15) {
+            for (int green = 0; green < 256; green += 15) {
+                for (int blue = 0; blue < 256; blue += 15) {
+                    // The table has one cell for each of the 6 high bits of the components
+                    final int expected = closestPaletteColor(red & ~3, green & ~3, blue & ~3);
+                    final String rgb = red + "," + green + "," + blue;
+                    assertEquals(rgb, expected, new Color(red, green, blue).id);
+                    // Once the cell is computed
+                    assertEquals(rgb, expected, new Color(red | 3, green | 3, blue | 3).id);
+                    if (expected >= 128) {
+                        ++highIds;
+                    }
+                }
+            }
+        }
+        assertTrue(highIds > 0);
+    }
+}
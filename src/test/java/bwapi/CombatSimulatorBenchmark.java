@@ -0,0 +1,38 @@
+package bwapi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class CombatSimulatorBenchmark {
+    private static final UnitType[] ARMY1 = {UnitType.Terran_Marine, UnitType.Terran_Marine, UnitType.Terran_Firebat,
+            UnitType.Terran_Siege_Tank_Siege_Mode, UnitType.Terran_Wraith};
+    private static final UnitType[] ARMY2 = {UnitType.Zerg_Zergling, UnitType.Zerg_Hydralisk, UnitType.Zerg_Hydralisk,
+            UnitType.Zerg_Mutalisk, UnitType.Zerg_Ultralisk};
+
+    @Param({"10", "50", "100"})
+    int unitsPerSide;
+
+    private final CombatSimulator simulator = new CombatSimulator();
+
+    @Setup(Level.Invocation)
+    public void addUnits() {
+        simulator.clear();
+        for (int i = 0; i < unitsPerSide; ++i) {
+            final int y = 100 + (i / 10) * 24;
+            simulator.getArmy1().add(ARMY1[i % ARMY1.length], null, 100 + (i % 10) * 24, y);
+            simulator.getArmy2().add(ARMY2[i % ARMY2.length], null, 700 + (i % 10) * 24, y);
+        }
+    }
+
+    @Benchmark
+    public int simulate() {
+        return simulator.simulate(24 * 60) + simulator.getArmy1().getValueLost();
+    }
+}
@@ -0,0 +1,117 @@
+package bwapi;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CombatSimulatorTest {
+    private final CombatSimulator simulator = new CombatSimulator();
+
+    private static void addLine(final CombatSimulator.Army army, final UnitType type, final int count, final int x) {
+        for (int i = 0; i < count; ++i) {
+            army.add(type, null, x, 100 + i * 20);
+        }
+    }
+
+    @Test
+    public void largerArmyWins() {
+        addLine(simulator.getArmy1(), UnitType.Terran_Marine, 12, 100);
+        addLine(simulator.getArmy2(), UnitType.Terran_Marine, 6, 300);
+
+        final int frames = simulator.simulate(24 * 60);
+
+        assertThat(frames).isLessThan(24 * 60);
+        assertEquals(0, simulator.getArmy2().size());
+        assertEquals(6 * 50, simulator.getArmy2().getValueLost());
+        assertThat(simulator.getArmy1().size()).isBetween(1, 12);
+        assertEquals(12 * 50, simulator.getArmy1().getInitialValue());
+        assertEquals(simulator.getArmy1().size() * 50, simulator.getArmy1().getValue());
+    }
+
+    @Test
+    public void shieldsAreDamagedBeforeHitPoints() {
+        simulator.getArmy1().add(UnitType.Terran_Marine, null, 100, 100);
+        simulator.getArmy2().add(UnitType.Protoss_Zealot, null, 100, 50, 100 + 4 * 32, 100);
+
+        // The Zealot is out of reach for one frame, the Marine fires immediately
+        assertEquals(1, simulator.simulate(1));
+
+        final CombatSimulator.Army army2 = simulator.getArmy2();
+        assertEquals(100, army2.getHitPoints(0));
+        assertEquals(50 - 6, army2.getShields(0));
+        assertThat(army2.getX(0)).isLessThan(100 + 4 * 32);
+    }
+
+    @Test
+    public void armorAndSizeApplyToHitPoints() {
+        // Vulture grenades are concussive: full damage minus armor to small units, a quarter to large ones
+        simulator.getArmy1().add(UnitType.Terran_Vulture, null, 100, 100);
+        simulator.getArmy1().add(UnitType.Terran_Vulture, null, 100, 300);
+        simulator.getArmy2().add(UnitType.Terran_Firebat, null, 100 + 64, 100);
+        simulator.getArmy2().add(UnitType.Terran_Goliath, null, 100 + 64, 300);
+
+        simulator.simulate(1);
+
+        final int damage = WeaponType.Fragmentation_Grenade.damageAmount();
+        assertEquals(UnitType.Terran_Firebat.maxHitPoints() - (damage - UnitType.Terran_Firebat.armor()),
+                simulator.getArmy2().getHitPoints(0));
+        assertEquals(UnitType.Terran_Goliath.maxHitPoints() - (damage - UnitType.Terran_Goliath.armor()) / 4,
+                simulator.getArmy2().getHitPoints(1));
+    }
+
+    @Test
+    public void groundUnitsCannotAttackFlyers() {
+        addLine(simulator.getArmy1(), UnitType.Protoss_Zealot, 5, 100);
+        addLine(simulator.getArmy2(), UnitType.Zerg_Mutalisk, 3, 200);
+
+        simulator.simulate(24 * 120);
+
+        assertEquals(0, simulator.getArmy1().size());
+        assertEquals(3, simulator.getArmy2().size());
+        assertEquals(0, simulator.getArmy2().getValueLost());
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(UnitType.Zerg_Mutalisk.maxHitPoints(), simulator.getArmy2().getHitPoints(i));
+        }
+    }
+
+    @Test
+    public void armiesGrowAndAreReusable() {
+        addLine(simulator.getArmy1(), UnitType.Zerg_Zergling, 40, 100);
+        addLine(simulator.getArmy2(), UnitType.Zerg_Zergling, 40, 100 + 20);
+        assertEquals(40, simulator.getArmy1().size());
+        assertEquals(40 * 25, simulator.getArmy1().getInitialValue());
+
+        simulator.simulate(24 * 60);
+        simulator.clear();
+
+        assertEquals(0, simulator.getArmy1().size());
+        assertEquals(0, simulator.getArmy2().getInitialValue());
+        simulator.getArmy1().add(UnitType.Terran_Marine, null, 0, 0);
+        assertEquals(UnitType.Terran_Marine, simulator.getArmy1().getType(0));
+        assertNull(simulator.getArmy1().getUnit(0));
+    }
+
+    @Test
+    public void addsLiveUnits() throws IOException {
+        final Game game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        final List<Unit> units = game.self().getUnits();
+        for (final Unit unit : units) {
+            simulator.getArmy1().add(unit);
+        }
+
+        assertEquals(units.size(), simulator.getArmy1().size());
+        for (int i = 0; i < units.size(); ++i) {
+            final Unit unit = units.get(i);
+            assertSame(unit, simulator.getArmy1().getUnit(i));
+            assertEquals(unit.getType(), simulator.getArmy1().getType(i));
+            assertEquals(unit.getHitPoints(), simulator.getArmy1().getHitPoints(i));
+            assertEquals(unit.getPosition().x, simulator.getArmy1().getX(i));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CommandValidationTest {
+    private Game game;
+    private ClientData.GameData gameData;
+    private Unit scv;
+    private Unit commandCenter;
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        gameData = game.getClient().gameData();
+        scv = game.getAllUnits().stream().filter(u -> u.getType() == UnitType.Terran_SCV && game.self().equals(u.getPlayer())).findFirst().get();
+        commandCenter = game.getAllUnits().stream().filter(u -> u.getType() == UnitType.Terran_Command_Center && game.self().equals(u.getPlayer())).findFirst().get();
+    }
+
+    @Test
+    public void validatesCommandsInBatch() {
+        final Position target = new Position(100, 100);
+        final List<UnitCommand> commands = Arrays.asList(
+                UnitCommand.move(scv, target),
+                UnitCommand.stop(scv),
+                UnitCommand.move(commandCenter, target),
+                UnitCommand.train(commandCenter, UnitType.Terran_SCV),
+                UnitCommand.train(commandCenter, UnitType.Terran_Marine));
+        final boolean[] expected = new boolean[commands.size()];
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = commands.get(i).getUnit().canIssueCommand(commands.get(i));
+        }
+        assertArrayEquals(new boolean[]{true, true, false, true, false}, expected);
+        assertArrayEquals(expected, game.canIssueCommands(commands));
+    }
+
+    @Test
+    public void cachedResultsFollowTheFrame() {
+        assertTrue(scv.canCommand());
+        assertTrue(scv.canIssueCommandType(UnitCommandType.Move));
+
+        // Cached until the next frame
+        gameData.getUnits(scv.getID()).setLockdownTimer(100);
+        assertTrue(scv.canCommand());
+
+        gameData.setFrameCount(game.getFrameCount() + 1);
+        assertFalse(scv.canCommand());
+        assertFalse(scv.canIssueCommandType(UnitCommandType.Move));
+        assertTrue(scv.canIssueCommandType(UnitCommandType.Move, false));
+
+        gameData.getUnits(scv.getID()).setLockdownTimer(0);
+        scv.resetCommandCache();
+        assertTrue(scv.canCommand());
+    }
+}
@@ -0,0 +1,61 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class DamageMatrixTest {
+    private Game game;
+    private Player self;
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        self = game.self();
+    }
+
+    @Test
+    public void matrixMatchesComputedDamage() {
+        final Player[] players = {null, self, game.enemy()};
+        for (final Player fromPlayer : players) {
+            for (final Player toPlayer : players) {
+                final DamageMatrix matrix = game.getDamageMatrix(fromPlayer, toPlayer);
+                for (final UnitType fromType : UnitType.values()) {
+                    for (final UnitType toType : UnitType.values()) {
+                        assertEquals(
+                                DamageMatrix.computeDamage(fromType, toType, fromPlayer, toPlayer),
+                                matrix.getDamage(fromType, toType));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void upgradesAreAppliedOnTheNextFrame() {
+        final ClientData.GameData gameData = game.getClient().gameData();
+        final ClientData.PlayerData playerData = gameData.getPlayers(self.getID());
+        final int frame = game.getFrameCount();
+
+        assertEquals(6, game.getDamageMatrix(self, self).getDamage(UnitType.Terran_Marine, UnitType.Terran_Marine));
+        assertEquals(4 * 32, game.getWeaponMaxRange(UnitType.Terran_Marine, UnitType.Terran_Marine, self));
+
+        playerData.setUpgradeLevel(UpgradeType.Terran_Infantry_Weapons.id, 1);
+        playerData.setUpgradeLevel(UpgradeType.U_238_Shells.id, 1);
+        gameData.setFrameCount(frame + 1);
+
+        assertEquals(7, game.getDamageMatrix(self, self).getDamage(UnitType.Terran_Marine, UnitType.Terran_Marine));
+        assertEquals(7, game.getDamageFrom(UnitType.Terran_Marine, UnitType.Terran_Marine, self, self));
+        assertEquals(5 * 32, game.getWeaponMaxRange(UnitType.Terran_Marine, UnitType.Terran_Marine, self));
+        assertEquals(6, game.getDamageFrom(UnitType.Terran_Marine, UnitType.Terran_Marine));
+
+        playerData.setUpgradeLevel(UpgradeType.Terran_Infantry_Armor.id, 1);
+        gameData.setFrameCount(frame + 2);
+
+        assertEquals(6, game.getDamageMatrix(self, self).getDamage(UnitType.Terran_Marine, UnitType.Terran_Marine));
+        assertEquals(1, self.armor(UnitType.Terran_Marine));
+    }
+}
@@ -0,0 +1,108 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class DrawingLayerTest {
+    private Game game;
+    private ClientData.GameData gameData;
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        gameData = game.getClient().gameData();
+        gameData.setScreenX(0);
+        gameData.setScreenY(0);
+        clearShapes();
+    }
+
+    private void clearShapes() {
+        gameData.setShapeCount(0);
+        gameData.setStringCount(0);
+    }
+
+    private List<String> drawnShapes() {
+        final List<String> result = new ArrayList<>();
+        for (int i = 0; i < gameData.getShapeCount(); ++i) {
+            final ClientData.Shape shape = gameData.getShapes(i);
+            final String text = shape.getType() == ShapeType.Text ? gameData.getStrings(shape.getExtra1()) : "";
+            result.add(shape.getType() + " " + shape.getCtype() + " " + shape.getX1() + " " + shape.getY1() + " " +
+                    shape.getX2() + " " + shape.getY2() + " " + shape.getExtra1() + " " + shape.getExtra2() + " " +
+                    shape.getColor() + " " + shape.isSolid() + " " + text);
+        }
+        return result;
+    }
+
+    @Test
+    public void drawsTheSameShapesAsTheGame() {
+        final Position a = new Position(100, 120);
+        final Position b = new Position(300, 200);
+        game.drawLineMap(a, b, Color.Red);
+        game.drawBoxMap(a, b, Color.Green, true);
+        game.drawTextMap(a, "Choke");
+        game.drawCircleMap(b, 40, Color.Blue);
+        game.drawTextScreen(10, 10, "Status");
+        game.drawDotMap(a, Color.White);
+        final List<String> expected = drawnShapes();
+
+        clearShapes();
+        final DrawingLayer layer = new DrawingLayer();
+        layer.drawLineMap(a, b, Color.Red);
+        layer.drawBoxMap(a, b, Color.Green, true);
+        layer.drawTextMap(a, "Choke");
+        layer.drawCircleMap(b, 40, Color.Blue);
+        layer.drawTextScreen(10, 10, "Status");
+        layer.drawDotMap(a, Color.White);
+        assertEquals(6, game.draw(layer));
+        assertEquals(expected, drawnShapes());
+
+        // Drawn again in the next frame
+        clearShapes();
+        assertEquals(6, game.draw(layer));
+        assertEquals(expected, drawnShapes());
+    }
+
+    @Test
+    public void skipsShapesOutsideOfTheScreen() {
+        final DrawingLayer layer = new DrawingLayer();
+        layer.drawBoxMap(new Position(2000, 2000), new Position(2100, 2100), Color.Red);
+        layer.drawCircleMap(new Position(700, 300), 80, Color.Red);
+        layer.drawTextMap(new Position(3000, 100), "Far");
+        layer.drawTextScreen(10, 10, "Status");
+        layer.drawLineMap(new Position(100, 100), new Position(200, 100), Color.Red);
+
+        assertEquals(3, game.draw(layer));
+        assertEquals(1, gameData.getStringCount());
+        assertEquals("Status", gameData.getStrings(gameData.getShapes(1).getExtra1()));
+        assertEquals(ShapeType.Line, gameData.getShapes(2).getType());
+
+        clearShapes();
+        gameData.setScreenX(1900);
+        gameData.setScreenY(1900);
+        assertEquals(2, game.draw(layer));
+        assertEquals(ShapeType.Box, gameData.getShapes(0).getType());
+
+        clearShapes();
+        layer.setCulling(false);
+        assertEquals(5, game.draw(layer));
+    }
+
+    @Test
+    public void stopsWhenTheShapesAreFull() {
+        final DrawingLayer layer = new DrawingLayer();
+        for (int i = 0; i < 3; ++i) {
+            layer.drawDot(CoordinateType.Screen, i, i, Color.Red);
+        }
+        gameData.setShapeCount(Client.MAX_COUNT - 2);
+
+        assertEquals(2, game.draw(layer));
+        assertEquals(Client.MAX_COUNT, gameData.getShapeCount());
+        assertEquals(1, gameData.getShapes(Client.MAX_COUNT - 1).getX1());
+    }
+}
@@ -0,0 +1,75 @@
+package bwapi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+
+/**
+ * Measures the whole loop of {@link BWClient} connected to a {@link FakeServer}: the pipe handshake, the events,
+ * the updates of {@link Game}, and the commands and shapes of the bot, in frames per second.
+ */
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class EndToEndBenchmark {
+    private static final int FRAMES = 1000;
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+        /**
+         * idle: the bot does nothing, busy: the bot moves its workers and draws every frame.
+         */
+        @Param({"idle", "busy"})
+        String bot;
+        FakeServer server;
+        BWClient client;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            server = FakeServer.fromDump("(4)Fighting Spirit.scx", FRAMES);
+            client = new BWClient(bot.equals("busy") ? new BusyBot(this) : new DefaultBWListener(), server);
+        }
+
+        @Setup(Level.Invocation)
+        public void start() throws IOException {
+            server.start();
+        }
+
+        @TearDown(Level.Invocation)
+        public void join() throws IOException {
+            server.join();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            server.close();
+        }
+    }
+
+    static class BusyBot extends DefaultBWListener {
+        private final ServerState state;
+
+        BusyBot(final ServerState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void onFrame() {
+            final Game game = state.client.getGame();
+            final int frame = game.getFrameCount();
+            game.drawTextScreen(10, 10, "Frame " + frame);
+            for (final Unit unit : game.self().getUnits()) {
+                game.drawBoxMap(unit.getLeft(), unit.getTop(), unit.getRight(), unit.getBottom(), Color.Green);
+                if (unit.getType().isWorker()) {
+                    unit.move(new Position(100 + frame % 64, 100));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void playGame(ServerState s) {
+        s.client.startGame();
+    }
+}
@@ -0,0 +1,130 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class EventBusTest {
+    private EventBus bus;
+    private Player self;
+    private Player enemy;
+    private Unit marine;
+    private Unit barracks;
+    private Unit zergling;
+
+    private static Player player(final int id) {
+        final Player player = mock(Player.class);
+        when(player.getID()).thenReturn(id);
+        return player;
+    }
+
+    private static Unit unit(final Player player, final UnitType type) {
+        final Unit unit = mock(Unit.class);
+        when(unit.getPlayer()).thenReturn(player);
+        when(unit.getType()).thenReturn(type);
+        return unit;
+    }
+
+    @Before
+    public void setup() {
+        bus = new EventBus();
+        self = player(0);
+        enemy = player(1);
+        marine = unit(self, UnitType.Terran_Marine);
+        barracks = unit(self, UnitType.Terran_Barracks);
+        zergling = unit(enemy, UnitType.Zerg_Zergling);
+    }
+
+    @Test
+    public void forwardsEventsToModulesAndMatchingListeners() {
+        final BWEventListener module = mock(BWEventListener.class);
+        final List<Unit> created = new ArrayList<>();
+        final List<Unit> ownBuildings = new ArrayList<>();
+        bus.subscribe(module);
+        bus.subscribe(EventType.UnitCreate, (type, unit) -> created.add(unit));
+        bus.subscribe(EventType.UnitCreate, player(0), UnitFilter.IsBuilding, (type, unit) -> ownBuildings.add(unit));
+
+        bus.onUnitCreate(marine);
+        bus.onUnitCreate(barracks);
+        bus.onUnitCreate(zergling);
+        bus.onUnitDestroy(barracks);
+        bus.onFrame();
+
+        verify(module).onUnitCreate(marine);
+        verify(module).onUnitCreate(barracks);
+        verify(module).onUnitCreate(zergling);
+        verify(module).onUnitDestroy(barracks);
+        verify(module).onFrame();
+        assertEquals(Arrays.asList(marine, barracks, zergling), created);
+        assertEquals(Arrays.asList(barracks), ownBuildings);
+    }
+
+    @Test
+    public void deliversBatchesBeforeTheFrame() {
+        final List<String> calls = new ArrayList<>();
+        bus.subscribe(new DefaultBWListener() {
+            @Override
+            public void onFrame() {
+                calls.add("frame");
+            }
+        });
+        bus.subscribeBatch(EventType.UnitDestroy, enemy, null, (type, units, count) ->
+                calls.add(type + " " + Arrays.asList(units).subList(0, count)));
+
+        for (int i = 0; i < 20; ++i) {
+            bus.onUnitDestroy(zergling);
+        }
+        bus.onUnitDestroy(marine);
+        bus.onFrame();
+        bus.onFrame();
+        bus.onUnitDestroy(zergling);
+        bus.onEnd(true);
+
+        assertEquals(Arrays.asList(
+                "UnitDestroy " + Collections.nCopies(20, zergling),
+                "frame",
+                "frame",
+                "UnitDestroy " + Arrays.asList(zergling)), calls);
+    }
+
+    @Test
+    public void dropsBatchesOfThePreviousGame() {
+        final List<Integer> counts = new ArrayList<>();
+        bus.subscribeBatch(EventType.UnitShow, null, (type, units, count) -> counts.add(count));
+
+        bus.onUnitShow(marine);
+        bus.onStart();
+        bus.onUnitShow(marine);
+        bus.onUnitShow(zergling);
+        bus.onFrame();
+
+        assertEquals(Arrays.asList(2), counts);
+    }
+
+    @Test
+    public void unsubscribesFromAllEventTypes() {
+        final List<Unit> units = new ArrayList<>();
+        final EventBus.UnitListener listener = (type, unit) -> units.add(unit);
+        bus.subscribe(EventType.UnitShow, listener);
+        bus.subscribe(EventType.UnitHide, listener);
+        bus.onUnitShow(marine);
+
+        bus.unsubscribe(listener);
+        bus.onUnitShow(marine);
+        bus.onUnitHide(marine);
+
+        assertEquals(Arrays.asList(marine), units);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEventsWithoutUnit() {
+        bus.subscribe(EventType.MatchFrame, (type, unit) -> { });
+    }
+}
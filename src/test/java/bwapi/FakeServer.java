@@ -0,0 +1,319 @@
+package bwapi;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A stand-in for the BWAPI server of StarCraft, to run the whole loop of {@link BWClient} in tests and benchmarks.
+ * <p>
+ * The game data is a file mapped in memory, in /dev/shm when available, which the client maps too. The game table
+ * lists this server only, and the pipe is a pair of pipes of this process. Each time the client ends a frame, the
+ * server reads back and clears the commands, unit commands, shapes and strings of the bot, then prepares the next
+ * frame, either:
+ * <ul>
+ * <li>from a dump of src/test/resources: a game of a given number of frames, where the units of the dump are
+ * discovered when it starts, then only the frame count changes until it ends</li>
+ * <li>or from a recording of {@link FrameRecorder}.</li>
+ * </ul>
+ * After the last frame the game is left, so {@link BWClient#startGame()} returns. Each game is served by
+ * {@link #start()}, on a thread of the server.
+ */
+class FakeServer implements Client.Connector, Closeable {
+    static final int PROCESS_ID = 4242;
+
+    private final byte[] dump;
+    private final int dumpFrames;
+    private final Path recording;
+    private final Path memoryFile;
+    private final ClientData.GameData gameData;
+    private final WrappedBuffer buffer;
+    private final ByteBuffer gameTable = ByteBuffer.allocateDirect(GameTable.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final Pipe toServer;
+    private final Pipe toClient;
+    private final ByteBuffer signal = ByteBuffer.allocate(1);
+    private Thread thread;
+    private volatile Exception failure;
+
+    private InputStream recordingStream;
+    private FrameReader reader;
+    private int frame;
+    // The state of the first frame, which is hidden until the client asks for it
+    private int firstEventCount;
+    private boolean firstIsInGame;
+
+    // Read back from the client since the last start, up to date once joined
+    int frames;
+    int commands;
+    int unitCommands;
+    int shapes;
+    int strings;
+
+    private FakeServer(final byte[] dump, final int dumpFrames, final Path recording) throws IOException {
+        this.dump = dump;
+        this.dumpFrames = dumpFrames;
+        this.recording = recording;
+        final Path sharedMemory = Paths.get("/dev/shm");
+        memoryFile = Files.isDirectory(sharedMemory) && Files.isWritable(sharedMemory)
+                ? Files.createTempFile(sharedMemory, "bwapi_shared_memory_", "")
+                : Files.createTempFile("bwapi_shared_memory_", "");
+        final ClientData clientData = new ClientData(map());
+        gameData = clientData.new GameData(0);
+        buffer = clientData.buffer;
+        gameTable.putInt(0, PROCESS_ID);
+        gameTable.put(4, (byte) 0);
+        gameTable.putInt(8, 1);
+        toServer = Pipe.open();
+        toClient = Pipe.open();
+    }
+
+    /**
+     * Serves a game starting from the dump of a map, which lasts a number of frames.
+     */
+    static FakeServer fromDump(final String mapName, final int frames) throws IOException {
+        if (frames < 1) {
+            throw new IllegalArgumentException("A game needs at least one frame");
+        }
+        return new FakeServer(GameFixture.readDump(mapName), frames, null);
+    }
+
+    /**
+     * Serves the game of a recording.
+     */
+    static FakeServer fromRecording(final Path recording) throws IOException {
+        return new FakeServer(null, 0, recording);
+    }
+
+    private MappedByteBuffer map() throws IOException {
+        try (FileChannel channel = FileChannel.open(memoryFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, ClientData.GameData.SIZE);
+        }
+    }
+
+    @Override
+    public ByteBuffer mapGameTable() {
+        return gameTable.duplicate();
+    }
+
+    @Override
+    public ByteBuffer mapGameData(final int serverProcID) throws IOException {
+        if (serverProcID != PROCESS_ID) {
+            throw new IOException("No server " + serverProcID);
+        }
+        return map();
+    }
+
+    @Override
+    public Client.Pipe openPipe(final int serverProcID) throws IOException {
+        if (serverProcID != PROCESS_ID) {
+            throw new IOException("No server " + serverProcID);
+        }
+        final ByteBuffer received = ByteBuffer.allocate(1);
+        final ByteBuffer sent = ByteBuffer.allocate(1);
+        return new Client.Pipe() {
+            @Override
+            public byte readByte() throws IOException {
+                return read(toClient.source(), received);
+            }
+
+            @Override
+            public void writeByte(final int value) throws IOException {
+                write(toServer.sink(), sent, value);
+            }
+
+            @Override
+            public void close() {
+                // The pipes are reused by the next games
+            }
+        };
+    }
+
+    private static byte read(final Pipe.SourceChannel source, final ByteBuffer received) throws IOException {
+        ((Buffer) received).clear();
+        if (source.read(received) < 0) {
+            throw new EOFException();
+        }
+        return received.get(0);
+    }
+
+    private static void write(final Pipe.SinkChannel sink, final ByteBuffer sent, final int value) throws IOException {
+        ((Buffer) sent).clear();
+        sent.put(0, (byte) value);
+        sink.write(sent);
+    }
+
+    /**
+     * Prepares a new game and serves it on a new thread. The client can connect once this returns.
+     */
+    void start() throws IOException {
+        join();
+        failure = null;
+        frames = commands = unitCommands = shapes = strings = 0;
+        frame = 0;
+        if (recording == null) {
+            buffer.putBytes(0, dump, 0, Math.min(dump.length, ClientData.GameData.SIZE));
+        } else {
+            FrameReader.clear(buffer);
+            recordingStream = Files.newInputStream(recording);
+            reader = new FrameReader(recordingStream);
+        }
+        if (!nextFrame()) {
+            throw new IOException("The game has no frame");
+        }
+        // In the menus until the client asks for the first frame
+        firstEventCount = gameData.getEventCount();
+        firstIsInGame = gameData.isInGame();
+        gameData.setEventCount(0);
+        gameData.setIsInGame(false);
+        thread = new Thread(this::serve, "FakeServer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Waits for the end of the current game.
+     */
+    void join() throws IOException {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        if (failure != null) {
+            throw new IOException("The server failed", failure);
+        }
+    }
+
+    private void serve() {
+        try {
+            write(toClient.sink(), signal, 2);
+            boolean first = true;
+            boolean started = false;
+            while (true) {
+                if (read(toServer.source(), signal) != 1) {
+                    throw new IOException("Unexpected signal from the client");
+                }
+                readBack();
+                if (first) {
+                    gameData.setEventCount(firstEventCount);
+                    gameData.setIsInGame(firstIsInGame);
+                    first = false;
+                } else if (!nextFrame()) {
+                    gameData.setEventCount(0);
+                    gameData.setIsInGame(false);
+                }
+                final boolean inGame = gameData.isInGame();
+                if (inGame) {
+                    started = true;
+                    ++frames;
+                }
+                // The client leaves once the game is over
+                final boolean over = started && !inGame;
+                if (over) {
+                    closeRecording();
+                }
+                write(toClient.sink(), signal, 2);
+                if (over) {
+                    return;
+                }
+            }
+        } catch (final Exception e) {
+            failure = e;
+        }
+    }
+
+    // As the server does after each frame of the client
+    private void readBack() {
+        commands += gameData.getCommandCount();
+        unitCommands += gameData.getUnitCommandCount();
+        shapes += gameData.getShapeCount();
+        strings += gameData.getStringCount();
+        gameData.setCommandCount(0);
+        gameData.setUnitCommandCount(0);
+        gameData.setShapeCount(0);
+        gameData.setStringCount(0);
+    }
+
+    /**
+     * Updates the game data to the next frame.
+     *
+     * @return false after the last frame.
+     */
+    private boolean nextFrame() throws IOException {
+        if (recording != null) {
+            return reader.readFrame(buffer);
+        }
+        if (frame == dumpFrames) {
+            return false;
+        }
+        gameData.setFrameCount(frame);
+        gameData.setIsInGame(true);
+        int event = 0;
+        if (frame == 0) {
+            setEvent(event++, EventType.MatchStart, 0);
+            // As BWAPI, which reports the units which exist when the game starts
+            for (int unit = 0; unit < gameData.getInitialUnitCount(); ++unit) {
+                if (gameData.getUnits(unit).getExists()) {
+                    setEvent(event++, EventType.UnitDiscover, unit);
+                    setEvent(event++, EventType.UnitShow, unit);
+                }
+            }
+        }
+        setEvent(event++, EventType.MatchFrame, 0);
+        if (frame == dumpFrames - 1) {
+            setEvent(event, EventType.MatchEnd, 1);
+        }
+        ++frame;
+        return true;
+    }
+
+    private void setEvent(final int i, final EventType type, final int v1) {
+        final ClientData.Event event = gameData.getEvents(i);
+        event.setType(type);
+        event.setV1(v1);
+        event.setV2(0);
+        gameData.setEventCount(i + 1);
+    }
+
+    private void closeRecording() throws IOException {
+        if (reader != null) {
+            reader.close();
+            recordingStream.close();
+            reader = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Also stops the thread if the client left during the game
+        toServer.sink().close();
+        toServer.source().close();
+        toClient.sink().close();
+        toClient.source().close();
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        closeRecording();
+        Files.deleteIfExists(memoryFile);
+    }
+}
@@ -0,0 +1,113 @@
+package bwapi;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FakeServerTest {
+    private static final int FRAMES = 20;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Draws and moves its workers every frame, and keeps track of its calls
+    private static class Bot extends DefaultBWListener {
+        final List<String> calls = new ArrayList<>();
+        BWClient client;
+        int workers;
+
+        @Override
+        public void onStart() {
+            calls.add("start");
+        }
+
+        @Override
+        public void onFrame() {
+            final Game game = client.getGame();
+            calls.add(Integer.toString(game.getFrameCount()));
+            game.drawTextScreen(10, 10, "Frame " + game.getFrameCount());
+            workers = 0;
+            for (final Unit unit : game.self().getUnits()) {
+                if (unit.getType().isWorker()) {
+                    unit.move(new Position(100 + game.getFrameCount(), 100));
+                    ++workers;
+                }
+            }
+        }
+
+        @Override
+        public void onEnd(final boolean isWinner) {
+            calls.add("end " + isWinner);
+        }
+    }
+
+    private static List<String> expectedCalls() {
+        final List<String> expected = new ArrayList<>();
+        expected.add("start");
+        for (int frame = 0; frame < FRAMES; ++frame) {
+            expected.add(Integer.toString(frame));
+        }
+        expected.add("end true");
+        return expected;
+    }
+
+    @Test
+    public void runsTheClientLoopAndReadsBackCommands() throws IOException {
+        try (FakeServer server = FakeServer.fromDump("(4)Fighting Spirit.scx", FRAMES)) {
+            final Bot bot = new Bot();
+            bot.client = new BWClient(bot, server);
+
+            // Twice, the server and the client can play several games
+            for (int game = 0; game < 2; ++game) {
+                bot.calls.clear();
+                server.start();
+                bot.client.startGame();
+                server.join();
+
+                assertEquals(expectedCalls(), bot.calls);
+                assertEquals(FRAMES, server.frames);
+                assertEquals(FRAMES, server.shapes);
+                assertEquals(FRAMES, server.strings);
+                assertTrue(bot.workers > 0);
+                assertEquals(FRAMES * bot.workers, server.unitCommands);
+                // Disabling latency compensation at the start of the game
+                assertTrue(server.commands > 0);
+            }
+        }
+    }
+
+    @Test
+    public void servesRecordings() throws IOException {
+        final Path recording = folder.newFile().toPath();
+        try (FakeServer server = FakeServer.fromDump("(4)Fighting Spirit.scx", FRAMES);
+             FrameRecorder recorder = new FrameRecorder(recording)) {
+            final Bot bot = new Bot();
+            bot.client = new BWClient(bot, server);
+            bot.client.setFrameRecorder(recorder);
+            server.start();
+            bot.client.startGame();
+            server.join();
+            // The frame which leaves the game is recorded too
+            assertEquals(FRAMES + 1, recorder.getFrames());
+        }
+
+        try (FakeServer server = FakeServer.fromRecording(recording)) {
+            final Bot bot = new Bot();
+            bot.client = new BWClient(bot, server);
+            server.start();
+            bot.client.startGame();
+            server.join();
+
+            assertEquals(expectedCalls(), bot.calls);
+            assertEquals(FRAMES, server.frames);
+            assertEquals(FRAMES * bot.workers, server.unitCommands);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package bwapi;
 
 import org.junit.*;
+
+import java.io.IOException;
 import java.util.*;
 
 import static bwapi.UnitFilter.*;
@@ -39,4 +41,56 @@ public class FilterTest {
         assertTrue(units.stream().noneMatch(IsMineralField.and(IsRefinery)));
         assertTrue(units.stream().noneMatch(IsMineralField.negate()));
     }
+
+    @Test
+    public void testTypeFilterCombinations() {
+        assertEquals(UnitTypeFilter.of(UnitType::isWorker), IsWorker);
+        assertEquals(UnitTypeFilter.of(UnitType.Terran_SCV, UnitType.Protoss_Probe, UnitType.Zerg_Drone), IsWorker);
+        assertTrue(IsWorker.or(IsBuilding).test(UnitType.Terran_Barracks));
+        assertFalse(IsWorker.and(IsBuilding).test(UnitType.Terran_SCV));
+        assertTrue(IsWorker.negate().test(UnitType.Terran_Marine));
+        assertFalse(IsWorker.negate().test(UnitType.Terran_SCV));
+        assertEquals(IsWorker, IsWorker.negate().negate());
+        assertTrue(MineralPrice(x -> x >= 400).test(UnitType.Terran_Command_Center));
+        assertFalse(MineralPrice(x -> x >= 400).test(UnitType.Terran_Marine));
+
+        final UnitFilter mineralWithHP = IsMineralField.and(HP(x -> x > 10));
+        assertEquals(IsMineralField, UnitTypeFilter.typesOf(mineralWithHP));
+        assertTrue(units.stream().anyMatch(mineralWithHP));
+        assertTrue(units.stream().noneMatch(IsMineralField.and(HP(x -> x > 20))));
+        assertNull(UnitTypeFilter.typesOf(HP(x -> x > 10)));
+    }
+
+    @Test
+    public void testParameterizedTypeFiltersBuildTheirBitsOnDemand() {
+        final int[] calls = {0};
+        final UnitTypeFilter workers = GetType(t -> {
+            ++calls[0];
+            return t.isWorker();
+        });
+        assertTrue(workers.test(UnitType.Terran_SCV));
+        assertTrue(units.stream().noneMatch(workers));
+        assertEquals(2, calls[0]);
+
+        // Combining builds the bits, which are then used instead of the predicate
+        assertEquals(IsWorker, workers.or(IsWorker));
+        final int built = calls[0];
+        assertTrue(built > 2);
+        assertFalse(workers.test(UnitType.Terran_Marine));
+        assertEquals(built, calls[0]);
+    }
+
+    @Test
+    public void testTypeFiltersInSpatialQueries() throws IOException {
+        final Game game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        final Position center = new Position(game.mapPixelWidth() / 2, game.mapPixelHeight() / 2);
+        final UnitFilter[] typeFilters = {IsMineralField, IsResourceContainer, IsMineralField.negate(), IsWorker, IsMineralField.and(Resources(x -> x > 1000))};
+        for (final UnitFilter filter : typeFilters) {
+            final UnitFilter opaque = filter::test;
+            assertEquals(new HashSet<>(game.getUnitsInRadius(center, 2000, opaque)), new HashSet<>(game.getUnitsInRadius(center, 2000, filter)));
+            assertEquals(new HashSet<>(game.getUnitsInRectangle(0, 0, 2000, 2000, opaque)), new HashSet<>(game.getUnitsInRectangle(0, 0, 2000, 2000, filter)));
+            assertEquals(game.getClosestUnit(center, opaque), game.getClosestUnit(center, filter));
+        }
+        assertFalse(game.getUnitsInRadius(center, 2000, IsMineralField).isEmpty());
+    }
 }
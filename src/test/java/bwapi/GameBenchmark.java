@@ -0,0 +1,226 @@
+package bwapi;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class GameBenchmark {
+    private static final UnitType[] UNIT_TYPES = UnitType.values();
+
+    @State(Scope.Benchmark)
+    public static class GameState {
+        Game game;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PylonState {
+        static final int PYLONS = 24;
+        Game game;
+
+        // A grid of completed pylons, made from static neutral units
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            game = GameFixture.initGame("(4)Fighting Spirit.scx");
+            for (int i = 0; i < PYLONS; ++i) {
+                GameFixture.placeUnit(game, game.getStaticNeutralUnits().get(i), UnitType.Protoss_Pylon, game.self(),
+                        32 * (20 + (i % 6) * 6), 32 * (20 + (i / 6) * 6));
+            }
+            GameFixture.showUnits(game);
+            GameFixture.nextFrame(game);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(48 * 48)
+    public int hasPowerWithPylons(PylonState s) {
+        int total = 0;
+        for (int x = 10; x < 58; ++x) {
+            for (int y = 10; y < 58; ++y) {
+                if (s.game.hasPower(x, y, UnitType.Protoss_Gateway)) {
+                    ++total;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(48 * 48)
+    public int canBuildHereWithPylons(PylonState s) {
+        int total = 0;
+        for (int x = 10; x < 58; ++x) {
+            for (int y = 10; y < 58; ++y) {
+                if (s.game.canBuildHere(new TilePosition(x, y), UnitType.Protoss_Gateway)) {
+                    ++total;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public TilePosition getBuildLocation(GameState s) {
+        return s.game.getBuildLocation(UnitType.Terran_Barracks, s.game.self().getStartLocation());
+    }
+
+    @Benchmark
+    public TilePosition getBuildLocationWithPlacementGrid(GameState s) {
+        return s.game.getPlacementGrid().getBuildLocation(UnitType.Terran_Barracks, s.game.self().getStartLocation());
+    }
+
+    @Benchmark
+    public Unit getClosestWorkerWithLambda(GameState s) {
+        return s.game.getClosestUnit(new Position(2048, 2048), u -> u.getType().isWorker());
+    }
+
+    @Benchmark
+    public Unit getClosestWorkerWithTypeFilter(GameState s) {
+        return s.game.getClosestUnit(new Position(2048, 2048), UnitFilter.IsWorker);
+    }
+
+    @Benchmark
+    public int canIssueCommandToOwnUnits(GameState s) {
+        int total = 0;
+        final Position target = new Position(100, 100);
+        for (final Unit unit : s.game.self().getUnits()) {
+            if (unit.canIssueCommand(UnitCommand.move(unit, target))) {
+                ++total;
+            }
+            if (unit.canIssueCommand(UnitCommand.stop(unit))) {
+                ++total;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(233 + 1)
+    public void canMakeAllUnitTypes(GameState s, Blackhole blackhole) {
+        for (final UnitType type : UNIT_TYPES) {
+            blackhole.consume(s.game.canMake(type));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation((233 + 1) * (233 + 1))
+    public int getDamageFromAllUnitTypePairs(GameState s) {
+        final Player self = s.game.self();
+        final Player enemy = s.game.enemy();
+        int total = 0;
+        for (final UnitType fromType : UNIT_TYPES) {
+            for (final UnitType toType : UNIT_TYPES) {
+                total += s.game.getDamageFrom(fromType, toType, enemy, self);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation((233 + 1) * (233 + 1))
+    public int damageMatrixAllUnitTypePairs(GameState s) {
+        final DamageMatrix matrix = s.game.getDamageMatrix(s.game.enemy(), s.game.self());
+        int total = 0;
+        for (final UnitType fromType : UNIT_TYPES) {
+            for (final UnitType toType : UNIT_TYPES) {
+                total += matrix.getDamage(fromType, toType);
+            }
+        }
+        return total;
+    }
+
+    // A new frame for each invocation, so the bitmap is rebuilt every time
+    @Benchmark
+    public int countVisibleTilesByQuery(GameState s) {
+        final ClientData.GameData gameData = s.game.getClient().gameData();
+        gameData.setFrameCount(gameData.getFrameCount() + 1);
+        int total = 0;
+        for (int x = 0; x < s.game.mapWidth(); ++x) {
+            for (int y = 0; y < s.game.mapHeight(); ++y) {
+                if (s.game.isVisible(x, y)) {
+                    ++total;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int countVisibleTilesByBitmap(GameState s) {
+        final ClientData.GameData gameData = s.game.getClient().gameData();
+        gameData.setFrameCount(gameData.getFrameCount() + 1);
+        return s.game.getVisibleTiles().count();
+    }
+
+    // A tile grid over the first screen with a label every 4 tiles, drawn once per frame
+    @State(Scope.Benchmark)
+    public static class OverlayState {
+        static final int TILES = 20;
+        Game game;
+        ClientData.GameData gameData;
+        DrawingLayer layer = new DrawingLayer();
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            game = GameFixture.initGame("(4)Fighting Spirit.scx");
+            gameData = game.getClient().gameData();
+            gameData.setScreenX(0);
+            gameData.setScreenY(0);
+            drawOverlay(layer::drawLineMap, layer::drawTextMap);
+        }
+
+        void drawOverlay(final LineDrawer lines, final TextDrawer texts) {
+            for (int i = 0; i <= TILES; ++i) {
+                lines.draw(new Position(i * 32, 0), new Position(i * 32, TILES * 32), Color.Grey);
+                lines.draw(new Position(0, i * 32), new Position(TILES * 32, i * 32), Color.Grey);
+            }
+            for (int x = 0; x < TILES; x += 4) {
+                for (int y = 0; y < TILES; y += 4) {
+                    texts.draw(new Position(x * 32, y * 32), x + "," + y);
+                }
+            }
+        }
+
+        void nextFrame() {
+            gameData.setShapeCount(0);
+            gameData.setStringCount(0);
+        }
+    }
+
+    interface LineDrawer {
+        void draw(Position a, Position b, Color color);
+    }
+
+    interface TextDrawer {
+        void draw(Position p, String text);
+    }
+
+    @Benchmark
+    public int drawOverlayImmediate(OverlayState s) {
+        s.nextFrame();
+        s.drawOverlay(s.game::drawLineMap, s.game::drawTextMap);
+        return s.gameData.getShapeCount();
+    }
+
+    @Benchmark
+    public int drawOverlayLayer(OverlayState s) {
+        s.nextFrame();
+        return s.game.draw(s.layer);
+    }
+
+    // Compares all the units with the previous frame, as done at the end of each frame
+    @Benchmark
+    public int updateUnitChanges(GameState s) {
+        final UnitChanges changes = s.game.getUnitChanges();
+        changes.update(changes.getFrame() + 1);
+        return changes.size();
+    }
+}
@@ -0,0 +1,79 @@
+package bwapi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.InflaterOutputStream;
+
+/**
+ * Games of the tests and benchmarks, loaded from the dumps of src/test/resources, and the changes the server would
+ * make to them between frames.
+ */
+final class GameFixture {
+    private GameFixture() {
+        // Utility class
+    }
+
+    /**
+     * Reads the game data of the first frame of a map, as the server shares it.
+     */
+    static byte[] readDump(String mapName) throws IOException {
+        String location = "src/test/resources/" + mapName + "_frame0_buffer.bin";
+
+        byte[] compressedBytes = Files.readAllBytes(Paths.get(location));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InflaterOutputStream zin = new InflaterOutputStream(out);
+        zin.write(compressedBytes);
+        zin.flush();
+        zin.close();
+        return out.toByteArray();
+    }
+
+    static Game initGame(String mapName) throws IOException {
+        // load bytebuffer
+        byte[] bytes = readDump(mapName);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+
+        Client client = new Client(buffer);
+        Game game = new Game(client);
+        game.init();
+        return game;
+    }
+
+    /**
+     * Shows the units of the dump, as the events of BWAPI do when the game starts, so they remain in
+     * {@link Game#getAllUnits()} after the first frame.
+     */
+    static void showUnits(Game game) {
+        game.getAllUnits().forEach(u -> game.unitShow(u.getID()));
+    }
+
+    /**
+     * Moves the game to the next frame, as when the server sends it. Only the units which were shown remain.
+     */
+    static void nextFrame(Game game) {
+        int frame = game.getFrameCount() + 1;
+        game.getClient().gameData().setFrameCount(frame);
+        game.onFrame(frame);
+    }
+
+    /**
+     * Turns a unit of the dump, such as a static neutral unit, into a completed unit of a player at a position, seen
+     * by the game on the next frame.
+     *
+     * @return The data of the unit, to change it further.
+     */
+    static ClientData.UnitData placeUnit(Game game, Unit unit, UnitType type, Player player, int x, int y) {
+        ClientData.UnitData unitData = game.getClient().gameData().getUnits(unit.getID());
+        unitData.setType(type.id);
+        unitData.setPlayer(player.getID());
+        unitData.setPositionX(x);
+        unitData.setPositionY(y);
+        unitData.setExists(true);
+        unitData.setIsCompleted(true);
+        return unitData;
+    }
+}
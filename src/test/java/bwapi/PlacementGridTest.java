@@ -0,0 +1,95 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PlacementGridTest {
+    private Game game;
+    private PlacementGrid placementGrid;
+    private TilePosition start;
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        placementGrid = game.getPlacementGrid();
+        start = game.self().getStartLocation();
+        GameFixture.showUnits(game);
+    }
+
+    private static boolean overlaps(final UnitType type1, final TilePosition p1, final UnitType type2, final TilePosition p2) {
+        return p1.x < p2.x + type2.tileWidth() && p2.x < p1.x + type1.tileWidth()
+                && p1.y < p2.y + type2.tileHeight() && p2.y < p1.y + type1.tileHeight();
+    }
+
+    @Test
+    public void findsBuildableLocations() {
+        for (final UnitType type : Arrays.asList(UnitType.Terran_Supply_Depot, UnitType.Terran_Barracks, UnitType.Terran_Factory, UnitType.Terran_Bunker)) {
+            final TilePosition position = placementGrid.getBuildLocation(type, start);
+            assertTrue(type.toString(), position.isValid(game));
+            assertTrue(type.toString(), game.canBuildHere(position, type));
+            assertTrue(type.toString(), position.getApproxDistance(start) <= 64);
+        }
+        assertEquals(TilePosition.Invalid, placementGrid.getBuildLocation(UnitType.Terran_Marine, start));
+    }
+
+    @Test
+    public void batchPlacementsDoNotOverlap() {
+        final List<UnitType> types = Arrays.asList(UnitType.Terran_Barracks, UnitType.Terran_Barracks,
+                UnitType.Terran_Factory, UnitType.Terran_Supply_Depot, UnitType.Terran_Supply_Depot);
+        final List<TilePosition> positions = placementGrid.getBuildLocations(types, start, 32);
+        assertEquals(types.size(), positions.size());
+        for (int i = 0; i < types.size(); ++i) {
+            assertTrue(game.canBuildHere(positions.get(i), types.get(i)));
+            for (int j = 0; j < i; ++j) {
+                assertFalse(i + "," + j, overlaps(types.get(i), positions.get(i), types.get(j), positions.get(j)));
+            }
+        }
+        // The first location is the one of a single query, and the planned reservations are removed after the batch
+        assertEquals(placementGrid.getBuildLocation(UnitType.Terran_Barracks, start, 32), positions.get(0));
+        assertEquals(positions, placementGrid.getBuildLocations(types, start, 32));
+    }
+
+    @Test
+    public void followsUnitEvents() {
+        final TilePosition before = placementGrid.getBuildLocation(UnitType.Terran_Barracks, start);
+
+        // Turn a static neutral unit into a barracks of the current player at that location
+        final Unit unit = game.getStaticNeutralUnits().get(0);
+        final ClientData.UnitData unitData = GameFixture.placeUnit(game, unit, UnitType.Terran_Barracks, game.self(),
+                before.x * 32 + UnitType.Terran_Barracks.tileWidth() * 16, before.y * 32 + UnitType.Terran_Barracks.tileHeight() * 16);
+        GameFixture.nextFrame(game);
+        game.unitChanged(unit);
+
+        final TilePosition after = placementGrid.getBuildLocation(UnitType.Terran_Barracks, start);
+        assertNotEquals(before, after);
+        assertFalse(overlaps(UnitType.Terran_Barracks, before, UnitType.Terran_Barracks, after));
+        assertEquals(new PlacementGrid(game).getBuildLocation(UnitType.Terran_Barracks, start), after);
+
+        // Lift the barracks off and land it at the other location, without any event
+        unitData.setIsLifted(true);
+        GameFixture.nextFrame(game);
+        assertEquals(before, placementGrid.getBuildLocation(UnitType.Terran_Barracks, start));
+        unitData.setPositionX(after.x * 32 + UnitType.Terran_Barracks.tileWidth() * 16);
+        unitData.setPositionY(after.y * 32 + UnitType.Terran_Barracks.tileHeight() * 16);
+        unitData.setIsLifted(false);
+        GameFixture.nextFrame(game);
+        final TilePosition landed = placementGrid.getBuildLocation(UnitType.Terran_Barracks, start);
+        assertFalse(overlaps(UnitType.Terran_Barracks, after, UnitType.Terran_Barracks, landed));
+        assertEquals(new PlacementGrid(game).getBuildLocation(UnitType.Terran_Barracks, start), landed);
+
+        unitData.setExists(false);
+        GameFixture.nextFrame(game);
+        game.unitChanged(unit);
+        assertEquals(new PlacementGrid(game).getBuildLocation(UnitType.Terran_Barracks, start),
+                placementGrid.getBuildLocation(UnitType.Terran_Barracks, start));
+    }
+}
@@ -0,0 +1,80 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PowerGridTest {
+    private Game game;
+    private ClientData.GameData gameData;
+    private List<Unit> neutralUnits;
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        gameData = game.getClient().gameData();
+        neutralUnits = game.getStaticNeutralUnits();
+        GameFixture.showUnits(game);
+    }
+
+    private void placePylon(final Unit unit, final int x, final int y, final boolean completed) {
+        GameFixture.placeUnit(game, unit, UnitType.Protoss_Pylon, game.self(), x, y).setIsCompleted(completed);
+    }
+
+    private void assertMatchesPylonScan(final int[] pylonX, final int[] pylonY, final int left, final int top, final int right, final int bottom) {
+        for (int x = left; x < right; ++x) {
+            for (int y = top; y < bottom; ++y) {
+                assertEquals(x + "," + y, PowerGrid.hasPower(x, y, pylonX, pylonY, pylonX.length), game.hasPowerPrecise(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void gridMatchesPylonScan() {
+        final int[] pylonX = {1024, 1024 + 7 * 32, 1024 + 2 * 32, 32 * 3};
+        final int[] pylonY = {1024, 1024 + 3 * 32, 1024 + 9 * 32, 32 * 2};
+        for (int i = 0; i < pylonX.length; ++i) {
+            placePylon(neutralUnits.get(i), pylonX[i], pylonY[i], true);
+        }
+        // Not completed
+        placePylon(neutralUnits.get(pylonX.length), 2048, 2048, false);
+        GameFixture.nextFrame(game);
+
+        assertMatchesPylonScan(pylonX, pylonY, 1024 - 300, 1024 - 200, 1024 + 600, 1024 + 500);
+        assertMatchesPylonScan(pylonX, pylonY, 0, 0, 400, 300);
+        assertFalse(game.hasPowerPrecise(2048, 2048));
+    }
+
+    @Test
+    public void gridFollowsPylonsAcrossFrames() {
+        placePylon(neutralUnits.get(0), 1024, 1024, true);
+        GameFixture.nextFrame(game);
+        assertTrue(game.hasPower(32, 32, UnitType.Protoss_Gateway));
+        assertTrue(game.hasPower(1024 / 32, 1024 / 32, UnitType.Protoss_Gateway));
+
+        gameData.getUnits(neutralUnits.get(0).getID()).setExists(false);
+        assertTrue(game.hasPower(1024 / 32, 1024 / 32, UnitType.Protoss_Gateway));
+        GameFixture.nextFrame(game);
+        assertFalse(game.hasPower(1024 / 32, 1024 / 32, UnitType.Protoss_Gateway));
+        assertTrue(game.hasPower(1024 / 32, 1024 / 32, UnitType.Protoss_Nexus));
+        assertFalse(game.hasPowerPrecise(-1, 0, UnitType.Protoss_Nexus));
+    }
+
+    @Test
+    public void unalignedPylonsFallBackToPylonScan() {
+        final int[] pylonX = {1000, 1100};
+        final int[] pylonY = {1001, 1100};
+        for (int i = 0; i < pylonX.length; ++i) {
+            placePylon(neutralUnits.get(i), pylonX[i], pylonY[i], true);
+        }
+        GameFixture.nextFrame(game);
+
+        assertMatchesPylonScan(pylonX, pylonY, 1000 - 300, 1000 - 200, 1100 + 300, 1100 + 200);
+    }
+}
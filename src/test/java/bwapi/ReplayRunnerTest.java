@@ -0,0 +1,202 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ReplayRunnerTest {
+    private static final int FRAMES = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Game game;
+    private ClientData.GameData gameData;
+    private WrappedBuffer buffer;
+    private int unitId;
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        gameData = game.getClient().gameData();
+        buffer = game.getClient().clientData().buffer;
+        unitId = game.getAllUnits().get(0).getID();
+    }
+
+    private void setEvent(final int i, final EventType type, final int v1) {
+        final ClientData.Event event = gameData.getEvents(i);
+        event.setType(type);
+        event.setV1(v1);
+        event.setV2(0);
+        gameData.setEventCount(i + 1);
+    }
+
+    // A game which starts with a unit creation, and where player 0 gains a mineral each frame
+    private Path record() throws IOException {
+        final Path path = folder.newFile().toPath();
+        try (FrameRecorder recorder = new FrameRecorder(path)) {
+            for (int frame = 0; frame < FRAMES; ++frame) {
+                gameData.setFrameCount(frame);
+                gameData.getPlayers(0).setMinerals(50 + frame);
+                int event = 0;
+                if (frame == 0) {
+                    setEvent(event++, EventType.MatchStart, 0);
+                    setEvent(event++, EventType.UnitCreate, unitId);
+                }
+                setEvent(event++, EventType.MatchFrame, 0);
+                if (frame == FRAMES - 1) {
+                    setEvent(event, EventType.MatchEnd, 1);
+                }
+                recorder.record(buffer);
+            }
+            assertEquals(FRAMES, recorder.getFrames());
+        }
+        return path;
+    }
+
+    @Test
+    public void replaysTheRecordedFramesAndEvents() throws IOException {
+        final ReplayRunner runner = new ReplayRunner();
+        final List<String> calls = new ArrayList<>();
+        final BWEventListener listener = new DefaultBWListener() {
+            @Override
+            public void onStart() {
+                calls.add("start");
+            }
+
+            @Override
+            public void onUnitCreate(final Unit unit) {
+                calls.add("create " + unit.getID());
+            }
+
+            @Override
+            public void onFrame() {
+                final Game game = runner.getGame();
+                calls.add(game.getFrameCount() + " " + game.getPlayer(0).minerals());
+                game.drawTextScreen(0, 0, "Frame");
+            }
+
+            @Override
+            public void onEnd(final boolean isWinner) {
+                calls.add("end " + isWinner);
+            }
+        };
+        final Path recording = record();
+
+        assertEquals(FRAMES, runner.run(recording, listener));
+
+        final List<String> expected = new ArrayList<>(Arrays.asList("start", "create " + unitId));
+        for (int frame = 0; frame < FRAMES; ++frame) {
+            expected.add(frame + " " + (50 + frame));
+        }
+        expected.add("end true");
+        assertEquals(expected, calls);
+
+        // The runner can be reused for the next recording
+        calls.clear();
+        assertEquals(FRAMES, runner.run(recording, listener));
+        assertEquals(expected, calls);
+    }
+
+    @Test
+    public void extractsFeaturesInParallel() throws Exception {
+        final Path first = record();
+        final Path second = record();
+        final Path invalid = folder.newFile().toPath();
+        Files.write(invalid, new byte[]{1, 2, 3});
+        final Path output = folder.newFolder().toPath();
+
+        final List<Path> failed = ReplayRunner.runAll(Arrays.asList(first, second, invalid), 2,
+                (recording, runner) -> new ReplayFeatures(runner::getGame, output.resolve(recording.getFileName()), 5));
+
+        assertEquals(Collections.singletonList(invalid), failed);
+        assertFalse(Files.exists(output.resolve(invalid.getFileName())));
+        final FeatureTable players = FeatureTable.read(output.resolve(second.getFileName()).resolve("players.bin"));
+        assertEquals("minerals", players.getColumnName(2));
+        // Sampled at frames 0 and 5, for each player but the neutral one
+        final int playerCount = (int) game.getPlayers().stream().filter(p -> !p.isNeutral()).count();
+        assertEquals(2 * playerCount, players.getRowCount());
+        assertEquals(5, players.get(playerCount, 0));
+        assertEquals(55, players.get(playerCount, 2));
+        final FeatureTable buildOrder = FeatureTable.read(output.resolve(first.getFileName()).resolve("build_order.bin"));
+        final Unit unit = game.getUnit(unitId);
+        assertEquals(unit.getPlayer().isNeutral() ? 0 : 1, buildOrder.getRowCount());
+    }
+
+    private static Unit morphed(final Player player, final UnitType type, final UnitType buildType, final boolean morphing) {
+        final Unit unit = mock(Unit.class);
+        when(unit.getPlayer()).thenReturn(player);
+        when(unit.getType()).thenReturn(type);
+        when(unit.getBuildType()).thenReturn(buildType);
+        when(unit.isMorphing()).thenReturn(morphing);
+        when(unit.isBeingConstructed()).thenReturn(morphing && type.isBuilding());
+        return unit;
+    }
+
+    @Test
+    public void logsOnlyTheMorphsWhichStartAProduction() {
+        final Player player = mock(Player.class);
+        when(player.getID()).thenReturn(0);
+        final Game game = mock(Game.class);
+        when(game.getPlayers()).thenReturn(Collections.singletonList(player));
+        when(game.getFrameCount()).thenReturn(42);
+        final ReplayFeatures features = new ReplayFeatures(() -> game, folder.getRoot().toPath(), 1);
+        features.onStart();
+
+        // Larva into an egg, then the egg hatches
+        features.onUnitMorph(morphed(player, UnitType.Zerg_Egg, UnitType.Zerg_Zergling, true));
+        features.onUnitMorph(morphed(player, UnitType.Zerg_Zergling, UnitType.None, false));
+        // A drone into a building, which is cancelled
+        features.onUnitMorph(morphed(player, UnitType.Zerg_Spawning_Pool, UnitType.Zerg_Spawning_Pool, true));
+        features.onUnitMorph(morphed(player, UnitType.Zerg_Drone, UnitType.None, false));
+        // A hatchery into a lair, which is cancelled
+        features.onUnitMorph(morphed(player, UnitType.Zerg_Lair, UnitType.Zerg_Lair, true));
+        features.onUnitMorph(morphed(player, UnitType.Zerg_Hatchery, UnitType.None, false));
+        // A hydralisk into a lurker, a mutalisk into a guardian
+        features.onUnitMorph(morphed(player, UnitType.Zerg_Lurker_Egg, UnitType.Zerg_Lurker, true));
+        features.onUnitMorph(morphed(player, UnitType.Zerg_Cocoon, UnitType.Zerg_Guardian, true));
+        // A tank which sieges and unsieges
+        features.onUnitMorph(morphed(player, UnitType.Terran_Siege_Tank_Siege_Mode, UnitType.None, false));
+        features.onUnitMorph(morphed(player, UnitType.Terran_Siege_Tank_Tank_Mode, UnitType.None, false));
+        // A larva which spawns
+        features.onUnitCreate(morphed(player, UnitType.Zerg_Larva, UnitType.None, false));
+
+        final FeatureTable buildOrder = features.getBuildOrder();
+        final List<Integer> types = new ArrayList<>();
+        for (int row = 0; row < buildOrder.getRowCount(); ++row) {
+            assertEquals(42, buildOrder.get(row, 0));
+            types.add(buildOrder.get(row, 2));
+        }
+        assertEquals(Arrays.asList(UnitType.Zerg_Zergling.id, UnitType.Zerg_Spawning_Pool.id, UnitType.Zerg_Lair.id,
+                UnitType.Zerg_Lurker.id, UnitType.Zerg_Guardian.id), types);
+    }
+
+    @Test
+    public void writesAndReadsFeatureTables() throws IOException {
+        final FeatureTable table = new FeatureTable("a", "b");
+        for (int i = 0; i < 100; ++i) {
+            table.add(i).add(-i);
+        }
+        table.add(1000);
+        final Path path = folder.newFile().toPath();
+        table.write(path);
+
+        final FeatureTable read = FeatureTable.read(path);
+        assertEquals(2, read.getColumnCount());
+        assertEquals("b", read.getColumnName(1));
+        assertEquals(100, read.getRowCount());
+        assertEquals(-99, read.get(99, 1));
+    }
+}
@@ -0,0 +1,75 @@
+package bwapi;
+
+import bwem.BWEM;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.InflaterOutputStream;
+
+/**
+ * Measures the cost of the first use of the static game data, which happens during the first frame of a bot.
+ * Every measurement runs in a fresh JVM, so classes are loaded and initialized by the measured code.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    @State(Scope.Benchmark)
+    public static class FrameBuffer {
+        ByteBuffer buffer;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            // Only JDK classes are loaded here, the bwapi classes are first used by the benchmark.
+            byte[] compressedBytes = Files.readAllBytes(Paths.get("src/test/resources/(4)Fighting Spirit.scx_frame0_buffer.bin"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InflaterOutputStream zin = new InflaterOutputStream(out)) {
+                zin.write(compressedBytes);
+            }
+            byte[] bytes = out.toByteArray();
+            buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    @Benchmark
+    public int colorFirstUse() {
+        return new Color(100, 150, 200).id;
+    }
+
+    @Benchmark
+    public int unitTypeFirstUse() {
+        return UnitType.Terran_Marine.maxHitPoints();
+    }
+
+    @Benchmark
+    public int weaponTypeFirstUse() {
+        return WeaponType.Gauss_Rifle.damageAmount();
+    }
+
+    @Benchmark
+    public Game gameInit(FrameBuffer frame) {
+        Game game = new Game(new Client(frame.buffer));
+        game.init();
+        return game;
+    }
+
+    /**
+     * Time to first frame of a bot using BWEM: class loading, {@link Game#init()} and {@link BWEM#initialize()}.
+     */
+    @Benchmark
+    public BWEM bwemInitialize(FrameBuffer frame) {
+        Game game = new Game(new Client(frame.buffer));
+        game.init();
+        BWEM bwem = new BWEM(game);
+        bwem.initialize();
+        return bwem;
+    }
+}
@@ -5,6 +5,8 @@ import java.lang.reflect.*;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -31,4 +33,16 @@ public class TechTypeTest {
         TypeTester.ensureSimpleGettersReturnNonNullAndDontFail(TechType.class);
     }
 
+    @Test
+    public void isUsedByMatchesWhatUses() {
+        for (TechType tech : TechType.values()) {
+            for (UnitType type : UnitType.values()) {
+                assertEquals(tech + " " + type, tech.whatUses().contains(type), tech.isUsedBy(type));
+            }
+        }
+        // Not one of the abilities of the hydralisk, but it morphs into a lurker
+        assertTrue(TechType.Lurker_Aspect.isUsedBy(UnitType.Zerg_Hydralisk));
+        assertFalse(UnitType.Zerg_Hydralisk.hasAbility(TechType.Lurker_Aspect));
+    }
+
 }
@@ -0,0 +1,133 @@
+package bwapi;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TileBitmapTest {
+
+    @Test
+    public void packFlagsSetsOneBitPerNonZeroByte() {
+        assertEquals(0, TileBitmap.packFlags(0));
+        assertEquals(0xFF, TileBitmap.packFlags(0x0101010101010101L));
+        assertEquals(0xFF, TileBitmap.packFlags(0x80FF017F02104020L));
+        assertEquals(0b10000101, TileBitmap.packFlags(0x8000000000010001L));
+    }
+
+    @Test
+    public void bitmapsMatchTileQueries() throws IOException {
+        // 128x96, so the second word of each column is partially used
+        final Game game = GameFixture.initGame("(2)Heartbreak Ridge.scx");
+        final ClientData.GameData gameData = game.getClient().gameData();
+        final Random random = new Random(42);
+        for (int x = 0; x < game.mapWidth(); ++x) {
+            for (int y = 0; y < game.mapHeight(); ++y) {
+                gameData.setIsVisible(x, y, random.nextInt(3) == 0);
+                gameData.setIsExplored(x, y, random.nextBoolean());
+                gameData.setHasCreep(x, y, random.nextInt(5) == 0);
+                gameData.setIsOccupied(x, y, random.nextInt(7) == 0);
+            }
+        }
+        gameData.setFrameCount(game.getFrameCount() + 1);
+
+        final TileBitmap visible = game.getVisibleTiles();
+        final TileBitmap explored = game.getExploredTiles();
+        final TileBitmap creep = game.getCreepTiles();
+        final TileBitmap occupied = game.getOccupiedTiles();
+        int visibleCount = 0;
+        for (int x = -1; x <= game.mapWidth(); ++x) {
+            for (int y = -1; y <= game.mapHeight(); ++y) {
+                assertEquals(game.isVisible(x, y), visible.get(x, y));
+                assertEquals(game.isExplored(x, y), explored.get(x, y));
+                assertEquals(game.hasCreep(x, y), creep.get(x, y));
+                assertEquals(game.isBuildable(x, y, false) && !game.isBuildable(x, y, true),
+                        game.isBuildable(x, y, false) && occupied.get(x, y));
+                if (game.isVisible(x, y)) {
+                    ++visibleCount;
+                }
+            }
+        }
+        assertEquals(visibleCount, visible.count());
+        assertSame(visible, game.getVisibleTiles());
+    }
+
+    @Test
+    public void bitmapsAreRefreshedOnTheNextFrame() throws IOException {
+        final Game game = GameFixture.initGame("(2)Heartbreak Ridge.scx");
+        final ClientData.GameData gameData = game.getClient().gameData();
+        final int before = game.getVisibleTiles().count();
+        gameData.setIsVisible(0, 95, !game.isVisible(0, 95));
+
+        assertEquals(before, game.getVisibleTiles().count());
+        gameData.setFrameCount(game.getFrameCount() + 1);
+        assertEquals(game.isVisible(0, 95), game.getVisibleTiles().get(0, 95));
+        assertEquals(1, Math.abs(before - game.getVisibleTiles().count()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void gameBitmapsAreReadOnly() throws IOException {
+        GameFixture.initGame("(2)Heartbreak Ridge.scx").getCreepTiles().set(0, 0);
+    }
+
+    @Test
+    public void rectangleCountsMatchTileByTileCounts() {
+        final Random random = new Random(7);
+        final TileBitmap bitmap = new TileBitmap(130, 200);
+        for (int i = 0; i < 10000; ++i) {
+            bitmap.set(random.nextInt(130), random.nextInt(200));
+        }
+        for (int i = 0; i < 500; ++i) {
+            final int left = random.nextInt(140) - 5;
+            final int top = random.nextInt(210) - 5;
+            final int right = left + random.nextInt(80);
+            final int bottom = top + random.nextInt(150);
+            int expected = 0;
+            for (int x = left; x < right; ++x) {
+                for (int y = top; y < bottom; ++y) {
+                    if (bitmap.get(x, y)) {
+                        ++expected;
+                    }
+                }
+            }
+            assertEquals(expected, bitmap.count(left, top, right, bottom));
+        }
+        assertEquals(bitmap.count(), bitmap.count(0, 0, 130, 200));
+    }
+
+    @Test
+    public void masksCombineWordByWord() {
+        final TileBitmap a = new TileBitmap(100, 100);
+        final TileBitmap mask = new TileBitmap(100, 100);
+        a.setRectangle(10, 10, 30, 90);
+        mask.setRectangle(20, 60, 50, 120);
+        assertEquals(20 * 80, a.count());
+        assertEquals(30 * 40, mask.count());
+        assertEquals(10 * 30, a.countAnd(mask));
+        assertTrue(a.intersects(mask));
+
+        final TileBitmap and = a.copy();
+        and.and(mask);
+        assertEquals(10 * 30, and.count());
+        assertEquals(10 * 30, and.count(20, 60, 30, 90));
+
+        final TileBitmap or = a.copy();
+        or.or(mask);
+        assertEquals(20 * 80 + 30 * 40 - 10 * 30, or.count());
+
+        final TileBitmap andNot = a.copy();
+        andNot.andNot(mask);
+        assertEquals(20 * 80 - 10 * 30, andNot.count());
+        assertFalse(andNot.intersects(mask));
+
+        andNot.clear(10, 10);
+        assertFalse(andNot.get(10, 10));
+        andNot.clear();
+        assertEquals(0, andNot.count());
+    }
+}
@@ -0,0 +1,79 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UnitChangesTest {
+    private Game game;
+    private ClientData.GameData gameData;
+    private Unit unit1;
+    private Unit unit2;
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        gameData = game.getClient().gameData();
+        unit1 = game.getStaticNeutralUnits().get(0);
+        unit2 = game.getStaticNeutralUnits().get(1);
+        game.unitShow(unit1.getID());
+        game.unitShow(unit2.getID());
+        GameFixture.nextFrame(game);
+    }
+
+    @Test
+    public void reportsAppearedUnitsOnFirstCall() {
+        final UnitChanges unitChanges = game.getUnitChanges();
+        assertEquals(2, unitChanges.size());
+        assertEquals(UnitChanges.APPEARED, unitChanges.getChangedFields(unit1));
+        assertEquals(UnitChanges.APPEARED, unitChanges.getChangedFields(0));
+
+        GameFixture.nextFrame(game);
+        assertEquals(0, unitChanges.size());
+        assertEquals(0, unitChanges.getChangedFields(unit1));
+    }
+
+    @Test
+    public void reportsChangedFields() {
+        final UnitChanges unitChanges = game.getUnitChanges();
+        GameFixture.nextFrame(game);
+
+        final ClientData.UnitData unitData = gameData.getUnits(unit1.getID());
+        unitData.setHitPoints(unitData.getHitPoints() + 1);
+        unitData.setPositionX(unitData.getPositionX() + 1);
+        unitData.setIsIdle(!unitData.isIdle());
+        GameFixture.nextFrame(game);
+        assertEquals(1, unitChanges.size());
+        assertEquals(unit1, unitChanges.getUnit(0));
+        assertEquals(UnitChanges.HIT_POINTS | UnitChanges.POSITION | UnitChanges.STATUS, unitChanges.getChangedFields(unit1));
+        assertTrue(unitChanges.hasChanged(unit1, UnitChanges.POSITION | UnitChanges.ORDER));
+        assertFalse(unitChanges.hasChanged(unit1, UnitChanges.ORDER));
+        assertEquals(Collections.singletonList(unit1), unitChanges.getChangedUnits(UnitChanges.HIT_POINTS));
+        assertEquals(0, unitChanges.getChangedUnits(UnitChanges.SHIELDS).size());
+
+        GameFixture.nextFrame(game);
+        assertEquals(0, unitChanges.size());
+    }
+
+    @Test
+    public void reportsDisappearedAndReappearedUnits() {
+        final UnitChanges unitChanges = game.getUnitChanges();
+        game.unitHide(unit2.getID());
+        GameFixture.nextFrame(game);
+        assertEquals(1, unitChanges.size());
+        assertEquals(UnitChanges.DISAPPEARED, unitChanges.getChangedFields(unit2));
+
+        GameFixture.nextFrame(game);
+        assertEquals(0, unitChanges.size());
+
+        game.unitShow(unit2.getID());
+        GameFixture.nextFrame(game);
+        assertEquals(UnitChanges.APPEARED, unitChanges.getChangedFields(unit2));
+    }
+}
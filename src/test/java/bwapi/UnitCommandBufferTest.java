@@ -0,0 +1,106 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UnitCommandBufferTest {
+    private Game game;
+    private ClientData.GameData gameData;
+    private List<Unit> scvs;
+    private final Position a = new Position(100, 100);
+    private final Position b = new Position(200, 200);
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        gameData = game.getClient().gameData();
+        gameData.setUnitCommandCount(0);
+        scvs = game.getAllUnits().stream()
+                .filter(u -> u.getType() == UnitType.Terran_SCV && game.self().equals(u.getPlayer()))
+                .collect(Collectors.toList());
+        game.setCommandBuffering(true);
+    }
+
+    private void assertWritten(final int index, final UnitCommandType type, final Unit unit, final Position position) {
+        final ClientData.UnitCommand command = gameData.getUnitCommands(index);
+        assertEquals(type.id, command.getTid());
+        assertEquals(unit.getID(), command.getUnitIndex());
+        assertEquals(position.x, command.getX());
+        assertEquals(position.y, command.getY());
+    }
+
+    @Test
+    public void laterOrdersReplaceEarlierOnes() {
+        final Unit scv = scvs.get(0);
+        assertTrue(scv.move(a));
+        assertTrue(scv.move(b));
+        assertEquals(0, gameData.getUnitCommandCount());
+
+        game.flushUnitCommands();
+        assertEquals(1, gameData.getUnitCommandCount());
+        assertWritten(0, UnitCommandType.Move, scv, b);
+    }
+
+    @Test
+    public void queuedOrdersAreKept() {
+        final Unit scv = scvs.get(0);
+        scv.move(a);
+        scv.move(b, true);
+        game.flushUnitCommands();
+
+        assertEquals(2, gameData.getUnitCommandCount());
+        assertWritten(0, UnitCommandType.Move, scv, a);
+        assertWritten(1, UnitCommandType.Move, scv, b);
+    }
+
+    @Test
+    public void identicalCommandsAreWrittenTogether() {
+        scvs.get(0).move(a);
+        scvs.get(1).move(b);
+        scvs.get(2).move(a);
+        scvs.get(3).move(b);
+        game.flushUnitCommands();
+
+        assertEquals(4, gameData.getUnitCommandCount());
+        assertWritten(0, UnitCommandType.Move, scvs.get(0), a);
+        assertWritten(1, UnitCommandType.Move, scvs.get(2), a);
+        assertWritten(2, UnitCommandType.Move, scvs.get(1), b);
+        assertWritten(3, UnitCommandType.Move, scvs.get(3), b);
+    }
+
+    @Test
+    public void repeatedCommandIsNotSent() {
+        final Unit scv = scvs.get(0);
+        scv.move(a);
+        game.flushUnitCommands();
+        assertEquals(1, gameData.getUnitCommandCount());
+
+        final ClientData.UnitData unitData = gameData.getUnits(scv.getID());
+        unitData.setOrder(Order.Move.id);
+        unitData.setOrderTargetPositionX(a.x);
+        unitData.setOrderTargetPositionY(a.y);
+        assertTrue(scv.move(a));
+        assertTrue(scv.move(b));
+        game.flushUnitCommands();
+
+        assertEquals(2, gameData.getUnitCommandCount());
+        assertWritten(1, UnitCommandType.Move, scv, b);
+    }
+
+    @Test
+    public void disablingWritesPendingCommands() {
+        scvs.get(0).stop();
+        game.setCommandBuffering(false);
+        assertEquals(1, gameData.getUnitCommandCount());
+
+        scvs.get(1).stop();
+        assertEquals(2, gameData.getUnitCommandCount());
+    }
+}
@@ -0,0 +1,133 @@
+package bwapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UnitMemoryTest {
+    private Game game;
+    private ClientData.GameData gameData;
+    private UnitMemory unitMemory;
+    private Unit zealot;
+    private ClientData.UnitData zealotData;
+
+    @Before
+    public void setup() throws IOException {
+        game = GameFixture.initGame("(4)Fighting Spirit.scx");
+        gameData = game.getClient().gameData();
+        unitMemory = game.getUnitMemory();
+
+        // Turn a static neutral unit into an enemy zealot, in a tile which is not visible
+        zealot = game.getStaticNeutralUnits().get(0);
+        zealotData = GameFixture.placeUnit(game, zealot, UnitType.Protoss_Zealot, game.enemy(), 1000, 1200);
+        zealotData.setHitPoints(80);
+        zealotData.setShields(30);
+        gameData.setIsVisible(1000 / 32, 1200 / 32, false);
+        game.unitShow(zealot.getID());
+    }
+
+    private void moveZealot(final int x, final int y) {
+        zealotData.setPositionX(x);
+        zealotData.setPositionY(y);
+    }
+
+    private void hideZealot() {
+        game.unitHide(zealot.getID());
+        zealotData.setExists(false);
+        zealotData.setType(UnitType.Unknown.id);
+        zealotData.setPositionX(Position.Unknown.x);
+        zealotData.setPositionY(Position.Unknown.y);
+        GameFixture.nextFrame(game);
+    }
+
+    @Test
+    public void remembersHiddenEnemyUnits() {
+        GameFixture.nextFrame(game);
+        final int seenFrame = game.getFrameCount();
+        assertTrue(unitMemory.isKnown(zealot));
+        assertFalse(unitMemory.isRemembered(zealot));
+
+        hideZealot();
+        assertTrue(unitMemory.isRemembered(zealot));
+        assertEquals(UnitType.Protoss_Zealot, unitMemory.getType(zealot));
+        assertEquals(game.enemy(), unitMemory.getPlayer(zealot));
+        assertEquals(new Position(1000, 1200), unitMemory.getPosition(zealot));
+        assertEquals(80, unitMemory.getHitPoints(zealot));
+        assertEquals(30, unitMemory.getShields(zealot));
+        assertEquals(seenFrame, unitMemory.getLastSeenFrame(zealot));
+        assertEquals(1, unitMemory.getRememberedUnits().size());
+
+        assertEquals(1, unitMemory.getUnitsInRadius(1100, 1200, 100).size());
+        assertEquals(0, unitMemory.getUnitsInRadius(1100, 1200, 99).size());
+        assertEquals(1, unitMemory.countUnitsInRadius(1000, 1300, 100, UnitType.Protoss_Zealot));
+        assertEquals(0, unitMemory.countUnitsInRadius(1000, 1300, 100, UnitType.Protoss_Dragoon));
+        assertEquals(1, unitMemory.countUnitsInRadius(1000, 1300, 100, UnitType.AllUnits));
+    }
+
+    @Test
+    public void followsVisibleUnitsAcrossCells() {
+        GameFixture.nextFrame(game);
+        moveZealot(2000, 500);
+        GameFixture.nextFrame(game);
+        assertEquals(0, unitMemory.getUnitsInRadius(1000, 1200, 100).size());
+        assertEquals(zealot, unitMemory.getUnitsInRadius(2000, 500, 10).get(0));
+        assertEquals(0, unitMemory.getRememberedUnits().size());
+    }
+
+    @Test
+    public void forgetsDestroyedUnits() {
+        GameFixture.nextFrame(game);
+        game.unitDestroy(zealot.getID());
+        assertFalse(unitMemory.isKnown(zealot));
+        assertEquals(UnitType.Unknown, unitMemory.getType(zealot));
+        assertEquals(0, unitMemory.getUnitsInRadius(1000, 1200, 100).size());
+    }
+
+    @Test
+    public void forgetsUnitsWhenTheirPositionIsVisible() {
+        GameFixture.nextFrame(game);
+        hideZealot();
+        assertTrue(unitMemory.isRemembered(zealot));
+
+        gameData.setIsVisible(1000 / 32, 1200 / 32, true);
+        GameFixture.nextFrame(game);
+        assertFalse(unitMemory.isKnown(zealot));
+    }
+
+    @Test
+    public void remembersBurrowedAndCloakedUnitsWhenTheirPositionIsVisible() {
+        zealotData.setIsDetected(true);
+        GameFixture.nextFrame(game);
+        assertFalse(unitMemory.isBurrowed(zealot));
+        assertTrue(unitMemory.isDetected(zealot));
+
+        // Burrowed, as a lurker, then hidden while its tile is visible
+        zealotData.setType(UnitType.Zerg_Lurker.id);
+        zealotData.setIsBurrowed(true);
+        GameFixture.nextFrame(game);
+        hideZealot();
+        gameData.setIsVisible(1000 / 32, 1200 / 32, true);
+        GameFixture.nextFrame(game);
+        assertTrue(unitMemory.isRemembered(zealot));
+        assertTrue(unitMemory.isBurrowed(zealot));
+        assertEquals(UnitType.Zerg_Lurker, unitMemory.getType(zealot));
+
+        // Seen again as a dark templar, which is always cloaked
+        zealotData.setType(UnitType.Protoss_Dark_Templar.id);
+        zealotData.setIsBurrowed(false);
+        zealotData.setExists(true);
+        moveZealot(1000, 1200);
+        game.unitShow(zealot.getID());
+        GameFixture.nextFrame(game);
+        hideZealot();
+        GameFixture.nextFrame(game);
+        assertTrue(unitMemory.isRemembered(zealot));
+        assertFalse(unitMemory.isBurrowed(zealot));
+        assertTrue(unitMemory.isCloaked(zealot));
+    }
+}
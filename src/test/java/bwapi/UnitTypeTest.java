@@ -3,10 +3,52 @@ package bwapi;
 import org.junit.Test;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
 
 public class UnitTypeTest {
     @Test
     public void ensureSimpleGettersReturnNonNullAndDontFail() throws InvocationTargetException, IllegalAccessException {
         TypeTester.ensureSimpleGettersReturnNonNullAndDontFail(WeaponType.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whatBuildsAccessorsMatchWhatBuilds() {
+        assertWhatBuilds(UnitType.Terran_SCV, UnitType.Terran_Command_Center, 1);
+        assertWhatBuilds(UnitType.Protoss_Archon, UnitType.Protoss_High_Templar, 2);
+        assertWhatBuilds(UnitType.Zerg_Lurker, UnitType.Zerg_Hydralisk, 1);
+        assertWhatBuilds(UnitType.Protoss_Dark_Archon, UnitType.Protoss_Dark_Templar, 2);
+        assertWhatBuilds(UnitType.None, UnitType.None, 0);
+    }
+
+    private static void assertWhatBuilds(final UnitType type, final UnitType builder, final int count) {
+        assertEquals(builder, type.whatBuildsType());
+        assertEquals(count, type.whatBuildsCount());
+        assertEquals(new Pair<>(builder, count), type.whatBuilds());
+    }
+
+    @Test
+    public void requiredUnitAccessorsMatchRequiredUnits() {
+        for (final UnitType type : UnitType.values()) {
+            final Map<UnitType, Integer> requirements = new LinkedHashMap<>();
+            for (int i = 0; i < type.requiredUnitTypeCount(); i++) {
+                requirements.put(type.requiredUnitType(i), type.requiredUnitAmount(i));
+            }
+            assertEquals(type.requiredUnits(), requirements);
+        }
+    }
+
+    @Test
+    public void abilityAndUpgradeMasksMatchLists() {
+        for (final UnitType type : UnitType.values()) {
+            for (final TechType tech : TechType.values()) {
+                assertEquals(type + " " + tech, type.abilities().contains(tech), type.hasAbility(tech));
+            }
+            for (final UpgradeType upgrade : UpgradeType.values()) {
+                assertEquals(type + " " + upgrade, type.upgrades().contains(upgrade), type.hasUpgrade(upgrade));
+            }
+        }
+    }
+}
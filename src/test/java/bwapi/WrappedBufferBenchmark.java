@@ -0,0 +1,110 @@
+package bwapi;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the backends of {@link WrappedBuffer} on the access patterns of {@link ClientData}.
+ */
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class WrappedBufferBenchmark {
+    private static final int UNITS = 1000;
+    private static final int UNITS_OFFSET = 69656;
+    private static final int MAP_OFFSET = 4823260;
+
+    @State(Scope.Thread)
+    public static class BufferState {
+        @Param({"unsafe", "varhandle", "bytebuffer"})
+        String backend;
+        WrappedBuffer buffer;
+        int[] ints = new int[ClientData.UnitData.SIZE / 4];
+
+        @Setup(Level.Trial)
+        public void setup() {
+            final ByteBuffer data = ByteBuffer.allocateDirect(ClientData.GameData.SIZE);
+            buffer = WrappedBuffer.wrap(data, backend);
+            if (!buffer.getClass().getSimpleName().toLowerCase().startsWith(backend)) {
+                throw new IllegalStateException("The " + backend + " backend is not available");
+            }
+            final SplittableRandom rnd = new SplittableRandom(987654321L);
+            for (int i = 0; i < UNITS * ClientData.UnitData.SIZE; i += 4) {
+                buffer.putInt(UNITS_OFFSET + i, rnd.nextInt(0, 4096));
+            }
+            for (int i = 0; i < 256 * 256; ++i) {
+                buffer.putByte(MAP_OFFSET + i, (byte) rnd.nextInt(0, 2));
+            }
+            buffer.putString(0, 1024, "(4)Fighting Spirit.scx");
+        }
+    }
+
+    // The fields read to filter units by position, type and owner
+    @Benchmark
+    @OperationsPerInvocation(UNITS)
+    public int readUnitFields(BufferState s) {
+        int total = 0;
+        for (int i = 0; i < UNITS; ++i) {
+            final int unit = UNITS_OFFSET + i * ClientData.UnitData.SIZE;
+            total += s.buffer.getInt(unit + 12) + s.buffer.getInt(unit + 16) + s.buffer.getInt(unit + 60)
+                    + s.buffer.getInt(unit + 4) + s.buffer.getInt(unit + 40) + (s.buffer.getByte(unit + 200) & 1);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UNITS)
+    public int readUnitStructByInts(BufferState s) {
+        int total = 0;
+        for (int i = 0; i < UNITS; ++i) {
+            final int unit = UNITS_OFFSET + i * ClientData.UnitData.SIZE;
+            for (int j = 0; j < s.ints.length; ++j) {
+                total += s.buffer.getInt(unit + j * 4);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UNITS)
+    public int readUnitStructBulk(BufferState s) {
+        int total = 0;
+        for (int i = 0; i < UNITS; ++i) {
+            s.buffer.getInts(UNITS_OFFSET + i * ClientData.UnitData.SIZE, s.ints, 0, s.ints.length);
+            for (int value : s.ints) {
+                total += value;
+            }
+        }
+        return total;
+    }
+
+    // Tile flags, 8 at a time as for the tile bitmaps
+    @Benchmark
+    @OperationsPerInvocation(256 * 256 / 8)
+    public long readTileFlags(BufferState s) {
+        long total = 0;
+        for (int i = 0; i < 256 * 256; i += 8) {
+            total += s.buffer.getLong(MAP_OFFSET + i);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void readString(BufferState s, Blackhole blackhole) {
+        blackhole.consume(s.buffer.getString(0, 1024));
+    }
+
+    @Benchmark
+    public void writeUnitCommand(BufferState s) {
+        final int command = UNITS_OFFSET;
+        s.buffer.putInt(command, 1);
+        s.buffer.putInt(command + 4, 2);
+        s.buffer.putInt(command + 8, 3);
+        s.buffer.putInt(command + 12, 4);
+        s.buffer.putInt(command + 16, 5);
+        s.buffer.putInt(command + 20, 6);
+    }
+}
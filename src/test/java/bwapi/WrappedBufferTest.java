@@ -1,16 +1,29 @@
 package bwapi;
 
 import org.junit.Test;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+@RunWith(Theories.class)
 public class WrappedBufferTest {
-    private WrappedBuffer sut = new WrappedBuffer(ByteBuffer.allocateDirect(1024));
+    @DataPoints
+    public static WrappedBuffer[] backends() {
+        return new WrappedBuffer[]{
+                new WrappedBuffer.UnsafeBackend(ByteBuffer.allocateDirect(1024)),
+                new WrappedBuffer.ByteBufferBackend(ByteBuffer.allocateDirect(1024)),
+                WrappedBuffer.wrap(ByteBuffer.allocateDirect(1024), "varhandle")
+        };
+    }
 
-    @Test
-    public void shouldGetAndSetStrings() {
+    @Theory
+    public void shouldGetAndSetStrings(WrappedBuffer sut) {
         // GIVEN
         String testString = "@µöú";
         sut.putString(123, 100, testString);
@@ -22,8 +35,8 @@ public class WrappedBufferTest {
         assertThat(readString).isEqualTo(testString);
     }
 
-    @Test
-    public void shouldCutOffAtMaxLength() {
+    @Theory
+    public void shouldCutOffAtMaxLength(WrappedBuffer sut) {
         // GIVEN
         String testString = "@µöú";
         sut.putString(123, 100, testString);
@@ -34,4 +47,112 @@ public class WrappedBufferTest {
         // THEN
         assertThat(readString).isEqualTo(testString.substring(0, 3));
     }
-}
\ No newline at end of file
+
+    @Theory
+    public void shouldFindTheEndOfStringsOfAnyLength(WrappedBuffer sut) {
+        for (int length = 0; length < 40; length++) {
+            // GIVEN
+            String testString = new String(new char[length]).replace('\0', 'x');
+            sut.putString(0, 100, testString + "yyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyy");
+            sut.putString(0, 100, testString);
+
+            // WHEN
+            String readString = sut.getString(0, 100);
+
+            // THEN
+            assertThat(readString).isEqualTo(testString);
+        }
+    }
+
+    @Theory
+    public void shouldReuseInternedStrings(WrappedBuffer sut) {
+        // GIVEN
+        sut.putString(0, 100, "Player");
+        sut.putString(200, 100, "Player");
+        sut.putString(400, 100, "Playes");
+
+        // WHEN
+        String first = sut.getInternedString(0, 100);
+        String second = sut.getInternedString(200, 100);
+        String third = sut.getInternedString(400, 100);
+
+        // THEN
+        assertThat(second).isSameAs(first);
+        assertThat(third).isEqualTo("Playes");
+    }
+
+    @Theory
+    public void shouldCopyInts(WrappedBuffer sut) {
+        // GIVEN
+        int[] values = {1, -2, 3, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        sut.putInts(40, values, 1, 3);
+
+        // WHEN
+        int[] read = new int[5];
+        sut.getInts(36, read, 0, 5);
+
+        // THEN
+        assertThat(read).containsExactly(0, -2, 3, Integer.MAX_VALUE, 0);
+        assertThat(sut.getInt(44)).isEqualTo(3);
+    }
+
+    @Theory
+    public void shouldReadScalarsInNativeOrder(WrappedBuffer sut) {
+        // GIVEN
+        sut.putShort(2, (short) -3);
+        sut.putInt(4, 0x12345678);
+        sut.putDouble(8, 1.5);
+
+        // THEN
+        assertThat(sut.getShort(2)).isEqualTo((short) -3);
+        assertThat(sut.getLong(0)).isEqualTo(ByteBuffer.allocate(8).order(ByteOrder.nativeOrder())
+                .putShort(2, (short) -3).putInt(4, 0x12345678).getLong(0));
+        assertThat(sut.getDouble(8)).isEqualTo(1.5);
+    }
+
+    @Test
+    public void shouldFindTheVarHandleBackendOnJava9() {
+        // Compiled into META-INF/versions/9, which the tests have on their class path
+        assertThat(WrappedBuffer.wrap(ByteBuffer.allocate(16), "varhandle").getClass().getSimpleName())
+                .isEqualTo("VarHandleBackend");
+        assertThat(WrappedBuffer.wrap(ByteBuffer.allocate(16), "unsafe").getClass().getSimpleName())
+                .isEqualTo("VarHandleBackend");
+        assertThat(WrappedBuffer.wrap(ByteBuffer.allocate(16), "bytebuffer")).isExactlyInstanceOf(WrappedBuffer.ByteBufferBackend.class);
+    }
+
+    private static String backendOf(final String property, final ByteBuffer buffer) {
+        final String previous = System.getProperty(WrappedBuffer.BACKEND_PROPERTY);
+        if (property == null) {
+            System.clearProperty(WrappedBuffer.BACKEND_PROPERTY);
+        } else {
+            System.setProperty(WrappedBuffer.BACKEND_PROPERTY, property);
+        }
+        try {
+            return WrappedBuffer.wrap(buffer).getClass().getSimpleName();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(WrappedBuffer.BACKEND_PROPERTY);
+            } else {
+                System.setProperty(WrappedBuffer.BACKEND_PROPERTY, previous);
+            }
+        }
+    }
+
+    @Test
+    public void shouldChooseTheBackendFromTheProperty() {
+        final ByteBuffer direct = ByteBuffer.allocateDirect(16);
+        final ByteBuffer heap = ByteBuffer.allocate(16);
+
+        // Unsafe by default, for the direct buffer of the client
+        assertThat(backendOf(null, direct)).isEqualTo("UnsafeBackend");
+        assertThat(backendOf("unsafe", direct)).isEqualTo("UnsafeBackend");
+        assertThat(backendOf("varhandle", direct)).isEqualTo("VarHandleBackend");
+        assertThat(backendOf("bytebuffer", direct)).isEqualTo("ByteBufferBackend");
+
+        // Unsafe only reads direct buffers
+        assertThat(backendOf(null, heap)).isEqualTo("VarHandleBackend");
+        assertThat(backendOf("unsafe", heap)).isEqualTo("VarHandleBackend");
+        assertThat(backendOf("varhandle", heap)).isEqualTo("VarHandleBackend");
+        assertThat(backendOf("bytebuffer", heap)).isEqualTo("ByteBufferBackend");
+    }
+}
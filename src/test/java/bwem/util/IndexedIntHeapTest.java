@@ -0,0 +1,56 @@
+package bwem.util;
+
+import bwapi.Pair;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class IndexedIntHeapTest {
+
+    @Test
+    public void pollsInSameOrderAsPriorityQueue() {
+        final SplittableRandom rnd = new SplittableRandom(1234L);
+        final int capacity = 500;
+        final IndexedIntHeap heap = new IndexedIntHeap(capacity);
+        final PriorityQueue<Pair<Integer, Integer>> reference = new PriorityQueue<>(Comparator.comparingInt(Pair::getLeft));
+
+        for (int round = 0; round < 20_000; round++) {
+            final int element = rnd.nextInt(capacity);
+            final int priority = rnd.nextInt(50); // lots of ties
+            if (heap.contains(element)) {
+                final int old = heap.getPriority(element);
+                assertTrue(reference.remove(new Pair<>(old, element)));
+                reference.offer(new Pair<>(priority, element));
+                heap.update(element, priority);
+            } else if (rnd.nextInt(3) == 0 && !heap.isEmpty()) {
+                final Pair<Integer, Integer> expected = reference.poll();
+                assertEquals((int) expected.getLeft(), heap.getPriority(heap.peek()));
+                assertEquals((int) expected.getRight(), heap.poll());
+            } else {
+                reference.offer(new Pair<>(priority, element));
+                heap.offer(element, priority);
+            }
+            assertEquals(reference.size(), heap.size());
+        }
+        while (!heap.isEmpty()) {
+            assertEquals((int) reference.poll().getRight(), heap.poll());
+        }
+        assertTrue(reference.isEmpty());
+    }
+
+    @Test
+    public void clearAllowsReuse() {
+        final IndexedIntHeap heap = new IndexedIntHeap(4);
+        heap.offer(3, 7);
+        heap.offer(1, 2);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(3));
+        heap.offer(3, 1);
+        assertEquals(3, heap.poll());
+    }
+}
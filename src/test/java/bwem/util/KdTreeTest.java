@@ -0,0 +1,61 @@
+package bwem.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class KdTreeTest {
+
+    private static long squaredDistance(int[] p, int x, int y) {
+        long dx = p[0] - x;
+        long dy = p[1] - y;
+        return dx * dx + dy * dy;
+    }
+
+    @Test
+    public void queriesMatchBruteForce() {
+        final SplittableRandom rnd = new SplittableRandom(42L);
+        final List<int[]> points = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            points.add(new int[]{rnd.nextInt(4096), rnd.nextInt(4096)});
+        }
+        final KdTree<int[]> tree = new KdTree<>(points, p -> p[0], p -> p[1]);
+        assertEquals(points.size(), tree.size());
+
+        for (int i = 0; i < 1000; i++) {
+            final int x = rnd.nextInt(-100, 4200);
+            final int y = rnd.nextInt(-100, 4200);
+            final List<Long> expected = points.stream()
+                    .map(p -> squaredDistance(p, x, y))
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            assertEquals((long) expected.get(0), squaredDistance(tree.nearest(x, y), x, y));
+
+            final List<int[]> nearest = tree.nearest(x, y, 7);
+            assertEquals(7, nearest.size());
+            for (int k = 0; k < nearest.size(); k++) {
+                assertEquals((long) expected.get(k), squaredDistance(nearest.get(k), x, y));
+            }
+
+            final int radius = rnd.nextInt(600);
+            final List<int[]> inRadius = tree.withinRadius(x, y, radius);
+            assertEquals(expected.stream().filter(d -> d <= (long) radius * radius).count(), inRadius.size());
+            assertEquals(inRadius.size(), new HashSet<>(inRadius).size());
+        }
+    }
+
+    @Test
+    public void emptyTree() {
+        final KdTree<int[]> tree = new KdTree<>(new ArrayList<>(), p -> p[0], p -> p[1]);
+        assertNull(tree.nearest(1, 2));
+        assertTrue(tree.nearest(1, 2, 3).isEmpty());
+        assertTrue(tree.withinRadius(1, 2, 100).isEmpty());
+    }
+}